@@ -3,6 +3,8 @@ package com.mastercard.test.flow;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import com.mastercard.test.flow.util.TagDictionary;
+
 /**
  * Atomic unit of system modelling. A request/response pair between two parts of
  * the system
@@ -61,4 +63,17 @@ public interface Interaction {
 	 * @return tag values
 	 */
 	Set<String> tags();
+
+	/**
+	 * Implementations with immutable {@link #tags()} should override this to hold
+	 * on to the encoded value, as it will be called repeatedly when
+	 * {@link Interaction}s are filtered.
+	 *
+	 * @return The bitset encoding of {@link #tags()} in the
+	 *         {@link TagDictionary#shared() shared tag dictionary}. Do not modify
+	 *         this array!
+	 */
+	default long[] tagBits() {
+		return TagDictionary.shared().encode( tags() );
+	}
 }
@@ -2,6 +2,8 @@ package com.mastercard.test.flow;
 
 import java.util.Set;
 
+import com.mastercard.test.flow.util.TagDictionary;
+
 /**
  * Data attached to {@link Flow}s for human consumption
  */
@@ -39,6 +41,19 @@ public interface Metadata {
 	 */
 	Set<String> tags();
 
+	/**
+	 * Implementations with immutable {@link #tags()} should override this to hold
+	 * on to the encoded value, as it will be called repeatedly when {@link Flow}s
+	 * are filtered.
+	 *
+	 * @return The bitset encoding of {@link #tags()} in the
+	 *         {@link TagDictionary#shared() shared tag dictionary}. Do not modify
+	 *         this array!
+	 */
+	default long[] tagBits() {
+		return TagDictionary.shared().encode( tags() );
+	}
+
 	/**
 	 * Defines a human-readable description for why the flow exists.
 	 *
@@ -0,0 +1,171 @@
+package com.mastercard.test.flow.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Utilities for noticing when the code of a model has changed, so that data
+ * derived from that model can be discarded
+ */
+public class Classpath {
+
+	private Classpath() {
+		// no instances
+	}
+
+	/**
+	 * Computes a checksum of a set of types and the classpath that they were loaded
+	 * from. The checksum covers the content of every classpath directory (i.e.: the
+	 * classes that you are working on) and the name, size and modification time of
+	 * every classpath archive, so a change to any class that the types use will
+	 * change the checksum.
+	 *
+	 * @param types The types
+	 * @return The checksum
+	 */
+	public static String checksum( Collection<? extends Class<?>> types ) {
+		Deque<Path> entries = Stream.of(
+				System.getProperty( "java.class.path", "" ).split( File.pathSeparator ) )
+				.filter( e -> !e.isEmpty() )
+				.map( Paths::get )
+				.collect( Collectors.toCollection( ArrayDeque::new ) );
+		// the types might have been loaded from elsewhere
+		types.stream()
+				.map( Classpath::location )
+				.filter( Objects::nonNull )
+				.forEach( entries::add );
+
+		Set<Path> seen = new HashSet<>();
+		Set<Path> classpath = new TreeSet<>();
+		while( !entries.isEmpty() ) {
+			Path entry = entries.poll().toAbsolutePath().normalize();
+			if( seen.add( entry ) ) {
+				List<Path> manifest = pathingJar( entry );
+				if( manifest == null ) {
+					classpath.add( entry );
+				}
+				else {
+					entries.addAll( manifest );
+				}
+			}
+		}
+		return checksum( types, classpath );
+	}
+
+	/**
+	 * Test runners (e.g.: surefire) can pass the classpath via the manifest of an
+	 * otherwise-empty jar file, which is regenerated for every run
+	 *
+	 * @param entry A classpath entry
+	 * @return The classpath in the entry's manifest, or <code>null</code> if the
+	 *         entry is not a jar that only serves to carry a classpath
+	 */
+	static List<Path> pathingJar( Path entry ) {
+		if( !Files.isRegularFile( entry ) ) {
+			return null;
+		}
+		try( JarFile jar = new JarFile( entry.toFile() ) ) {
+			Manifest manifest = jar.getManifest();
+			String classpath = manifest == null ? null
+					: manifest.getMainAttributes().getValue( Attributes.Name.CLASS_PATH );
+			if( classpath == null
+					|| jar.stream().anyMatch( e -> e.getName().endsWith( ".class" ) ) ) {
+				return null;
+			}
+			return Stream.of( classpath.trim().split( "\\s+" ) )
+					.map( entry.toUri()::resolve )
+					.filter( uri -> "file".equals( uri.getScheme() ) )
+					.map( Paths::get )
+					.collect( Collectors.toList() );
+		}
+		catch( @SuppressWarnings("unused") IOException ioe ) {
+			// not a jar
+			return null;
+		}
+	}
+
+	/**
+	 * Computes a checksum of a set of types and a classpath
+	 *
+	 * @param types     The types
+	 * @param classpath Classpath directories and archives
+	 * @return The checksum
+	 */
+	static String checksum( Collection<? extends Class<?>> types, Collection<Path> classpath ) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance( "SHA-256" );
+			types.stream()
+					.map( Class::getName )
+					.sorted()
+					.forEach( name -> update( digest, name ) );
+			for( Path entry : new TreeSet<>( classpath ) ) {
+				Path abs = entry.toAbsolutePath().normalize();
+				update( digest, abs.toString() );
+				if( Files.isDirectory( abs ) ) {
+					// this is where classes under development will live, so we need to look at
+					// the content
+					List<Path> files;
+					try( Stream<Path> walk = Files.walk( abs ) ) {
+						files = walk.filter( Files::isRegularFile )
+								.sorted()
+								.collect( Collectors.toList() );
+					}
+					for( Path file : files ) {
+						update( digest, abs.relativize( file ).toString() );
+						digest.update( Files.readAllBytes( file ) );
+					}
+				}
+				else if( Files.isRegularFile( abs ) ) {
+					// archives are typically released artifacts, so it's enough to notice when
+					// they've been swapped
+					update( digest, Files.size( abs ) + "@" + Files.getLastModifiedTime( abs ) );
+				}
+			}
+			return Bytes.toHex( digest.digest() );
+		}
+		catch( NoSuchAlgorithmException | IOException e ) {
+			throw new IllegalStateException( "Failed to compute classpath checksum", e );
+		}
+	}
+
+	private static void update( MessageDigest digest, String value ) {
+		digest.update( value.getBytes( UTF_8 ) );
+		digest.update( (byte) 0 );
+	}
+
+	/**
+	 * @param type A type
+	 * @return The filesystem location that the type was loaded from, or
+	 *         <code>null</code> if that cannot be determined
+	 */
+	static Path location( Class<?> type ) {
+		return Optional.ofNullable( type.getProtectionDomain().getCodeSource() )
+				.map( CodeSource::getLocation )
+				.filter( url -> "file".equals( url.getProtocol() ) )
+				.map( url -> Paths.get( URI.create( url.toExternalForm() ) ) )
+				.orElse( null );
+	}
+}
@@ -3,12 +3,15 @@ package com.mastercard.test.flow.util;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import com.mastercard.test.flow.Dependency;
@@ -22,9 +25,11 @@ import com.mastercard.test.flow.Message;
 public class Dependencies {
 
 	/**
-	 * A map from {@link Flow}s to the dependencies that flow from them
+	 * An index from source {@link Flow}, {@link Interaction} and {@link Message} to
+	 * the dependencies that flow from that message
 	 */
-	private final Map<Flow, List<Dependency>> publishers = new HashMap<>();
+	private final Map<Flow,
+			Map<Interaction, Map<Message, List<Dependency>>>> publishers = new LinkedHashMap<>();
 
 	/**
 	 * @param flows The flows that are to be processed
@@ -33,7 +38,9 @@ public class Dependencies {
 		flows.flatMap( Flow::dependencies )
 				.filter( d -> d.source().isComplete() && d.sink().isComplete() )
 				.forEach( dep -> publishers
-						.computeIfAbsent( dep.source().flow(), f -> new ArrayList<>() )
+						.computeIfAbsent( dep.source().flow(), f -> new LinkedHashMap<>() )
+						.computeIfAbsent( dep.source().getInteraction().get(), i -> new LinkedHashMap<>() )
+						.computeIfAbsent( dep.source().getMessage().get(), m -> new ArrayList<>() )
 						.add( dep ) );
 	}
 
@@ -47,37 +54,80 @@ public class Dependencies {
 	 * @return The bytes, parsed as the expected message type
 	 */
 	public Message publish( Flow flow, Interaction ntr, Message msg, byte[] bytes ) {
-		List<Dependency> dependencies = publishers.getOrDefault( flow, emptyList() )
-				.stream()
-				.filter( dep -> dep.source().getInteraction().filter( ntr::equals ).isPresent() )
-				.filter( dep -> dep.source().getMessage().filter( msg::equals ).isPresent() )
-				.collect( Collectors.toList() );
+		Message actual = parse( ntr, msg, bytes );
 		try {
-			Message actual = msg.peer( bytes );
+			publish( flow, ntr, msg, actual );
+			return actual;
+		}
+		catch( Exception e ) {
+			throw parseFailure( ntr, msg, bytes, e );
+		}
+	}
 
-			for( Dependency dependency : dependencies ) {
-				Object value = actual.get( dependency.source().field() );
-				Object mutated = dependency.mutation().apply( value );
-				dependency.sink().getMessage()
-						.ifPresent( m -> m.set( dependency.sink().field(), mutated ) );
-			}
+	/**
+	 * Called when an interaction has been processed against the system under test
+	 * and the actual content has already been
+	 * {@link #parse(Interaction, Message, byte[]) parsed}
+	 *
+	 * @param flow   The {@link Flow} that contains the {@link Interaction}
+	 * @param ntr    The {@link Interaction} that has been processed
+	 * @param msg    The {@link Message} for which we have actual content
+	 * @param actual The actual content as observed in the system
+	 * @return The dependent {@link Message}s that were updated
+	 */
+	public Set<Message> publish( Flow flow, Interaction ntr, Message msg, Message actual ) {
+		List<Dependency> dependencies = publishers.getOrDefault( flow, emptyMap() )
+				.getOrDefault( ntr, emptyMap() )
+				.getOrDefault( msg, emptyList() );
 
-			return actual;
+		Set<Message> updated = Collections.newSetFromMap( new IdentityHashMap<>() );
+		for( Dependency dependency : dependencies ) {
+			Object value = actual.get( dependency.source().field() );
+			Object mutated = dependency.mutation().apply( value );
+			dependency.sink().getMessage()
+					.ifPresent( m -> {
+						// flows with a common dependent can be processed concurrently
+						synchronized( m ) {
+							m.set( dependency.sink().field(), mutated );
+						}
+						updated.add( m );
+					} );
+		}
+		return updated;
+	}
+
+	/**
+	 * Parses actual message content. This does not publish anything, so it can be
+	 * done as soon as the content is available.
+	 *
+	 * @param ntr   The {@link Interaction} that has been processed
+	 * @param msg   The {@link Message} for which we have actual content
+	 * @param bytes The actual content as observed in the system
+	 * @return The bytes, parsed as the expected message type
+	 */
+	public static Message parse( Interaction ntr, Message msg, byte[] bytes ) {
+		try {
+			return msg.peer( bytes );
 		}
 		catch( Exception e ) {
-			// we've harvested bad data from the system, let's give as much information as
-			// possible in the exception
-			throw new IllegalArgumentException(
-					String.format( "Failed to parse %s->%s %s %s from"
-							+ "\nUTF8:[%s]"
-							+ "\n hex:[%s]",
-							ntr.requester().name(), ntr.responder().name(), ntr.tags(),
-							msg.getClass().getSimpleName(),
-							new String( bytes, UTF_8 ), Bytes.toHex( bytes ) ),
-					e );
+			throw parseFailure( ntr, msg, bytes, e );
 		}
 	}
 
+	private static IllegalArgumentException parseFailure( Interaction ntr, Message msg,
+			byte[] bytes, Exception cause ) {
+		// we've harvested bad data from the system, let's give as much information as
+		// possible in the exception
+		return new IllegalArgumentException(
+				String.format( "Failed to parse %s->%s %s %s from"
+						+ "\nUTF8:[%s]"
+						+ "\n hex:[%s]",
+						ntr.requester().name(), ntr.responder().name(), ntr.tags(),
+						msg.getClass().getSimpleName(),
+						new String( bytes, UTF_8 ), Bytes.toHex( bytes ) ),
+				cause );
+	}
+
 	/**
 	 * Processes the dependencies using the static data already in the system model
 	 *
@@ -85,11 +135,9 @@ public class Dependencies {
 	 */
 	public static void propagateStaticData( Stream<Flow> flows ) {
 		Dependencies deps = new Dependencies( flows );
-		deps.publishers.values().stream().flatMap( List::stream )
-				.forEach( dep -> deps.publish(
-						dep.source().flow(),
-						dep.source().getInteraction().get(),
-						dep.source().getMessage().get(),
-						dep.source().getMessage().get().content() ) );
+		// each source message is parsed once, no matter how many dependencies it has
+		deps.publishers.forEach( ( flow, interactions ) -> interactions
+				.forEach( ( ntr, messages ) -> messages.keySet()
+						.forEach( msg -> deps.publish( flow, ntr, msg, msg.content() ) ) ) );
 	}
 }
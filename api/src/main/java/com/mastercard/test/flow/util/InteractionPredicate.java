@@ -30,6 +30,7 @@ public class InteractionPredicate implements Predicate<Interaction> {
 	private final Set<Actor> rx;
 	private final Set<String> include;
 	private final Set<String> exclude;
+	private final TagFilter tags;
 
 	/**
 	 * Constructs an empty {@link Predicate} that will match every
@@ -45,6 +46,9 @@ public class InteractionPredicate implements Predicate<Interaction> {
 		this.rx = rx;
 		this.include = include;
 		this.exclude = exclude;
+		tags = include.isEmpty() && exclude.isEmpty()
+				? null
+				: Tags.filter( include, exclude );
 	}
 
 	/**
@@ -110,11 +114,8 @@ public class InteractionPredicate implements Predicate<Interaction> {
 		if( !rx.isEmpty() ) {
 			match &= rx.contains( t.responder() );
 		}
-		if( !include.isEmpty() ) {
-			match &= include.stream().allMatch( t.tags()::contains );
-		}
-		if( !exclude.isEmpty() ) {
-			match &= exclude.stream().noneMatch( t.tags()::contains );
+		if( tags != null ) {
+			match &= tags.test( t.tagBits() );
 		}
 		return match;
 	}
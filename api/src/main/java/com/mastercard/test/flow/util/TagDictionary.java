@@ -0,0 +1,259 @@
+package com.mastercard.test.flow.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns a compact integer identifier to each tag value, so that sets of tags
+ * can be held as bitsets and compared with word-wise operations rather than
+ * string set containment.
+ * <p>
+ * Bitsets are held by the objects that own the tag sets (e.g.:
+ * {@link TaggedGroup}, {@link com.mastercard.test.flow.Metadata#tagBits()}),
+ * not by the dictionary. Identifiers are only assigned to the tags of those
+ * objects: compiling a {@link TagFilter} does not add to the dictionary.
+ * </p>
+ */
+public class TagDictionary {
+
+	private static final TagDictionary SHARED = new TagDictionary();
+
+	/**
+	 * Maps from tag value to identifier
+	 */
+	private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+	/**
+	 * Maps from identifier to tag value
+	 */
+	private volatile String[] tags = new String[64];
+
+	/**
+	 * The number of identifiers assigned
+	 */
+	private volatile int count = 0;
+
+	/**
+	 * Maps from prefix to the bitset of tags that start with that prefix
+	 */
+	private final Map<String, PrefixMask> prefixes = new ConcurrentHashMap<>();
+
+	/**
+	 * Accessor for the dictionary that is shared across the whole model
+	 *
+	 * @return The shared dictionary
+	 */
+	public static TagDictionary shared() {
+		return SHARED;
+	}
+
+	/**
+	 * Finds the identifier of a tag, assigning a new one if we've not seen the tag
+	 * before
+	 *
+	 * @param tag A tag value
+	 * @return The identifier for that tag
+	 */
+	public int id( String tag ) {
+		Integer id = ids.get( tag );
+		if( id != null ) {
+			return id;
+		}
+		synchronized( ids ) {
+			id = ids.get( tag );
+			if( id == null ) {
+				id = count++;
+				String[] t = tags;
+				if( id == t.length ) {
+					t = Arrays.copyOf( t, id * 2 );
+				}
+				t[id] = tag;
+				tags = t;
+				ids.put( tag, id );
+			}
+			return id;
+		}
+	}
+
+	/**
+	 * @return The number of identifiers that have been assigned
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Finds the tag for an identifier
+	 *
+	 * @param id A tag identifier
+	 * @return The tag value, or <code>null</code> if no such tag has been assigned
+	 */
+	public String tag( int id ) {
+		String[] t = tags;
+		return 0 <= id && id < t.length ? t[id] : null;
+	}
+
+	/**
+	 * Encodes a collection of tags as a bitset, assigning identifiers to tags that
+	 * we have not seen before
+	 *
+	 * @param values A collection of tag values
+	 * @return A new bitset of the identifiers of those tags
+	 */
+	public long[] encode( Collection<String> values ) {
+		long[] b = new long[0];
+		for( String value : values ) {
+			b = set( b, id( value ) );
+		}
+		return b;
+	}
+
+	/**
+	 * Encodes a collection of tags as a bitset, ignoring tags that we have not seen
+	 * before
+	 *
+	 * @param values A collection of tag values
+	 * @return A new bitset of the identifiers of the known tags
+	 */
+	public long[] lookup( Collection<String> values ) {
+		long[] b = new long[0];
+		for( String value : values ) {
+			Integer id = ids.get( value );
+			if( id != null ) {
+				b = set( b, id );
+			}
+		}
+		return b;
+	}
+
+	private static long[] set( long[] bits, int id ) {
+		long[] b = bits;
+		int word = id >>> 6;
+		if( word >= b.length ) {
+			b = Arrays.copyOf( b, word + 1 );
+		}
+		b[word] |= 1L << id;
+		return b;
+	}
+
+	/**
+	 * Decodes a bitset into tag values
+	 *
+	 * @param bits A bitset, as produced by {@link #encode(Collection)}
+	 * @return The set of tag values
+	 */
+	public Set<String> decode( long[] bits ) {
+		Set<String> set = new TreeSet<>();
+		for( int word = 0; word < bits.length; word++ ) {
+			long w = bits[word];
+			while( w != 0 ) {
+				set.add( tag( (word << 6) + Long.numberOfTrailingZeros( w ) ) );
+				w &= w - 1;
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Extracts a portion of the first matching tag in a set
+	 *
+	 * @param bits   A bitset of tags
+	 * @param prefix A prefix
+	 * @return The remainder of the lexicographically-first tag in the set that
+	 *         starts with the prefix, or <code>null</code> if there is no such tag
+	 * @see Tags#suffix(Set, String)
+	 */
+	public String suffix( long[] bits, String prefix ) {
+		PrefixMask mask = prefixes.get( prefix );
+		if( mask == null || mask.covered != count ) {
+			mask = new PrefixMask( prefix );
+			prefixes.put( prefix, mask );
+		}
+
+		String first = null;
+		for( int word = 0; word < bits.length && word < mask.bits.length; word++ ) {
+			long w = bits[word] & mask.bits[word];
+			while( w != 0 ) {
+				String t = tag( (word << 6) + Long.numberOfTrailingZeros( w ) );
+				if( first == null || t.compareTo( first ) < 0 ) {
+					first = t;
+				}
+				w &= w - 1;
+			}
+		}
+		return first == null ? null : first.substring( prefix.length() );
+	}
+
+	/**
+	 * Compiles an include/exclude filter
+	 *
+	 * @param include The set of tags that items must have
+	 * @param exclude The set of tags that items must not have
+	 * @return A filter that can be applied to tag bitsets
+	 */
+	public TagFilter filter( Collection<String> include, Collection<String> exclude ) {
+		return new TagFilter( this, include, exclude );
+	}
+
+	/**
+	 * Set containment test
+	 *
+	 * @param superset A bitset
+	 * @param subset   A bitset
+	 * @return <code>true</code> if every member of the subset is in the superset
+	 */
+	public static boolean containsAll( long[] superset, long[] subset ) {
+		for( int i = 0; i < subset.length; i++ ) {
+			long s = i < superset.length ? superset[i] : 0;
+			if( (subset[i] & ~s) != 0 ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Set intersection test
+	 *
+	 * @param a A bitset
+	 * @param b A bitset
+	 * @return <code>true</code> if the two sets have at least one member in common
+	 */
+	public static boolean intersects( long[] a, long[] b ) {
+		for( int i = 0; i < a.length && i < b.length; i++ ) {
+			if( (a[i] & b[i]) != 0 ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The set of tags that share a prefix
+	 */
+	private class PrefixMask {
+		/**
+		 * The number of tags in the dictionary when this mask was computed
+		 */
+		final int covered;
+		final long[] bits;
+
+		PrefixMask( String prefix ) {
+			String[] t;
+			synchronized( ids ) {
+				covered = count;
+				t = tags;
+			}
+			bits = new long[(covered + 63) >>> 6];
+			for( int id = 0; id < covered; id++ ) {
+				if( t[id].startsWith( prefix ) ) {
+					bits[id >>> 6] |= 1L << id;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.mastercard.test.flow.util;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An include/exclude tag filter that has been compiled against a
+ * {@link TagDictionary}, so that it can be applied with word-wise bitset
+ * operations.
+ * <p>
+ * Compilation does not add the filter's tags to the dictionary. A filter tag
+ * that the dictionary does not know cannot be held by any encoded item, so an
+ * unknown include tag fails every item and an unknown exclude tag has no
+ * effect. The filter is recompiled if the dictionary has grown since, in case
+ * those tags have since been assigned.
+ * </p>
+ *
+ * @see Tags#filter(Set, Set)
+ */
+public class TagFilter {
+
+	private final TagDictionary dictionary;
+	private final Set<String> include;
+	private final Set<String> exclude;
+
+	private volatile Compiled compiled;
+
+	/**
+	 * @param dictionary The source of tag identifiers
+	 * @param include    The tags that items must have
+	 * @param exclude    The tags that items must not have
+	 */
+	TagFilter( TagDictionary dictionary, Collection<String> include, Collection<String> exclude ) {
+		this.dictionary = dictionary;
+		this.include = new TreeSet<>( include );
+		this.exclude = new TreeSet<>( exclude );
+		compiled = new Compiled();
+	}
+
+	private Compiled compiled() {
+		Compiled c = compiled;
+		if( !c.resolved && c.size != dictionary.size() ) {
+			c = new Compiled();
+			compiled = c;
+		}
+		return c;
+	}
+
+	/**
+	 * Determines if a tagged item passes this filter
+	 *
+	 * @param item The bitset of tags on an item, as produced by the same
+	 *             {@link TagDictionary} that compiled this filter
+	 * @return <code>true</code> if the item has all of the included tags and none
+	 *         of the excluded tags
+	 */
+	public boolean test( long[] item ) {
+		return test( item, item );
+	}
+
+	/**
+	 * Determines if a tagged item passes this filter
+	 *
+	 * @param item The set of tags on an item
+	 * @return <code>true</code> if the item has all of the included tags and none
+	 *         of the excluded tags
+	 */
+	public boolean test( Set<String> item ) {
+		return Tags.filter( item, include, exclude );
+	}
+
+	/**
+	 * Determines if a group of tagged items could pass this filter
+	 *
+	 * @param union        The bitset of tags that any member of the group holds
+	 * @param intersection The bitset of tags that all members of the group hold
+	 * @return <code>true</code> if the union contains <i>all</i> of the include
+	 *         tags, and the intersection contains <i>none</i> of the exclude tags
+	 * @see TaggedGroup#matches(TagFilter)
+	 */
+	public boolean test( long[] union, long[] intersection ) {
+		Compiled c = compiled();
+		return c.satisfiable
+				&& TagDictionary.containsAll( union, c.include )
+				&& !TagDictionary.intersects( intersection, c.exclude );
+	}
+
+	/**
+	 * Tests if this filter has any effect
+	 *
+	 * @return <code>true</code> if this filter will pass every item
+	 */
+	public boolean isEmpty() {
+		return include.isEmpty() && exclude.isEmpty();
+	}
+
+	/**
+	 * The filter tags, as resolved against the dictionary at some point in time
+	 */
+	private class Compiled {
+		/**
+		 * The size of the dictionary before resolution
+		 */
+		final int size = dictionary.size();
+		final long[] include = dictionary.lookup( TagFilter.this.include );
+		final long[] exclude = dictionary.lookup( TagFilter.this.exclude );
+		/**
+		 * <code>false</code> if there are include tags that no item can have
+		 */
+		final boolean satisfiable = count( include ) == TagFilter.this.include.size();
+		/**
+		 * <code>true</code> if all filter tags are in the dictionary
+		 */
+		final boolean resolved = satisfiable
+				&& count( exclude ) == TagFilter.this.exclude.size();
+	}
+
+	private static int count( long[] bits ) {
+		int count = 0;
+		for( long w : bits ) {
+			count += Long.bitCount( w );
+		}
+		return count;
+	}
+}
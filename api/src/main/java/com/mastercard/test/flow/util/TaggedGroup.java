@@ -18,6 +18,11 @@ public class TaggedGroup {
 	 * Tag values that all members of the group hold
 	 */
 	private final Set<String> union = new TreeSet<>();
+	/**
+	 * Bitset encodings of the intersection and union sets, or <code>null</code> if
+	 * they have not been computed since the last change
+	 */
+	private volatile long[][] bits;
 
 	/**
 	 * @param intersection The tag values that all members of the group share
@@ -59,6 +64,7 @@ public class TaggedGroup {
 			}
 			union.add( tag );
 		}
+		bits = null;
 		return this;
 	}
 
@@ -76,6 +82,26 @@ public class TaggedGroup {
 				&& !Tags.intersects( intersection, exclude );
 	}
 
+	/**
+	 * Group compatibility query. Note that it's perfectly possible for a group to
+	 * pass the filter while none of the members do.
+	 *
+	 * @param filter A filter compiled against the {@link TagDictionary#shared()
+	 *               shared tag dictionary}
+	 * @return <code>true</code> if the union contains <i>all</i> of the include
+	 *         tags, and the intersection contains <i>none</i> of the exclude tags
+	 * @see Tags#filter(Set, Set)
+	 */
+	public boolean matches( TagFilter filter ) {
+		long[][] b = bits;
+		if( b == null ) {
+			TagDictionary dictionary = TagDictionary.shared();
+			b = new long[][] { dictionary.encode( intersection ), dictionary.encode( union ) };
+			bits = b;
+		}
+		return filter.test( b[1], b[0] );
+	}
+
 	/**
 	 * Intersection set accessor
 	 *
@@ -103,6 +129,7 @@ public class TaggedGroup {
 	public TaggedGroup combine( TaggedGroup other ) {
 		intersection.retainAll( other.intersection );
 		union.addAll( other.union );
+		bits = null;
 		return this;
 	}
 
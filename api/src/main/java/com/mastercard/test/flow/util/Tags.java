@@ -65,6 +65,20 @@ public class Tags {
 		return !Tags.intersects( item, exclude ) && item.containsAll( include );
 	}
 
+	/**
+	 * Compiles an include/exclude tag filter against the
+	 * {@link TagDictionary#shared() shared tag dictionary}. Prefer this to
+	 * {@link #filter(Set, Set, Set)} when the same filter is to be applied to many
+	 * items.
+	 *
+	 * @param include The set of tags that items must have
+	 * @param exclude The set of tags that items must not have
+	 * @return The compiled filter
+	 */
+	public static TagFilter filter( Set<String> include, Set<String> exclude ) {
+		return TagDictionary.shared().filter( include, exclude );
+	}
+
 	/**
 	 * Extracts portions of tags in a set
 	 *
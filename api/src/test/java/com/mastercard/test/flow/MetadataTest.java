@@ -8,8 +8,10 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import com.mastercard.test.flow.util.TagDictionary;
+
 /**
- * Exercises the default method of {@link Metadata}
+ * Exercises the default methods of {@link Metadata}
  */
 @SuppressWarnings("static-method")
 class MetadataTest {
@@ -27,4 +29,18 @@ class MetadataTest {
 
 		Assertions.assertEquals( "short description [meaningful, tags, text]", md.id() );
 	}
+
+	/**
+	 * Demonstrates tag encoding
+	 */
+	@Test
+	void tagBits() {
+		Metadata md = Mockito.mock( Metadata.class );
+		Mockito.when( md.tags() ).thenReturn( Stream.of( "meaningful", "text", "tags" )
+				.collect( Collectors.toCollection( TreeSet::new ) ) );
+		Mockito.when( md.tagBits() ).thenCallRealMethod();
+
+		Assertions.assertEquals( "[meaningful, tags, text]",
+				TagDictionary.shared().decode( md.tagBits() ).toString() );
+	}
 }
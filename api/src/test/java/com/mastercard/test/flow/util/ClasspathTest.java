@@ -0,0 +1,150 @@
+package com.mastercard.test.flow.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exercises {@link Classpath}
+ */
+@SuppressWarnings("static-method")
+class ClasspathTest {
+
+	private static final Path DIR = Paths.get( "target", "ClasspathTest" );
+
+	/**
+	 * Bumps pitest coverage
+	 *
+	 * @throws Exception reflection failure
+	 */
+	@Test
+	void constructor() throws Exception {
+		// pitest complains that we don't exercise the private constructor, so...
+		Constructor<Classpath> c = Classpath.class.getDeclaredConstructor();
+		assertTrue( Modifier.isPrivate( c.getModifiers() ) );
+		c.setAccessible( true );
+		c.newInstance();
+	}
+
+	/**
+	 * The checksum reflects the types, regardless of the order in which they are
+	 * supplied
+	 */
+	@Test
+	void checksum() {
+		assertEquals(
+				Classpath.checksum( Arrays.asList( Bytes.class, Tags.class ) ),
+				Classpath.checksum( Arrays.asList( Tags.class, Bytes.class ) ) );
+		assertNotEquals(
+				Classpath.checksum( Arrays.asList( Bytes.class ) ),
+				Classpath.checksum( Arrays.asList( Tags.class ) ) );
+	}
+
+	/**
+	 * The checksum reflects the content of classpath directories and the identity
+	 * of classpath archives, so changes to any class that the types might use will
+	 * be noticed
+	 *
+	 * @throws IOException if the classpath cannot be created
+	 */
+	@Test
+	void classpath() throws IOException {
+		Path dir = DIR.resolve( "classpath" ).resolve( "classes" );
+		Path jar = DIR.resolve( "classpath" ).resolve( "lib.jar" );
+		Path helper = dir.resolve( "pkg" ).resolve( "Helper.class" );
+		Files.createDirectories( helper.getParent() );
+		Files.write( helper, new byte[] { 1 } );
+		Files.write( jar, new byte[] { 2 } );
+		Files.setLastModifiedTime( jar, FileTime.fromMillis( 0 ) );
+		List<Path> cp = Arrays.asList( dir, jar, DIR.resolve( "absent" ) );
+		List<Class<?>> types = Arrays.asList( Bytes.class );
+
+		String initial = Classpath.checksum( types, cp );
+		assertEquals( initial, Classpath.checksum( types, Arrays.asList(
+				jar, DIR.resolve( "absent" ), dir ) ),
+				"order is irrelevant" );
+		assertNotEquals( initial, Classpath.checksum( Arrays.asList( Tags.class ), cp ),
+				"type change" );
+		assertNotEquals( initial, Classpath.checksum( types, Arrays.asList( dir, jar ) ),
+				"classpath change" );
+
+		Files.write( helper, new byte[] { 3 } );
+		String helperChanged = Classpath.checksum( types, cp );
+		assertNotEquals( initial, helperChanged, "helper class change" );
+
+		Files.setLastModifiedTime( jar, FileTime.fromMillis( 1000 ) );
+		assertNotEquals( helperChanged, Classpath.checksum( types, cp ), "archive change" );
+	}
+
+	/**
+	 * Jar files that only exist to carry a classpath are replaced by that classpath
+	 *
+	 * @throws IOException if the jars cannot be created
+	 */
+	@Test
+	void pathingJar() throws IOException {
+		Path dir = DIR.resolve( "pathing" ).toAbsolutePath();
+		Files.createDirectories( dir );
+		assertNull( Classpath.pathingJar( dir ), "directory" );
+
+		Path text = dir.resolve( "text.txt" );
+		Files.write( text, "not a jar".getBytes( UTF_8 ) );
+		assertNull( Classpath.pathingJar( text ), "not a jar" );
+
+		assertNull( Classpath.pathingJar( jar( dir.resolve( "plain.jar" ), null, "a.txt" ) ),
+				"no manifest" );
+		assertNull( Classpath.pathingJar( jar( dir.resolve( "manifest.jar" ), "", "a.txt" ) ),
+				"no classpath" );
+		assertNull( Classpath.pathingJar( jar( dir.resolve( "lib.jar" ), "other.jar", "pkg/A.class" ) ),
+				"has classes" );
+
+		assertEquals( Arrays.asList( dir.resolve( "lib.jar" ), dir.resolve( "sub/dir" ) ),
+				Classpath.pathingJar( jar( dir.resolve( "pathing.jar" ),
+						" lib.jar  sub/dir/ http://example.com/remote.jar ", "a.txt" ) ) );
+	}
+
+	private static Path jar( Path path, String classpath, String entry ) throws IOException {
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put( Attributes.Name.MANIFEST_VERSION, "1.0" );
+		if( classpath != null && !classpath.isEmpty() ) {
+			manifest.getMainAttributes().put( Attributes.Name.CLASS_PATH, classpath );
+		}
+		try( OutputStream out = Files.newOutputStream( path );
+				JarOutputStream jar = classpath == null
+						? new JarOutputStream( out )
+						: new JarOutputStream( out, manifest ) ) {
+			jar.putNextEntry( new JarEntry( entry ) );
+			jar.closeEntry();
+		}
+		return path;
+	}
+
+	/**
+	 * Types are located on the filesystem where possible
+	 */
+	@Test
+	void location() {
+		assertEquals( Paths.get( "target", "test-classes" ).toAbsolutePath(),
+				Classpath.location( ClasspathTest.class ) );
+		assertNull( Classpath.location( String.class ) );
+	}
+}
@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.verify;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
@@ -94,6 +95,24 @@ class DependenciesTest {
 		verify( mocks.snkMsg ).set( "sink field", "SOURCE VALUE" );
 	}
 
+	/**
+	 * Actual data can be parsed ahead of publication
+	 */
+	@Test
+	void parsed() {
+		Mocks mocks = new Mocks();
+
+		Message msg = Dependencies.parse( mocks.srcNtr, mocks.srcMsg, mocks.actual );
+		Assertions.assertSame( mocks.peer, msg );
+
+		Set<Message> updated = new Dependencies( mocks.flows() )
+				.publish( mocks.src, mocks.srcNtr, mocks.srcMsg, msg );
+
+		assertEquals( 1, updated.size() );
+		assertSame( mocks.snkMsg, updated.iterator().next() );
+		verify( mocks.snkMsg ).set( "sink field", "SOURCE VALUE" );
+	}
+
 	/**
 	 * Shows what happens when message parsing fails
 	 */
@@ -180,4 +199,30 @@ class DependenciesTest {
 
 		verify( mocks.snkMsg ).set( "sink field", "SOURCE VALUE" );
 	}
+
+	/**
+	 * Shows that a source message that feeds several dependencies is only parsed
+	 * once
+	 */
+	@Test
+	void fanOut() {
+		Mocks mocks = new Mocks();
+		Mockito.when( mocks.srcMsg.content() ).thenReturn( mocks.actual );
+		Dependency other = Mockito.mock( Dependency.class );
+		FieldAddress otherSnk = Mockito.mock( FieldAddress.class );
+		Message otherMsg = Mockito.mock( Message.class );
+		Mockito.when( other.source() ).thenReturn( mocks.srcAdr );
+		Mockito.when( other.sink() ).thenReturn( otherSnk );
+		Mockito.when( other.mutation() ).thenReturn( o -> "other " + o );
+		Mockito.when( otherSnk.isComplete() ).thenReturn( true );
+		Mockito.when( otherSnk.getMessage() ).thenReturn( Optional.of( otherMsg ) );
+		Mockito.when( otherSnk.field() ).thenReturn( "other field" );
+		Mockito.when( mocks.snk.dependencies() ).thenReturn( Stream.of( mocks.dep, other ) );
+
+		Dependencies.propagateStaticData( mocks.flows() );
+
+		verify( mocks.srcMsg, Mockito.times( 1 ) ).peer( mocks.actual );
+		verify( mocks.snkMsg ).set( "sink field", "SOURCE VALUE" );
+		verify( otherMsg ).set( "other field", "other source value" );
+	}
 }
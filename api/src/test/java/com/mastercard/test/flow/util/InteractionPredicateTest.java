@@ -32,6 +32,7 @@ class InteractionPredicateTest {
 		Set<String> ts = new TreeSet<>();
 		Collections.addAll( ts, tags );
 		Mockito.when( ntr.tags() ).thenReturn( ts );
+		Mockito.when( ntr.tagBits() ).thenCallRealMethod();
 		return ntr;
 	}
 
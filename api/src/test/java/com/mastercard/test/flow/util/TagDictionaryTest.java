@@ -0,0 +1,155 @@
+package com.mastercard.test.flow.util;
+
+import static com.mastercard.test.flow.util.Tags.tags;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exercises {@link TagDictionary} and {@link TagFilter}
+ */
+@SuppressWarnings("static-method")
+class TagDictionaryTest {
+
+	/**
+	 * Tags are assigned stable identifiers
+	 */
+	@Test
+	void ids() {
+		TagDictionary td = new TagDictionary();
+		assertEquals( 0, td.id( "a" ) );
+		assertEquals( 1, td.id( "b" ) );
+		assertEquals( 0, td.id( "a" ) );
+
+		assertEquals( "a", td.tag( 0 ) );
+		assertEquals( "b", td.tag( 1 ) );
+		assertNull( td.tag( 2 ) );
+		assertNull( td.tag( -1 ) );
+		assertNull( td.tag( 1000 ) );
+	}
+
+	/**
+	 * Tag sets survive a round trip through the bitset encoding, even when there
+	 * are more tags than fit in a single word
+	 */
+	@Test
+	void roundTrip() {
+		TagDictionary td = new TagDictionary();
+		Set<String> many = IntStream.range( 0, 200 )
+				.mapToObj( i -> "t" + i )
+				.collect( Collectors.toSet() );
+		assertEquals( "[]", td.decode( td.encode( tags() ) ).toString() );
+		assertEquals( "[a, b, c]", td.decode( td.encode( tags( "c", "a", "b" ) ) ).toString() );
+		assertEquals( many, td.decode( td.encode( many ) ) );
+		assertEquals( 4, td.encode( many ).length );
+	}
+
+	/**
+	 * Looking up tags does not add them to the dictionary
+	 */
+	@Test
+	void lookup() {
+		TagDictionary td = new TagDictionary();
+		td.encode( tags( "a", "b" ) );
+		assertEquals( 2, td.size() );
+
+		assertEquals( "[a]", td.decode( td.lookup( tags( "a", "c" ) ) ).toString() );
+		assertEquals( "[]", td.decode( td.lookup( tags( "c" ) ) ).toString() );
+		assertEquals( 2, td.size() );
+	}
+
+	/**
+	 * Set operations on bitsets
+	 */
+	@Test
+	void operations() {
+		TagDictionary td = new TagDictionary();
+		long[] abc = td.encode( tags( "a", "b", "c" ) );
+		long[] cd = td.encode( tags( "c", "d" ) );
+		long[] de = td.encode( tags( "d", "e" ) );
+		long[] far = td.encode( IntStream.range( 0, 100 )
+				.mapToObj( i -> "f" + i )
+				.collect( Collectors.toSet() ) );
+
+		assertTrue( TagDictionary.intersects( abc, cd ) );
+		assertFalse( TagDictionary.intersects( abc, de ) );
+		assertFalse( TagDictionary.intersects( abc, far ) );
+
+		assertTrue( TagDictionary.containsAll( abc, new long[0] ) );
+		assertTrue( TagDictionary.containsAll( abc, td.encode( tags( "a", "c" ) ) ) );
+		assertFalse( TagDictionary.containsAll( abc, cd ) );
+		assertFalse( TagDictionary.containsAll( abc, far ) );
+		assertTrue( TagDictionary.containsAll( far, new long[] { 0 } ) );
+	}
+
+	/**
+	 * Prefix extraction matches {@link Tags#suffix(Set, String)}, even as the
+	 * dictionary grows
+	 */
+	@Test
+	void suffix() {
+		TagDictionary td = new TagDictionary();
+		Set<String> tags = tags( "chain:b", "chain:a", "other" );
+		assertEquals( "a", td.suffix( td.encode( tags ), "chain:" ) );
+		assertNull( td.suffix( td.encode( tags( "other" ) ), "chain:" ) );
+
+		Set<String> more = tags( "chain:0", "x" );
+		assertEquals( Tags.suffix( more, "chain:" ).get(),
+				td.suffix( td.encode( more ), "chain:" ) );
+	}
+
+	/**
+	 * Compiled filters
+	 */
+	@Test
+	void filter() {
+		TagDictionary td = new TagDictionary();
+		TagFilter tf = td.filter( tags( "a" ), tags( "b" ) );
+		assertFalse( tf.isEmpty() );
+		assertTrue( tf.test( tags( "a", "c" ) ) );
+		assertFalse( tf.test( tags( "a", "b" ) ) );
+		assertFalse( tf.test( tags( "c" ) ) );
+
+		assertTrue( tf.test( td.encode( tags( "a", "c" ) ) ) );
+		assertFalse( tf.test( td.encode( tags( "a", "b" ) ) ) );
+		assertFalse( tf.test( td.encode( tags( "c" ) ) ) );
+
+		assertTrue( td.filter( tags(), tags() ).isEmpty() );
+		assertFalse( td.filter( tags(), tags( "b" ) ).isEmpty() );
+		assertTrue( td.filter( tags(), tags() ).test( tags( "z" ) ) );
+	}
+
+	/**
+	 * Compiling filters does not grow the dictionary, but filters keep up when the
+	 * dictionary does
+	 */
+	@Test
+	void unknownFilterTags() {
+		TagDictionary td = new TagDictionary();
+		long[] a = td.encode( tags( "a" ) );
+		TagFilter include = td.filter( tags( "a", "new" ), tags() );
+		TagFilter exclude = td.filter( tags( "a" ), tags( "new" ) );
+		TagFilter known = td.filter( tags( "a" ), tags() );
+		assertEquals( 1, td.size() );
+
+		assertFalse( include.test( a ), "unknown include tags can't be satisfied" );
+		assertFalse( include.test( a, a ) );
+		assertTrue( exclude.test( a ), "unknown exclude tags have no effect" );
+		assertTrue( known.test( a ) );
+		assertEquals( 1, td.size() );
+
+		long[] both = td.encode( tags( "a", "new" ) );
+		assertTrue( include.test( both ), "filters are recompiled" );
+		assertFalse( exclude.test( both ) );
+		assertTrue( known.test( both ) );
+		assertFalse( include.test( a ) );
+		assertTrue( exclude.test( a ) );
+	}
+}
@@ -87,6 +87,33 @@ class TaggedGroupTest {
 		assertFalse( tg.matches( tags( "d" ), tags() ) );
 	}
 
+	/**
+	 * Tests group filtering with compiled filters
+	 */
+	@Test
+	void matchesCompiled() {
+		TaggedGroup tg = new TaggedGroup( "b" ).union( "a", "c" );
+		assertTrue( tg.matches( Tags.filter( tags(), tags() ) ) );
+		// inclusion
+		assertTrue( tg.matches( Tags.filter( tags( "a" ), tags() ) ) );
+		assertTrue( tg.matches( Tags.filter( tags( "b" ), tags() ) ) );
+		assertTrue( tg.matches( Tags.filter( tags( "c" ), tags() ) ) );
+
+		// exclusion
+		assertTrue( tg.matches( Tags.filter( tags(), tags( "a" ) ) ) );
+		assertTrue( tg.matches( Tags.filter( tags(), tags( "c" ) ) ) );
+		assertTrue( tg.matches( Tags.filter( tags(), tags( "d" ) ) ) );
+
+		assertFalse( tg.matches( Tags.filter( tags(), tags( "b" ) ) ) );
+		assertFalse( tg.matches( Tags.filter( tags( "d" ), tags() ) ) );
+
+		// cached encodings are discarded on mutation
+		tg.union( "d" );
+		assertTrue( tg.matches( Tags.filter( tags( "d" ), tags() ) ) );
+		tg.combine( new TaggedGroup( "e" ) );
+		assertTrue( tg.matches( Tags.filter( tags(), tags( "b" ) ) ) );
+	}
+
 	/**
 	 * Tests {@link TaggedGroup#isEmpty()}
 	 */
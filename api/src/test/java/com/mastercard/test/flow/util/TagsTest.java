@@ -100,6 +100,9 @@ class TagsTest {
 			assertEquals( out, Tags.filter( tags.get( 0 ), tags.get( 1 ), tags.get( 2 ) ),
 					String.format( "\nitem    %s\ninclude %s\nexclude %s",
 							tags.get( 0 ), tags.get( 1 ), tags.get( 2 ) ) );
+			assertEquals( out, Tags.filter( tags.get( 1 ), tags.get( 2 ) ).test( tags.get( 0 ) ),
+					String.format( "compiled\nitem    %s\ninclude %s\nexclude %s",
+							tags.get( 0 ), tags.get( 1 ), tags.get( 2 ) ) );
 		};
 
 		// input data in "item|include|exclude" format
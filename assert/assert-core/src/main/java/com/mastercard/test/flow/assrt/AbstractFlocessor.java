@@ -7,12 +7,14 @@ import static java.time.ZoneId.systemDefault;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -26,6 +28,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -42,6 +49,7 @@ import com.mastercard.test.flow.Message;
 import com.mastercard.test.flow.Model;
 import com.mastercard.test.flow.Residue;
 import com.mastercard.test.flow.Unpredictable;
+import com.mastercard.test.flow.assrt.History.Result;
 import com.mastercard.test.flow.assrt.filter.Filter;
 import com.mastercard.test.flow.assrt.filter.FilterConfiguration;
 import com.mastercard.test.flow.assrt.filter.FilterOptions;
@@ -99,6 +107,41 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 	private Reporting reporting = Reporting.NEVER;
 	private String[] reportPath = {};
 	private Writer report;
+	private ReportQueue queue;
+
+	/**
+	 * Where {@link Flow}s are processed concurrently, or <code>null</code> to
+	 * process them on the calling thread
+	 */
+	private Executor executor;
+	/**
+	 * The thread pool that we created in the absence of a supplied
+	 * {@link #executor}, or <code>null</code>
+	 */
+	private ExecutorService pool;
+	/**
+	 * How many {@link Flow}s each processing thread can get ahead of the test
+	 * framework
+	 */
+	private static final int READ_AHEAD = 16;
+	/**
+	 * The number of independent lanes that a stateful system under test can process
+	 * {@link Flow}s in
+	 */
+	private int lanes = 1;
+	/**
+	 * The lane that is being processed on the current thread
+	 */
+	private final ThreadLocal<Integer> currentLane = ThreadLocal.withInitial( () -> 0 );
+	/**
+	 * The most recently-calculated processing order
+	 */
+	private List<Flow> processingOrder = Collections.emptyList();
+	/**
+	 * The concurrent processing of {@link #processingOrder}, or <code>null</code>
+	 * if that has not started
+	 */
+	private ParallelRun parallelRun;
 
 	/**
 	 * Tracks the outcome of processing {@link Flow}s to inform further processing
@@ -123,9 +166,10 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 	protected State statefulness;
 
 	/**
-	 * The current state of the system under test
+	 * The current state of each lane of the system under test
 	 */
-	private final Map<Class<? extends Context>, Context> currentContext = new HashMap<>();
+	private final Map<Integer,
+			Map<Class<? extends Context>, Context>> currentContext = new ConcurrentHashMap<>();
 
 	/**
 	 * The applicators for enforcing {@link Context} data on the system under test
@@ -156,6 +200,11 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 
 	private Unpredictable[] masks = {};
 
+	/**
+	 * Processes the data harvested from the system under test
+	 */
+	private Harvest harvest = new Harvest( masks );
+
 	/**
 	 * How system logs are captured into the report
 	 */
@@ -220,6 +269,7 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 	 */
 	public T masking( Unpredictable... sources ) {
 		masks = sources.clone();
+		harvest = new Harvest( masks );
 		return self();
 	}
 
@@ -283,6 +333,72 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 		return self();
 	}
 
+	/**
+	 * Configures concurrent processing. This takes effect when the system under
+	 * test is {@link State#LESS}, or when it is {@link State#FUL} and
+	 * {@link #lanes(int)} has been configured. {@link Flow}s that share a chain,
+	 * that have a data dependency or a basis relationship, or that require
+	 * different {@link Context}s will still be processed one after the other, but
+	 * other {@link Flow}s will be processed concurrently as soon as they are
+	 * scheduled. Results will still be delivered to the test framework in the
+	 * normal processing order.
+	 * <p>
+	 * Note that test behaviour, {@link Applicator}s, {@link Checker}s,
+	 * {@link LogCapture} and {@link Listener}s will be invoked from multiple
+	 * threads, and that the logs captured for a {@link Flow} may include events
+	 * from {@link Flow}s that were processed at the same time.
+	 * </p>
+	 * <p>
+	 * The {@link AssertionOptions#PARALLELISM} option provides a fixed-size thread
+	 * pool if no executor is supplied here.
+	 * </p>
+	 *
+	 * @param exec Where to process {@link Flow}s, e.g.: a thread pool or a
+	 *             virtual-thread-per-task executor. Supply <code>null</code> to
+	 *             process {@link Flow}s on the test framework's thread.
+	 * @return <code>this</code>
+	 */
+	public T parallel( Executor exec ) {
+		executor = exec;
+		return self();
+	}
+
+	/**
+	 * Allows a stateful system under test to process {@link Flow}s in independent
+	 * lanes, e.g.: where the system's state can be partitioned by tenant. The
+	 * {@link Flow}s are divided between lanes such that those linked by chain
+	 * membership or data dependency share a lane, and each lane is processed in
+	 * order on its own thread. Each lane tracks its own {@link Context} state, so
+	 * {@link Applicator}s will see transitions that are specific to a lane. Test
+	 * behaviour and {@link Applicator}s should use {@link #lane()} to direct their
+	 * actions to the appropriate partition of the system.
+	 * <p>
+	 * Results will still be delivered to the test framework in the normal
+	 * processing order. Lanes are processed on the executor supplied to
+	 * {@link #parallel(Executor)}, or on a fixed-size thread pool if there is none.
+	 * This setting has no effect on stateless systems.
+	 * </p>
+	 *
+	 * @param count The maximum number of lanes
+	 * @return <code>this</code>
+	 */
+	public T lanes( int count ) {
+		if( count < 1 ) {
+			throw new IllegalArgumentException( "Lane count must be positive, not " + count );
+		}
+		lanes = count;
+		return self();
+	}
+
+	/**
+	 * @return The index of the lane that is being processed on the current thread.
+	 *         This will be zero when lanes are not in use.
+	 * @see #lanes(int)
+	 */
+	public int lane() {
+		return currentLane.get();
+	}
+
 	/**
 	 * Configures log capturing behaviour
 	 *
@@ -315,6 +431,22 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 		return systemUnderTest;
 	}
 
+	/**
+	 * Called when data is populated into an {@link Assertion}
+	 *
+	 * @param flow The {@link Flow} that the data was harvested from
+	 * @param ntr  The {@link Interaction} that the data was harvested from
+	 * @param type The message type
+	 * @param msg  The expected {@link Message}
+	 * @param data The actual message data. This must not be altered.
+	 * @return The eventual results of processing that data, or <code>null</code> if
+	 *         it should be processed at comparison time
+	 */
+	CompletableFuture<Harvest.Rendered> harvested( Flow flow, Interaction ntr, String type,
+			Message msg, byte[] data ) {
+		return harvest.submit( () -> Harvest.address( flow, ntr, type ), ntr, msg, data );
+	}
+
 	/**
 	 * Defines the default behaviour of the {@link Filter} controlling which
 	 * {@link Flow}s are constructed for the test run. This configuration is applied
@@ -431,10 +563,17 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 		// gather the data dependencies for processing
 		dependencies = new Dependencies( toRun.stream() );
 
+		if( AssertionOptions.RENDER_CACHE.isTrue() ) {
+			harvest.persist( Paths.get( AssertionOptions.ARTIFACT_DIR.value(), reportPath )
+					.resolve( "renderings.json" ), model.getClass() );
+		}
+
 		// find the execution order
 		progress.ordering();
 		Order order = new Order( toRun.stream(), applicators.values() );
-		return order.order();
+		processingOrder = order.order().collect( toList() );
+		parallelRun = null;
+		return processingOrder.stream();
 	}
 
 	/**
@@ -443,6 +582,84 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 	 * @param flow The {@link Flow} to process
 	 */
 	protected void process( Flow flow ) {
+		ParallelRun run = parallelRun();
+		if( run != null && run.contains( flow ) ) {
+			run.await( flow );
+		}
+		else {
+			processFlow( flow );
+		}
+	}
+
+	/**
+	 * Starts concurrent processing of the most recent {@link #flows()}, if that is
+	 * appropriate
+	 *
+	 * @return The concurrent processing run, or <code>null</code> if flows should
+	 *         be processed on the calling thread
+	 */
+	private synchronized ParallelRun parallelRun() {
+		if( parallelRun == null ) {
+			int threads = statefulness == State.LESS
+					? AssertionOptions.PARALLELISM.asInt()
+					: lanes;
+			if( executor == null && threads > 1 ) {
+				AtomicInteger count = new AtomicInteger( 0 );
+				pool = Executors.newFixedThreadPool( threads, r -> {
+					Thread t = new Thread( r, "flow-" + count.incrementAndGet() );
+					t.setDaemon( true );
+					return t;
+				} );
+				executor = pool;
+			}
+			int readAhead = READ_AHEAD * Math.max( 1, threads );
+			if( executor != null && statefulness == State.LESS ) {
+				parallelRun = new ParallelRun( processingOrder, readAhead,
+						ParallelRun::chain,
+						flow -> flow.context()
+								.filter( ctx -> ctx.domain().stream().anyMatch( systemUnderTest::contains ) )
+								.collect( toSet() ),
+						this::processConcurrently, executor );
+			}
+			else if( executor != null && lanes > 1 ) {
+				// each lane has its own context state, so there's no need for batching
+				Map<Flow, Integer> laneIndices = ParallelRun.lanes( processingOrder, lanes );
+				parallelRun = new ParallelRun( processingOrder, readAhead,
+						laneIndices::get,
+						flow -> Collections.emptySet(),
+						flow -> {
+							currentLane.set( laneIndices.get( flow ) );
+							try {
+								processConcurrently( flow );
+							}
+							finally {
+								currentLane.remove();
+							}
+						}, executor );
+			}
+		}
+		return parallelRun;
+	}
+
+	/**
+	 * Processes a {@link Flow} on a worker thread. The results that could cause
+	 * later {@link Flow}s to be skipped are recorded immediately rather than
+	 * waiting for the test framework to catch up.
+	 *
+	 * @param flow The {@link Flow} to process
+	 */
+	private void processConcurrently( Flow flow ) {
+		try {
+			processFlow( flow );
+			history.recordResult( flow, Result.SUCCESS );
+		}
+		catch( AssertionError ae ) {
+			history.recordResult( flow, Result.UNEXPECTED );
+			throw ae;
+		}
+	}
+
+	private void processFlow( Flow flow ) {
 		if( reporting.writing() ) {
 			logCapture.start( flow );
 		}
@@ -560,14 +777,11 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 			// really take this flow any further, so let's just update the report and
 			// rethrow the failure
 			reportUpdates.add( d -> d.tags.add( Writer.ERROR_TAG ) );
-			reportUpdates.add( d -> logCapture.end( flow ).forEach( d.logs::add ) );
-			reportUpdates.add( d -> d.logs.add( error(
-					"Encountered error: " + LogEvent.stackTrace( e ) ) ) );
+			captureLogs( flow, reportUpdates );
+			LogEvent error = error( "Encountered error: " + LogEvent.stackTrace( e ) );
+			reportUpdates.add( d -> d.logs.add( error ) );
 			reportUpdates.add( d -> d.motivation = motivationCustomizer.apply( d.motivation, assrt ) );
-			report( w -> w.with( flow, reportUpdates.stream()
-					.reduce( d -> {
-						// no-op
-					}, Consumer::andThen ) ),
+			report( flow, reportUpdates,
 					// error condition - we might want to browse the report
 					true );
 			throw e;
@@ -599,9 +813,11 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 					i -> ma.report( i ).full.actualBytes = ma.actual( assertion ) ) );
 
 			try {
-				checkResult( flow, assertion.expected(), ma.name().toLowerCase(),
+				String type = ma.name().toLowerCase();
+				checkResult( flow, assertion.expected(), type,
 						ma.expected( assertion ),
 						ma.actual( assertion ),
+						assertion.rendered( type ),
 						ar -> reportUpdates.add( d -> d.root.update(
 								i -> i.peer == assertion.expected(),
 								i -> {
@@ -648,17 +864,15 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 		if( assertionCount == 0 ) {
 			warn( reportUpdates, "No assertions made" );
 		}
-		reportUpdates.add( d -> logCapture.end( flow ).forEach( d.logs::add ) );
-		reportUpdates.add( d -> executionFailures.stream()
+		captureLogs( flow, reportUpdates );
+		List<LogEvent> errors = executionFailures.stream()
 				.map( e -> error( LogEvent.stackTrace( e ) ) )
-				.forEach( d.logs::add ) );
+				.collect( toList() );
+		reportUpdates.add( d -> d.logs.addAll( errors ) );
 		reportUpdates.add( d -> systemUnderTest.stream()
 				.map( Actor::name )
 				.forEach( d.exercised::add ) );
-		report( w -> w.with( flow, reportUpdates.stream()
-				.reduce( d -> {
-					// no-op
-				}, Consumer::andThen ) ),
+		report( flow, reportUpdates,
 				// error condition
 				!comparisonFailures.isEmpty() );
 	}
@@ -694,9 +908,18 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 	 *                          generated
 	 */
 	private void applyContexts( Flow flow, List<RuntimeException> executionFailures ) {
+		Map<Class<? extends Context>, Context> current = currentContext
+				.computeIfAbsent( lane(), l -> new HashMap<>() );
+		synchronized( current ) {
+			applyContexts( flow, current, executionFailures );
+		}
+	}
+
+	private void applyContexts( Flow flow, Map<Class<? extends Context>, Context> current,
+			List<RuntimeException> executionFailures ) {
 		try {
 			// work out the context updates
-			Set<Class<? extends Context>> unupdated = new HashSet<>( currentContext.keySet() );
+			Set<Class<? extends Context>> unupdated = new HashSet<>( current.keySet() );
 			Set<Context> contextUpdates = new TreeSet<>(
 					Comparator.comparing( ctx -> ctx.getClass().getName() ) );
 			flow.context()
@@ -711,10 +934,10 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 			// changes as there can be dependencies between contexts - the ones on the new
 			// flow might not cope with the ones on the old flow that they know nothing
 			// about
-			unupdated.forEach( this::removeContext );
+			unupdated.forEach( ctxt -> removeContext( current, ctxt ) );
 
 			// apply the context for the new flow
-			contextUpdates.forEach( this::updateContext );
+			contextUpdates.forEach( ctx -> updateContext( current, ctx ) );
 		}
 		catch( RuntimeException e ) {
 			if( !reporting.writing() ) {
@@ -728,19 +951,21 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 	}
 
 	@SuppressWarnings("unchecked")
-	private <C extends Context> void updateContext( C ctx ) {
+	private <C extends Context> void updateContext(
+			Map<Class<? extends Context>, Context> contexts, C ctx ) {
 		progress.context( ctx );
 		Class<? extends Context> ctxt = ctx.getClass();
 		Applicator<C> apl = (Applicator<C>) applicator( ctxt );
-		C current = (C) currentContext.get( ctxt );
+		C current = (C) contexts.get( ctxt );
 		apl.transition( current, ctx );
-		currentContext.put( ctxt, ctx );
+		contexts.put( ctxt, ctx );
 	}
 
 	@SuppressWarnings("unchecked")
-	private <C extends Context> void removeContext( Class<C> ctxt ) {
+	private <C extends Context> void removeContext(
+			Map<Class<? extends Context>, Context> contexts, Class<C> ctxt ) {
 		Applicator<C> apl = applicator( ctxt );
-		C current = (C) currentContext.remove( ctxt );
+		C current = (C) contexts.remove( ctxt );
 		apl.transition( current, null );
 	}
 
@@ -858,18 +1083,34 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 
 	private void reportAndSkip( Flow flow, String reason ) {
 		// ... add the skip tag to the flow ...
-		report( w -> w.with( flow, d -> {
-			d.tags.add( Writer.SKIP_TAG );
-			logCapture.end( flow ).forEach( d.logs::add );
-			d.logs.add( warn( "Skipping flow: " + reason ) );
-		} ),
+		List<Consumer<FlowData>> reportUpdates = new ArrayList<>();
+		reportUpdates.add( d -> d.tags.add( Writer.SKIP_TAG ) );
+		captureLogs( flow, reportUpdates );
+		warn( reportUpdates, "Skipping flow: " + reason );
+		report( flow, reportUpdates,
 				// ... but don't bother browsing the report
 				false );
 		skip( reason );
 	}
 
 	private void warn( List<Consumer<FlowData>> reportUpdates, String msg ) {
-		reportUpdates.add( d -> d.logs.add( warn( msg ) ) );
+		LogEvent event = warn( msg );
+		reportUpdates.add( d -> d.logs.add( event ) );
+	}
+
+	/**
+	 * Gathers the captured logs for a flow. This is done immediately rather than in
+	 * the report update so that the capture window is not extended by a queued
+	 * report write.
+	 *
+	 * @param flow          The flow
+	 * @param reportUpdates The destination of the log update
+	 */
+	private void captureLogs( Flow flow, List<Consumer<FlowData>> reportUpdates ) {
+		if( reporting.writing() ) {
+			List<LogEvent> logs = logCapture.end( flow ).collect( toList() );
+			reportUpdates.add( d -> d.logs.addAll( logs ) );
+		}
 	}
 
 	private LogEvent warn( String msg ) {
@@ -919,14 +1160,17 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 	}
 
 	private void checkResult( Flow flow, Interaction interaction, String type, Message expected,
-			byte[] actual, Consumer<CheckMessages> reportUpdate ) {
+			byte[] actual, CompletableFuture<Harvest.Rendered> early,
+			Consumer<CheckMessages> reportUpdate ) {
 		try {
-			Message am = dependencies.publish( flow, interaction, expected, actual );
+			Harvest.Rendered am = harvest.rendered( interaction, expected, actual, early );
+			// cached renderings of updated messages are now stale
+			harvest.invalidate( dependencies.publish( flow, interaction, expected, am.parsed ) );
 
 			CheckMessages messages = new CheckMessages(
-					am.assertable(),
-					expected.assertable( masks ),
-					am.assertable( masks ) );
+					am.full,
+					harvest.expected( () -> Harvest.address( flow, interaction, type ), expected ),
+					am.masked );
 			reportUpdate.accept( messages );
 			compare(
 					String.format( "%s%n%s %s->%s %s %s",
@@ -966,8 +1210,19 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 			.ofPattern( "yyMMdd-HHmmss" )
 			.format( now().atZone( systemDefault() ) );
 
-	private void report( Consumer<Writer> data, boolean error ) {
+	private synchronized void report( Flow flow, List<Consumer<FlowData>> updates,
+			boolean error ) {
 		if( reporting.writing() ) {
+			Consumer<FlowData> update = updates.stream()
+					.reduce( d -> {
+						// no-op
+					}, Consumer::andThen );
+
+			if( queue != null ) {
+				queue.submit( flow, update );
+				return;
+			}
+
 			Path testDir = null;
 			Path reportDir = null;
 			if( report == null ) {
@@ -995,9 +1250,13 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 				reportDir = testDir.resolve( name );
 
 				report = new Writer( model.title(), testTitle, reportDir );
+				int indexInterval = AssertionOptions.REPORT_INDEX_INTERVAL.asInt();
+				if( indexInterval > 0 ) {
+					report.incrementalIndex( Duration.ofMillis( indexInterval ) );
+				}
 			}
 
-			data.accept( report );
+			report.with( flow, update );
 
 			if( testDir != null && reportDir != null ) {
 				// We've just created a new report! We should:
@@ -1044,10 +1303,47 @@ public abstract class AbstractFlocessor<T extends AbstractFlocessor<T>> {
 						report.browse();
 					}
 				}
+
+				// subsequent updates can be written in the background
+				int queueCapacity = AssertionOptions.REPORT_QUEUE.asInt();
+				if( queueCapacity > 0 ) {
+					queue = new ReportQueue( report, queueCapacity );
+				}
 			}
 		}
 	}
 
+	/**
+	 * Ensures that all report updates have been written to disk. This must be
+	 * called after the last {@link Flow} has been processed if the
+	 * {@link AssertionOptions#REPORT_QUEUE} or
+	 * {@link AssertionOptions#REPORT_INDEX_INTERVAL} options are in effect, and is
+	 * harmless otherwise. It also releases any thread pools that were created for
+	 * concurrent processing.
+	 *
+	 * @return <code>this</code>
+	 */
+	public synchronized T flush() {
+		harvest.save();
+		harvest.shutdown();
+		if( pool != null ) {
+			// any flows that have been submitted will still be processed
+			pool.shutdown();
+			if( executor == pool ) {
+				executor = null;
+			}
+			pool = null;
+			parallelRun = null;
+		}
+		if( queue != null ) {
+			queue.flush();
+		}
+		else if( report != null ) {
+			report.flush();
+		}
+		return self();
+	}
+
 	/**
 	 * Gets the path of the execution report produced by this flocessor. This will
 	 * only be meaningful after the first {@link Flow} has been processed (which
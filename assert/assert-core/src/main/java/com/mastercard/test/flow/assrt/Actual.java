@@ -1,6 +1,7 @@
 package com.mastercard.test.flow.assrt;
 
 import java.util.Arrays;
+import java.util.function.BiConsumer;
 
 import com.mastercard.test.flow.Interaction;
 
@@ -12,6 +13,29 @@ public class Actual {
 	private byte[] request;
 	private byte[] response;
 
+	/**
+	 * Notified with the message type and data when data is populated
+	 */
+	private final BiConsumer<String, byte[]> populated;
+
+	/**
+	 * Creates an empty {@link Actual}
+	 */
+	public Actual() {
+		this( ( type, data ) -> {
+			// no-op
+		} );
+	}
+
+	/**
+	 * @param populated Notified with the message type (<code>request</code> or
+	 *                  <code>response</code>) and the held data when data is
+	 *                  populated. The data must not be altered.
+	 */
+	Actual( BiConsumer<String, byte[]> populated ) {
+		this.populated = populated;
+	}
+
 	// These methods gets called from user code. The failures that would stem from
 	// the array being changed under our feet would be extraordinarily painful to
 	// debug, so we're taking a defensive copies of the data
@@ -37,6 +61,7 @@ public class Actual {
 		request = r != null
 				? Arrays.copyOf( r, r.length )
 				: null;
+		populated.accept( "request", request );
 		return this;
 	}
 
@@ -61,6 +86,7 @@ public class Actual {
 		response = r != null
 				? Arrays.copyOf( r, r.length )
 				: null;
+		populated.accept( "response", response );
 		return this;
 	}
 }
@@ -10,6 +10,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -18,6 +20,7 @@ import java.util.stream.Stream;
 import com.mastercard.test.flow.Actor;
 import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.Interaction;
+import com.mastercard.test.flow.Message;
 
 /**
  * The unit of assertion processing: a single interaction. The model provides
@@ -28,7 +31,14 @@ public class Assertion {
 	private final Flow flow;
 	private final Interaction expected;
 	private final AbstractFlocessor<?> flocessor;
-	private final Actual actual = new Actual();
+	private final Actual actual = new Actual( this::populated );
+
+	/**
+	 * The eventual results of processing the populated actual data, keyed by
+	 * message type
+	 */
+	private final Map<String,
+			CompletableFuture<Harvest.Rendered>> rendered = new ConcurrentHashMap<>();
 
 	/**
 	 * Assertion peers for interaction structure
@@ -73,6 +83,35 @@ public class Assertion {
 		return actual;
 	}
 
+	/**
+	 * Called when actual data is populated, gives the flocessor the opportunity to
+	 * start processing it
+	 *
+	 * @param type The message type
+	 * @param data The actual message data
+	 */
+	private void populated( String type, byte[] data ) {
+		Message msg = "request".equals( type ) ? expected.request() : expected.response();
+		CompletableFuture<Harvest.Rendered> early = data != null && msg != null
+				? flocessor.harvested( flow, expected, type, msg, data )
+				: null;
+		if( early != null ) {
+			rendered.put( type, early );
+		}
+		else {
+			rendered.remove( type );
+		}
+	}
+
+	/**
+	 * @param type The message type
+	 * @return The eventual results of processing the populated data of that type,
+	 *         or <code>null</code> if that processing has not been started
+	 */
+	CompletableFuture<Harvest.Rendered> rendered( String type ) {
+		return rendered.get( type );
+	}
+
 	/**
 	 * Allows assertion on child interactions
 	 *
@@ -5,6 +5,7 @@ import java.util.function.Consumer;
 import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.assrt.filter.FilterOptions;
 import com.mastercard.test.flow.report.LocalBrowse;
+import com.mastercard.test.flow.report.Writer;
 import com.mastercard.test.flow.report.duct.Duct;
 import com.mastercard.test.flow.util.Option;
 
@@ -38,6 +39,58 @@ public enum AssertionOptions implements Option {
 	 */
 	BROWSE_XDG_OPEN_FALLBACK(LocalBrowse.XDG_OPEN_FALLBACK),
 
+	/**
+	 * Controls concurrent {@link Flow} processing
+	 */
+	PARALLELISM(b -> b
+			.property( "mctf.parallel" )
+			.defaultValue( "1" )
+			.description( "Set to an integer greater than 1 to process independent flows"
+					+ " on that many threads when the system under test is stateless" )),
+
+	/**
+	 * Controls whether harvested messages are processed on background threads
+	 */
+	COMPARISON(b -> b
+			.property( "mctf.compare" )
+			.defaultValue( "0" )
+			.description( "Set to a positive integer to parse harvested messages on that"
+					+ " many background threads as soon as they are populated" )),
+
+	/**
+	 * Controls whether expected message renderings are persisted between runs
+	 */
+	RENDER_CACHE(b -> b
+			.property( "mctf.compare.cache" )
+			.description( "Set to `true` to persist the masked renderings of expected messages"
+					+ " alongside the reports, so that later runs can reuse them."
+					+ " Persisted renderings are discarded when the model classpath changes" )),
+
+	/**
+	 * Controls whether report updates are written on a background thread
+	 */
+	REPORT_QUEUE(b -> b
+			.property( "mctf.report.queue" )
+			.defaultValue( "0" )
+			.description( "Set to a positive integer to write report updates on"
+					+ " a background thread, with that many flows awaiting a write at most."
+					+ " Repeated updates to a waiting flow are combined." )),
+
+	/**
+	 * Controls report file formatting. An alias for {@link Writer#INDENT}
+	 */
+	REPORT_INDENT(Writer.INDENT),
+
+	/**
+	 * Controls incremental index writing in reports
+	 */
+	REPORT_INDEX_INTERVAL(b -> b
+			.property( "mctf.report.index.interval" )
+			.defaultValue( "0" )
+			.description( "Set to a positive integer to append report index updates"
+					+ " to a log file, with the index file itself only being rewritten"
+					+ " when that many milliseconds have elapsed since the last rewrite." )),
+
 	/**
 	 * Controls whether we use {@link Duct} or not
 	 */
@@ -0,0 +1,376 @@
+package com.mastercard.test.flow.assrt;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.Interaction;
+import com.mastercard.test.flow.Message;
+import com.mastercard.test.flow.Unpredictable;
+import com.mastercard.test.flow.util.Bytes;
+import com.mastercard.test.flow.util.Classpath;
+import com.mastercard.test.flow.util.Dependencies;
+import com.mastercard.test.flow.util.Flows;
+
+/**
+ * Parses and renders the message data that is harvested from the system under
+ * test. If {@link AssertionOptions#COMPARISON} is set then this work is started
+ * on background threads as soon as data is populated into an {@link Actual},
+ * leaving only the comparison itself to be done once the test behaviour has
+ * completed.
+ * <p>
+ * The masked renderings of expected messages are cached. If
+ * {@link AssertionOptions#RENDER_CACHE} is set then the cache is persisted so
+ * that subsequent runs can skip rendering the expected messages that have not
+ * changed. Persisted renderings are addressed by the location of the message in
+ * the model, its type and the masks that are applied to it, and by a digest of
+ * its content. The operations that masks apply are defined in code, so the
+ * persisted renderings are discarded if the
+ * {@link Classpath#checksum(Collection) model classpath} has changed.
+ * </p>
+ */
+class Harvest {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial( () -> {
+		try {
+			return MessageDigest.getInstance( "SHA-256" );
+		}
+		catch( NoSuchAlgorithmException nsae ) {
+			throw new IllegalStateException( "Every java platform supports SHA-256", nsae );
+		}
+	} );
+
+	private final Unpredictable[] masks;
+
+	/**
+	 * Where harvested data is processed, or <code>null</code> if it is processed on
+	 * demand
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Whether {@link #executor} has been decided
+	 */
+	private boolean decided = false;
+
+	/**
+	 * Masked expected renderings, keyed by message identity
+	 */
+	private final Map<Message, String> expected = Collections
+			.synchronizedMap( new IdentityHashMap<>() );
+
+	/**
+	 * Masked expected renderings that have been used in this run, keyed by
+	 * {@link #key(String, Message)}. Only populated if
+	 * {@link #persist(Path, Class)} has been called.
+	 */
+	private final Map<String, String> renderings = new ConcurrentHashMap<>();
+
+	/**
+	 * Masked expected renderings that were persisted by a previous run, keyed by
+	 * {@link #key(String, Message)}
+	 */
+	private final Map<String, String> persisted = new ConcurrentHashMap<>();
+
+	/**
+	 * Where renderings are persisted, or <code>null</code> if they are not
+	 */
+	private volatile Path persistence;
+
+	/**
+	 * The checksum of the model classpath
+	 */
+	private String checksum;
+
+	/**
+	 * @param masks The sources of unpredictability to mask when rendering messages
+	 */
+	Harvest( Unpredictable... masks ) {
+		this.masks = masks.clone();
+	}
+
+	/**
+	 * Signals that the content of expected messages has changed, e.g.: as a result
+	 * of dependency publication
+	 *
+	 * @param changed The messages that have changed
+	 */
+	void invalidate( Collection<Message> changed ) {
+		for( Message msg : changed ) {
+			// a rendering that is in progress will complete before we remove it
+			synchronized( msg ) {
+				expected.remove( msg );
+			}
+		}
+	}
+
+	/**
+	 * Stops the threads that process harvested data. Processing will revert to
+	 * being on demand until another {@link Harvest} is started.
+	 */
+	synchronized void shutdown() {
+		if( executor != null ) {
+			// submitted work will still be completed
+			executor.shutdown();
+			executor = null;
+		}
+		decided = false;
+	}
+
+	/**
+	 * Loads persisted renderings, and arranges for them to be saved by
+	 * {@link #save()}
+	 *
+	 * @param file  Where renderings are persisted
+	 * @param model The type of the model that holds the expected messages
+	 * @return <code>this</code>
+	 */
+	synchronized Harvest persist( Path file, Class<?> model ) {
+		if( !file.equals( persistence ) ) {
+			List<Class<?>> types = new ArrayList<>();
+			types.add( model );
+			Stream.of( masks ).forEach( m -> types.add( m.getClass() ) );
+			checksum = Classpath.checksum( types );
+			persisted.clear();
+			if( Files.exists( file ) ) {
+				try {
+					Stored stored = JSON.readValue( file.toFile(), Stored.class );
+					if( checksum.equals( stored.checksum ) && stored.renderings != null ) {
+						persisted.putAll( stored.renderings );
+					}
+				}
+				catch( @SuppressWarnings("unused") IOException ioe ) {
+					// it's just a cache, we can do without it
+				}
+			}
+			persistence = file;
+		}
+		return this;
+	}
+
+	/**
+	 * Persists the renderings that have been used in this run, if
+	 * {@link #persist(Path, Class)} has been called
+	 */
+	synchronized void save() {
+		if( persistence != null ) {
+			try {
+				Files.createDirectories( persistence.toAbsolutePath().getParent() );
+				Stored stored = new Stored();
+				stored.checksum = checksum;
+				stored.renderings = new TreeMap<>( renderings );
+				JSON.writeValue( persistence.toFile(), stored );
+			}
+			catch( @SuppressWarnings("unused") IOException ioe ) {
+				// oh well, we'll have to render them again next time
+			}
+		}
+	}
+
+	/**
+	 * Renders an expected message
+	 *
+	 * @param address Supplies the location of the message in the model. This is
+	 *                only called if renderings are being persisted.
+	 * @param msg     The expected message
+	 * @return The masked rendering of that message
+	 */
+	String expected( Supplier<String> address, Message msg ) {
+		String r = expected.get( msg );
+		if( r == null ) {
+			// dependency publication mutates messages under their own monitor
+			synchronized( msg ) {
+				String text;
+				if( persistence == null ) {
+					text = msg.assertable( masks );
+				}
+				else {
+					String key = key( address.get(), msg );
+					text = renderings.get( key );
+					if( text == null ) {
+						text = persisted.get( key );
+					}
+					if( text == null ) {
+						text = msg.assertable( masks );
+					}
+					renderings.put( key, text );
+				}
+				expected.put( msg, text );
+				r = text;
+			}
+		}
+		return r;
+	}
+
+	/**
+	 * Computes the location of an expected message in the model
+	 *
+	 * @param flow The {@link Flow} that contains the message
+	 * @param ntr  The {@link Interaction} that contains the message
+	 * @param type The message type
+	 * @return A string that identifies the message in the model
+	 */
+	static String address( Flow flow, Interaction ntr, String type ) {
+		return String.format( "%s %s %s",
+				flow.meta().id(),
+				Flows.interactions( flow ).takeWhile( i -> i != ntr ).count(),
+				type );
+	}
+
+	/**
+	 * Computes the cache key for an expected message
+	 *
+	 * @param address The location of the message in the model
+	 * @param msg     The expected message
+	 * @return A digest of the message location, type, masks and content
+	 */
+	private String key( String address, Message msg ) {
+		MessageDigest digest = DIGEST.get();
+		digest.update( address.getBytes( UTF_8 ) );
+		digest.update( (byte) 0 );
+		digest.update( msg.getClass().getName().getBytes( UTF_8 ) );
+		for( Unpredictable mask : masks ) {
+			digest.update( (byte) 0 );
+			digest.update( mask.name().getBytes( UTF_8 ) );
+		}
+		digest.update( (byte) 0 );
+		digest.update( msg.content() );
+		return Bytes.toHex( digest.digest() );
+	}
+
+	/**
+	 * Starts processing harvested data
+	 *
+	 * @param address Supplies the location of the expected message in the model
+	 * @param ntr     The {@link Interaction} that the data was harvested from
+	 * @param msg     The expected {@link Message}
+	 * @param data    The actual message data. This must not be altered.
+	 * @return The eventual results of processing, or <code>null</code> if the data
+	 *         should be processed on demand instead
+	 */
+	CompletableFuture<Rendered> submit( Supplier<String> address, Interaction ntr, Message msg,
+			byte[] data ) {
+		Executor exec = executor();
+		if( exec == null ) {
+			return null;
+		}
+		return CompletableFuture.supplyAsync( () -> {
+			// warm the cache while we're here
+			expected( address, msg );
+			return render( ntr, msg, data );
+		}, exec );
+	}
+
+	/**
+	 * Gets the results of processing harvested data
+	 *
+	 * @param ntr       The {@link Interaction} that the data was harvested from
+	 * @param msg       The expected {@link Message}
+	 * @param data      The actual message data
+	 * @param submitted The results of
+	 *                  {@link #submit(Supplier, Interaction, Message, byte[])}, or
+	 *                  <code>null</code>
+	 * @return The parsed and rendered data
+	 */
+	Rendered rendered( Interaction ntr, Message msg, byte[] data,
+			CompletableFuture<Rendered> submitted ) {
+		if( submitted == null ) {
+			return render( ntr, msg, data );
+		}
+		try {
+			return submitted.join();
+		}
+		catch( CompletionException ce ) {
+			if( ce.getCause() instanceof RuntimeException ) {
+				throw (RuntimeException) ce.getCause();
+			}
+			if( ce.getCause() instanceof Error ) {
+				throw (Error) ce.getCause();
+			}
+			throw ce;
+		}
+	}
+
+	private Rendered render( Interaction ntr, Message msg, byte[] data ) {
+		Message parsed = Dependencies.parse( ntr, msg, data );
+		return new Rendered( parsed, parsed.assertable(), parsed.assertable( masks ) );
+	}
+
+	private synchronized Executor executor() {
+		if( !decided ) {
+			decided = true;
+			int threads = AssertionOptions.COMPARISON.asInt();
+			if( threads > 0 ) {
+				AtomicInteger count = new AtomicInteger( 0 );
+				executor = Executors.newFixedThreadPool( threads, r -> {
+					Thread t = new Thread( r, "compare-" + count.incrementAndGet() );
+					t.setDaemon( true );
+					return t;
+				} );
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * The persisted form of renderings
+	 */
+	private static class Stored {
+		/**
+		 * The checksum of the model classpath that the renderings were produced from
+		 */
+		public String checksum;
+		/**
+		 * Masked expected renderings, keyed by {@link Harvest#key(String, Message)}
+		 */
+		public Map<String, String> renderings;
+	}
+
+	/**
+	 * The results of processing harvested data
+	 */
+	static class Rendered {
+		/**
+		 * The data, parsed as the expected message type
+		 */
+		final Message parsed;
+		/**
+		 * The unmasked rendering of the parsed message
+		 */
+		final String full;
+		/**
+		 * The masked rendering of the parsed message
+		 */
+		final String masked;
+
+		Rendered( Message parsed, String full, String masked ) {
+			this.parsed = parsed;
+			this.full = full;
+			this.masked = masked;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.mastercard.test.flow.assrt;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -57,7 +58,7 @@ public class History {
 		}
 	}
 
-	private final Map<Flow, Result> results = new HashMap<>();
+	private final Map<Flow, Result> results = Collections.synchronizedMap( new HashMap<>() );
 
 	/**
 	 * Records the outcome of {@link Flow} processing. This data will be used to
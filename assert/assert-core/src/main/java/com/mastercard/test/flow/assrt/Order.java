@@ -7,12 +7,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.assrt.order.Graph;
-import com.mastercard.test.flow.util.Tags;
+import com.mastercard.test.flow.util.TagDictionary;
 
 /**
  * Calculates an order in which {@link Flow}s should be processed in such that:
@@ -66,9 +67,11 @@ public class Order {
 
 		// Build chains. flows that are not actually in a chain are implicitly in a
 		// chain all on their lonesomes
+		TagDictionary dictionary = TagDictionary.shared();
 		flows.forEach( f -> {
-			String chain = Tags.suffix( f.meta().tags(), CHAIN_TAG_PREFIX )
-					.orElse( f.meta().id() );
+			String chain = Optional.ofNullable(
+					dictionary.suffix( f.meta().tagBits(), CHAIN_TAG_PREFIX ) )
+					.orElseGet( () -> f.meta().id() );
 			chains.computeIfAbsent( chain, c -> new ArrayList<>() ).add( f );
 			chainNames.put( f, chain );
 		} );
@@ -0,0 +1,273 @@
+package com.mastercard.test.flow.assrt;
+
+import static com.mastercard.test.flow.assrt.Order.CHAIN_TAG_PREFIX;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.mastercard.test.flow.Context;
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.util.Flows;
+import com.mastercard.test.flow.util.Tags;
+
+/**
+ * Processes {@link Flow}s concurrently. Each {@link Flow} waits for the
+ * {@link Flow}s that it must follow, i.e.:
+ * <ul>
+ * <li>The previous {@link Flow} in its sequence, e.g.: its chain or its
+ * lane</li>
+ * <li>The sources of its data dependencies</li>
+ * <li>Its nearest basis ancestor, so that failure avoidance still works</li>
+ * <li>All of the {@link Flow}s that require a different set of {@link Context}s
+ * and which precede it in the processing order</li>
+ * </ul>
+ * Only those {@link Flow}s that precede a {@link Flow} in the processing order
+ * are considered, so cyclic waits are impossible.
+ * <p>
+ * {@link Flow}s are submitted for processing in order as the test framework
+ * asks for them, reading ahead by a bounded number of {@link Flow}s so that the
+ * executor is kept busy. Prerequisites always precede a {@link Flow} in the
+ * processing order, so they will have been submitted first. {@link Flow}s that
+ * the test framework never asks for will only be processed if they fall within
+ * the read-ahead.
+ * </p>
+ */
+class ParallelRun {
+
+	private final List<Flow> order;
+	private final Map<Flow, Integer> positions = new HashMap<>();
+	private final int readAhead;
+	private final Function<Flow, Object> sequenceKey;
+	private final Function<Flow, Object> contextKey;
+	private final Consumer<Flow> process;
+	private final Executor executor;
+
+	/**
+	 * The eventual outcome of processing each submitted {@link Flow}
+	 */
+	private final Map<Flow, CompletableFuture<Void>> outcomes = new HashMap<>();
+	/**
+	 * The most recently-submitted {@link Flow} in each sequence
+	 */
+	private final Map<Object, Flow> sequenceTails = new HashMap<>();
+	/**
+	 * Completes when all {@link Flow}s in the previous context batch have been
+	 * processed
+	 */
+	private CompletableFuture<Void> barrier = CompletableFuture.completedFuture( null );
+	/**
+	 * The {@link Flow}s submitted so far in the current context batch
+	 */
+	private List<CompletableFuture<Void>> batch = new ArrayList<>();
+	private Object batchKey = null;
+	/**
+	 * The number of {@link Flow}s in {@link #order} that have been submitted
+	 */
+	private int submitted = 0;
+
+	/**
+	 * Prepares for processing
+	 *
+	 * @param order       The {@link Flow}s to process, in order
+	 * @param readAhead   How many {@link Flow}s beyond the one that the test
+	 *                    framework is waiting for can be submitted
+	 * @param sequenceKey Extracts the sequence that a {@link Flow} belongs to, or
+	 *                    <code>null</code> if it is not in a sequence. The
+	 *                    {@link Flow}s in a sequence are processed one after the
+	 *                    other.
+	 * @param contextKey  Extracts the aspect of a {@link Flow} that cannot vary
+	 *                    between concurrently-processed {@link Flow}s
+	 * @param process     How to process a {@link Flow}
+	 * @param executor    Where to process {@link Flow}s
+	 */
+	ParallelRun( List<Flow> order, int readAhead, Function<Flow, Object> sequenceKey,
+			Function<Flow, Object> contextKey, Consumer<Flow> process, Executor executor ) {
+		this.order = order;
+		this.readAhead = readAhead;
+		this.sequenceKey = sequenceKey;
+		this.contextKey = contextKey;
+		this.process = process;
+		this.executor = executor;
+		for( int i = 0; i < order.size(); i++ ) {
+			positions.putIfAbsent( order.get( i ), i );
+		}
+	}
+
+	/**
+	 * Submits {@link Flow}s for processing
+	 *
+	 * @param through The index in the processing order of the last {@link Flow} to
+	 *                submit
+	 */
+	private void submit( int through ) {
+		for( ; submitted <= through && submitted < order.size(); submitted++ ) {
+			Flow flow = order.get( submitted );
+			Object key = contextKey.apply( flow );
+			if( !batch.isEmpty() && !key.equals( batchKey ) ) {
+				// the context is changing, so we have to wait for everything in the previous
+				// batch to finish
+				barrier = CompletableFuture.allOf( batch.toArray( new CompletableFuture[0] ) );
+				batch = new ArrayList<>();
+			}
+			batchKey = key;
+
+			List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+			prerequisites.add( barrier );
+			Optional.ofNullable( sequenceKey.apply( flow ) )
+					.map( seq -> sequenceTails.put( seq, flow ) )
+					.map( outcomes::get )
+					.ifPresent( prerequisites::add );
+			Stream.concat(
+					flow.dependencies()
+							.map( d -> d.source().getFlow() )
+							.filter( Optional::isPresent )
+							.map( Optional::get ),
+					Flows.ancestors( flow )
+							.filter( outcomes::containsKey )
+							.limit( 1 ) )
+					.map( outcomes::get )
+					.filter( Objects::nonNull )
+					.forEach( prerequisites::add );
+
+			CompletableFuture<Void> outcome = CompletableFuture
+					.allOf( prerequisites.toArray( new CompletableFuture[0] ) )
+					// prerequisite failure is no reason to not process the flow - it will make its
+					// own decision about whether to skip or not
+					.handle( ( v, t ) -> v )
+					.thenRunAsync( () -> process.accept( flow ), executor );
+			outcomes.put( flow, outcome );
+			batch.add( outcome );
+		}
+	}
+
+	/**
+	 * @param flow A {@link Flow}
+	 * @return The chain that the {@link Flow} belongs to, or <code>null</code>
+	 */
+	static Object chain( Flow flow ) {
+		return Tags.suffix( flow.meta().tags(), CHAIN_TAG_PREFIX ).orElse( null );
+	}
+
+	/**
+	 * Divides {@link Flow}s into lanes that can be processed independently of each
+	 * other. {@link Flow}s that are linked by chain membership or data dependency
+	 * will always share a lane. Groups of linked {@link Flow}s are assigned in
+	 * processing order to the least-occupied lane, so the assignment is
+	 * deterministic.
+	 *
+	 * @param order The {@link Flow}s to divide, in processing order
+	 * @param count The maximum number of lanes
+	 * @return The lane index of each {@link Flow}
+	 */
+	static Map<Flow, Integer> lanes( List<Flow> order, int count ) {
+		// union-find over the links between flows
+		Map<Flow, Flow> parent = new HashMap<>();
+		order.forEach( flow -> parent.put( flow, flow ) );
+		Map<Object, Flow> chains = new HashMap<>();
+		for( Flow flow : order ) {
+			Optional.ofNullable( chain( flow ) )
+					.map( c -> chains.putIfAbsent( c, flow ) )
+					.ifPresent( first -> union( parent, first, flow ) );
+			flow.dependencies()
+					.map( d -> d.source().getFlow() )
+					.filter( Optional::isPresent )
+					.map( Optional::get )
+					.filter( parent::containsKey )
+					.forEach( source -> union( parent, source, flow ) );
+		}
+
+		int[] occupancy = new int[Math.max( 1, count )];
+		Map<Flow, Integer> groupLanes = new HashMap<>();
+		Map<Flow, Integer> lanes = new LinkedHashMap<>();
+		for( Flow flow : order ) {
+			int lane = groupLanes.computeIfAbsent( root( parent, flow ), r -> {
+				int least = 0;
+				for( int i = 1; i < occupancy.length; i++ ) {
+					if( occupancy[i] < occupancy[least] ) {
+						least = i;
+					}
+				}
+				return least;
+			} );
+			occupancy[lane]++;
+			lanes.put( flow, lane );
+		}
+		return lanes;
+	}
+
+	private static Flow root( Map<Flow, Flow> parent, Flow flow ) {
+		Flow root = flow;
+		while( parent.get( root ) != root ) {
+			root = parent.get( root );
+		}
+		// compress the path for subsequent lookups
+		Flow f = flow;
+		while( f != root ) {
+			Flow next = parent.get( f );
+			parent.put( f, root );
+			f = next;
+		}
+		return root;
+	}
+
+	private static void union( Map<Flow, Flow> parent, Flow a, Flow b ) {
+		Flow ra = root( parent, a );
+		Flow rb = root( parent, b );
+		if( ra != rb ) {
+			parent.put( rb, ra );
+		}
+	}
+
+	/**
+	 * @param flow A {@link Flow}
+	 * @return <code>true</code> if that {@link Flow} is being processed in this run
+	 */
+	boolean contains( Flow flow ) {
+		return positions.containsKey( flow );
+	}
+
+	/**
+	 * @return The number of {@link Flow}s that have been submitted for processing
+	 */
+	synchronized int submitted() {
+		return submitted;
+	}
+
+	/**
+	 * Waits for a {@link Flow} to be processed, and rethrows any failures that
+	 * resulted
+	 *
+	 * @param flow The {@link Flow}
+	 */
+	void await( Flow flow ) {
+		CompletableFuture<Void> outcome;
+		synchronized( this ) {
+			submit( positions.get( flow ) + readAhead );
+			outcome = outcomes.get( flow );
+		}
+		try {
+			outcome.join();
+		}
+		catch( CompletionException ce ) {
+			Throwable cause = ce.getCause();
+			if( cause instanceof RuntimeException ) {
+				throw (RuntimeException) cause;
+			}
+			if( cause instanceof Error ) {
+				throw (Error) cause;
+			}
+			throw ce;
+		}
+	}
+}
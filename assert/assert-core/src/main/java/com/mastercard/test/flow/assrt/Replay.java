@@ -5,13 +5,22 @@ import static java.util.stream.Collectors.joining;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
+import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.Interaction;
 import com.mastercard.test.flow.report.Reader;
+import com.mastercard.test.flow.report.Writer;
 import com.mastercard.test.flow.report.data.Entry;
 import com.mastercard.test.flow.report.data.FlowData;
 import com.mastercard.test.flow.report.data.Index;
@@ -69,9 +78,36 @@ public class Replay {
 		return src;
 	}
 
+	/**
+	 * The number of parsed {@link FlowData} instances that we'll hold on to. Each
+	 * {@link Flow} can be populated several times (once for each of the
+	 * interactions that enter the system under test) but those will typically be in
+	 * quick succession, so we don't need to hold much.
+	 */
+	private static final int DETAIL_CACHE_SIZE = 16;
+
 	private final Reader reader;
 	private final Index index;
 
+	/**
+	 * The index entries, keyed by {@link #key(String, Collection)}
+	 */
+	private final Map<List<Object>, Entry> entries = new HashMap<>();
+
+	/**
+	 * Recently-parsed flow data, in access order
+	 */
+	private final Map<Entry, FlowData> details = new LinkedHashMap<Entry, FlowData>(
+			DETAIL_CACHE_SIZE, 0.75f, true ) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry( Map.Entry<Entry, FlowData> eldest ) {
+			return size() > DETAIL_CACHE_SIZE;
+		}
+	};
+
 	/**
 	 * @param source The path to the report to use as a source of data, or
 	 *               <code>null</code> for an empty {@link Replay}
@@ -84,6 +120,11 @@ public class Replay {
 		if( source != null && index == null ) {
 			throw new IllegalStateException( "No index data found in " + source );
 		}
+
+		if( index != null ) {
+			// the first matching entry wins, as per Reader.matches()
+			index.entries.forEach( e -> entries.putIfAbsent( key( e.description, e.tags ), e ) );
+		}
 	}
 
 	/**
@@ -103,16 +144,13 @@ public class Replay {
 	 */
 	public String populate( Assertion t ) {
 		// find the index entry that matches the flow
-		Entry ie = index.entries.stream()
-				.filter( e -> Reader.matches( e, t.flow() ) )
-				.findFirst()
-				.orElse( null );
+		Entry ie = entries.get( key( t.flow().meta().description(), t.flow().meta().tags() ) );
 		if( ie == null ) {
 			return "No matching index entry for " + t.flow().meta().id();
 		}
 
 		// read the indexed flow data
-		FlowData fd = reader.detail( ie );
+		FlowData fd = detail( ie );
 		if( fd == null ) {
 			return String.format( "No file for %s %s, expected it at detail/%s.html",
 					ie.description, ie.tags, ie.detail );
@@ -131,6 +169,32 @@ public class Replay {
 		return null;
 	}
 
+	/**
+	 * Builds the index lookup key. The equality of these keys is equivalent to
+	 * {@link Reader#matches(Entry, Flow)}
+	 *
+	 * @param description A {@link Flow} description
+	 * @param tags        A {@link Flow}'s tags
+	 * @return A key that identifies the {@link Flow}, discounting
+	 *         {@link Writer#RESULT_TAGS}
+	 */
+	private static List<Object> key( String description, Collection<String> tags ) {
+		Set<String> identity = new HashSet<>( tags );
+		identity.removeAll( Writer.RESULT_TAGS );
+		return Arrays.asList( description, identity );
+	}
+
+	/**
+	 * @param entry An index entry
+	 * @return The parsed flow data for that entry, or <code>null</code> if there is
+	 *         no such data
+	 */
+	private FlowData detail( Entry entry ) {
+		synchronized( details ) {
+			return details.computeIfAbsent( entry, reader::detail );
+		}
+	}
+
 	/**
 	 * Searches the artifact dir (typically target/mctf or build/mctf) for the most
 	 * recent execution report
@@ -0,0 +1,200 @@
+package com.mastercard.test.flow.assrt;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.report.Writer;
+import com.mastercard.test.flow.report.data.FlowData;
+
+/**
+ * Applies report updates to a {@link Writer} on a background thread, so that
+ * report serialisation and filesystem access are kept off the critical path of
+ * {@link Flow} processing. Updates for a {@link Flow} that is already waiting
+ * to be written are combined into a single write.
+ * <p>
+ * The writer thread and its shutdown hook only exist while there is work in
+ * progress: both are retired by {@link #flush()}, so a flushed queue holds no
+ * resources and can be garbage collected.
+ * </p>
+ */
+class ReportQueue {
+
+	/**
+	 * The destination of report updates
+	 */
+	private final Writer writer;
+
+	/**
+	 * The maximum number of {@link Flow}s that can be awaiting a write
+	 */
+	private final int capacity;
+
+	/**
+	 * {@link Flow} updates that are awaiting a write, in submission order
+	 */
+	private final Map<Flow, Consumer<FlowData>> pending = new LinkedHashMap<>();
+
+	/**
+	 * <code>true</code> while the writer thread is applying an update
+	 */
+	private boolean writing = false;
+
+	/**
+	 * The first failure encountered by the writer thread
+	 */
+	private Throwable failure;
+
+	/**
+	 * The writer thread, which is started on the first submission after
+	 * construction or {@link #flush()}
+	 */
+	private Thread thread;
+
+	/**
+	 * Ensures that updates are written if the JVM exits without a {@link #flush()}.
+	 * Registered alongside the writer thread.
+	 */
+	private Thread hook;
+
+	/**
+	 * @param writer   The destination of report updates
+	 * @param capacity The maximum number of {@link Flow}s that can be awaiting a
+	 *                 write. Submissions beyond this will block until the writer
+	 *                 thread catches up.
+	 */
+	ReportQueue( Writer writer, int capacity ) {
+		if( capacity < 1 ) {
+			throw new IllegalArgumentException( "Capacity must be positive, not " + capacity );
+		}
+		this.writer = writer;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Queues a report update
+	 *
+	 * @param flow   The {@link Flow} to update
+	 * @param update The update to apply to the {@link Flow}'s report data
+	 * @throws IllegalStateException if a previous update has failed
+	 */
+	synchronized void submit( Flow flow, Consumer<FlowData> update ) {
+		checkFailure();
+		if( thread == null ) {
+			thread = new Thread( this::run, "report-writer" );
+			thread.setDaemon( true );
+			thread.start();
+			hook = new Thread( this::flush, "report-flush" );
+			Runtime.getRuntime().addShutdownHook( hook );
+		}
+		while( pending.size() >= capacity && !pending.containsKey( flow ) ) {
+			await();
+			checkFailure();
+		}
+		pending.merge( flow, update, Consumer::andThen );
+		notifyAll();
+	}
+
+	/**
+	 * Blocks until all submitted updates have been written to the report, then
+	 * brings the report index up to date. The writer thread and shutdown hook are
+	 * retired, a subsequent {@link #submit(Flow, Consumer)} will start new ones.
+	 *
+	 * @throws IllegalStateException if an update has failed
+	 */
+	synchronized void flush() {
+		while( writing || !pending.isEmpty() ) {
+			if( thread == null || !thread.isAlive() ) {
+				break;
+			}
+			await();
+		}
+		retire();
+		checkFailure();
+		writer.flush();
+	}
+
+	/**
+	 * Releases the writer thread and deregisters the shutdown hook. Must be called
+	 * while holding the monitor
+	 */
+	private void retire() {
+		thread = null;
+		notifyAll();
+		if( hook != null ) {
+			try {
+				Runtime.getRuntime().removeShutdownHook( hook );
+			}
+			catch( @SuppressWarnings("unused") IllegalStateException ise ) {
+				// the JVM is already shutting down, which is probably why we're being flushed
+			}
+			hook = null;
+		}
+	}
+
+	private void run() {
+		while( true ) {
+			Flow flow;
+			Consumer<FlowData> update;
+			synchronized( this ) {
+				while( thread == Thread.currentThread() && pending.isEmpty() ) {
+					await();
+				}
+				if( thread != Thread.currentThread() ) {
+					// we've been retired
+					return;
+				}
+				Iterator<Map.Entry<Flow, Consumer<FlowData>>> itr = pending.entrySet().iterator();
+				Map.Entry<Flow, Consumer<FlowData>> next = itr.next();
+				itr.remove();
+				flow = next.getKey();
+				update = next.getValue();
+				writing = true;
+				notifyAll();
+			}
+
+			try {
+				writer.with( flow, update );
+			}
+			// we're not trying to recover from the failure, we're just holding on to it
+			// so that it can be rethrown on the processing thread
+			catch( Throwable e ) {
+				synchronized( this ) {
+					if( failure == null ) {
+						failure = e;
+					}
+				}
+			}
+			finally {
+				synchronized( this ) {
+					writing = false;
+					notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits for a change in queue state. Must be called while holding the monitor
+	 */
+	private void await() {
+		try {
+			wait();
+		}
+		catch( InterruptedException ie ) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException( "Interrupted while waiting for report writes", ie );
+		}
+	}
+
+	/**
+	 * Rethrows the first background failure, if there has been one
+	 */
+	private void checkFailure() {
+		if( failure != null ) {
+			throw new IllegalStateException( "Failed to write report", failure );
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package com.mastercard.test.flow.assrt.log;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.mastercard.test.flow.report.data.LogEvent;
+
+/**
+ * Assembles decoded log file characters into lines, and lines into
+ * {@link LogEvent}s. Characters can be supplied in arbitrary chunks - partial
+ * lines and events are retained until they are completed.
+ */
+class EventParser {
+
+	private static final String SOURCE_CAPTURE_GROUP = "source";
+	private static final String LEVEL_CAPTURE_GROUP = "level";
+	private static final String TIME_CAPTURE_GROUP = "time";
+
+	private final Pattern pattern;
+	private final Predicate<LogEvent> sink;
+
+	private final StringBuilder line = new StringBuilder();
+	private final StringBuilder content = new StringBuilder();
+	private int pendingEmptyLines = 0;
+	private String time = null;
+	private String level = null;
+	private String source = null;
+	private boolean stopped = false;
+
+	/**
+	 * @param pattern A regular expression that matches the start of a new log line
+	 *                and captures the event time, level and source (capture groups
+	 *                named <code>time</code>, <code>level</code> and
+	 *                <code>source</code> are assumed to exist).
+	 * @param sink    Consumes completed events. Return <code>false</code> to stop
+	 *                parsing.
+	 */
+	EventParser( Pattern pattern, Predicate<LogEvent> sink ) {
+		this.pattern = pattern;
+		this.sink = sink;
+	}
+
+	/**
+	 * @return <code>true</code> if the sink has refused an event
+	 */
+	boolean stopped() {
+		return stopped;
+	}
+
+	/**
+	 * Parses characters. All remaining characters in the buffer are consumed
+	 *
+	 * @param chars decoded file content
+	 */
+	void accept( CharBuffer chars ) {
+		char[] array = chars.array();
+		int start = chars.arrayOffset() + chars.position();
+		int end = chars.arrayOffset() + chars.limit();
+		for( int i = start; i < end && !stopped; i++ ) {
+			if( array[i] == '\n' ) {
+				line.append( array, start, i - start );
+				line( line.toString() );
+				line.setLength( 0 );
+				start = i + 1;
+			}
+		}
+		if( start < end && !stopped ) {
+			line.append( array, start, end - start );
+		}
+		chars.position( chars.limit() );
+	}
+
+	/**
+	 * Builds a snapshot of the event that is currently being parsed
+	 *
+	 * @return The incomplete event, or <code>null</code> if there is no such event
+	 */
+	LogEvent pending() {
+		if( time == null ) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder( content );
+		if( line.length() > 0 && !pattern.matcher( line ).find() ) {
+			for( int i = 0; i < pendingEmptyLines; i++ ) {
+				sb.append( "\n" );
+			}
+			sb.append( "\n" ).append( line );
+		}
+		return new LogEvent( time, level, source, sb.toString() );
+	}
+
+	/**
+	 * Completes parsing. The final partial line and event are passed to the sink.
+	 */
+	void complete() {
+		if( line.length() > 0 ) {
+			line( line.toString() );
+			line.setLength( 0 );
+		}
+		if( time != null && !stopped ) {
+			// the final event is complete
+			emit( new LogEvent( time, level, source, content.toString() ) );
+		}
+		time = null;
+		content.setLength( 0 );
+		pendingEmptyLines = 0;
+	}
+
+	private void line( String l ) {
+		if( l.isEmpty() ) {
+			// trailing empty lines are ignored, so hold on to these until we know that
+			// there is more content
+			pendingEmptyLines++;
+			return;
+		}
+		for( ; pendingEmptyLines > 0; pendingEmptyLines-- ) {
+			parse( "" );
+		}
+		parse( l );
+	}
+
+	private void parse( String l ) {
+		Matcher m = pattern.matcher( l );
+
+		if( m.find() ) {
+			// we've found an event!
+			if( time != null ) {
+				// the previous event is complete
+				emit( new LogEvent( time, level, source, content.toString() ) );
+				content.setLength( 0 );
+			}
+			time = m.group( TIME_CAPTURE_GROUP );
+			level = m.group( LEVEL_CAPTURE_GROUP );
+			source = m.group( SOURCE_CAPTURE_GROUP );
+			content.append( uncapturedContent( l, m,
+					TIME_CAPTURE_GROUP, LEVEL_CAPTURE_GROUP, SOURCE_CAPTURE_GROUP ) );
+		}
+		else if( time != null ) {
+			// It's not the start of a new event, but we have found an event previously
+			// Assume this line is still content from the previously-found event
+			content.append( "\n" ).append( l );
+		}
+		else if( !l.isEmpty() ) {
+			// we've not found an event yet but we *are* seeing content. This is likely to
+			// happen when the event-finding pattern is incorrect. We can't just ignore the
+			// line, so add content-only events
+			emit( new LogEvent( "?", "?", "?", l ) );
+		}
+	}
+
+	private void emit( LogEvent event ) {
+		if( !stopped && !sink.test( event ) ) {
+			stopped = true;
+		}
+	}
+
+	private static String uncapturedContent( String line, Matcher m, String... groups ) {
+		int[] ranges = new int[groups.length * 2];
+		for( int i = 0; i < groups.length; i++ ) {
+			ranges[i * 2] = m.start( groups[i] );
+			ranges[i * 2 + 1] = m.end( groups[i] );
+		}
+		// capture groups cannot overlap, so sorting the start and end indices in one
+		// array is fine
+		Arrays.sort( ranges );
+
+		StringBuilder unmatched = new StringBuilder();
+		// everything before the first group
+		unmatched.append( line.substring( 0, ranges[0] ) );
+		// the stuff between each group
+		for( int i = 1; i < ranges.length - 1; i += 2 ) {
+			unmatched.append( line.substring( ranges[i], ranges[i + 1] ) );
+		}
+		// everything after the last group
+		unmatched.append( line.substring( ranges[ranges.length - 1] ) );
+
+		return unmatched.toString().trim();
+	}
+}
@@ -0,0 +1,625 @@
+package com.mastercard.test.flow.assrt.log;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.assrt.LogCapture;
+import com.mastercard.test.flow.report.data.LogEvent;
+
+/**
+ * Captures log data from many files on the local system. A single background
+ * thread polls the files and parses new content into a bounded buffer of events
+ * for each file, so {@link #start(Flow)} and {@link #end(Flow)} do not access
+ * the filesystem.
+ * <p>
+ * As content is polled periodically, events that are logged immediately before
+ * or after a {@link Flow} is exercised could be attributed to it. Use
+ * {@link #synchronous(boolean)} if that is a problem.
+ * </p>
+ * <p>
+ * Files that are discovered by a {@link #glob(Path, String) glob} while
+ * {@link Flow}s are being exercised are captured from the start if they have
+ * been created since the directory was last checked, otherwise only new content
+ * is captured. Hence a file that has been rotated away from a followed name
+ * (e.g.: <code>app.log</code> to <code>app.log.1</code>) will not have its
+ * existing content captured again.
+ * </p>
+ */
+public class Follow implements LogCapture, AutoCloseable {
+
+	private static final int BUFFER_SIZE = 16 * 1024;
+	private static final long TIMESTAMP_SLACK = 2000;
+
+	private final String defaultPattern;
+	private final List<Glob> globs = new CopyOnWriteArrayList<>();
+	private final Map<Path, Source> sources = new ConcurrentHashMap<>();
+	/**
+	 * The keys of all files that we have opened, so we can recognise them if they
+	 * are moved
+	 */
+	private final Set<Object> opened = ConcurrentHashMap.newKeySet();
+
+	private BiConsumer<String, IOException> errorHandler = ( msg, e ) -> {
+		// default to silently dropping failures
+	};
+	private int capacity = 10_000;
+	private long interval = 100;
+	private boolean synchronous = false;
+	private ToLongFunction<String> timestamp = null;
+	private String truncationMarker = "Log capture truncated";
+
+	/**
+	 * Maps from {@link Flow}s to the position in each source when
+	 * {@link #start(Flow)} was called
+	 */
+	private final Map<Flow, Map<Source, Long>> bookmarks = new ConcurrentHashMap<>();
+
+	/**
+	 * The number of polls that have been requested, guarded by <code>this</code>
+	 */
+	private long requested = 0;
+	/**
+	 * The number of requested polls that have been completed, guarded by
+	 * <code>this</code>
+	 */
+	private long completed = 0;
+	private boolean closed = false;
+	private Thread thread;
+
+	/**
+	 * Held while the files are being polled
+	 */
+	private final Object polling = new Object();
+
+	/**
+	 * @param pattern The default regular expression that matches the start of a new
+	 *                log line and captures the event time, level and source
+	 *                (capture groups named <code>time</code>, <code>level</code>
+	 *                and <code>source</code> are assumed to exist). The remaining
+	 *                content of the line and the following lines until the start of
+	 *                a new log event are used as event content.
+	 * @see Tail#Tail(Path, String)
+	 */
+	public Follow( String pattern ) {
+		defaultPattern = pattern;
+	}
+
+	/**
+	 * Adds a file to follow, with the default pattern
+	 *
+	 * @param file The path to the file
+	 * @return <code>this</code>
+	 */
+	public Follow file( Path file ) {
+		return file( file, defaultPattern );
+	}
+
+	/**
+	 * Adds a file to follow. The file does not have to exist yet.
+	 *
+	 * @param file    The path to the file
+	 * @param pattern The regular expression that matches the start of a log event
+	 *                in the file
+	 * @return <code>this</code>
+	 */
+	public Follow file( Path file, String pattern ) {
+		sources.computeIfAbsent( file,
+				f -> new Source( f, Pattern.compile( pattern ), false, false ) );
+		return this;
+	}
+
+	/**
+	 * Adds a set of files to follow, with the default pattern
+	 *
+	 * @param dir  The directory that holds the files
+	 * @param glob A glob pattern that matches the names of files in that directory
+	 * @return <code>this</code>
+	 */
+	public Follow glob( Path dir, String glob ) {
+		return glob( dir, glob, defaultPattern );
+	}
+
+	/**
+	 * Adds a set of files to follow. The directory is checked for new matching
+	 * files on every poll.
+	 *
+	 * @param dir     The directory that holds the files
+	 * @param glob    A glob pattern that matches the names of files in that
+	 *                directory
+	 * @param pattern The regular expression that matches the start of a log event
+	 *                in those files
+	 * @return <code>this</code>
+	 */
+	public Follow glob( Path dir, String glob, String pattern ) {
+		Glob g = new Glob( dir, glob, Pattern.compile( pattern ) );
+		globs.add( g );
+		discover( g );
+		return this;
+	}
+
+	/**
+	 * Sets the error handling behaviour. The default behaviour is to silently
+	 * ignore errors.
+	 *
+	 * @param handler How to deal with failures
+	 * @return <code>this</code>
+	 */
+	public Follow errors( BiConsumer<String, IOException> handler ) {
+		errorHandler = handler;
+		return this;
+	}
+
+	/**
+	 * Sets the number of events that are held for each file. If more events than
+	 * this are logged while a {@link Flow} is being exercised then the oldest will
+	 * be lost, and an event bearing the {@link #truncation(String) truncation
+	 * marker} will be added. Defaults to 10000.
+	 *
+	 * @param events The maximum number of events to hold for each file
+	 * @return <code>this</code>
+	 */
+	public Follow capacity( int events ) {
+		capacity = events;
+		return this;
+	}
+
+	/**
+	 * Sets the message of the event that is added when events have been lost
+	 *
+	 * @param marker The truncation event message
+	 * @return <code>this</code>
+	 * @see #capacity(int)
+	 */
+	public Follow truncation( String marker ) {
+		truncationMarker = marker;
+		return this;
+	}
+
+	/**
+	 * Sets how often the files are polled. Defaults to 100 milliseconds.
+	 *
+	 * @param period The delay between polls
+	 * @return <code>this</code>
+	 */
+	public Follow interval( Duration period ) {
+		interval = Math.max( 1, period.toMillis() );
+		return this;
+	}
+
+	/**
+	 * Controls whether {@link #start(Flow)} and {@link #end(Flow)} wait for the
+	 * files to be polled. This ensures that log events are attributed accurately,
+	 * at the cost of some latency. Defaults to <code>false</code>.
+	 *
+	 * @param wait <code>true</code> to wait for a poll in {@link #start(Flow)} and
+	 *             {@link #end(Flow)}
+	 * @return <code>this</code>
+	 */
+	public Follow synchronous( boolean wait ) {
+		synchronous = wait;
+		return this;
+	}
+
+	/**
+	 * Sets how event times from different files are compared.
+	 *
+	 * @param parser Converts {@link LogEvent#time} values into numeric timestamps
+	 * @return <code>this</code>
+	 * @see Merge#timestamps(ToLongFunction)
+	 */
+	public Follow timestamps( ToLongFunction<String> parser ) {
+		timestamp = parser;
+		return this;
+	}
+
+	@Override
+	public void start( Flow flow ) {
+		ensureRunning();
+		if( synchronous ) {
+			sync();
+		}
+		Map<Source, Long> marks = new HashMap<>();
+		sources.values().forEach( s -> marks.put( s, s.position() ) );
+		bookmarks.put( flow, marks );
+	}
+
+	@Override
+	public Stream<LogEvent> end( Flow flow ) {
+		if( synchronous ) {
+			sync();
+		}
+		Map<Source, Long> marks = bookmarks.remove( flow );
+		if( marks == null ) {
+			marks = new HashMap<>();
+		}
+		List<Stream<LogEvent>> streams = new ArrayList<>();
+		for( Source source : sources.values() ) {
+			// sources that were discovered after the flow started are captured in full
+			List<LogEvent> events = source.since( marks.getOrDefault( source, 0L ) );
+			if( !events.isEmpty() ) {
+				streams.add( events.stream() );
+			}
+		}
+		return Merge.merge( streams, timestamp );
+	}
+
+	/**
+	 * Polls all of the followed files immediately, on the calling thread
+	 */
+	public void poll() {
+		synchronized( polling ) {
+			globs.forEach( this::discover );
+			sources.values().forEach( Source::poll );
+			if( bookmarks.isEmpty() ) {
+				// no flow is in progress, so nobody needs the events of discovered files that
+				// have since disappeared
+				sources.values().removeIf( s -> s.discovered && s.gone );
+			}
+		}
+	}
+
+	/**
+	 * @return The number of files that are being followed
+	 */
+	int followed() {
+		return sources.size();
+	}
+
+	/**
+	 * Stops the background polling thread
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+		notifyAll();
+		if( thread == null ) {
+			sources.values().forEach( Source::close );
+		}
+	}
+
+	private synchronized void ensureRunning() {
+		if( thread == null && !closed ) {
+			thread = new Thread( this::run, "log-follow" );
+			thread.setDaemon( true );
+			thread.start();
+		}
+	}
+
+	/**
+	 * Blocks until a poll that started after this call has completed
+	 */
+	private synchronized void sync() {
+		long target = ++requested;
+		notifyAll();
+		while( completed < target && !closed && thread != null && thread.isAlive() ) {
+			try {
+				wait();
+			}
+			catch( InterruptedException ie ) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private void run() {
+		while( true ) {
+			long pass;
+			synchronized( this ) {
+				if( requested == completed && !closed ) {
+					try {
+						wait( interval );
+					}
+					catch( InterruptedException ie ) {
+						Thread.currentThread().interrupt();
+						closed = true;
+					}
+				}
+				if( closed ) {
+					notifyAll();
+					break;
+				}
+				pass = requested;
+			}
+
+			try {
+				poll();
+			}
+			catch( RuntimeException re ) {
+				errorHandler.accept( "Failed to poll", new IOException( re ) );
+			}
+
+			synchronized( this ) {
+				completed = Math.max( completed, pass );
+				notifyAll();
+			}
+		}
+		sources.values().forEach( Source::close );
+	}
+
+	private void discover( Glob glob ) {
+		if( !Files.isDirectory( glob.dir ) ) {
+			return;
+		}
+		long listing = System.currentTimeMillis();
+		try( DirectoryStream<Path> ds = Files.newDirectoryStream( glob.dir, glob.glob ) ) {
+			for( Path path : ds ) {
+				sources.computeIfAbsent( path, p -> new Source( p, glob.pattern,
+						glob.listed != null && isCreatedSince( p, glob.listed ), true ) );
+			}
+		}
+		catch( IOException ioe ) {
+			errorHandler.accept( "Failed to list " + glob.dir, ioe );
+		}
+		glob.listed = listing;
+	}
+
+	/**
+	 * @param path  A file
+	 * @param since A timestamp
+	 * @return <code>true</code> if the file has been created since the timestamp
+	 */
+	private boolean isCreatedSince( Path path, long since ) {
+		try {
+			BasicFileAttributes attrs = Files.readAttributes( path, BasicFileAttributes.class );
+			if( attrs.fileKey() != null && opened.contains( attrs.fileKey() ) ) {
+				// we've seen this file before under a different name
+				return false;
+			}
+			// creation times are not available on all platforms, but if the file hasn't
+			// been modified then it certainly hasn't been created. Some filesystems have
+			// coarse timestamps, so allow some slack
+			return attrs.lastModifiedTime().toMillis() >= since - TIMESTAMP_SLACK;
+		}
+		catch( IOException ioe ) {
+			errorHandler.accept( "Failed to read attributes of " + path, ioe );
+			return false;
+		}
+	}
+
+	/**
+	 * A set of files to follow
+	 */
+	private static class Glob {
+		final Path dir;
+		final String glob;
+		final Pattern pattern;
+		/**
+		 * When the directory was last listed, or <code>null</code> if it has not yet
+		 * been listed
+		 */
+		Long listed;
+
+		Glob( Path dir, String glob, Pattern pattern ) {
+			this.dir = dir;
+			this.glob = glob;
+			this.pattern = pattern;
+		}
+	}
+
+	/**
+	 * A single followed file
+	 */
+	private class Source {
+		private final Path path;
+		private final ByteBuffer bytes = ByteBuffer.allocateDirect( BUFFER_SIZE );
+		private final CharBuffer chars = CharBuffer.allocate( BUFFER_SIZE );
+		private final CharsetDecoder decoder = UTF_8.newDecoder()
+				.onMalformedInput( CodingErrorAction.REPLACE )
+				.onUnmappableCharacter( CodingErrorAction.REPLACE );
+		private final EventParser parser;
+
+		/**
+		 * The most recent events, guarded by <code>this</code>
+		 */
+		private final ArrayDeque<LogEvent> ring = new ArrayDeque<>();
+		/**
+		 * The sequence number of the first event in the {@link #ring}
+		 */
+		private long first = 0;
+		/**
+		 * The sequence number after the in-progress event that has been reported by
+		 * {@link #since(long)}, guarded by <code>this</code>
+		 */
+		private long claimed = 0;
+
+		/**
+		 * <code>true</code> if this file was found by a {@link Glob}
+		 */
+		final boolean discovered;
+		/**
+		 * <code>true</code> if the file has disappeared
+		 */
+		volatile boolean gone = false;
+
+		private FileChannel channel;
+		private Object key;
+		private long offset;
+
+		/**
+		 * @param path       The file
+		 * @param pattern    Matches the start of log events
+		 * @param fromStart  <code>true</code> to capture existing content, otherwise
+		 *                   we'll start at the current end of the file
+		 * @param discovered <code>true</code> if the file was found by a {@link Glob}
+		 */
+		Source( Path path, Pattern pattern, boolean fromStart, boolean discovered ) {
+			this.path = path;
+			this.discovered = discovered;
+			parser = new EventParser( pattern, this::add );
+			if( !fromStart && Files.exists( path ) ) {
+				try {
+					open();
+					offset = channel.size();
+				}
+				catch( IOException ioe ) {
+					errorHandler.accept( "Failed to open " + path, ioe );
+				}
+			}
+		}
+
+		private synchronized boolean add( LogEvent event ) {
+			ring.addLast( event );
+			while( ring.size() > capacity ) {
+				ring.removeFirst();
+				first++;
+			}
+			return true;
+		}
+
+		/**
+		 * @return The sequence number of the next event that has not yet been reported
+		 */
+		synchronized long position() {
+			return Math.max( first + ring.size(), claimed );
+		}
+
+		/**
+		 * Extracts events from the buffer
+		 *
+		 * @param from The sequence number of the first event of interest
+		 * @return The events since that point, including the event that is currently
+		 *         being logged. That event is only reported once: subsequent
+		 *         {@link #position()}s will be after it.
+		 */
+		List<LogEvent> since( long from ) {
+			List<LogEvent> events = new ArrayList<>();
+			// same lock order as parsing, which adds events to the ring
+			synchronized( parser ) {
+				synchronized( this ) {
+					if( from < first ) {
+						events.add( new LogEvent(
+								ring.isEmpty() ? "?" : ring.getFirst().time,
+								"?", "?", truncationMarker ) );
+					}
+					long skip = Math.max( 0, from - first );
+					ring.stream().skip( skip ).forEach( events::add );
+
+					// the in-progress event will take the next sequence number when it completes
+					long pending = first + ring.size();
+					LogEvent event = parser.pending();
+					if( event != null && from <= pending ) {
+						events.add( event );
+						claimed = pending + 1;
+					}
+				}
+			}
+			return events;
+		}
+
+		void poll() {
+			try {
+				BasicFileAttributes attrs = Files.readAttributes( path, BasicFileAttributes.class );
+				Object current = Optional.ofNullable( attrs.fileKey() ).orElse( path );
+				if( channel != null && !current.equals( key ) ) {
+					// the file has been rotated, finish off the old one
+					release();
+				}
+				if( channel == null ) {
+					open();
+					offset = 0;
+				}
+				long size = channel.size();
+				if( size < offset ) {
+					// the file has been truncated in place
+					offset = 0;
+				}
+				read( size );
+			}
+			catch( @SuppressWarnings("unused") NoSuchFileException nsfe ) {
+				// the file might not have been created yet, or has been deleted or rotated
+				// away. Either way we don't want to hold on to the old one
+				release();
+				gone = true;
+			}
+			catch( IOException ioe ) {
+				errorHandler.accept( "Failed to read " + path, ioe );
+			}
+		}
+
+		private void open() throws IOException {
+			channel = FileChannel.open( path, StandardOpenOption.READ );
+			Object fileKey = Files.readAttributes( path, BasicFileAttributes.class ).fileKey();
+			if( fileKey != null ) {
+				opened.add( fileKey );
+			}
+			key = Optional.ofNullable( fileKey ).orElse( path );
+			gone = false;
+		}
+
+		/**
+		 * Reads the remaining content of the current file and closes it
+		 */
+		private void release() {
+			if( channel != null ) {
+				try {
+					read( channel.size() );
+				}
+				catch( IOException ioe ) {
+					errorHandler.accept( "Failed to read " + path, ioe );
+				}
+				close();
+			}
+		}
+
+		private void read( long end ) throws IOException {
+			while( offset < end ) {
+				if( end - offset < bytes.remaining() ) {
+					bytes.limit( bytes.position() + (int) (end - offset) );
+				}
+				int read = channel.read( bytes, offset );
+				if( read < 0 ) {
+					break;
+				}
+				offset += read;
+				bytes.flip();
+				decoder.decode( bytes, chars, false );
+				chars.flip();
+				synchronized( parser ) {
+					parser.accept( chars );
+				}
+				chars.clear();
+				bytes.compact();
+			}
+		}
+
+		void close() {
+			if( channel != null ) {
+				try {
+					channel.close();
+				}
+				catch( IOException ioe ) {
+					errorHandler.accept( "Failed to close " + path, ioe );
+				}
+				channel = null;
+			}
+		}
+	}
+}
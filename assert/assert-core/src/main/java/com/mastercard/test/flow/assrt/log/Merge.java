@@ -3,8 +3,15 @@ package com.mastercard.test.flow.assrt.log;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.assrt.LogCapture;
@@ -15,11 +22,18 @@ import com.mastercard.test.flow.report.data.LogEvent;
  * It is strongly recommended that all merged {@link LogCapture} instance
  * produce events where the {@link LogEvent#time} values can be meaningfully
  * compared.
+ * <p>
+ * Each source is assumed to produce its events in chronological order, so the
+ * sources are merged lazily rather than being collected and sorted. Events with
+ * equal times are emitted in the order that their sources were added.
+ * </p>
  */
 public class Merge implements LogCapture {
 
 	private List<LogCapture> sources = new ArrayList<>();
 
+	private ToLongFunction<String> timestamp = null;
+
 	/**
 	 * Adds a source of {@link LogEvent}s.
 	 *
@@ -31,6 +45,21 @@ public class Merge implements LogCapture {
 		return this;
 	}
 
+	/**
+	 * Sets how event times are compared. The default behaviour is to compare the
+	 * {@link LogEvent#time} strings lexicographically.
+	 *
+	 * @param parser Converts {@link LogEvent#time} values into numeric timestamps,
+	 *               e.g.: milliseconds since the epoch. This is called once for
+	 *               each event. Supply <code>null</code> to revert to the default
+	 *               behaviour.
+	 * @return <code>this</code>
+	 */
+	public Merge timestamps( ToLongFunction<String> parser ) {
+		timestamp = parser;
+		return this;
+	}
+
 	@Override
 	public void start( Flow flow ) {
 		sources.forEach( s -> s.start( flow ) );
@@ -38,9 +67,104 @@ public class Merge implements LogCapture {
 
 	@Override
 	public Stream<LogEvent> end( Flow flow ) {
-		List<LogEvent> combined = new ArrayList<>();
-		sources.forEach( s -> s.end( flow ).forEach( combined::add ) );
-		combined.sort( Comparator.comparing( e -> e.time ) );
-		return combined.stream();
+		// the sources have to be ended now, but we can defer consuming their events
+		List<Stream<LogEvent>> streams = new ArrayList<>();
+		sources.forEach( s -> streams.add( s.end( flow ) ) );
+		return merge( streams, timestamp );
+	}
+
+	/**
+	 * Lazily merges ordered streams of events
+	 *
+	 * @param streams   The event streams, each of which is in chronological order
+	 * @param timestamp How to compare event times, or <code>null</code> to compare
+	 *                  the time strings
+	 * @return The merged stream of events, in chronological order
+	 */
+	static Stream<LogEvent> merge( List<Stream<LogEvent>> streams,
+			ToLongFunction<String> timestamp ) {
+		if( streams.size() == 1 ) {
+			return streams.get( 0 );
+		}
+
+		return StreamSupport.stream( new KWay( streams, timestamp ), false )
+				.onClose( () -> streams.forEach( Stream::close ) );
+	}
+
+	/**
+	 * The head of one of the merged sources
+	 */
+	private static class Head {
+		final int index;
+		final Iterator<LogEvent> source;
+		final ToLongFunction<String> timestamp;
+		LogEvent event;
+		long time;
+
+		Head( int index, Iterator<LogEvent> source, ToLongFunction<String> timestamp ) {
+			this.index = index;
+			this.source = source;
+			this.timestamp = timestamp;
+		}
+
+		/**
+		 * Moves on to the next event
+		 *
+		 * @return <code>false</code> if the source is exhausted
+		 */
+		boolean advance() {
+			if( !source.hasNext() ) {
+				return false;
+			}
+			event = source.next();
+			if( timestamp != null ) {
+				time = timestamp.applyAsLong( event.time );
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Emits the events from multiple ordered sources in order
+	 */
+	private static class KWay extends Spliterators.AbstractSpliterator<LogEvent> {
+
+		private final List<Stream<LogEvent>> streams;
+		private final ToLongFunction<String> timestamp;
+		private PriorityQueue<Head> heap;
+
+		KWay( List<Stream<LogEvent>> streams, ToLongFunction<String> timestamp ) {
+			super( Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL );
+			this.streams = streams;
+			this.timestamp = timestamp;
+		}
+
+		@Override
+		public boolean tryAdvance( Consumer<? super LogEvent> action ) {
+			if( heap == null ) {
+				// the sources are not consumed until the first event is requested
+				Comparator<Head> order = timestamp != null
+						? Comparator.comparingLong( h -> h.time )
+						: Comparator.comparing( h -> h.event.time );
+				heap = new PriorityQueue<>( Math.max( 1, streams.size() ),
+						order.thenComparingInt( h -> h.index ) );
+				for( int i = 0; i < streams.size(); i++ ) {
+					Head head = new Head( i, streams.get( i ).iterator(), timestamp );
+					if( head.advance() ) {
+						heap.add( head );
+					}
+				}
+			}
+
+			Head head = heap.poll();
+			if( head == null ) {
+				return false;
+			}
+			action.accept( head.event );
+			if( head.advance() ) {
+				heap.add( head );
+			}
+			return true;
+		}
 	}
 }
@@ -1,19 +1,24 @@
-
 package com.mastercard.test.flow.assrt.log;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -22,13 +27,31 @@ import com.mastercard.test.flow.assrt.LogCapture;
 import com.mastercard.test.flow.report.data.LogEvent;
 
 /**
- * Extracts log data from a file on the local system
+ * Extracts log data from a file on the local system. The file content is read
+ * and decoded incrementally, so the amount of memory used is bounded by the
+ * size of the extracted events rather than the size of the file. If the log
+ * file is rotated while a {@link Flow} is being exercised then the remainder of
+ * the old file and the start of the new file will be extracted.
  */
 public class Tail implements LogCapture {
 
-	private static final String SOURCE_CAPTURE_GROUP = "source";
-	private static final String LEVEL_CAPTURE_GROUP = "level";
-	private static final String TIME_CAPTURE_GROUP = "time";
+	/**
+	 * The size of the buffer used to read file content
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Reusable read buffers. Direct buffers avoid a copy between the file and the
+	 * java heap.
+	 */
+	private static final ThreadLocal<ByteBuffer> BYTES = ThreadLocal
+			.withInitial( () -> ByteBuffer.allocateDirect( BUFFER_SIZE ) );
+
+	/**
+	 * Reusable decode buffers
+	 */
+	private static final ThreadLocal<CharBuffer> CHARS = ThreadLocal
+			.withInitial( () -> CharBuffer.allocate( BUFFER_SIZE ) );
 
 	private final Path file;
 	private final Pattern pattern;
@@ -37,11 +60,22 @@ public class Tail implements LogCapture {
 		// default to silently dropping failures
 	};
 
+	private long maxBytes = Long.MAX_VALUE;
+	private int maxEvents = Integer.MAX_VALUE;
+	private String truncationMarker = "Log capture truncated";
+
 	/**
-	 * Maps from {@link Flow}s to the size of the file when {@link #start(Flow)} was
+	 * Maps from {@link Flow}s to the file position when {@link #start(Flow)} was
 	 * called
 	 */
-	private final Map<Flow, Long> startSizes = new HashMap<>();
+	private final Map<Flow, Bookmark> bookmarks = new ConcurrentHashMap<>();
+
+	/**
+	 * Maps from {@link BasicFileAttributes#fileKey()} to the open channel on that
+	 * file. We keep files open while they are bookmarked so that we can continue to
+	 * read them after rotation. Access is guarded by the map itself.
+	 */
+	private final Map<Object, Held> channels = new HashMap<>();
 
 	/**
 	 * @param file    The path to the file to extract from
@@ -69,10 +103,39 @@ public class Tail implements LogCapture {
 		return this;
 	}
 
+	/**
+	 * Limits the amount of log content that is extracted for each {@link Flow}. The
+	 * default behaviour is to extract everything. If either limit is reached then
+	 * subsequent content is dropped and an event bearing the
+	 * {@link #truncation(String) truncation marker} is added.
+	 *
+	 * @param bytes  The maximum number of bytes to read from the log file
+	 * @param events The maximum number of events to extract
+	 * @return <code>this</code>
+	 */
+	public Tail limit( long bytes, int events ) {
+		maxBytes = bytes;
+		maxEvents = events;
+		return this;
+	}
+
+	/**
+	 * Sets the message of the event that is added when the extracted content is
+	 * truncated.
+	 *
+	 * @param marker The truncation event message
+	 * @return <code>this</code>
+	 * @see #limit(long, int)
+	 */
+	public Tail truncation( String marker ) {
+		truncationMarker = marker;
+		return this;
+	}
+
 	@Override
 	public void start( Flow flow ) {
 		try {
-			startSizes.put( flow, Files.size( file ) );
+			bookmarks.put( flow, acquire() );
 		}
 		catch( IOException ioe ) {
 			errorHandler.accept( "Failed to get start size", ioe );
@@ -81,89 +144,222 @@ public class Tail implements LogCapture {
 
 	@Override
 	public Stream<LogEvent> end( Flow flow ) {
-		List<LogEvent> events = new ArrayList<>();
-		String[] lines = extractLineRange( flow );
-
-		String time = null;
-		String level = null;
-		String source = null;
-		StringBuilder content = new StringBuilder();
-
-		for( String line : lines ) {
-			Matcher m = pattern.matcher( line );
-
-			if( m.find() ) {
-				// we've found an event!
-				if( time != null ) {
-					// the previous event is complete
-					events.add( new LogEvent( time, level, source, content.toString() ) );
-					content.delete( 0, content.length() );
+		Events events = new Events();
+		Bookmark from = bookmarks.remove( flow );
+		try {
+			Bookmark to = acquire();
+			try {
+				if( from != null && !from.key.equals( to.key ) ) {
+					// the file has been rotated. Take the rest of the old file and then the new
+					// file from the beginning
+					FileChannel old = channel( from.key );
+					read( old, from.position, old.size(), events );
+					read( channel( to.key ), 0, to.position, events );
 				}
-				time = m.group( TIME_CAPTURE_GROUP );
-				level = m.group( LEVEL_CAPTURE_GROUP );
-				source = m.group( SOURCE_CAPTURE_GROUP );
-				content.append( uncapturedContent( line, m,
-						TIME_CAPTURE_GROUP, LEVEL_CAPTURE_GROUP, SOURCE_CAPTURE_GROUP ) );
+				else {
+					long start = from != null ? from.position : 0;
+					if( start > to.position ) {
+						// the file has been truncated in place
+						start = 0;
+					}
+					read( channel( to.key ), start, to.position, events );
+				}
+			}
+			finally {
+				release( to.key );
+			}
+		}
+		catch( IOException ioe ) {
+			errorHandler.accept( "Failed to extract content", ioe );
+		}
+		finally {
+			if( from != null ) {
+				release( from.key );
 			}
-			else if( time != null ) {
-				// It's not the start of a new event, but we have found an event previously
-				// Assume this line is still content from the previously-found event
-				content.append( "\n" ).append( line );
+		}
+
+		return events.complete().stream();
+	}
+
+	/**
+	 * Finds the current end of the file, ensuring that we hold a channel on it
+	 *
+	 * @return The current end of the file
+	 * @throws IOException on failure
+	 */
+	private Bookmark acquire() throws IOException {
+		BasicFileAttributes attrs = Files.readAttributes( file, BasicFileAttributes.class );
+		synchronized( channels ) {
+			Held held = channels.get( key( attrs ) );
+			if( held == null ) {
+				FileChannel channel = FileChannel.open( file, StandardOpenOption.READ );
+				// the file might have been rotated between reading the attributes and opening
+				// the channel, so make sure we associate it with the correct key
+				attrs = Files.readAttributes( file, BasicFileAttributes.class );
+				held = channels.get( key( attrs ) );
+				if( held == null ) {
+					held = new Held( channel );
+					channels.put( key( attrs ), held );
+				}
+				else {
+					channel.close();
+				}
 			}
-			else if( !line.isEmpty() ) {
-				// we've not found an event yet but we *are* seeing content. This is likely to
-				// happen when the event-finding pattern is incorrect. We can't just ignore the
-				// line, so add content-only events
-				events.add( new LogEvent( "?", "?", "?", line ) );
+			held.references++;
+			return new Bookmark( key( attrs ), attrs.size() );
+		}
+	}
+
+	private FileChannel channel( Object key ) throws IOException {
+		synchronized( channels ) {
+			Held held = channels.get( key );
+			if( held == null ) {
+				throw new IOException( "No channel held on " + file );
 			}
+			return held.channel;
 		}
+	}
 
-		if( time != null ) {
-			// the final event is complete
-			events.add( new LogEvent( time, level, source, content.toString() ) );
-			content.delete( 0, content.length() );
+	private void release( Object key ) {
+		synchronized( channels ) {
+			Held held = channels.get( key );
+			if( held != null && --held.references <= 0 ) {
+				channels.remove( key );
+				try {
+					held.channel.close();
+				}
+				catch( IOException ioe ) {
+					errorHandler.accept( "Failed to close channel", ioe );
+				}
+			}
 		}
+	}
 
-		return events.stream();
+	private Object key( BasicFileAttributes attrs ) {
+		// not all filesystems offer file keys, in which case we can't detect rotation
+		return Optional.ofNullable( attrs.fileKey() ).orElse( file );
 	}
 
-	private String[] extractLineRange( Flow flow ) {
-		try {
-			long start = startSizes.getOrDefault( flow, 0L );
-			long end = Files.size( file );
-			byte[] data = new byte[(int) (end - start)];
-			try( RandomAccessFile raf = new RandomAccessFile( file.toFile(), "r" ) ) {
-				raf.seek( start );
-				raf.readFully( data );
+	/**
+	 * Reads a range of a file, passing the decoded lines to the event parser
+	 *
+	 * @param channel The file
+	 * @param start   The start of the range
+	 * @param end     The end of the range
+	 * @param events  The event parser
+	 * @throws IOException on read failure
+	 */
+	private void read( FileChannel channel, long start, long end, Events events )
+			throws IOException {
+		ByteBuffer bytes = BYTES.get();
+		CharBuffer chars = CHARS.get();
+		CharsetDecoder decoder = UTF_8.newDecoder()
+				.onMalformedInput( CodingErrorAction.REPLACE )
+				.onUnmappableCharacter( CodingErrorAction.REPLACE );
+		bytes.clear();
+		chars.clear();
+
+		long position = start;
+		boolean eof = false;
+		while( !eof ) {
+			if( events.full() ) {
+				events.truncated |= position < end;
+				break;
+			}
+			long remaining = Math.min( end - position, events.byteBudget() );
+			if( remaining <= 0 ) {
+				eof = true;
+				events.truncated |= position < end;
 			}
-			return new String( data, UTF_8 ).split( "\n" );
+			else {
+				if( remaining < bytes.remaining() ) {
+					bytes.limit( bytes.position() + (int) remaining );
+				}
+				int read = channel.read( bytes, position );
+				if( read < 0 ) {
+					eof = true;
+				}
+				else {
+					position += read;
+					events.bytesRead += read;
+				}
+			}
+
+			bytes.flip();
+			decoder.decode( bytes, chars, eof );
+			if( eof ) {
+				decoder.flush( chars );
+			}
+			chars.flip();
+			events.accept( chars );
+			chars.clear();
+			bytes.compact();
 		}
-		catch( IOException ioe ) {
-			errorHandler.accept( "Failed to extract content", ioe );
+	}
+
+	/**
+	 * A position in a particular file
+	 */
+	private static class Bookmark {
+		final Object key;
+		final long position;
+
+		Bookmark( Object key, long position ) {
+			this.key = key;
+			this.position = position;
+		}
+	}
+
+	/**
+	 * An open file channel and the number of bookmarks that refer to it
+	 */
+	private static class Held {
+		final FileChannel channel;
+		int references = 0;
+
+		Held( FileChannel channel ) {
+			this.channel = channel;
 		}
-		return new String[0];
 	}
 
-	private static String uncapturedContent( String line, Matcher m, String... groups ) {
-		int[] ranges = new int[groups.length * 2];
-		for( int i = 0; i < groups.length; i++ ) {
-			ranges[i * 2] = m.start( groups[i] );
-			ranges[i * 2 + 1] = m.end( groups[i] );
+	/**
+	 * Collects the events extracted for a {@link Flow}, honouring the limits
+	 */
+	private class Events {
+		private final List<LogEvent> list = new ArrayList<>();
+		private final EventParser parser = new EventParser( pattern, this::add );
+
+		long bytesRead = 0;
+		boolean truncated = false;
+
+		long byteBudget() {
+			return maxBytes - bytesRead;
+		}
+
+		boolean full() {
+			return parser.stopped() || list.size() >= maxEvents;
 		}
-		// capture groups cannot overlap, so sorting the start and end indices in one
-		// array is fine
-		Arrays.sort( ranges );
 
-		StringBuilder unmatched = new StringBuilder();
-		// everything before the first group
-		unmatched.append( line.substring( 0, ranges[0] ) );
-		// the stuff between each group
-		for( int i = 1; i < ranges.length - 1; i += 2 ) {
-			unmatched.append( line.substring( ranges[i], ranges[i + 1] ) );
+		void accept( CharBuffer chars ) {
+			parser.accept( chars );
 		}
-		// everything after the last group
-		unmatched.append( line.substring( ranges[ranges.length - 1] ) );
 
-		return unmatched.toString().trim();
+		private boolean add( LogEvent event ) {
+			if( list.size() < maxEvents ) {
+				list.add( event );
+				return true;
+			}
+			truncated = true;
+			return false;
+		}
+
+		List<LogEvent> complete() {
+			parser.complete();
+			if( truncated ) {
+				String last = list.isEmpty() ? "?" : list.get( list.size() - 1 ).time;
+				list.add( new LogEvent( last, "?", "?", truncationMarker ) );
+			}
+			return list;
+		}
 	}
 }
@@ -0,0 +1,225 @@
+package com.mastercard.test.flow.assrt;
+
+import static com.mastercard.test.flow.assrt.AbstractFlocessorTest.copypasta;
+import static com.mastercard.test.flow.assrt.TestModel.Actors.B;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.mastercard.test.flow.Unpredictable;
+import com.mastercard.test.flow.assrt.AbstractFlocessor.State;
+import com.mastercard.test.flow.msg.txt.Text;
+import com.mastercard.test.flow.util.Option.Temporary;
+
+/**
+ * Exercises {@link Harvest}
+ */
+@SuppressWarnings("static-method")
+class HarvestTest {
+
+	private enum Unpredictables implements Unpredictable {
+		RNG
+	}
+
+	/**
+	 * Harvested data is processed as soon as it is populated when
+	 * {@link AssertionOptions#COMPARISON} is set, with no change in the results
+	 */
+	@Test
+	void early() {
+		List<Object> started = new ArrayList<>();
+		Supplier<TestFlocessor> flocessor = () -> new TestFlocessor( "early", TestModel.abc() )
+				.system( State.LESS, B )
+				.behaviour( assrt -> {
+					assrt.actual().response( assrt.expected().response().content() );
+					assrt.assertChildren( i -> true ).forEach( child -> child.actual()
+							.request( child.expected().request().content() )
+							.response( "Not what we expected".getBytes( UTF_8 ) ) );
+					started.add( assrt.rendered( "response" ) );
+				} );
+
+		TestFlocessor tf = flocessor.get();
+		tf.execute();
+		String serial = copypasta( tf.events(), tf.results() );
+		assertNull( started.get( 0 ) );
+
+		try( Temporary t = AssertionOptions.COMPARISON.temporarily( "2" ) ) {
+			tf = flocessor.get();
+			tf.execute();
+		}
+		assertEquals( serial, copypasta( tf.events(), tf.results() ) );
+		assertNotNull( started.get( 1 ) );
+
+		assertEquals( copypasta(
+				"COMPARE abc []",
+				"com.mastercard.test.flow.assrt.TestModel.abc(TestModel.java:_) B->C [] request",
+				" | B request to C | B request to C |",
+				"",
+				"COMPARE abc []",
+				"com.mastercard.test.flow.assrt.TestModel.abc(TestModel.java:_) A->B [] response",
+				" | B response to A | B response to A |",
+				"",
+				"COMPARE abc []",
+				"com.mastercard.test.flow.assrt.TestModel.abc(TestModel.java:_) B->C [] response",
+				" | C response to B | Not what we expected |",
+				"abc [] UNEXPECTED" ),
+				serial );
+	}
+
+	/**
+	 * Masked expected renderings are cached until they are invalidated. Message
+	 * locations are not needed unless renderings are persisted.
+	 */
+	@Test
+	void expected() {
+		Text msg = new Text( "abc" )
+				.masking( Unpredictables.RNG, m -> m.replace( "b", "_" ) );
+		Harvest harvest = new Harvest( Unpredictables.RNG );
+		Supplier<String> address = () -> {
+			throw new IllegalStateException( "unexpected address computation" );
+		};
+
+		String first = harvest.expected( address, msg );
+		assertEquals( "a_c", first );
+		assertSame( first, harvest.expected( address, msg ) );
+
+		Text other = new Text( "xyz" );
+		String unchanged = harvest.expected( address, other );
+
+		msg.set( "c", "d" );
+		assertSame( first, harvest.expected( address, msg ) );
+
+		harvest.invalidate( Arrays.asList( msg ) );
+		String second = harvest.expected( address, msg );
+		assertNotSame( first, second );
+		assertEquals( "a_d", second );
+		assertSame( unchanged, harvest.expected( address, other ),
+				"only the changed message is invalidated" );
+
+		// without persistence, equivalent messages are rendered separately
+		Counting equivalent = new Counting( "abc" );
+		harvest.expected( address, new Counting( "abc" ) );
+		harvest.expected( address, equivalent );
+		assertEquals( 1, equivalent.renders );
+	}
+
+	/**
+	 * The processing threads are stopped on shutdown
+	 *
+	 * @throws InterruptedException if interrupted while waiting for the thread to
+	 *                              stop
+	 */
+	@Test
+	void shutdown() throws InterruptedException {
+		Counting msg = new Counting( "abc" );
+		Harvest harvest = new Harvest();
+		try( Temporary t = AssertionOptions.COMPARISON.temporarily( "1" ) ) {
+			assertEquals( "abc", harvest.rendered( null, msg, msg.content(),
+					harvest.submit( () -> "here", null, msg, msg.content() ) ).masked );
+		}
+		assertNotSame( Thread.currentThread(), msg.thread );
+
+		harvest.shutdown();
+		msg.thread.join( 10_000 );
+		assertFalse( msg.thread.isAlive() );
+		assertNull( harvest.submit( () -> "here", null, msg, msg.content() ),
+				"processing is on demand once more" );
+	}
+
+	/**
+	 * Persistent renderings are addressed by message location and content, so
+	 * equivalent messages share a rendering
+	 *
+	 * @throws Exception on file failure
+	 */
+	@Test
+	void content() throws Exception {
+		Path file = Files.createTempDirectory( "harvest" ).resolve( "renderings.json" );
+		Counting msg = new Counting( "abc" );
+		Harvest harvest = new Harvest( Unpredictables.RNG ).persist( file, HarvestTest.class );
+
+		harvest.expected( () -> "here", msg );
+		harvest.expected( () -> "here", new Counting( "abc" ) );
+		assertEquals( 1, msg.renders );
+
+		Counting elsewhere = new Counting( "abc" );
+		harvest.expected( () -> "there", elsewhere );
+		assertEquals( 1, elsewhere.renders );
+
+		Counting different = new Counting( "abd" );
+		harvest.expected( () -> "here", different );
+		assertEquals( 1, different.renders );
+	}
+
+	/**
+	 * Renderings can be persisted for use in later runs
+	 *
+	 * @throws Exception on file failure
+	 */
+	@Test
+	void persistence() throws Exception {
+		Path file = Files.createTempDirectory( "harvest" ).resolve( "renderings.json" );
+
+		Counting first = new Counting( "abc" );
+		Harvest run = new Harvest( Unpredictables.RNG ).persist( file, HarvestTest.class );
+		assertEquals( "abc", run.expected( () -> "here", first ) );
+		run.save();
+		assertEquals( 1, first.renders );
+
+		Counting second = new Counting( "abc" );
+		run = new Harvest( Unpredictables.RNG ).persist( file, HarvestTest.class );
+		assertEquals( "abc", run.expected( () -> "here", second ) );
+		assertEquals( 0, second.renders );
+
+		// different masks mean different renderings
+		Counting third = new Counting( "abc" );
+		run = new Harvest().persist( file, HarvestTest.class );
+		assertEquals( "abc", run.expected( () -> "here", third ) );
+		assertEquals( 1, third.renders );
+
+		// as does a different model, as the masking operations might have changed
+		Counting fourth = new Counting( "abc" );
+		run = new Harvest( Unpredictables.RNG ).persist( file, TestModel.class );
+		assertEquals( "abc", run.expected( () -> "here", fourth ) );
+		assertEquals( 1, fourth.renders );
+
+		// renderings from an unknown classpath are ignored
+		Files.write( file, "{\"renderings\":{}}".getBytes( UTF_8 ) );
+		run = new Harvest( Unpredictables.RNG ).persist( file, HarvestTest.class );
+		Counting fifth = new Counting( "abc" );
+		assertEquals( "abc", run.expected( () -> "here", fifth ) );
+		assertEquals( 1, fifth.renders );
+		run.save();
+		assertEquals( 1, new String( Files.readAllBytes( file ), UTF_8 )
+				.split( "\"checksum\":\"[0-9A-F]{64}\"", -1 ).length - 1 );
+	}
+
+	private static class Counting extends Text {
+		int renders = 0;
+		Thread thread;
+
+		Counting( String content ) {
+			super( content );
+		}
+
+		@Override
+		public String assertable( Unpredictable... sources ) {
+			renders++;
+			thread = Thread.currentThread();
+			return super.assertable( sources );
+		}
+	}
+}
@@ -0,0 +1,333 @@
+package com.mastercard.test.flow.assrt;
+
+import static com.mastercard.test.flow.assrt.AbstractFlocessorTest.copypasta;
+import static com.mastercard.test.flow.assrt.TestModel.Actors.A;
+import static com.mastercard.test.flow.assrt.TestModel.Actors.B;
+import static com.mastercard.test.flow.builder.Sets.set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.Model;
+import com.mastercard.test.flow.assrt.AbstractFlocessor.State;
+import com.mastercard.test.flow.assrt.mock.Mdl;
+import com.mastercard.test.flow.builder.Creator;
+import com.mastercard.test.flow.msg.txt.Text;
+import com.mastercard.test.flow.util.Option.Temporary;
+
+/**
+ * Exercises {@link ParallelRun} via
+ * {@link AbstractFlocessor#parallel( java.util.concurrent.Executor)} and
+ * {@link AbstractFlocessor#lanes(int)}
+ */
+@SuppressWarnings("static-method")
+class ParallelRunTest {
+
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool( 4 );
+
+	/**
+	 * Stops the worker threads
+	 */
+	@AfterAll
+	static void shutdown() {
+		EXECUTOR.shutdown();
+	}
+
+	/**
+	 * Independent flows are processed concurrently when the system is stateless,
+	 * but results are still delivered in order
+	 */
+	@Test
+	void concurrent() {
+		CyclicBarrier barrier = new CyclicBarrier( 3 );
+		TestFlocessor tf = new TestFlocessor( "concurrent", model( "a", "b", "c" ) )
+				.system( State.LESS, B )
+				.parallel( EXECUTOR )
+				.behaviour( assrt -> {
+					try {
+						// this will time out unless all three flows are in progress at once
+						barrier.await( 10, TimeUnit.SECONDS );
+					}
+					catch( Exception e ) {
+						throw new IllegalStateException( e );
+					}
+					assrt.actual().response( assrt.expected().response().content() );
+				} );
+		tf.execute();
+
+		assertEquals( copypasta(
+				"a [] SUCCESS",
+				"b [] SUCCESS",
+				"c [] SUCCESS" ),
+				copypasta( tf.results() ) );
+	}
+
+	/**
+	 * Flows are processed one at a time for stateful systems, and for stateless
+	 * systems when no executor has been configured
+	 */
+	@Test
+	void sequential() {
+		for( State state : State.values() ) {
+			AtomicInteger active = new AtomicInteger( 0 );
+			AtomicInteger maxActive = new AtomicInteger( 0 );
+			TestFlocessor tf = new TestFlocessor( "sequential", model( "a", "b", "c" ) )
+					.system( state, B )
+					.parallel( state == State.FUL ? EXECUTOR : null )
+					.behaviour( assrt -> {
+						maxActive.accumulateAndGet( active.incrementAndGet(), Math::max );
+						pause();
+						assrt.actual().response( assrt.expected().response().content() );
+						active.decrementAndGet();
+					} );
+			tf.execute();
+
+			assertEquals( 1, maxActive.get(), "for " + state );
+			assertEquals( copypasta(
+					"a [] SUCCESS",
+					"b [] SUCCESS",
+					"c [] SUCCESS" ),
+					copypasta( tf.results() ), "for " + state );
+		}
+	}
+
+	/**
+	 * The {@link AssertionOptions#PARALLELISM} option provides a thread pool
+	 */
+	@Test
+	void option() throws InterruptedException {
+		CyclicBarrier barrier = new CyclicBarrier( 2 );
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		TestFlocessor tf = new TestFlocessor( "option", model( "a", "b" ) )
+				.system( State.LESS, B )
+				.behaviour( assrt -> {
+					threads.add( Thread.currentThread() );
+					try {
+						barrier.await( 10, TimeUnit.SECONDS );
+					}
+					catch( Exception e ) {
+						throw new IllegalStateException( e );
+					}
+					assrt.actual().response( assrt.expected().response().content() );
+				} );
+		try( Temporary t = AssertionOptions.PARALLELISM.temporarily( "2" ) ) {
+			tf.execute();
+		}
+
+		assertEquals( copypasta(
+				"a [] SUCCESS",
+				"b [] SUCCESS" ),
+				copypasta( tf.results() ) );
+
+		// flushing releases the thread pool
+		tf.flush();
+		assertEquals( 2, threads.size() );
+		for( Thread thread : threads ) {
+			thread.join( 10_000 );
+			assertFalse( thread.isAlive(), thread.getName() );
+		}
+	}
+
+	/**
+	 * Flows are only submitted for processing as the test framework asks for them
+	 */
+	@Test
+	void lazy() {
+		List<Flow> flows = model( "a", "b", "c", "d", "e" )
+				.flows().collect( Collectors.toList() );
+		List<String> processed = Collections.synchronizedList( new ArrayList<>() );
+		ParallelRun run = new ParallelRun( flows, 1,
+				ParallelRun::chain,
+				flow -> Collections.emptySet(),
+				flow -> processed.add( flow.meta().description() ),
+				EXECUTOR );
+
+		assertTrue( run.contains( flows.get( 4 ) ) );
+		assertEquals( 0, run.submitted(), "nothing happens until asked" );
+
+		run.await( flows.get( 0 ) );
+		assertEquals( 2, run.submitted(), "the flow and the read-ahead" );
+
+		run.await( flows.get( 1 ) );
+		assertEquals( 3, run.submitted() );
+
+		run.await( flows.get( 4 ) );
+		assertEquals( 5, run.submitted(), "skipped flows are submitted in order" );
+		run.await( flows.get( 3 ) );
+		assertEquals( "[a, b, c, d, e]", new TreeSet<>( processed ).toString() );
+	}
+
+	/**
+	 * Chained flows are not processed concurrently
+	 */
+	@Test
+	void chains() {
+		List<String> events = Collections.synchronizedList( new ArrayList<>() );
+		TestFlocessor tf = new TestFlocessor( "chains",
+				model( "a[chain:x]", "b[chain:x]", "c[chain:y]", "d[chain:y]" ) )
+						.system( State.LESS, B )
+						.parallel( EXECUTOR )
+						.behaviour( assrt -> {
+							String id = assrt.flow().meta().description();
+							events.add( "start " + id );
+							pause();
+							assrt.actual().response( assrt.expected().response().content() );
+							events.add( "end " + id );
+						} );
+		tf.execute();
+
+		assertEquals( copypasta(
+				"a [chain:x] SUCCESS",
+				"b [chain:x] SUCCESS",
+				"c [chain:y] SUCCESS",
+				"d [chain:y] SUCCESS" ),
+				copypasta( tf.results() ) );
+		assertTrue( events.indexOf( "end a" ) < events.indexOf( "start b" ), events.toString() );
+		assertTrue( events.indexOf( "end c" ) < events.indexOf( "start d" ), events.toString() );
+	}
+
+	/**
+	 * Stateful systems can process independent chains concurrently in separate
+	 * lanes
+	 */
+	@Test
+	void lanes() {
+		CyclicBarrier barrier = new CyclicBarrier( 2 );
+		Map<String, Integer> lanes = new ConcurrentHashMap<>();
+		TestFlocessor tf = new TestFlocessor( "lanes",
+				model( "a[chain:x]", "b[chain:x]", "c[chain:y]", "d[chain:y]" ) );
+		tf.system( State.FUL, B )
+				.parallel( EXECUTOR )
+				.lanes( 2 )
+				.behaviour( assrt -> {
+					String id = assrt.flow().meta().description();
+					lanes.put( id, tf.lane() );
+					if( "a".equals( id ) || "c".equals( id ) ) {
+						try {
+							// this will time out unless both chains are in progress at once
+							barrier.await( 10, TimeUnit.SECONDS );
+						}
+						catch( Exception e ) {
+							throw new IllegalStateException( e );
+						}
+					}
+					assrt.actual().response( assrt.expected().response().content() );
+				} );
+		tf.execute();
+
+		assertEquals( copypasta(
+				"a [chain:x] SUCCESS",
+				"b [chain:x] SUCCESS",
+				"c [chain:y] SUCCESS",
+				"d [chain:y] SUCCESS" ),
+				copypasta( tf.results() ) );
+		assertEquals( "{a=0, b=0, c=1, d=1}", new TreeMap<>( lanes ).toString() );
+		assertEquals( 0, tf.lane(), "no lane on the calling thread" );
+	}
+
+	/**
+	 * Linked flows are assigned to the same lane, and groups of flows are balanced
+	 * across lanes
+	 */
+	@Test
+	void laneAssignment() {
+		List<Flow> flows = model( "a[chain:x]", "b[chain:x]", "c[chain:x]",
+				"d[chain:y]", "e[chain:z]", "f" )
+						.flows().collect( Collectors.toList() );
+
+		assertEquals( "[a=0, b=0, c=0, d=1, e=1, f=1]",
+				ParallelRun.lanes( flows, 2 ).entrySet().stream()
+						.map( e -> e.getKey().meta().description() + "=" + e.getValue() )
+						.collect( Collectors.toList() ).toString() );
+		assertEquals( "[a=0, b=0, c=0, d=0, e=0, f=0]",
+				ParallelRun.lanes( flows, 1 ).entrySet().stream()
+						.map( e -> e.getKey().meta().description() + "=" + e.getValue() )
+						.collect( Collectors.toList() ).toString() );
+
+		TestFlocessor tf = new TestFlocessor( "laneAssignment", model( "a" ) );
+		IllegalArgumentException iae = assertThrows( IllegalArgumentException.class,
+				() -> tf.lanes( 0 ) );
+		assertEquals( "Lane count must be positive, not 0", iae.getMessage() );
+	}
+
+	/**
+	 * Failures on worker threads are delivered to the test framework
+	 */
+	@Test
+	void failures() {
+		TestFlocessor tf = new TestFlocessor( "failures", model( "a", "b", "c" ) )
+				.system( State.LESS, B )
+				.parallel( EXECUTOR )
+				.behaviour( assrt -> {
+					String id = assrt.flow().meta().description();
+					if( "a".equals( id ) ) {
+						throw new IllegalStateException( "boom" );
+					}
+					if( "b".equals( id ) ) {
+						assrt.actual().response( "unexpected".getBytes() );
+					}
+					else {
+						assrt.actual().response( assrt.expected().response().content() );
+					}
+				} );
+		tf.execute();
+
+		assertEquals( copypasta(
+				"a [] ERROR",
+				"b [] UNEXPECTED",
+				"c [] SUCCESS" ),
+				copypasta( tf.results() ) );
+	}
+
+	private static void pause() {
+		try {
+			Thread.sleep( 50 );
+		}
+		catch( InterruptedException ie ) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException( ie );
+		}
+	}
+
+	/**
+	 * @param specs flow descriptions, with optional tag list suffix
+	 * @return A model of simple independent flows
+	 */
+	private static Model model( String... specs ) {
+		List<Flow> flows = new ArrayList<>();
+		for( String spec : specs ) {
+			String[] parts = spec.split( "[\\[\\]]" );
+			flows.add( Creator.build( flow -> flow
+					.meta( data -> data
+							.description( parts[0] )
+							.tags( set( Arrays.copyOfRange( parts, 1, parts.length ) ) ) )
+					.call( a -> a
+							.from( A )
+							.to( B )
+							.request( new Text( "request " + parts[0] ) )
+							.response( new Text( "response " + parts[0] ) ) ) ) );
+		}
+		return new Mdl().withFlows( flows.toArray( new Flow[0] ) );
+	}
+}
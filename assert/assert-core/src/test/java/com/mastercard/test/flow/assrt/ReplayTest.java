@@ -4,6 +4,7 @@ import static com.mastercard.test.flow.assrt.AbstractFlocessorTest.copypasta;
 import static com.mastercard.test.flow.assrt.Reporting.QUIETLY;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -12,17 +13,21 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.assrt.AbstractFlocessor.State;
 import com.mastercard.test.flow.assrt.TestModel.Actors;
 import com.mastercard.test.flow.report.QuietFiles;
 import com.mastercard.test.flow.report.Reader;
 import com.mastercard.test.flow.report.data.FlowData;
 import com.mastercard.test.flow.report.data.Index;
+import com.mastercard.test.flow.util.Option.Temporary;
 
 /**
  * Exercises replay mode, wherein we use a historic report as the source of data
@@ -47,7 +52,10 @@ class ReplayTest {
 	private static Path generateReport( String title ) {
 		List<String> behaviourLog = new ArrayList<>();
 		TestFlocessor tf = build( title, behaviourLog );
-		tf.execute();
+		// some tests edit the report, and they rely on the json being indented
+		try( Temporary t = AssertionOptions.REPORT_INDENT.temporarily( "true" ) ) {
+			tf.execute();
+		}
 
 		// check behaviour
 		assertEquals( copypasta(
@@ -219,6 +227,37 @@ class ReplayTest {
 				"replay mode behaviour" );
 	}
 
+	/**
+	 * Shows that flow data is only read from the report once, no matter how many
+	 * interactions are populated from it
+	 *
+	 * @throws Exception on IO problems
+	 */
+	@Test
+	void cachedFlowData() throws Exception {
+		Path p = generateReport( "cachedFlowData" );
+		Replay replay = new Replay( p.toString() );
+		Flow flow = TestModel.abc().flows().findFirst().get();
+		TestFlocessor tf = build( "cachedFlowData", new ArrayList<>() );
+
+		Assertion first = new Assertion( flow, flow.root(), tf );
+		Assertion second = new Assertion( flow, flow.root(), tf );
+
+		assertNull( replay.populate( first ) );
+
+		// the report data is deleted...
+		try( Stream<Path> files = Files.list( p.resolve( "detail" ) ) ) {
+			for( Path detail : files.collect( Collectors.toList() ) ) {
+				Files.delete( detail );
+			}
+		}
+
+		// ...but it has already been read, so it's still available
+		assertNull( replay.populate( second ) );
+		assertEquals( "B response to A",
+				new String( second.actual().response(), UTF_8 ) );
+	}
+
 	/**
 	 * Shows what happens when we can't find the root interaction in the report
 	 *
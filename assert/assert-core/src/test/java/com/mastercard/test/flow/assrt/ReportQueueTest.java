@@ -0,0 +1,140 @@
+package com.mastercard.test.flow.assrt;
+
+import static java.time.Duration.ofSeconds;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.report.Reader;
+import com.mastercard.test.flow.report.Writer;
+import com.mastercard.test.flow.report.data.Index;
+
+/**
+ * Exercises {@link ReportQueue}
+ */
+@SuppressWarnings("static-method")
+class ReportQueueTest {
+
+	/**
+	 * Bad capacities are rejected
+	 */
+	@Test
+	void capacity() {
+		Writer w = new Writer( "model", "test", Paths.get( "target/ReportQueueTest/capacity" ) );
+		IllegalArgumentException iae = assertThrows( IllegalArgumentException.class,
+				() -> new ReportQueue( w, 0 ) );
+		assertEquals( "Capacity must be positive, not 0", iae.getMessage() );
+	}
+
+	/**
+	 * Shows that updates to a flow that is awaiting a write are combined rather
+	 * than blocking on the queue capacity
+	 */
+	@Test
+	void coalescing() {
+		List<Flow> flows = TestModel.abcWithChild().flows().collect( Collectors.toList() );
+		Flow first = flows.get( 0 );
+		Flow second = flows.get( 1 );
+		Writer w = new Writer( "model", "test", Paths.get( "target/ReportQueueTest/coalescing" ) );
+		ReportQueue queue = new ReportQueue( w, 1 );
+		CountDownLatch latch = new CountDownLatch( 1 );
+
+		assertTimeoutPreemptively( ofSeconds( 10 ), () -> {
+			// occupy the writer thread
+			queue.submit( first, d -> {
+				try {
+					latch.await( 10, TimeUnit.SECONDS );
+				}
+				catch( InterruptedException ie ) {
+					throw new IllegalStateException( ie );
+				}
+				d.tags.add( "first" );
+			} );
+			// fill the queue - these would block if they were not combined
+			queue.submit( second, d -> d.tags.add( "a" ) );
+			queue.submit( second, d -> d.tags.add( "b" ) );
+			queue.submit( second, d -> d.tags.add( "c" ) );
+
+			latch.countDown();
+			queue.flush();
+		} );
+
+		Index index = new Reader( w.path() ).read();
+		assertEquals( "[[first], [a, b, c]]", index.entries.stream()
+				.map( e -> e.tags.toString() )
+				.collect( Collectors.toList() ).toString() );
+	}
+
+	/**
+	 * Shows that flushing retires the writer thread, and that the queue remains
+	 * usable afterwards
+	 */
+	@Test
+	void retirement() {
+		List<Flow> flows = TestModel.abcWithChild().flows().collect( Collectors.toList() );
+		Writer w = new Writer( "model", "test", Paths.get( "target/ReportQueueTest/retirement" ) );
+		ReportQueue queue = new ReportQueue( w, 1 );
+
+		// other tests might have left writer threads running
+		long others = writerThreads();
+
+		assertTimeoutPreemptively( ofSeconds( 10 ), () -> {
+			queue.submit( flows.get( 0 ), d -> d.tags.add( "first" ) );
+			assertEquals( others + 1, writerThreads(), "started" );
+			queue.flush();
+			while( writerThreads() > others ) {
+				Thread.sleep( 10 );
+			}
+
+			queue.submit( flows.get( 1 ), d -> d.tags.add( "second" ) );
+			assertEquals( others + 1, writerThreads(), "restarted" );
+			queue.flush();
+		} );
+
+		Index index = new Reader( w.path() ).read();
+		assertEquals( "[[first], [second]]", index.entries.stream()
+				.map( e -> e.tags.toString() )
+				.collect( Collectors.toList() ).toString() );
+	}
+
+	private static long writerThreads() {
+		return Thread.getAllStackTraces().keySet().stream()
+				.filter( t -> "report-writer".equals( t.getName() ) )
+				.count();
+	}
+
+	/**
+	 * Shows that failures on the writer thread are rethrown on the submitting
+	 * thread
+	 */
+	@Test
+	void failure() {
+		Flow flow = TestModel.abc().flows().findFirst().get();
+		Writer w = new Writer( "model", "test", Paths.get( "target/ReportQueueTest/failure" ) );
+		ReportQueue queue = new ReportQueue( w, 1 );
+
+		queue.submit( flow, d -> {
+			throw new IllegalArgumentException( "bang" );
+		} );
+
+		IllegalStateException ise = assertThrows( IllegalStateException.class, queue::flush );
+		assertEquals( "Failed to write report", ise.getMessage() );
+		assertEquals( "bang", ise.getCause().getMessage() );
+
+		ise = assertThrows( IllegalStateException.class,
+				() -> queue.submit( flow, d -> d.tags.add( "ignored" ) ) );
+		assertEquals( "bang", ise.getCause().getMessage() );
+
+		assertNull( new Reader( w.path() ).read(), "nothing written" );
+	}
+}
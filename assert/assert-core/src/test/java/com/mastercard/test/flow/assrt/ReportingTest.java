@@ -9,6 +9,7 @@ import static com.mastercard.test.flow.assrt.Reporting.QUIETLY;
 import static com.mastercard.test.flow.assrt.TestModel.Actors.B;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.file.Files;
@@ -28,6 +29,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mastercard.test.flow.Actor;
 import com.mastercard.test.flow.assrt.AbstractFlocessor.State;
 import com.mastercard.test.flow.report.Reader;
+import com.mastercard.test.flow.report.Writer;
 import com.mastercard.test.flow.report.data.Entry;
 import com.mastercard.test.flow.report.data.FlowData;
 import com.mastercard.test.flow.report.data.Index;
@@ -314,6 +316,61 @@ class ReportingTest {
 		assertEquals( "[B]", fd.exercised.toString() );
 	}
 
+	/**
+	 * Shows that report updates can be written on a background thread
+	 */
+	@Test
+	void queued() {
+		TestFlocessor tf = new TestFlocessor( "queued", TestModel.abcWithChild() )
+				.system( State.FUL, B )
+				.reporting( QUIETLY )
+				.behaviour( assrt -> {
+					assrt.actual().response( assrt.expected().response().content() );
+				} );
+		try( Temporary t = AssertionOptions.REPORT_QUEUE.temporarily( "1" ) ) {
+			tf.execute();
+		}
+		tf.flush();
+
+		Reader r = new Reader( tf.report() );
+		Index index = r.read();
+		assertEquals( 2, index.entries.size() );
+		for( Entry ie : index.entries ) {
+			assertTrue( ie.tags.contains( "PASS" ), ie.tags.toString() );
+			FlowData fd = r.detail( ie );
+			assertTrue( fd.tags.contains( "PASS" ), fd.tags.toString() );
+			assertEquals( "[B]", fd.exercised.toString() );
+		}
+	}
+
+	/**
+	 * Shows that the report index can be written incrementally, with the index file
+	 * being brought up to date on flush
+	 */
+	@Test
+	void incrementalIndex() {
+		TestFlocessor tf = new TestFlocessor( "incrementalIndex", TestModel.abcWithChild() )
+				.system( State.FUL, B )
+				.reporting( QUIETLY )
+				.behaviour( assrt -> {
+					assrt.actual().response( assrt.expected().response().content() );
+				} );
+		try( Temporary t = AssertionOptions.REPORT_INDEX_INTERVAL.temporarily( "3600000" ) ) {
+			tf.execute();
+		}
+		assertTrue( Files.exists( tf.report().resolve( Writer.INDEX_LOG_FILE_NAME ) ),
+				"updates are logged" );
+
+		tf.flush();
+		assertFalse( Files.exists( tf.report().resolve( Writer.INDEX_LOG_FILE_NAME ) ),
+				"log is consumed on flush" );
+		Index index = new Reader( tf.report() ).read();
+		assertEquals( 2, index.entries.size() );
+		for( Entry ie : index.entries ) {
+			assertTrue( ie.tags.contains( "PASS" ), ie.tags.toString() );
+		}
+	}
+
 	/**
 	 * Shows that a stably-named symlink is created that points to the latest report
 	 */
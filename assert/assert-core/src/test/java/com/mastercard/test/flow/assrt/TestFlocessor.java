@@ -5,6 +5,7 @@ import static java.util.stream.Collectors.joining;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
@@ -18,7 +19,7 @@ import com.mastercard.test.flow.assrt.History.Result;
  */
 public class TestFlocessor extends AbstractFlocessor<TestFlocessor> {
 
-	private final List<String> eventLog = new ArrayList<>();
+	private final List<String> eventLog = Collections.synchronizedList( new ArrayList<>() );
 
 	/**
 	 * @param title test title
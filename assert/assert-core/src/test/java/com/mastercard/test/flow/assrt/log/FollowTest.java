@@ -0,0 +1,246 @@
+package com.mastercard.test.flow.assrt.log;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.assrt.mock.Flw;
+import com.mastercard.test.flow.report.QuietFiles;
+import com.mastercard.test.flow.report.data.LogEvent;
+
+/**
+ * Exercises {@link Follow}
+ */
+@SuppressWarnings("static-method")
+class FollowTest {
+
+	private static final String PATTERN = "^(?<level>[A-Z]+) (?<time>\\d+) (?<source>[a-z]+)";
+
+	/**
+	 * Events from multiple files are merged, and only those logged while the flow
+	 * is exercised are captured
+	 *
+	 * @throws Exception on file failure
+	 */
+	@Test
+	void files() throws Exception {
+		Path dir = Files.createTempDirectory( "follow" );
+		Path a = dir.resolve( "a.log" );
+		Path b = dir.resolve( "b.log" );
+		log( a, "INFO 001 aaa before" );
+
+		try( Follow follow = new Follow( PATTERN )
+				.file( a )
+				.file( b )
+				.synchronous( true ) ) {
+			Flow flw = new Flw( "flw []" );
+
+			follow.start( flw );
+			log( a, "INFO 002 aaa first" );
+			log( b, "WARN 003 bbb second", "  continued" );
+			log( a, "INFO 004 aaa third" );
+
+			assertEquals( ""
+					+ "INFO/aaa/002/first\n"
+					+ "WARN/bbb/003/second\n"
+					+ "  continued\n"
+					+ "INFO/aaa/004/third",
+					format( follow.end( flw ) ) );
+		}
+	}
+
+	/**
+	 * Files that match a glob are discovered as they are created
+	 *
+	 * @throws Exception on file failure
+	 */
+	@Test
+	void glob() throws Exception {
+		Path dir = Files.createTempDirectory( "follow" );
+		log( dir.resolve( "old.log" ), "INFO 001 old before" );
+
+		try( Follow follow = new Follow( PATTERN )
+				.glob( dir, "*.log" )
+				.interval( Duration.ofMillis( 10 ) )
+				.synchronous( true ) ) {
+			Flow flw = new Flw( "flw []" );
+
+			follow.start( flw );
+			log( dir.resolve( "old.log" ), "INFO 002 old during" );
+			log( dir.resolve( "new.log" ), "INFO 003 new during" );
+			log( dir.resolve( "ignored.txt" ), "INFO 004 txt during" );
+
+			assertEquals( ""
+					+ "INFO/old/002/during\n"
+					+ "INFO/new/003/during",
+					format( follow.end( flw ) ) );
+		}
+	}
+
+	/**
+	 * Rotated files are followed
+	 *
+	 * @throws Exception on file failure
+	 */
+	@Test
+	void rotation() throws Exception {
+		Path dir = Files.createTempDirectory( "follow" );
+		Path log = dir.resolve( "app.log" );
+		log( log, "INFO 001 app before" );
+
+		try( Follow follow = new Follow( PATTERN )
+				.file( log )
+				.synchronous( true ) ) {
+			Flow flw = new Flw( "flw []" );
+
+			follow.start( flw );
+			log( log, "INFO 002 app old file" );
+			Files.move( log, dir.resolve( "app.log.1" ) );
+			log( log, "INFO 003 app new file" );
+
+			assertEquals( ""
+					+ "INFO/app/002/old file\n"
+					+ "INFO/app/003/new file",
+					format( follow.end( flw ) ) );
+		}
+	}
+
+	/**
+	 * Files that are rotated into a followed glob are not captured again
+	 *
+	 * @throws Exception on file failure
+	 */
+	@Test
+	void globRotation() throws Exception {
+		Path dir = Files.createTempDirectory( "follow" );
+		Path log = dir.resolve( "app.log" );
+		log( log, "INFO 001 app before" );
+
+		try( Follow follow = new Follow( PATTERN )
+				.glob( dir, "app.log*" )
+				.synchronous( true ) ) {
+			Flow flw = new Flw( "flw []" );
+
+			follow.start( flw );
+			log( log, "INFO 002 app old file" );
+			Files.move( log, dir.resolve( "app.log.1" ) );
+			log( log, "INFO 003 app new file" );
+
+			assertEquals( ""
+					+ "INFO/app/002/old file\n"
+					+ "INFO/app/003/new file",
+					format( follow.end( flw ) ) );
+		}
+	}
+
+	/**
+	 * An event that is still being logged when a flow ends is attributed to that
+	 * flow and not to the next one
+	 *
+	 * @throws Exception on file failure
+	 */
+	@Test
+	void pending() throws Exception {
+		Path dir = Files.createTempDirectory( "follow" );
+		Path log = dir.resolve( "app.log" );
+
+		try( Follow follow = new Follow( PATTERN )
+				.file( log )
+				.synchronous( true ) ) {
+			Flow first = new Flw( "first []" );
+			Flow second = new Flw( "second []" );
+
+			follow.start( first );
+			log( log, "INFO 001 app one" );
+			assertEquals( "INFO/app/001/one", format( follow.end( first ) ) );
+
+			follow.start( second );
+			log( log, "INFO 002 app two" );
+			assertEquals( "INFO/app/002/two", format( follow.end( second ) ) );
+		}
+	}
+
+	/**
+	 * Files that disappear are closed, and discovered files are forgotten
+	 *
+	 * @throws Exception on file failure
+	 */
+	@Test
+	void deletion() throws Exception {
+		Path dir = Files.createTempDirectory( "follow" );
+		Path followed = dir.resolve( "followed.log" );
+		Path discovered = dir.resolve( "discovered.log" );
+		log( followed, "INFO 001 fol before" );
+		log( discovered, "INFO 002 dis before" );
+
+		try( Follow follow = new Follow( PATTERN )
+				.file( followed )
+				.glob( dir, "dis*.log" ) ) {
+			follow.poll();
+			assertEquals( 2, follow.followed() );
+
+			Files.delete( followed );
+			Files.delete( discovered );
+			follow.poll();
+			assertEquals( 1, follow.followed() );
+
+			Flow flw = new Flw( "flw []" );
+			follow.start( flw );
+			log( followed, "INFO 003 fol after" );
+			follow.poll();
+			assertEquals( "INFO/fol/003/after", format( follow.end( flw ) ) );
+		}
+	}
+
+	/**
+	 * Events beyond the buffer capacity are dropped
+	 *
+	 * @throws Exception on file failure
+	 */
+	@Test
+	void capacity() throws Exception {
+		Path dir = Files.createTempDirectory( "follow" );
+		Path log = dir.resolve( "app.log" );
+
+		try( Follow follow = new Follow( PATTERN )
+				.file( log )
+				.capacity( 2 )
+				.truncation( "snip!" ) ) {
+			Flow flw = new Flw( "flw []" );
+
+			follow.start( flw );
+			log( log, "INFO 001 app one", "INFO 002 app two", "INFO 003 app three",
+					"INFO 004 app four" );
+			follow.poll();
+
+			assertEquals( ""
+					+ "?/?/002/snip!\n"
+					+ "INFO/app/002/two\n"
+					+ "INFO/app/003/three\n"
+					+ "INFO/app/004/four",
+					format( follow.end( flw ) ) );
+		}
+	}
+
+	private static String format( Stream<LogEvent> events ) {
+		return events
+				.map( e -> String.format( "%s/%s/%s/%s", e.level, e.source, e.time, e.message ) )
+				.collect( Collectors.joining( "\n" ) );
+	}
+
+	private static void log( Path path, String... lines ) {
+		QuietFiles.write( path, Stream.of( lines )
+				.map( l -> l + "\n" )
+				.collect( Collectors.joining() ).getBytes( UTF_8 ),
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND );
+	}
+}
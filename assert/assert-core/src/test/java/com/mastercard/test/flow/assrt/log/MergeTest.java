@@ -3,6 +3,8 @@ package com.mastercard.test.flow.assrt.log;
 import static java.util.stream.Collectors.joining;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -111,4 +113,59 @@ class MergeTest {
 				events.map( e -> e.time )
 						.collect( joining( ", " ) ) );
 	}
+
+	/**
+	 * Shows that event times can be parsed for comparison, and that equal times are
+	 * emitted in source order
+	 */
+	@Test
+	void timestamps() {
+		Merge merge = new Merge()
+				.with( source( "a", "1", "10", "100" ), source( "b", "2", "20" ),
+						source( "c", "10", "11" ) )
+				.timestamps( Long::parseLong );
+
+		Flow flw = new Flw( "flw []" );
+		merge.start( flw );
+
+		assertEquals( "a1, b2, a10, c10, c11, b20, a100",
+				merge.end( flw )
+						.map( e -> e.source + e.time )
+						.collect( joining( ", " ) ) );
+	}
+
+	/**
+	 * Shows that source events are not consumed until they are needed
+	 */
+	@Test
+	void lazy() {
+		List<String> consumed = new ArrayList<>();
+		Merge merge = new Merge()
+				.with( source( "x", "a", "c" ), source( "y", "b", "d" ) );
+
+		Flow flw = new Flw( "flw []" );
+		merge.start( flw );
+		Stream<LogEvent> events = merge.end( flw )
+				.peek( e -> consumed.add( e.time ) );
+
+		assertEquals( "[]", consumed.toString() );
+		assertEquals( "a", events.findFirst().map( e -> e.time ).orElse( null ) );
+		assertEquals( "[a]", consumed.toString() );
+	}
+
+	private static LogCapture source( String name, String... times ) {
+		return new LogCapture() {
+
+			@Override
+			public void start( Flow flow ) {
+				// no-op
+			}
+
+			@Override
+			public Stream<LogEvent> end( Flow flow ) {
+				return Stream.of( times )
+						.map( t -> new LogEvent( t, "lvl", name, "msg" ) );
+			}
+		};
+	}
 }
@@ -4,6 +4,7 @@ package com.mastercard.test.flow.assrt.log;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
@@ -127,8 +128,107 @@ class TailTest {
 				errLog.toString() );
 	}
 
+	/**
+	 * Exercises limiting the extracted content by event count
+	 */
+	@Test
+	void eventLimit() {
+		Path path = QuietFiles.createTempFile( null, null );
+		path.toFile().deleteOnExit();
+		Tail tail = new Tail( path, "^(?<level>[A-Z]+) (?<time>\\d+) (?<source>[a-z]+)" )
+				.limit( Long.MAX_VALUE, 2 )
+				.truncation( "snip!" );
+		Flow a = new Flw( "a []" );
+
+		tail.start( a );
+		log( path, "INFO 001 src first", "INFO 002 src second", "INFO 003 src third" );
+
+		assertEquals( ""
+				+ "INFO/src/001/first\n"
+				+ "INFO/src/002/second\n"
+				+ "?/?/002/snip!",
+				tail.end( a )
+						.map( e -> String.format( "%s/%s/%s/%s", e.level, e.source, e.time, e.message ) )
+						.collect( Collectors.joining( "\n" ) ) );
+	}
+
+	/**
+	 * Exercises limiting the extracted content by size
+	 */
+	@Test
+	void byteLimit() {
+		Path path = QuietFiles.createTempFile( null, null );
+		path.toFile().deleteOnExit();
+		Tail tail = new Tail( path, "^(?<level>[A-Z]+) (?<time>\\d+) (?<source>[a-z]+)" )
+				.limit( 33, Integer.MAX_VALUE );
+		Flow a = new Flw( "a []" );
+
+		tail.start( a );
+		log( path, "INFO 001 src first", "INFO 002 src second", "INFO 003 src third" );
+
+		assertEquals( ""
+				+ "INFO/src/001/first\n"
+				+ "INFO/src/002/s\n"
+				+ "?/?/002/Log capture truncated",
+				tail.end( a )
+						.map( e -> String.format( "%s/%s/%s/%s", e.level, e.source, e.time, e.message ) )
+						.collect( Collectors.joining( "\n" ) ) );
+	}
+
+	/**
+	 * Exercises extracting content across log rotation
+	 *
+	 * @throws Exception on file failure
+	 */
+	@Test
+	void rotation() throws Exception {
+		Path path = QuietFiles.createTempFile( null, null );
+		Path rotated = path.resolveSibling( path.getFileName() + ".1" );
+		path.toFile().deleteOnExit();
+		rotated.toFile().deleteOnExit();
+		Tail tail = new Tail( path, "^(?<level>[A-Z]+) (?<time>\\d+) (?<source>[a-z]+)" );
+		Flow a = new Flw( "a []" );
+
+		log( path, "INFO 001 src before" );
+		tail.start( a );
+		log( path, "INFO 002 src old file" );
+		Files.move( path, rotated );
+		QuietFiles.write( path, "INFO 003 src new file\n".getBytes( UTF_8 ) );
+
+		assertEquals( ""
+				+ "INFO/src/002/old file\n"
+				+ "INFO/src/003/new file",
+				tail.end( a )
+						.map( e -> String.format( "%s/%s/%s/%s", e.level, e.source, e.time, e.message ) )
+						.collect( Collectors.joining( "\n" ) ) );
+	}
+
+	/**
+	 * Exercises extracting content from a file that has been truncated in place
+	 */
+	@Test
+	void truncation() {
+		Path path = QuietFiles.createTempFile( null, null );
+		path.toFile().deleteOnExit();
+		Tail tail = new Tail( path, "^(?<level>[A-Z]+) (?<time>\\d+) (?<source>[a-z]+)" );
+		Flow a = new Flw( "a []" );
+
+		log( path, "INFO 001 src before the flow started" );
+		tail.start( a );
+		QuietFiles.write( path, "INFO 002 src after\n".getBytes( UTF_8 ) );
+
+		assertEquals( "INFO/src/002/after",
+				tail.end( a )
+						.map( e -> String.format( "%s/%s/%s/%s", e.level, e.source, e.time, e.message ) )
+						.collect( Collectors.joining( "\n" ) ) );
+	}
+
 	private static void log( String... lines ) {
-		QuietFiles.write( LOG_PATH, Stream.of( lines )
+		log( LOG_PATH, lines );
+	}
+
+	private static void log( Path path, String... lines ) {
+		QuietFiles.write( path, Stream.of( lines )
 				.map( l -> l + "\n" )
 				.collect( Collectors.joining() ).getBytes( UTF_8 ),
 				StandardOpenOption.APPEND );
@@ -37,6 +37,8 @@ import com.mastercard.test.flow.report.Reader;
 import com.mastercard.test.flow.report.Writer;
 import com.mastercard.test.flow.report.data.Entry;
 import com.mastercard.test.flow.report.data.Index;
+import com.mastercard.test.flow.util.TagFilter;
+import com.mastercard.test.flow.util.Tags;
 
 /**
  * Allows the user to select which {@link Flow}s to exercise.
@@ -363,34 +365,16 @@ public class Filter implements FilterConfiguration {
 	public List<Flow> taggedFlows() {
 		constructingFlows = true;
 		if( taggedFlows == null ) {
+			TagFilter filter = Tags.filter( includeTags, excludeTags );
 			taggedFlows = model.flows( includeTags, excludeTags )
-					.filter( this::matches )
+					// the flow bears *all* of the included tags and *none* of the excluded
+					.filter( f -> filter.test( f.meta().tagBits() ) )
 					.sorted( Comparator.comparing( f -> f.meta().id() ) )
 					.collect( toList() );
 		}
 		return taggedFlows;
 	}
 
-	private boolean matches( Flow flow ) {
-		boolean included = true;
-
-		if( !includeTags.isEmpty() ) {
-			Set<String> includeIntersection = new HashSet<>( flow.meta().tags() );
-			includeIntersection.retainAll( includeTags );
-			// the flow bears *all* of the included tags
-			included &= includeIntersection.size() == includeTags.size();
-		}
-
-		if( !excludeTags.isEmpty() ) {
-			Set<String> excludeIntersection = new HashSet<>( flow.meta().tags() );
-			excludeIntersection.retainAll( excludeTags );
-			// the flow bears *none* of the excluded tags
-			included &= excludeIntersection.isEmpty();
-		}
-
-		return included;
-	}
-
 	/**
 	 * Performs filtering
 	 *
@@ -6,7 +6,10 @@ import java.util.stream.Collectors;
 
 import org.junit.Assert;
 import org.junit.AssumptionViolatedException;
+import org.junit.ClassRule;
 import org.junit.Rule;
+import org.junit.rules.ExternalResource;
+import org.junit.rules.TestRule;
 
 import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.Model;
@@ -28,6 +31,9 @@ import com.mastercard.test.flow.assrt.AbstractFlocessor;
  * 				// test behaviour
  * 			} );
  *
+ * 	&#64;ClassRule
+ * 	public static TestRule flush = flows.flushRule();
+ *
  * 	&#64;Parameters(name = "{0}")
  * 	public static Collection&lt;Object[]&gt; flows() {
  * 		return flows.parameters();
@@ -80,6 +86,21 @@ public class Flocessor extends AbstractFlocessor<Flocessor> {
 		return new FlowRule( history, flow );
 	}
 
+	/**
+	 * Produces the {@link ClassRule} that makes sure all report updates are written
+	 * once the test class has finished
+	 *
+	 * @return The test {@link ClassRule}
+	 */
+	public TestRule flushRule() {
+		return new ExternalResource() {
+			@Override
+			protected void after() {
+				flush();
+			}
+		};
+	}
+
 	@Override
 	protected void skip( String reason ) {
 		throw new AssumptionViolatedException( reason );
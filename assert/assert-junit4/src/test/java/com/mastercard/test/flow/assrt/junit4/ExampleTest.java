@@ -6,8 +6,10 @@ import java.util.Collection;
 
 import org.junit.Assume;
 import org.junit.BeforeClass;
+import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TestRule;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameter;
@@ -57,6 +59,12 @@ public class ExampleTest {
 				}
 			} );
 
+	/**
+	 * Ensures that report updates are complete
+	 */
+	@ClassRule
+	public static final TestRule flush = flows.flushRule();
+
 	/**
 	 * @return The {@link Flow} parameters
 	 */
@@ -55,7 +55,8 @@ public class Flocessor extends AbstractFlocessor<Flocessor> {
 
 	/**
 	 * Return the results of this method from a {@link TestFactory}-annotated method
-	 * in your test class
+	 * in your test class. Closing the stream will {@link #flush()} any outstanding
+	 * report updates - junit does this once the test cases have been executed.
 	 *
 	 * @return A stream of test cases
 	 */
@@ -99,7 +100,8 @@ public class Flocessor extends AbstractFlocessor<Flocessor> {
 		if( !currentChain.isEmpty() ) {
 			nodes.add( createDynamicContainer( currentChain ) );
 		}
-		return nodes.stream();
+		return nodes.stream()
+				.onClose( this::flush );
 	}
 
 	private void processFlow( Flow flow ) {
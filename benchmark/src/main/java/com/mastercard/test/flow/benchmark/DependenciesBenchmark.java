@@ -0,0 +1,110 @@
+package com.mastercard.test.flow.benchmark;
+
+import static com.mastercard.test.flow.util.Transmission.Type.REQUEST;
+import static com.mastercard.test.flow.util.Transmission.Type.RESPONSE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.Interaction;
+import com.mastercard.test.flow.Message;
+import com.mastercard.test.flow.benchmark.Synthetic.Actors;
+import com.mastercard.test.flow.builder.Deriver;
+import com.mastercard.test.flow.util.Dependencies;
+import com.mastercard.test.flow.util.Flows;
+
+/**
+ * Exercises {@link Dependencies#publish(Flow, Interaction, Message, byte[])},
+ * which is called for every message that is harvested during assertion
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependenciesBenchmark {
+
+	/**
+	 * The number of {@link Flow}s in the model
+	 */
+	@Param({ "100", "10000" })
+	public int flows;
+
+	/**
+	 * The number of {@link Flow}s that depend on the published message
+	 */
+	@Param({ "1", "10" })
+	public int dependents;
+
+	private Dependencies dependencies;
+	private Flow source;
+	private Interaction interaction;
+	private Message expected;
+	private byte[] actual;
+	private Message parsed;
+
+	/**
+	 * Builds the model
+	 */
+	@Setup
+	public void setup() {
+		List<Flow> model = new ArrayList<>( Synthetic.flows( flows - dependents ) );
+		source = model.get( 0 );
+		for( int i = 0; i < dependents; i++ ) {
+			String description = "dependent" + i;
+			model.add( Deriver.build( source, flow -> flow
+					.meta( data -> data
+							.description( description ) )
+					.dependency( source, dep -> dep
+							.from( ntr -> ntr.responder() == Actors.BEN, RESPONSE, "'.*'" )
+							.to( ntr -> ntr.responder() == Actors.BEN, REQUEST, "'.*'" ) ) ) );
+		}
+		dependencies = new Dependencies( model.stream() );
+		interaction = Flows.get( source, ntr -> ntr.responder() == Actors.BEN );
+		expected = interaction.response();
+		actual = "Ask for 'the actual id' to get it back".getBytes( UTF_8 );
+		parsed = Dependencies.parse( interaction, expected, actual );
+	}
+
+	/**
+	 * @return The parsed message
+	 */
+	@Benchmark
+	public Message publish() {
+		return dependencies.publish( source, interaction, expected, actual );
+	}
+
+	/**
+	 * @return The messages that were updated
+	 */
+	@Benchmark
+	public Set<Message> publishParsed() {
+		return dependencies.publish( source, interaction, expected, parsed );
+	}
+
+	/**
+	 * @return The parsed message
+	 */
+	@Benchmark
+	public Message publishUnrelated() {
+		// the request is not the source of any dependency
+		return dependencies.publish( source, interaction, interaction.request(), actual );
+	}
+}
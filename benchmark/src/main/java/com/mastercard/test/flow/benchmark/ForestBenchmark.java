@@ -0,0 +1,112 @@
+package com.mastercard.test.flow.benchmark;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mastercard.test.flow.msg.Forest;
+
+/**
+ * Exercises
+ * {@link Forest#traverse(Map, Deque, boolean, java.util.function.BiConsumer, java.util.function.ObjIntConsumer)},
+ * which underpins field access in the tree-structured message types
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForestBenchmark {
+
+	/**
+	 * The number of elements in the path
+	 */
+	@Param({ "1", "4", "16" })
+	public int depth;
+
+	private Map<String, Object> data;
+	private Deque<String> path;
+	private Deque<String> absent;
+
+	/**
+	 * Builds the data structure that we traverse
+	 */
+	@Setup
+	public void setup() {
+		data = new TreeMap<>();
+		path = new ArrayDeque<>();
+		absent = new ArrayDeque<>();
+		for( int i = 0; i < depth; i++ ) {
+			// alternate between map and list elements
+			path.add( i % 2 == 0 ? "map" + i : "list" + i + "[2]" );
+			absent.add( "absent" + i );
+		}
+		Forest.traverse( data, path, true,
+				( map, key ) -> map.put( key, "value" ),
+				( list, index ) -> list.set( index, "value" ) );
+	}
+
+	/**
+	 * Reads a populated leaf
+	 *
+	 * @param bh Consumes the leaf value
+	 */
+	@Benchmark
+	public void read( Blackhole bh ) {
+		Forest.traverse( data, path, false,
+				( map, key ) -> bh.consume( map.get( key ) ),
+				( list, index ) -> bh.consume( list.get( index ) ) );
+	}
+
+	/**
+	 * Updates a populated leaf
+	 */
+	@Benchmark
+	public void write() {
+		Forest.traverse( data, path, true,
+				( map, key ) -> map.put( key, "updated" ),
+				( list, index ) -> list.set( index, "updated" ) );
+	}
+
+	/**
+	 * Fails to find a leaf
+	 *
+	 * @param bh Consumes the leaf value
+	 */
+	@Benchmark
+	public void miss( Blackhole bh ) {
+		Forest.traverse( data, absent, false,
+				( map, key ) -> bh.consume( map.get( key ) ),
+				( list, index ) -> bh.consume( list.get( index ) ) );
+	}
+
+	/**
+	 * Builds the path structure from scratch
+	 *
+	 * @return The new data structure
+	 */
+	@Benchmark
+	public Map<String, Object> vivify() {
+		Map<String, Object> fresh = new TreeMap<>();
+		Forest.traverse( fresh, path, true,
+				( map, key ) -> map.put( key, "value" ),
+				( list, index ) -> list.set( index, "value" ) );
+		return fresh;
+	}
+}
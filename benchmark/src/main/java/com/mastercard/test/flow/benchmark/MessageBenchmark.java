@@ -0,0 +1,213 @@
+package com.mastercard.test.flow.benchmark;
+
+import static com.mastercard.test.flow.benchmark.Synthetic.Unpredictables.RNG;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mastercard.test.flow.Message;
+import com.mastercard.test.flow.msg.http.HttpMsg;
+import com.mastercard.test.flow.msg.http.HttpReq;
+import com.mastercard.test.flow.msg.json.Json;
+import com.mastercard.test.flow.msg.sql.Result;
+import com.mastercard.test.flow.msg.xml.XML;
+
+/**
+ * Exercises the {@link Message} operations that dominate model construction and
+ * assertion
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBenchmark {
+
+	/**
+	 * The message types under test
+	 */
+	public enum Format {
+		/***/
+		JSON(
+				i -> String.format( "items[%s].name", i ),
+				size -> {
+					Json json = new Json()
+							.set( "id", 1234 )
+							.set( "meta.created", "2022-01-01T00:00:00Z" );
+					for( int i = 0; i < size; i++ ) {
+						json.set( String.format( "items[%s].name", i ), "item " + i )
+								.set( String.format( "items[%s].value", i ), i );
+					}
+					return json.masking( RNG, m -> m.replace( "meta.created", "timestamp" ) );
+				}),
+		/***/
+		XML(
+				i -> String.format( "/root/items/item[%s]/name", i ),
+				size -> {
+					XML xml = new XML()
+							.set( "/root/@id", 1234 )
+							.set( "/root/created", "2022-01-01T00:00:00Z" );
+					for( int i = 0; i < size; i++ ) {
+						xml.set( String.format( "/root/items/item[%s]/name", i ), "item " + i )
+								.set( String.format( "/root/items/item[%s]/value", i ), i );
+					}
+					return xml.masking( RNG, m -> m.replace( "/root/created", "timestamp" ) );
+				}),
+		/***/
+		HTTP(
+				i -> String.format( "items[%s].name", i ),
+				size -> new HttpReq()
+						.set( HttpReq.METHOD, "POST" )
+						.set( HttpReq.PATH, "/items" )
+						.set( HttpMsg.VERSION, "HTTP/1.1" )
+						.set( HttpMsg.header( "content-type" ), "application/json" )
+						.set( HttpMsg.header( "date" ), "Sat, 01 Jan 2022 00:00:00 GMT" )
+						.set( HttpMsg.BODY, JSON.build.apply( size ) )
+						.masking( RNG, m -> m.replace( HttpMsg.header( "date" ), "timestamp" ) )),
+		/***/
+		SQL(
+				i -> String.format( "%s:1", i ),
+				size -> {
+					Result result = new Result( "id", "name", "created" );
+					for( int i = 0; i < size; i++ ) {
+						result.set( i + ":0", i )
+								.set( i + ":1", "item " + i )
+								.set( i + ":2", "2022-01-01T00:00:00Z" );
+					}
+					return result.masking( RNG, m -> m.replace( "0:2", "timestamp" ) );
+				});
+
+		/**
+		 * Maps from an item index to the address of a field in that item
+		 */
+		final IntFunction<String> field;
+		/**
+		 * Maps from an item count to a populated message
+		 */
+		final IntFunction<Message> build;
+
+		Format( IntFunction<String> field, IntFunction<Message> build ) {
+			this.field = field;
+			this.build = build;
+		}
+	}
+
+	/**
+	 * The message type under test
+	 */
+	@Param({ "JSON", "XML", "HTTP", "SQL" })
+	public Format format;
+
+	/**
+	 * The number of items in the message
+	 */
+	@Param({ "10", "100" })
+	public int size;
+
+	/**
+	 * The depth of {@link Message#child()} chains
+	 */
+	@Param({ "8" })
+	public int depth;
+
+	private Message message;
+	private Message mutable;
+	private byte[] content;
+	private String field;
+
+	/**
+	 * Builds the messages under test
+	 */
+	@Setup
+	public void setup() {
+		message = format.build.apply( size );
+		mutable = message.child();
+		content = message.content();
+		field = format.field.apply( size / 2 );
+	}
+
+	/**
+	 * @return A newly-constructed message
+	 */
+	@Benchmark
+	public Message construct() {
+		return format.build.apply( size );
+	}
+
+	/**
+	 * @return A message parsed from bytes
+	 */
+	@Benchmark
+	public Message parse() {
+		// peer parsing is lazy, so we need to provoke it
+		Message peer = message.peer( content );
+		peer.get( field );
+		return peer;
+	}
+
+	/**
+	 * @return A field value at the end of a chain of child messages, each of which
+	 *         has updated that field
+	 */
+	@Benchmark
+	public Object childChain() {
+		Message msg = message;
+		for( int i = 0; i < depth; i++ ) {
+			msg = msg.child().set( field, "child " + i );
+		}
+		return msg.get( field );
+	}
+
+	/**
+	 * @return A field value
+	 */
+	@Benchmark
+	public Object get() {
+		return message.get( field );
+	}
+
+	/**
+	 * @return The updated message
+	 */
+	@Benchmark
+	public Message set() {
+		return mutable.set( field, "updated" );
+	}
+
+	/**
+	 * @return The message bytes
+	 */
+	@Benchmark
+	public byte[] content() {
+		return message.content();
+	}
+
+	/**
+	 * @return The unmasked human-readable message content
+	 */
+	@Benchmark
+	public String assertable() {
+		return message.assertable();
+	}
+
+	/**
+	 * @return The masked human-readable message content
+	 */
+	@Benchmark
+	public String masked() {
+		return message.assertable( RNG );
+	}
+}
@@ -0,0 +1,61 @@
+package com.mastercard.test.flow.benchmark;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.assrt.Order;
+
+/**
+ * Exercises {@link Order#order()}, which schedules the whole model before
+ * assertion starts
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrderBenchmark {
+
+	/**
+	 * The number of {@link Flow}s in the model
+	 */
+	@Param({ "10000", "30000", "100000" })
+	public int flows;
+
+	private List<Flow> model;
+
+	/**
+	 * Builds the model
+	 */
+	@Setup
+	public void setup() {
+		model = Synthetic.flows( flows );
+	}
+
+	/**
+	 * @return The processing order
+	 */
+	@Benchmark
+	public List<Flow> order() {
+		return new Order( model.stream(), Collections.emptyList() )
+				.order()
+				.collect( toList() );
+	}
+}
@@ -0,0 +1,111 @@
+package com.mastercard.test.flow.benchmark;
+
+import static com.mastercard.test.flow.util.Tags.add;
+import static com.mastercard.test.flow.util.Tags.set;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.mastercard.test.flow.Actor;
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.Unpredictable;
+import com.mastercard.test.flow.builder.Creator;
+import com.mastercard.test.flow.builder.Deriver;
+import com.mastercard.test.flow.msg.txt.Text;
+
+/**
+ * Generates the data that the benchmarks operate on. Everything is
+ * deterministic so that results are comparable between runs.
+ */
+class Synthetic {
+
+	/**
+	 * The actors in our synthetic system
+	 */
+	enum Actors implements Actor {
+		/***/
+		AVA,
+		/***/
+		BEN,
+		/***/
+		CHE;
+	}
+
+	/**
+	 * The sources of unpredictability in our synthetic system
+	 */
+	enum Unpredictables implements Unpredictable {
+		/***/
+		RNG;
+	}
+
+	private Synthetic() {
+		// no instances
+	}
+
+	/**
+	 * Builds a simple {@link Flow}
+	 *
+	 * @param description The flow description
+	 * @param tags        The flow tags
+	 * @return A {@link Flow} where {@link Actors#AVA} calls {@link Actors#BEN}, who
+	 *         calls {@link Actors#CHE}
+	 */
+	static Flow flow( String description, String... tags ) {
+		return Creator.build( flow -> flow
+				.meta( data -> data
+						.description( description )
+						.tags( add( tags ) ) )
+				.call( a -> a
+						.from( Actors.AVA )
+						.to( Actors.BEN )
+						.request( new Text( "Please store 'value " + description + "'" ) )
+						.call( b -> b
+								.to( Actors.CHE )
+								.request( new Text( "INSERT 'value " + description + "'" ) )
+								.response( new Text( "Stored at '" + description + "'" ) ) )
+						.response( new Text( "Ask for '" + description + "' to get it back" )
+								.masking( Unpredictables.RNG, m -> m.replace( "'.*'", "'id'" ) ) ) ) );
+	}
+
+	/**
+	 * Builds a synthetic model with a realistic mix of inheritance, ordering and
+	 * chain constraints
+	 *
+	 * @param count The number of {@link Flow}s to build
+	 * @return The {@link Flow}s
+	 */
+	static List<Flow> flows( int count ) {
+		Random rng = new Random( count );
+		List<Flow> flows = new ArrayList<>( count );
+		for( int i = 0; i < count; i++ ) {
+			String description = "flow" + i;
+			String[] tags = i % 10 == 0
+					// a tenth of the flows are in chains of ten
+					? new String[] { "chain:" + rng.nextInt( count / 100 + 1 ) }
+					: new String[] { "tag" + i % 7 };
+			Flow flow;
+			if( i == 0 || rng.nextInt( 4 ) == 0 ) {
+				flow = flow( description, tags );
+			}
+			else {
+				Flow basis = flows.get( rng.nextInt( i ) );
+				Flow prerequisite = rng.nextInt( 20 ) == 0
+						? flows.get( rng.nextInt( i ) )
+						: null;
+				flow = Deriver.build( basis, f -> {
+					f.meta( data -> data
+							.description( description )
+							.tags( set( tags ) ) );
+					if( prerequisite != null ) {
+						// prerequisites are always earlier, so we can't form cycles
+						f.prerequisite( prerequisite );
+					}
+				} );
+			}
+			flows.add( flow );
+		}
+		return flows;
+	}
+}
@@ -0,0 +1,119 @@
+package com.mastercard.test.flow.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.report.QuietFiles;
+import com.mastercard.test.flow.report.Writer;
+
+/**
+ * Exercises {@link Writer#with(Flow, java.util.function.Consumer...)}, which is
+ * called for every {@link Flow} that is processed during assertion. Reports are
+ * written under the directory named by the <code>dir</code> parameter, which
+ * defaults to the <code>/dev/shm</code> tmpfs so that we measure the writer
+ * rather than the disk. If that directory does not exist then the system's
+ * temporary directory is used instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriterBenchmark {
+
+	/**
+	 * Where to write reports
+	 */
+	@Param({ "/dev/shm" })
+	public String dir;
+
+	/**
+	 * The number of {@link Flow}s in the report
+	 */
+	@Param({ "100", "1000" })
+	public int flows;
+
+	/**
+	 * <code>true</code> to use incremental index writing
+	 */
+	@Param({ "false", "true" })
+	public boolean incremental;
+
+	private Path root;
+	private List<Flow> model;
+	private Writer writer;
+	private int next = 0;
+
+	/**
+	 * Populates a report
+	 *
+	 * @throws IOException if we fail to create the report directory
+	 */
+	@Setup
+	public void setup() throws IOException {
+		Path parent = Paths.get( dir );
+		root = Files.isDirectory( parent )
+				? Files.createTempDirectory( parent, "mctf_benchmark" )
+				: Files.createTempDirectory( "mctf_benchmark" );
+		model = Synthetic.flows( flows );
+		writer = writer( root.resolve( "populated" ) );
+		model.forEach( writer::with );
+		writer.flush();
+	}
+
+	/**
+	 * Deletes the reports
+	 */
+	@TearDown
+	public void tearDown() {
+		QuietFiles.recursiveDelete( root );
+	}
+
+	private Writer writer( Path path ) {
+		Writer w = new Writer( "model", "benchmark", path );
+		if( incremental ) {
+			w.incrementalIndex( Duration.ofSeconds( 1 ) );
+		}
+		return w;
+	}
+
+	/**
+	 * @return The writer
+	 */
+	@Benchmark
+	public Writer update() {
+		return writer.with( model.get( next++ % model.size() ) );
+	}
+
+	/**
+	 * @return The writer
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Writer report() {
+		Writer w = writer( root.resolve( "fresh" ) );
+		model.forEach( w::with );
+		return w.flush();
+	}
+}
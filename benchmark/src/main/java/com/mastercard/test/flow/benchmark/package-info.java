@@ -0,0 +1,5 @@
+/**
+ * <a href="https://github.com/openjdk/jmh">JMH</a> benchmarks for the
+ * performance-sensitive parts of the framework
+ */
+package com.mastercard.test.flow.benchmark;
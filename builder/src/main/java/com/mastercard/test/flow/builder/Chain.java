@@ -1,7 +1,7 @@
 package com.mastercard.test.flow.builder;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
@@ -68,9 +68,10 @@ public class Chain implements Consumer<Builder<?>> {
 	}
 
 	/**
-	 * Maps from class names to counts of chain objects constructed in that class
+	 * Maps from class names to counts of chain objects constructed in that class.
+	 * Models can be constructed concurrently, so this has to be thread-safe.
 	 */
-	private static Map<String, AtomicInteger> classCounts = new HashMap<>();
+	private static Map<String, AtomicInteger> classCounts = new ConcurrentHashMap<>();
 
 	/**
 	 * Generating chain ids is actually a bit difficult:
@@ -1,13 +1,15 @@
 package com.mastercard.test.flow.builder;
 
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toSet;
 
-import java.util.HashSet;
+import java.lang.StackWalker.StackFrame;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.util.Option;
 
 /**
  * Utility for walking the call stack to find where a {@link Flow} is being
@@ -18,8 +20,43 @@ import com.mastercard.test.flow.Flow;
 @SkipTrace
 public class Trace {
 
+	/**
+	 * Controls whether trace computation is deferred until the trace value is
+	 * actually asked for
+	 */
+	public static final Option DEFER = new Option.Builder()
+			.property( "mctf.trace.defer" )
+			.description( "Set to `true` to capture a cheap stack snapshot when a flow is built "
+					+ "and only resolve the trace location when it is first asked for" );
+
+	private static final StackWalker WALKER = StackWalker.getInstance(
+			StackWalker.Option.RETAIN_CLASS_REFERENCE );
+
 	private static Supplier<StackTraceElement[]> tracer = null;
-	private static final Set<String> skippedMethods = new HashSet<>();
+
+	/**
+	 * Whether a class, or its package, is skipped. {@link ClassValue} does not
+	 * prevent classes from being unloaded
+	 */
+	private static final ClassValue<Boolean> skippedClasses = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue( Class<?> type ) {
+			return isClassSkipped( type ) || isPackageSkipped( type );
+		}
+	};
+
+	/**
+	 * The names of the skipped methods of a class
+	 */
+	private static final ClassValue<Set<String>> skippedMethods = new ClassValue<>() {
+		@Override
+		protected Set<String> computeValue( Class<?> type ) {
+			return Stream.of( type.getDeclaredMethods() )
+					.filter( m -> m.isAnnotationPresent( SkipTrace.class ) )
+					.map( m -> m.getName() )
+					.collect( toSet() );
+		}
+	};
 
 	private Trace() {
 		// no instances
@@ -42,16 +79,56 @@ public class Trace {
 	 *         from
 	 */
 	public static String trace() {
-		StackTraceElement[] stack = tracer != null
-				? tracer.get()
-				: Thread.currentThread().getStackTrace();
+		if( tracer != null ) {
+			return trace( tracer.get() );
+		}
+		// frames are materialised lazily, so we only pay for as much of the stack as
+		// we need to walk through to find the first non-skipped frame
+		return WALKER.walk( frames -> frames
+				.filter( f -> !isSkipped( f.getDeclaringClass(), f.getMethodName() ) )
+				.findFirst() )
+				.map( Trace::format )
+				.orElseThrow( () -> new IllegalStateException(
+						"Failed to find non-skipped stack element in\n  "
+								+ WALKER.walk( frames -> frames
+										.map( String::valueOf )
+										.collect( joining( "  \n" ) ) ) ) );
+	}
+
+	/**
+	 * Captures the call stack, but defers the work of finding the call location
+	 * until it is asked for. Capturing the stack in this way is cheaper than
+	 * {@link #trace()}, as the stack frames are not resolved into
+	 * {@link StackTraceElement}s until the trace is resolved.
+	 *
+	 * @return A source of the value that {@link #trace()} would have returned at
+	 *         this point. The value is computed on first access and then cached.
+	 */
+	public static Supplier<String> deferred() {
+		if( tracer != null ) {
+			String trace = trace();
+			return () -> trace;
+		}
+		Throwable snapshot = new Throwable();
+		return new Supplier<>() {
+			private String trace;
+
+			@Override
+			public synchronized String get() {
+				if( trace == null ) {
+					trace = trace( snapshot.getStackTrace() );
+				}
+				return trace;
+			}
+		};
+	}
+
+	private static String trace( StackTraceElement[] stack ) {
 		for( StackTraceElement ste : stack ) {
 			try {
 				Class<?> cls = Class.forName( ste.getClassName() );
 				if( isThreadDotGetStackTrace( ste )
-						|| isClassSkipped( cls )
-						|| isPackageSkipped( cls )
-						|| isMethodSkipped( ste, cls ) ) {
+						|| isSkipped( cls, ste.getMethodName() ) ) {
 					// this element is not useful in locating the call location, skip it
 					continue;
 				}
@@ -70,11 +147,24 @@ public class Trace {
 				+ Stream.of( stack ).map( String::valueOf ).collect( joining( "  \n" ) ) );
 	}
 
+	private static String format( StackFrame frame ) {
+		return String.format( "%s.%s(%s:%s)",
+				frame.getClassName(),
+				frame.getMethodName(),
+				frame.getFileName(),
+				frame.getLineNumber() );
+	}
+
 	private static boolean isThreadDotGetStackTrace( StackTraceElement ste ) {
 		return "java.lang.Thread".equals( ste.getClassName() )
 				&& "getStackTrace".equals( ste.getMethodName() );
 	}
 
+	private static boolean isSkipped( Class<?> cls, String method ) {
+		return skippedClasses.get( cls )
+				|| isMethodSkipped( cls, method );
+	}
+
 	private static boolean isClassSkipped( Class<?> cls ) {
 		return cls.isAnnotationPresent( SkipTrace.class );
 	}
@@ -83,7 +173,7 @@ public class Trace {
 		return cls.getPackage().isAnnotationPresent( SkipTrace.class );
 	}
 
-	private static boolean isMethodSkipped( StackTraceElement ste, Class<?> cls ) {
+	private static boolean isMethodSkipped( Class<?> cls, String method ) {
 		/*
 		 * A method of that name in that type is tagged to be skipped, so we have to
 		 * skip <i>all</i> such methods. It'd be nice if we could distinguish between
@@ -91,22 +181,6 @@ public class Trace {
 		 * the method arguments</li> <li>Reflecting on the class does not give us the
 		 * line numbers</li> </ul>
 		 */
-		String id = ste.getClassName() + "." + ste.getMethodName();
-
-		// check if we've seen this method before
-		if( skippedMethods.contains( id ) ) {
-			return true;
-		}
-
-		// populate all skipped methods in the class into our cache
-		Stream.of( cls.getDeclaredMethods() )
-				.filter( m -> m.isAnnotationPresent( SkipTrace.class ) )
-				.map( m -> m.getDeclaringClass().getName() + "." + m.getName() )
-				.forEach( skippedMethods::add );
-
-		// check the cache again
-		return skippedMethods.contains( id );
-		// pitest complains that it can do all manner of horrible mutations to the lines
-		// above and have the tests still pass, but I can't recreate that manually
+		return skippedMethods.get( cls ).contains( method );
 	}
 }
@@ -10,6 +10,7 @@ import java.util.stream.Stream;
 import com.mastercard.test.flow.Actor;
 import com.mastercard.test.flow.Interaction;
 import com.mastercard.test.flow.Message;
+import com.mastercard.test.flow.util.TagDictionary;
 
 /**
  * An immutable implementation of {@link Interaction}
@@ -21,6 +22,10 @@ public class ConcreteInteraction implements Interaction {
 	private final Actor responder;
 	private final Message response;
 	private final Set<String> tags;
+	/**
+	 * Lazily-computed encoding of {@link #tags}
+	 */
+	private volatile long[] tagBits;
 	private List<Interaction> children = new ArrayList<>();
 
 	/**
@@ -75,6 +80,16 @@ public class ConcreteInteraction implements Interaction {
 		return tags;
 	}
 
+	@Override
+	public long[] tagBits() {
+		long[] b = tagBits;
+		if( b == null ) {
+			b = TagDictionary.shared().encode( tags );
+			tagBits = b;
+		}
+		return b;
+	}
+
 	/**
 	 * Adds a child interaction. This is only possible before {@link #complete()} is
 	 * called.
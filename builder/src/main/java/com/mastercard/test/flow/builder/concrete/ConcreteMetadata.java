@@ -4,9 +4,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Supplier;
 
 import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.Metadata;
+import com.mastercard.test.flow.util.TagDictionary;
 
 /**
  * Data attached to {@link Flow} s for human consumption
@@ -16,7 +18,11 @@ public class ConcreteMetadata implements Metadata {
 	private final String description;
 	private final Set<String> tags;
 	private final String motivation;
-	private final String trace;
+	private final Supplier<String> trace;
+	/**
+	 * Lazily-computed encoding of {@link #tags}
+	 */
+	private volatile long[] tagBits;
 
 	/**
 	 * @param description A short description of the {@link Flow}
@@ -27,6 +33,20 @@ public class ConcreteMetadata implements Metadata {
 	 */
 	public ConcreteMetadata( String description, Collection<String> tags, String motivation,
 			String trace ) {
+		this( description, tags, motivation, () -> trace );
+	}
+
+	/**
+	 * @param description A short description of the {@link Flow}
+	 * @param tags        A set of descriptive tags for the {@link Flow}
+	 * @param motivation  A longer description of why the {@link Flow} exists
+	 * @param trace       The source of an identifier for where in the codebase the
+	 *                    {@link Flow} is defined. This will be called on every
+	 *                    invocation of {@link #trace()}, so it should cache its
+	 *                    value if it is expensive to compute.
+	 */
+	public ConcreteMetadata( String description, Collection<String> tags, String motivation,
+			Supplier<String> trace ) {
 		this.description = description;
 		this.tags = Collections.unmodifiableSet( new TreeSet<>( tags ) );
 		this.motivation = motivation;
@@ -48,6 +68,16 @@ public class ConcreteMetadata implements Metadata {
 		return tags;
 	}
 
+	@Override
+	public long[] tagBits() {
+		long[] b = tagBits;
+		if( b == null ) {
+			b = TagDictionary.shared().encode( tags );
+			tagBits = b;
+		}
+		return b;
+	}
+
 	@Override
 	public String motivation() {
 		return motivation;
@@ -55,7 +85,7 @@ public class ConcreteMetadata implements Metadata {
 
 	@Override
 	public String trace() {
-		return trace;
+		return trace.get();
 	}
 
 }
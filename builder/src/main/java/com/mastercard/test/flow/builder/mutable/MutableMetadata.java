@@ -3,6 +3,7 @@ package com.mastercard.test.flow.builder.mutable;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
 import com.mastercard.test.flow.Flow;
@@ -119,13 +120,24 @@ public class MutableMetadata {
 	 * @return An immutable {@link Metadata} instance
 	 */
 	public ConcreteMetadata build() {
+		String addendum = traceAddendum.isEmpty() ? "" : " " + traceAddendum;
+		if( primaryTrace == null && Trace.DEFER.isTrue() ) {
+			Supplier<String> deferred = Trace.deferred();
+			return new ConcreteMetadata(
+					description,
+					tags,
+					motivation,
+					addendum.isEmpty()
+							? deferred
+							: () -> deferred.get() + addendum );
+		}
 		return new ConcreteMetadata(
 				description,
 				tags,
 				motivation,
 				""
 						+ (primaryTrace != null ? primaryTrace : Trace.trace())
-						+ (traceAddendum.isEmpty() ? "" : " " + traceAddendum) );
+						+ addendum );
 	}
 
 }
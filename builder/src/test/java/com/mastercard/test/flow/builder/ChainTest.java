@@ -1,15 +1,27 @@
 package com.mastercard.test.flow.builder;
 
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
 import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.model.EagerModel;
+import com.mastercard.test.flow.model.LazyModel;
+import com.mastercard.test.flow.util.TaggedGroup;
 import com.mastercard.test.flow.util.Tags;
 
 /**
@@ -90,6 +102,83 @@ class ChainTest {
 		}
 	}
 
+	/**
+	 * The number of chains created by {@link Left} and {@link Right}
+	 */
+	private static final int CHAINS = 500;
+
+	/**
+	 * Ensures that {@link Left} and {@link Right} are constructed at the same time
+	 */
+	private static final CyclicBarrier RENDEZVOUS = new CyclicBarrier( 2 );
+
+	private static Collection<Flow> chained() {
+		try {
+			RENDEZVOUS.await( 10, TimeUnit.SECONDS );
+		}
+		catch( Exception e ) {
+			throw new IllegalStateException( e );
+		}
+		return IntStream.range( 0, CHAINS )
+				.mapToObj( i -> Creator.build( new Chain() ) )
+				.collect( toList() );
+	}
+
+	/**
+	 * A model that creates chains while {@link Right} does the same
+	 */
+	public static class Left extends EagerModel {
+
+		/**
+		 * The tags for {@link Flow}s in this model
+		 */
+		public static final TaggedGroup MODEL_TAGS = new TaggedGroup();
+
+		/***/
+		public Left() {
+			super( MODEL_TAGS );
+			members( chained() );
+		}
+	}
+
+	/**
+	 * A model that creates chains while {@link Left} does the same
+	 */
+	public static class Right extends EagerModel {
+
+		/**
+		 * The tags for {@link Flow}s in this model
+		 */
+		public static final TaggedGroup MODEL_TAGS = new TaggedGroup();
+
+		/***/
+		public Right() {
+			super( MODEL_TAGS );
+			members( chained() );
+		}
+	}
+
+	/**
+	 * Models can be constructed concurrently, so chain ids can be generated
+	 * concurrently
+	 */
+	@Test
+	void concurrent() {
+		ForkJoinPool pool = new ForkJoinPool( 2 );
+		try {
+			Set<String> tags = new LazyModel()
+					.with( Left.class, Right.class )
+					.parallel( pool )
+					.flows()
+					.flatMap( f -> f.meta().tags().stream() )
+					.collect( toSet() );
+			Assertions.assertEquals( 2 * CHAINS, tags.size() );
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
 	/**
 	 * Exercising chain removal utility
 	 */
@@ -26,6 +26,7 @@ import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.Interaction;
 import com.mastercard.test.flow.builder.mock.Msg;
 import com.mastercard.test.flow.builder.steps.Response;
+import com.mastercard.test.flow.util.TagDictionary;
 
 /**
  * Exercises building {@link Flow} instances from scratch
@@ -54,6 +55,9 @@ public class CreatorTest extends BuilderTest {
 		assertEquals( "metadata only", flow.meta().description() );
 		assertEquals( "[bar, foo]", flow.meta().tags().toString() );
 		assertEquals( "metadata only [bar, foo]", flow.meta().id() );
+		assertEquals( "[bar, foo]",
+				TagDictionary.shared().decode( flow.meta().tagBits() ).toString() );
+		Assertions.assertSame( flow.meta().tagBits(), flow.meta().tagBits(), "encoding is cached" );
 		assertEquals( "Demonstrating the population of metadata", flow.meta().motivation() );
 		assertEquals(
 				"com.mastercard.test.flow.builder.CreatorTest.metadataFlow(CreatorTest.java:<line_number>)",
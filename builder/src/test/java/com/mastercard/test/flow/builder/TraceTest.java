@@ -7,7 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.Set;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -95,6 +95,10 @@ class TraceTest {
 		public static String trace() {
 			return Trace.trace();
 		}
+
+		public static Supplier<String> deferred() {
+			return Trace.deferred();
+		}
 	}
 
 	/**
@@ -103,10 +107,38 @@ class TraceTest {
 	@Test
 	void skippedPackage() {
 		Assertions.assertEquals(
-				"com.mastercard.test.flow.builder.TraceTest.skippedPackage(TraceTest.java:107)",
+				"com.mastercard.test.flow.builder.TraceTest.skippedPackage(TraceTest.java:111)",
 				TypeInSkippedPackage.trace() );
 	}
 
+	/**
+	 * Deferred traces resolve to the same location as immediate traces, and are
+	 * only resolved once
+	 */
+	@Test
+	void deferred() {
+		Supplier<String> trace = SkippedType.deferred();
+		Assertions.assertEquals(
+				"com.mastercard.test.flow.builder.TraceTest.deferred(TraceTest.java:120)",
+				trace.get() );
+		Assertions.assertSame( trace.get(), trace.get() );
+	}
+
+	/**
+	 * Deferred traces honour the test-only stack source
+	 */
+	@Test
+	void deferredTracer() {
+		try {
+			Trace.tracer( () -> new StackTraceElement[] {
+					new StackTraceElement( "java.lang.String", "method", "file", 1 ) } );
+			Assertions.assertEquals( "java.lang.String.method(file:1)", Trace.deferred().get() );
+		}
+		finally {
+			Trace.tracer( null );
+		}
+	}
+
 	/**
 	 * Bumps pitest coverage
 	 *
@@ -169,6 +201,6 @@ class TraceTest {
 	static void clearSkippedMethods() throws Exception {
 		Field smf = Trace.class.getDeclaredField( "skippedMethods" );
 		smf.setAccessible( true );
-		((Set<?>) smf.get( null )).clear();
+		((ClassValue<?>) smf.get( null )).remove( TraceTest.class );
 	}
 }
@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
 
+import com.mastercard.test.flow.util.TagDictionary;
 import com.mastercard.test.flow.util.Tags;
 
 /**
@@ -40,4 +41,16 @@ class ConcreteInteractionTest {
 				"Children cannot be added after complete() call" );
 	}
 
+	/**
+	 * The tag encoding is computed once
+	 */
+	@Test
+	void tagBits() {
+		ConcreteInteraction ntr = new ConcreteRootInteraction( AVA, null, BEN, null,
+				Tags.tags( "foo", "bar" ) );
+
+		assertEquals( "[bar, foo]", TagDictionary.shared().decode( ntr.tagBits() ).toString() );
+		assertSame( ntr.tagBits(), ntr.tagBits(), "encoding is cached" );
+	}
+
 }
@@ -5,7 +5,9 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.junit.jupiter.api.Test;
 
+import com.mastercard.test.flow.builder.Trace;
 import com.mastercard.test.flow.builder.concrete.ConcreteMetadata;
+import com.mastercard.test.flow.util.Option.Temporary;
 import com.mastercard.test.flow.util.Tags;
 
 /**
@@ -58,4 +60,24 @@ class MutableMetadataTest {
 				cmd.trace().replaceAll( ":\\d+\\)$", ":<line_number>)" ),
 				"trace is not inherited" );
 	}
+
+	/**
+	 * Exercising deferred trace computation
+	 */
+	@Test
+	void deferred() {
+		ConcreteMetadata cmd;
+		ConcreteMetadata addended;
+		try( Temporary t = Trace.DEFER.temporarily( "true" ) ) {
+			cmd = new MutableMetadata().build();
+			addended = new MutableMetadata().trace( s -> s.add( "addendum" ) ).build();
+		}
+
+		assertEquals(
+				"com.mastercard.test.flow.builder.mutable.MutableMetadataTest.deferred(MutableMetadataTest.java:<line_number>)",
+				cmd.trace().replaceAll( ":\\d+\\)$", ":<line_number>)" ) );
+		assertEquals(
+				"com.mastercard.test.flow.builder.mutable.MutableMetadataTest.deferred(MutableMetadataTest.java:<line_number>) [addendum]",
+				addended.trace().replaceAll( ":\\d+\\)", ":<line_number>)" ) );
+	}
 }
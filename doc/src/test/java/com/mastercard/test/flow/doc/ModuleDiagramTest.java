@@ -40,6 +40,7 @@ class ModuleDiagramTest {
 	 */
 	private static final Set<String> OCCULTED = Stream.of(
 			"com.mastercard.test.flow:aggregator",
+			"com.mastercard.test.flow:benchmark",
 			"com.mastercard.test.flow:doc" ).collect( toSet() );
 
 	/**
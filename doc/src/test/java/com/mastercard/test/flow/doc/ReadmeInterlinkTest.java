@@ -74,7 +74,7 @@ class ReadmeInterlinkTest {
 	}
 
 	private static final Set<String> NO_JAVADOC = Stream.of(
-			"report-ng", "doc", "aggregator",
+			"report-ng", "doc", "aggregator", "benchmark",
 			"app", "app-framework", "app-api", "app-web-ui", "app-ui", "app-core", "app-histogram",
 			"app-queue", "app-store", "app-model", "app-assert", "app-itest" )
 			.collect( toSet() );
@@ -17,6 +17,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -47,6 +48,23 @@ public abstract class AbstractMessage<T extends AbstractMessage<T>>
 	 */
 	protected final List<Update> updates = new ArrayList<>();
 
+	/**
+	 * The message from which this one inherits content, or <code>null</code> if
+	 * there is no such message
+	 */
+	private AbstractMessage<?> parent;
+
+	/**
+	 * Whether materialised content should be retained
+	 */
+	private boolean snapshotting = false;
+
+	/**
+	 * The most recently materialised content, or <code>null</code> if there is no
+	 * such content
+	 */
+	private volatile Snapshot snapshot;
+
 	/**
 	 * Adds a masking operation
 	 *
@@ -71,6 +89,129 @@ public abstract class AbstractMessage<T extends AbstractMessage<T>>
 		return msg;
 	}
 
+	/**
+	 * Controls content snapshots. When enabled, the message content is materialised
+	 * once, frozen and then shared between all read operations until the content is
+	 * next updated. This avoids repeatedly re-parsing the {@link #child()} basis
+	 * and replaying every ancestor's updates, at the cost of retaining the
+	 * materialised content in memory. The setting is inherited by {@link #child()}
+	 * and {@link #peer(byte[])} messages.
+	 * <p>
+	 * Note that snapshots are only effective for message types that materialise
+	 * their content via {@link #snapshot(Supplier, UnaryOperator)}
+	 * </p>
+	 *
+	 * @param enabled <code>true</code> to retain materialised content
+	 * @return <code>this</code>
+	 */
+	public T snapshotting( boolean enabled ) {
+		snapshotting = enabled;
+		snapshot = null;
+		return self();
+	}
+
+	/**
+	 * @return <code>true</code> if content snapshots are enabled
+	 * @see #snapshotting(boolean)
+	 */
+	protected boolean isSnapshotting() {
+		return snapshotting;
+	}
+
+	/**
+	 * Copies the snapshot setting to another instance
+	 *
+	 * @param msg The instance to copy to
+	 * @return The supplied instance
+	 * @see #snapshotting(boolean)
+	 */
+	protected T copySnapshottingTo( T msg ) {
+		msg.snapshotting( snapshotting );
+		return msg;
+	}
+
+	/**
+	 * Records the inheritance relationship between this message and a child, so
+	 * that updates to this message invalidate the child's snapshot. Also copies the
+	 * snapshot setting to the child.
+	 *
+	 * @param child A message that derives its content from this one
+	 * @return The supplied instance
+	 */
+	protected T inheritedBy( T child ) {
+		((AbstractMessage<?>) child).parent = this;
+		return copySnapshottingTo( child );
+	}
+
+	/**
+	 * Gets the materialised message content
+	 *
+	 * @param <D>     content type
+	 * @param builder Builds a fresh, mutable, copy of the message content
+	 * @param freezer Converts mutable content into an immutable equivalent
+	 * @return If snapshots are enabled, the shared immutable content. Otherwise the
+	 *         freshly-built mutable content.
+	 */
+	@SuppressWarnings("unchecked")
+	protected <D> D snapshot( Supplier<D> builder, UnaryOperator<D> freezer ) {
+		if( !snapshotting ) {
+			return builder.get();
+		}
+		long revision = revision();
+		Snapshot current = snapshot;
+		if( current == null || current.revision != revision ) {
+			current = new Snapshot( revision, freezer.apply( builder.get() ) );
+			snapshot = current;
+		}
+		return (D) current.data;
+	}
+
+	/**
+	 * Gets message content that is suitable for a child message to build upon
+	 *
+	 * @param <D>     content type
+	 * @param builder Builds a fresh, mutable, copy of the message content
+	 * @param freezer Converts mutable content into an immutable equivalent
+	 * @param copier  Converts immutable content into a mutable equivalent. The copy
+	 *                can share immutable structure with the snapshot, as long as
+	 *                the child's builder copes with that when it alters the content
+	 * @return A mutable copy of the message content
+	 */
+	protected <D> D inheritable( Supplier<D> builder, UnaryOperator<D> freezer,
+			UnaryOperator<D> copier ) {
+		if( !snapshotting ) {
+			return builder.get();
+		}
+		return copier.apply( snapshot( builder, freezer ) );
+	}
+
+	/**
+	 * Updates are only ever added to a message, so the total number of updates in
+	 * the inheritance chain identifies a content state
+	 *
+	 * @return The number of updates that contribute to this message's content
+	 */
+	private long revision() {
+		long revision = 0;
+		for( AbstractMessage<?> m = this; m != null; m = m.parent ) {
+			revision += m.updates.size();
+		}
+		return revision;
+	}
+
+	/**
+	 * An immutable record of materialised content
+	 */
+	private static class Snapshot {
+		final long revision;
+		final Object data;
+
+		Snapshot( long revision, Object data ) {
+			this.revision = revision;
+			this.data = data;
+		}
+	}
+
 	@Override
 	public Map<Unpredictable, Mask> masks() {
 		return masks;
@@ -112,6 +253,7 @@ public abstract class AbstractMessage<T extends AbstractMessage<T>>
 	public T set( String field, Object value ) {
 		Object validValue = validateValueType( field, value );
 		updates.add( new Update( field, validValue ) );
+		snapshot = null;
 		return self();
 	}
 
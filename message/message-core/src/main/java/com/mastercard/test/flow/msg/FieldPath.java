@@ -0,0 +1,187 @@
+package com.mastercard.test.flow.msg;
+
+import static java.util.Optional.ofNullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A compiled field address for use with
+ * {@link Forest#traverse(Map, FieldPath, boolean, boolean, java.util.function.BiConsumer, java.util.function.ObjIntConsumer)}.
+ * A path is a sequence of elements, each of which is a name that is optionally
+ * followed by list indices, e.g.: <code>name[1][2]</code>. All of the string
+ * processing happens when the path is compiled, so traversal involves no
+ * parsing at all.
+ * <p>
+ * Compiled elements are cached, as are the paths produced by
+ * {@link #interning(Function)} functions, so repeatedly addressing the same
+ * fields is cheap. Caches are bounded: they are simply emptied when they grow
+ * beyond {@value #CACHE_LIMIT} entries.
+ * </p>
+ */
+public final class FieldPath {
+
+	/**
+	 * Any amount of anything, optionally followed by a non-zero amount of anything
+	 * surrounded by square brackets
+	 */
+	private static final Pattern ELEMENT = Pattern.compile( "^(.*?)(?:\\[(.+)\\])?$" );
+
+	/**
+	 * The maximum size of the compilation caches
+	 */
+	static final int CACHE_LIMIT = 4096;
+
+	private static final Map<String, Element> ELEMENTS = new ConcurrentHashMap<>();
+
+	private final Element[] elements;
+	private final int offset;
+
+	/**
+	 * Lazily-populated result of {@link #tail()}
+	 */
+	private FieldPath tail;
+
+	private FieldPath( Element[] elements, int offset ) {
+		this.elements = elements;
+		this.offset = offset;
+	}
+
+	/**
+	 * Compiles a path
+	 *
+	 * @param elements The path elements, e.g.: <code>["a", "b[1]", "c"]</code>
+	 * @return The compiled path
+	 * @throws IllegalArgumentException if an element has a negative list index
+	 */
+	public static FieldPath compile( Collection<String> elements ) {
+		return new FieldPath( elements.stream()
+				.map( e -> cached( ELEMENTS, e, Element::new ) )
+				.toArray( Element[]::new ), 0 );
+	}
+
+	/**
+	 * Compiles a path
+	 *
+	 * @param elements The path elements, e.g.: <code>"a", "b[1]", "c"</code>
+	 * @return The compiled path
+	 * @throws IllegalArgumentException if an element has a negative list index
+	 */
+	public static FieldPath compile( String... elements ) {
+		return compile( Stream.of( elements ).collect( Collectors.toList() ) );
+	}
+
+	/**
+	 * Builds a caching path compiler. Message types will typically use this to hold
+	 * a static function that maps from their field address syntax to compiled
+	 * paths.
+	 *
+	 * @param compiler Converts field addresses into compiled paths
+	 * @return A function that only invokes the supplied compiler once for each
+	 *         distinct field address
+	 */
+	public static Function<String, FieldPath> interning( Function<String, FieldPath> compiler ) {
+		Map<String, FieldPath> interned = new ConcurrentHashMap<>();
+		return field -> cached( interned, field, compiler );
+	}
+
+	private static <T> T cached( Map<String, T> cache, String key, Function<String, T> compiler ) {
+		T value = cache.get( key );
+		if( value == null ) {
+			value = compiler.apply( key );
+			if( cache.size() >= CACHE_LIMIT ) {
+				cache.clear();
+			}
+			cache.put( key, value );
+		}
+		return value;
+	}
+
+	/**
+	 * @return The number of elements in the path
+	 */
+	public int size() {
+		return elements.length - offset;
+	}
+
+	/**
+	 * @param element An element index
+	 * @return The name of that element, without any list indices
+	 */
+	public String name( int element ) {
+		return elements[offset + element].name;
+	}
+
+	/**
+	 * @param element An element index
+	 * @return The number of list indices on that element
+	 */
+	public int indices( int element ) {
+		return elements[offset + element].indices.length;
+	}
+
+	/**
+	 * @param element An element index
+	 * @param index   A list index index
+	 * @return The list index
+	 */
+	public int index( int element, int index ) {
+		return elements[offset + element].indices[index];
+	}
+
+	/**
+	 * @return This path, without the first element. The returned path shares
+	 *         structure with this one.
+	 */
+	public FieldPath tail() {
+		FieldPath t = tail;
+		if( t == null ) {
+			t = new FieldPath( elements, Math.min( offset + 1, elements.length ) );
+			tail = t;
+		}
+		return t;
+	}
+
+	@Override
+	public String toString() {
+		return Stream.of( elements )
+				.skip( offset )
+				.map( e -> e.source )
+				.collect( Collectors.joining( ", ", "[", "]" ) );
+	}
+
+	/**
+	 * A single compiled path element
+	 */
+	private static class Element {
+		final String source;
+		final String name;
+		final int[] indices;
+
+		Element( String source ) {
+			this.source = source;
+			Matcher em = ELEMENT.matcher( source );
+			// the regex will match on any input, so no need to check the return value
+			em.matches();
+			name = em.group( 1 );
+			indices = Stream.of( ofNullable( em.group( 2 ) ).orElse( "" )
+					.split( "]\\[" ) )
+					.filter( s -> !s.isEmpty() )
+					.mapToInt( Integer::parseInt )
+					.toArray();
+
+			for( int idx : indices ) {
+				if( idx < 0 ) {
+					throw new IllegalArgumentException(
+							String.format( "Field path element '%s' has negative index", source ) );
+				}
+			}
+		}
+	}
+}
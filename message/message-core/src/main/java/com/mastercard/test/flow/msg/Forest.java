@@ -1,21 +1,23 @@
 package com.mastercard.test.flow.msg;
 
-import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.toCollection;
-
-import java.util.ArrayDeque;
+import java.util.AbstractList;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.ObjIntConsumer;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * Utility methods for working with acyclic graphs of {@link List}s and
@@ -43,15 +45,36 @@ public class Forest {
 			boolean vivify,
 			BiConsumer<Map<String, Object>, String> mapAction,
 			ObjIntConsumer<List<Object>> listAction ) {
-		// avoid altering the path that we're supplied
-		Deque<String> workingPath = new ArrayDeque<>( path );
+		traverse( data, FieldPath.compile( path ), vivify, false, mapAction, listAction );
+	}
 
-		PathElement child = new PathElement( workingPath.removeFirst() );
-		if( workingPath.isEmpty() ) {
-			leaf( data, child, vivify, mapAction, listAction );
+	/**
+	 * Traverses through the data structure and does something at a path's
+	 * destination
+	 *
+	 * @param data       The root data object
+	 * @param path       The path to the desired element
+	 * @param vivify     <code>true</code> to update the data structure to satisfy
+	 *                   the path.
+	 * @param thaw       <code>true</code> to replace {@link #freeze(Object) frozen}
+	 *                   {@link Map}s and {@link List}s on the path with mutable
+	 *                   shallow copies. The structure off the path is left as it
+	 *                   is, so can be shared with the frozen structure. The root
+	 *                   data object must itself be mutable.
+	 * @param mapAction  What to do if the path ends in a map member
+	 * @param listAction What to do if the path ends in a list member
+	 */
+	public static void traverse( Map<String, Object> data, FieldPath path,
+			boolean vivify, boolean thaw,
+			BiConsumer<Map<String, Object>, String> mapAction,
+			ObjIntConsumer<List<Object>> listAction ) {
+		Map<String, Object> map = data;
+		int last = path.size() - 1;
+		for( int element = 0; element < last && map != null; element++ ) {
+			map = recurse( map, path, element, vivify, thaw );
 		}
-		else {
-			recurse( data, child, workingPath, vivify, mapAction, listAction );
+		if( map != null ) {
+			leaf( map, path, last, vivify, thaw, mapAction, listAction );
 		}
 	}
 
@@ -59,21 +82,25 @@ public class Forest {
 	 * Called when the end of a path has been reached
 	 *
 	 * @param data       The data object
-	 * @param child      The child element to apply the action to
+	 * @param path       The path
+	 * @param element    The index of the final path element
 	 * @param vivify     <code>true</code> to update the data structure to satisfy
 	 *                   the path.
+	 * @param thaw       <code>true</code> to thaw frozen structure on the path
 	 * @param mapAction  What to do if the named child is a map member
 	 * @param listAction What to do if the named child is a list member
 	 */
-	private static void leaf( Map<String, Object> data, PathElement child,
-			boolean vivify,
+	private static void leaf( Map<String, Object> data, FieldPath path, int element,
+			boolean vivify, boolean thaw,
 			BiConsumer<Map<String, Object>, String> mapAction, ObjIntConsumer<List<Object>> listAction ) {
-		if( child.indices.isEmpty() ) {
-			mapAction.accept( data, child.name );
+		int indices = path.indices( element );
+		if( indices == 0 ) {
+			mapAction.accept( data, path.name( element ) );
 		}
 		else {
-			int finalIndex = child.indices.removeLast();
-			traverseIndices( data, child, vivify ).ifPresent( l -> {
+			int finalIndex = path.index( element, indices - 1 );
+			List<Object> l = traverseIndices( data, path, element, indices - 1, vivify, thaw );
+			if( l != null ) {
 				if( vivify ) {
 					while( l.size() <= finalIndex ) {
 						l.add( null );
@@ -82,97 +109,68 @@ public class Forest {
 				if( l.size() > finalIndex ) {
 					listAction.accept( l, finalIndex );
 				}
-			} );
+			}
 		}
 	}
 
 	/**
 	 * Called when there are further path elements to navigate
 	 *
-	 * @param data       The data object
-	 * @param child      The child element to navigate to
-	 * @param path       The path from there on
-	 * @param vivify     <code>true</code> to update the data structure to satisfy
-	 *                   the path.
-	 * @param mapAction  What to do if the named child is a map member
-	 * @param listAction What to do if the named child is a list member
+	 * @param data    The data object
+	 * @param path    The path
+	 * @param element The index of the path element to navigate to
+	 * @param vivify  <code>true</code> to update the data structure to satisfy the
+	 *                path.
+	 * @param thaw    <code>true</code> to thaw frozen structure on the path
+	 * @return The addressed map, or <code>null</code> if there is no such map
 	 */
-	private static void recurse( Map<String, Object> data, PathElement child, Deque<String> path,
-			boolean vivify,
-			BiConsumer<Map<String, Object>, String> mapAction, ObjIntConsumer<List<Object>> listAction ) {
-		if( child.indices.isEmpty() ) {
-			forceMap( data, child.name, vivify )
-					.ifPresent( m -> traverse( m, path, vivify, mapAction, listAction ) );
+	private static Map<String, Object> recurse( Map<String, Object> data, FieldPath path,
+			int element, boolean vivify, boolean thaw ) {
+		int indices = path.indices( element );
+		if( indices == 0 ) {
+			return forceMap( data, path.name( element ), vivify, thaw );
 		}
-		else {
-			int finalIndex = child.indices.removeLast();
-			traverseIndices( data, child, vivify )
-					.ifPresent( l -> forceMap( l, finalIndex, vivify )
-							.ifPresent( m -> traverse( m, path, vivify, mapAction, listAction ) ) );
+		List<Object> l = traverseIndices( data, path, element, indices - 1, vivify, thaw );
+		if( l == null ) {
+			return null;
 		}
+		return forceMap( l, path.index( element, indices - 1 ), vivify, thaw );
 	}
 
 	/**
 	 * Called when a path element ends in list indices
 	 *
-	 * @param data   The data object
-	 * @param child  The child element to navigate to
-	 * @param vivify <code>true</code> to update the data structure to satisfy the
-	 *               path.
-	 * @return The named list element
+	 * @param data    The data object
+	 * @param path    The path
+	 * @param element The index of the path element to navigate to
+	 * @param depth   The number of the element's list indices to navigate through
+	 * @param vivify  <code>true</code> to update the data structure to satisfy the
+	 *                path.
+	 * @param thaw    <code>true</code> to thaw frozen structure on the path
+	 * @return The addressed list, or <code>null</code> if there is no such list
 	 */
-	private static Optional<List<Object>> traverseIndices( Map<String, Object> data,
-			PathElement child, boolean vivify ) {
-		Optional<List<Object>> list = forceList( data, child.name, vivify );
-		while( list.isPresent() && !child.indices.isEmpty() ) {
-			list = forceList( list.get(), child.indices.removeFirst(), vivify );
+	private static List<Object> traverseIndices( Map<String, Object> data, FieldPath path,
+			int element, int depth, boolean vivify, boolean thaw ) {
+		List<Object> list = forceList( data, path.name( element ), vivify, thaw );
+		for( int i = 0; i < depth && list != null; i++ ) {
+			list = forceList( list, path.index( element, i ), vivify, thaw );
 		}
 		return list;
 	}
 
-	private static class PathElement {
-		public final String name;
-		public final Deque<Integer> indices;
-		/**
-		 * Any amount of anything, optionally followed by a non-zero amount of anything
-		 * surrounded by square brackets
-		 */
-		private static final Pattern PATTERN = Pattern.compile( "^(.*?)(?:\\[(.+)\\])?$" );
-
-		public PathElement( String pe ) {
-			Matcher em = PATTERN.matcher( pe );
-			// the regex will match on any input, so no need to check the return value
-			em.matches();
-			name = em.group( 1 );
-			indices = Stream.of( ofNullable( em.group( 2 ) ).orElse( "" )
-					.split( "]\\[" ) )
-					.filter( s -> !s.isEmpty() )
-					.map( Integer::parseInt )
-					.collect( toCollection( ArrayDeque::new ) );
-
-			for( Integer idx : indices ) {
-				if( idx < 0 ) {
-					throw new IllegalArgumentException(
-							String.format( "Field path element '%s' has negative index", pe ) );
-				}
-			}
-		}
-	}
-
 	/**
 	 * Forces a map member to be a list, if it isn't already
 	 *
 	 * @param into   the map
 	 * @param name   The map key at which we want a list
 	 * @param vivify Whether to create the list if it doesn't already exist
+	 * @param thaw   Whether to thaw the list if it is frozen
 	 * @return the list
 	 */
 	@SuppressWarnings("unchecked")
-	private static Optional<List<Object>> forceList( Map<String, Object> into, String name,
-			boolean vivify ) {
-		return Optional.ofNullable( force(
-				List.class, ArrayList::new,
-				into, name, vivify ) );
+	private static List<Object> forceList( Map<String, Object> into, String name,
+			boolean vivify, boolean thaw ) {
+		return force( List.class, ArrayList::new, into, name, vivify, thaw );
 	}
 
 	/**
@@ -181,14 +179,13 @@ public class Forest {
 	 * @param into   the map
 	 * @param name   The map key at which we want a map
 	 * @param vivify Whether to create the map if it doesn't already exist
+	 * @param thaw   Whether to thaw the map if it is frozen
 	 * @return the map
 	 */
 	@SuppressWarnings("unchecked")
-	private static Optional<Map<String, Object>> forceMap( Map<String, Object> into, String name,
-			boolean vivify ) {
-		return Optional.ofNullable( force(
-				Map.class, TreeMap::new,
-				into, name, vivify ) );
+	private static Map<String, Object> forceMap( Map<String, Object> into, String name,
+			boolean vivify, boolean thaw ) {
+		return force( Map.class, TreeMap::new, into, name, vivify, thaw );
 	}
 
 	/**
@@ -200,14 +197,19 @@ public class Forest {
 	 * @param name   The name of the child in the map
 	 * @param vivify Whether to create the child if it doesn't already exist of is
 	 *               the wrong type
+	 * @param thaw   Whether to thaw the child if it is frozen
 	 * @return The child node
 	 */
 	@SuppressWarnings("unchecked")
 	private static <T> T force( Class<T> type, Supplier<T> constr,
-			Map<String, Object> into, String name, boolean vivify ) {
+			Map<String, Object> into, String name, boolean vivify, boolean thaw ) {
 		T t;
 		Object o = into.get( name );
 		if( o != null && type.isInstance( o ) ) {
+			if( thaw && isFrozen( o ) ) {
+				o = thawed( o );
+				into.put( name, o );
+			}
 			t = (T) o;
 		}
 		else if( vivify ) {
@@ -226,13 +228,13 @@ public class Forest {
 	 * @param into   the list
 	 * @param index  The list index at which we want a list
 	 * @param vivify Whether to create the list if it doesn't already exist
+	 * @param thaw   Whether to thaw the list if it is frozen
 	 * @return the list
 	 */
 	@SuppressWarnings("unchecked")
-	private static Optional<List<Object>> forceList( List<Object> into, int index, boolean vivify ) {
-		return Optional.ofNullable( force(
-				List.class, ArrayList::new,
-				into, index, vivify ) );
+	private static List<Object> forceList( List<Object> into, int index, boolean vivify,
+			boolean thaw ) {
+		return force( List.class, ArrayList::new, into, index, vivify, thaw );
 	}
 
 	/**
@@ -241,19 +243,18 @@ public class Forest {
 	 * @param into   the list
 	 * @param index  The list index at which we want a map
 	 * @param vivify Whether to create the map if it doesn't already exist
+	 * @param thaw   Whether to thaw the map if it is frozen
 	 * @return the map
 	 */
 	@SuppressWarnings("unchecked")
-	private static Optional<Map<String, Object>> forceMap( List<Object> into, int index,
-			boolean vivify ) {
-		return Optional.ofNullable( force(
-				Map.class, TreeMap::new,
-				into, index, vivify ) );
+	private static Map<String, Object> forceMap( List<Object> into, int index,
+			boolean vivify, boolean thaw ) {
+		return force( Map.class, TreeMap::new, into, index, vivify, thaw );
 	}
 
 	@SuppressWarnings("unchecked")
 	private static <T> T force( Class<T> type, Supplier<T> constr,
-			List<Object> into, int index, boolean vivify ) {
+			List<Object> into, int index, boolean vivify, boolean thaw ) {
 		T t;
 		if( vivify ) {
 			while( into.size() <= index ) {
@@ -265,6 +266,10 @@ public class Forest {
 		}
 		Object o = into.get( index );
 		if( o != null && type.isInstance( o ) ) {
+			if( thaw && isFrozen( o ) ) {
+				o = thawed( o );
+				into.set( index, o );
+			}
 			t = (T) o;
 		}
 		else if( vivify ) {
@@ -277,6 +282,127 @@ public class Forest {
 		return t;
 	}
 
+	/**
+	 * Makes a data structure immutable. {@link Map}s and {@link List}s in the
+	 * structure are wrapped in place, so the supplied structure should not be
+	 * retained by the caller. Parts of the structure that are already frozen are
+	 * left as they are, so they can be shared between structures. Unmodifiable
+	 * parts of the structure that were not produced by this method are copied, as
+	 * their children cannot be frozen in place.
+	 *
+	 * @param o The root data object
+	 * @return An unmodifiable view of the data
+	 */
+	@SuppressWarnings("unchecked")
+	public static Object freeze( Object o ) {
+		if( isFrozen( o ) ) {
+			return o;
+		}
+		if( o instanceof SortedMap ) {
+			return new FrozenSortedMap( freezeValues(
+					(SortedMap<String, Object>) o, TreeMap::new ) );
+		}
+		if( o instanceof Map ) {
+			return new FrozenMap( freezeValues(
+					(Map<String, Object>) o, LinkedHashMap::new ) );
+		}
+		if( o instanceof List ) {
+			List<Object> list = (List<Object>) o;
+			try {
+				list.replaceAll( Forest::freeze );
+			}
+			catch( @SuppressWarnings("unused") UnsupportedOperationException uoe ) {
+				list = new ArrayList<>( list );
+				list.replaceAll( Forest::freeze );
+			}
+			return new FrozenList( list );
+		}
+		return o;
+	}
+
+	/**
+	 * Freezes the values of a map
+	 *
+	 * @param <M>  The map type
+	 * @param map  The map
+	 * @param copy How to copy the map if it cannot be updated in place
+	 * @return A map of frozen values
+	 */
+	private static <M extends Map<String, Object>> M freezeValues( M map, Function<M, M> copy ) {
+		M frozen = map;
+		try {
+			frozen.replaceAll( ( k, v ) -> freeze( v ) );
+		}
+		catch( @SuppressWarnings("unused") UnsupportedOperationException uoe ) {
+			frozen = copy.apply( map );
+			frozen.replaceAll( ( k, v ) -> freeze( v ) );
+		}
+		return frozen;
+	}
+
+	/**
+	 * Makes a shallow copy of a {@link #freeze(Object) frozen} structure. The root
+	 * of the returned structure is mutable, while its children are shared with the
+	 * supplied structure. Subsequent
+	 * {@link #traverse(Map, FieldPath, boolean, boolean, BiConsumer, ObjIntConsumer)
+	 * thawing traversals} will copy only those parts of the structure that they
+	 * need to alter, so this is a much cheaper alternative to
+	 * {@link #copy(Object)}.
+	 *
+	 * @param o The root data object
+	 * @return A mutable shallow copy of the data if it was frozen, otherwise the
+	 *         supplied data
+	 */
+	public static Object thaw( Object o ) {
+		if( isFrozen( o ) ) {
+			return thawed( o );
+		}
+		return o;
+	}
+
+	private static boolean isFrozen( Object o ) {
+		return o instanceof Frozen;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object thawed( Object o ) {
+		if( o instanceof SortedMap ) {
+			return new TreeMap<>( (SortedMap<String, Object>) o );
+		}
+		if( o instanceof Map ) {
+			return new LinkedHashMap<>( (Map<String, Object>) o );
+		}
+		return new ArrayList<>( (List<Object>) o );
+	}
+
+	/**
+	 * Makes a deep copy of a data structure. Sorted maps will be copied into
+	 * {@link TreeMap}s, other maps into {@link LinkedHashMap}s and lists into
+	 * {@link ArrayList}s. Leaf values are not copied.
+	 *
+	 * @param o The root data object
+	 * @return A mutable copy of the data
+	 */
+	public static Object copy( Object o ) {
+		if( o instanceof Map ) {
+			Map<String, Object> map = o instanceof SortedMap
+					? new TreeMap<>()
+					: new LinkedHashMap<>();
+			for( Map.Entry<?, ?> e : ((Map<?, ?>) o).entrySet() ) {
+				map.put( String.valueOf( e.getKey() ), copy( e.getValue() ) );
+			}
+			return map;
+		}
+		if( o instanceof List ) {
+			List<Object> list = new ArrayList<>();
+			for( Object e : (List<?>) o ) {
+				list.add( copy( e ) );
+			}
+			return list;
+		}
+		return o;
+	}
+
 	/**
 	 * Visits all non-null leaf values in the structure
 	 *
@@ -321,4 +447,121 @@ public class Forest {
 			visitor.accept( path, o );
 		}
 	}
+
+	/**
+	 * Marks the structure that is produced by {@link Forest#freeze(Object)}. Other
+	 * unmodifiable structures might have mutable children, so we cannot rely on
+	 * them being frozen.
+	 */
+	private interface Frozen {
+		// marker
+	}
+
+	/**
+	 * A frozen {@link Map}
+	 */
+	private static class FrozenMap extends AbstractMap<String, Object> implements Frozen {
+
+		private final Map<String, Object> map;
+
+		FrozenMap( Map<String, Object> map ) {
+			this.map = map;
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return Collections.unmodifiableMap( map ).entrySet();
+		}
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+		@Override
+		public boolean containsKey( Object key ) {
+			return map.containsKey( key );
+		}
+
+		@Override
+		public Object get( Object key ) {
+			return map.get( key );
+		}
+	}
+
+	/**
+	 * A frozen {@link SortedMap}
+	 */
+	private static class FrozenSortedMap extends FrozenMap implements SortedMap<String, Object> {
+
+		private final SortedMap<String, Object> sorted;
+
+		FrozenSortedMap( SortedMap<String, Object> map ) {
+			super( map );
+			sorted = Collections.unmodifiableSortedMap( map );
+		}
+
+		@Override
+		public Comparator<? super String> comparator() {
+			return sorted.comparator();
+		}
+
+		@Override
+		public SortedMap<String, Object> subMap( String fromKey, String toKey ) {
+			return sorted.subMap( fromKey, toKey );
+		}
+
+		@Override
+		public SortedMap<String, Object> headMap( String toKey ) {
+			return sorted.headMap( toKey );
+		}
+
+		@Override
+		public SortedMap<String, Object> tailMap( String fromKey ) {
+			return sorted.tailMap( fromKey );
+		}
+
+		@Override
+		public String firstKey() {
+			return sorted.firstKey();
+		}
+
+		@Override
+		public String lastKey() {
+			return sorted.lastKey();
+		}
+	}
+
+	/**
+	 * A frozen {@link List}
+	 */
+	private static class FrozenList extends AbstractList<Object> implements Frozen {
+
+		private final List<Object> list;
+
+		FrozenList( List<Object> list ) {
+			this.list = Collections.unmodifiableList( list );
+		}
+
+		@Override
+		public Object get( int index ) {
+			return list.get( index );
+		}
+
+		@Override
+		public int size() {
+			return list.size();
+		}
+
+		@Override
+		public ListIterator<Object> listIterator( int index ) {
+			// the underlying list might not offer random access
+			return list.listIterator( index );
+		}
+
+		@Override
+		public Iterator<Object> iterator() {
+			return list.iterator();
+		}
+	}
 }
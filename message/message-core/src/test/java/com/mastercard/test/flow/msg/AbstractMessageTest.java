@@ -2,7 +2,9 @@ package com.mastercard.test.flow.msg;
 
 import static java.util.stream.Collectors.joining;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
@@ -13,9 +15,11 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
 import org.junit.jupiter.api.Assertions;
@@ -348,4 +352,118 @@ class AbstractMessageTest {
 				+ "can be painful to debug", iae.getMessage(),
 				"Array contents are searched for suspicious types" );
 	}
+
+	/**
+	 * A message type that opts in to content snapshots, and counts how often its
+	 * content is materialised
+	 */
+	private static class SnapshotMessage extends AbstractMessage<SnapshotMessage> {
+
+		private final Supplier<List<String>> basis;
+		private int builds = 0;
+
+		SnapshotMessage( Supplier<List<String>> basis ) {
+			this.basis = basis;
+		}
+
+		private List<String> build() {
+			builds++;
+			List<String> content = basis.get();
+			updates.forEach( u -> content.add( u.field() + "=" + u.value() ) );
+			return content;
+		}
+
+		private List<String> data() {
+			return snapshot( this::build, Collections::unmodifiableList );
+		}
+
+		@Override
+		protected String asHuman() {
+			return String.join( ",", data() );
+		}
+
+		@Override
+		public byte[] content() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Set<String> fields() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected Object access( String field ) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public SnapshotMessage child() {
+			return inheritedBy( new SnapshotMessage(
+					() -> inheritable( this::build, Collections::unmodifiableList, ArrayList::new ) ) );
+		}
+
+		@Override
+		public SnapshotMessage peer( byte[] content ) {
+			return copySnapshottingTo( new SnapshotMessage( ArrayList::new ) );
+		}
+	}
+
+	/**
+	 * Content is rebuilt on every access by default
+	 */
+	@Test
+	void noSnapshots() {
+		SnapshotMessage parent = new SnapshotMessage( ArrayList::new )
+				.set( "a", 1 );
+		SnapshotMessage child = parent.child()
+				.set( "b", 2 );
+
+		assertEquals( "a=1,b=2", child.asHuman() );
+		assertEquals( "a=1,b=2", child.asHuman() );
+		assertEquals( 2, child.builds );
+		assertEquals( 2, parent.builds );
+	}
+
+	/**
+	 * Snapshotted content is built once and shared until an update happens
+	 */
+	@Test
+	void snapshots() {
+		SnapshotMessage parent = new SnapshotMessage( ArrayList::new )
+				.snapshotting( true )
+				.set( "a", 1 );
+		SnapshotMessage child = parent.child()
+				.set( "b", 2 );
+		assertTrue( parent.isSnapshotting() );
+		assertTrue( child.isSnapshotting() );
+
+		assertEquals( "a=1", parent.asHuman() );
+		assertEquals( "a=1,b=2", child.asHuman() );
+		assertEquals( "a=1,b=2", child.asHuman() );
+		assertEquals( 1, parent.builds, "child reuses the parent snapshot" );
+		assertEquals( 1, child.builds );
+
+		child.set( "c", 3 );
+		assertEquals( "a=1,b=2,c=3", child.asHuman() );
+		assertEquals( 1, parent.builds );
+		assertEquals( 2, child.builds, "child update invalidates the child snapshot" );
+
+		parent.set( "d", 4 );
+		assertEquals( "a=1,d=4,b=2,c=3", child.asHuman() );
+		assertEquals( 2, parent.builds );
+		assertEquals( 3, child.builds, "parent update invalidates the child snapshot" );
+
+		SnapshotMessage peer = child.peer( new byte[0] )
+				.set( "e", 5 );
+		assertEquals( "e=5", peer.asHuman() );
+		assertEquals( "e=5", peer.asHuman() );
+		assertEquals( 1, peer.builds, "peers inherit the snapshot setting" );
+
+		parent.snapshotting( false );
+		assertFalse( parent.isSnapshotting() );
+		assertEquals( "a=1,d=4", parent.asHuman() );
+		assertEquals( "a=1,d=4", parent.asHuman() );
+		assertEquals( 4, parent.builds, "snapshots can be disabled" );
+	}
 }
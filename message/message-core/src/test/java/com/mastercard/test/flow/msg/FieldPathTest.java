@@ -0,0 +1,132 @@
+package com.mastercard.test.flow.msg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exercises {@link FieldPath}
+ */
+@SuppressWarnings("static-method")
+class FieldPathTest {
+
+	/**
+	 * Path elements are split into names and indices
+	 */
+	@Test
+	void compile() {
+		FieldPath path = FieldPath.compile( "a", "b[1]", "[2][3]", "c[]", "" );
+
+		assertEquals( 5, path.size() );
+		assertEquals( "[a, b[1], [2][3], c[], ]", path.toString() );
+
+		assertEquals( "a", path.name( 0 ) );
+		assertEquals( 0, path.indices( 0 ) );
+
+		assertEquals( "b", path.name( 1 ) );
+		assertEquals( 1, path.indices( 1 ) );
+		assertEquals( 1, path.index( 1, 0 ) );
+
+		assertEquals( "", path.name( 2 ) );
+		assertEquals( 2, path.indices( 2 ) );
+		assertEquals( 2, path.index( 2, 0 ) );
+		assertEquals( 3, path.index( 2, 1 ) );
+
+		assertEquals( "c[]", path.name( 3 ) );
+		assertEquals( 0, path.indices( 3 ) );
+
+		assertEquals( "", path.name( 4 ) );
+		assertEquals( 0, path.indices( 4 ) );
+
+		assertEquals( path.toString(),
+				FieldPath.compile( Arrays.asList( "a", "b[1]", "[2][3]", "c[]", "" ) ).toString() );
+	}
+
+	/**
+	 * Negative list indices are rejected
+	 */
+	@Test
+	void negativeIndex() {
+		IllegalArgumentException iae = assertThrows( IllegalArgumentException.class,
+				() -> FieldPath.compile( "a", "b[1][-2]" ) );
+		assertEquals( "Field path element 'b[1][-2]' has negative index", iae.getMessage() );
+	}
+
+	/**
+	 * The tail of a path shares the elements of the full path
+	 */
+	@Test
+	void tail() {
+		FieldPath path = FieldPath.compile( "a", "b[1]", "c" );
+
+		FieldPath tail = path.tail();
+		assertSame( tail, path.tail() );
+		assertEquals( "[b[1], c]", tail.toString() );
+		assertEquals( 2, tail.size() );
+		assertEquals( "b", tail.name( 0 ) );
+		assertEquals( 1, tail.indices( 0 ) );
+		assertEquals( 1, tail.index( 0, 0 ) );
+
+		FieldPath end = tail.tail().tail();
+		assertEquals( "[]", end.toString() );
+		assertEquals( 0, end.size() );
+		assertEquals( 0, end.tail().size() );
+	}
+
+	/**
+	 * Interning functions only compile each path once
+	 */
+	@Test
+	void interning() {
+		AtomicInteger compilations = new AtomicInteger( 0 );
+		Function<String, FieldPath> paths = FieldPath.interning( field -> {
+			compilations.incrementAndGet();
+			return FieldPath.compile( field.split( "/" ) );
+		} );
+
+		FieldPath path = paths.apply( "a/b[1]" );
+		assertEquals( "[a, b[1]]", path.toString() );
+		assertEquals( 1, compilations.get() );
+
+		assertSame( path, paths.apply( "a/b[1]" ) );
+		assertEquals( 1, compilations.get() );
+
+		assertEquals( "[c]", paths.apply( "c" ).toString() );
+		assertEquals( 2, compilations.get() );
+	}
+
+	/**
+	 * Interning caches are emptied when they become full
+	 */
+	@Test
+	void cacheLimit() {
+		AtomicInteger compilations = new AtomicInteger( 0 );
+		Function<String, FieldPath> paths = FieldPath.interning( field -> {
+			compilations.incrementAndGet();
+			return FieldPath.compile( field );
+		} );
+
+		FieldPath first = paths.apply( "0" );
+		for( int i = 1; i < FieldPath.CACHE_LIMIT; i++ ) {
+			paths.apply( String.valueOf( i ) );
+		}
+		assertEquals( FieldPath.CACHE_LIMIT, compilations.get() );
+		assertSame( first, paths.apply( "0" ), "still cached" );
+		assertEquals( FieldPath.CACHE_LIMIT, compilations.get() );
+
+		// this one causes the cache to be cleared
+		paths.apply( "overflow" );
+		assertEquals( FieldPath.CACHE_LIMIT + 1, compilations.get() );
+		assertSame( paths.apply( "overflow" ), paths.apply( "overflow" ) );
+		assertEquals( FieldPath.CACHE_LIMIT + 1, compilations.get() );
+
+		paths.apply( "0" );
+		assertEquals( FieldPath.CACHE_LIMIT + 2, compilations.get(), "evicted" );
+	}
+}
@@ -2,17 +2,26 @@ package com.mastercard.test.flow.msg;
 
 import static java.util.stream.Collectors.toCollection;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.ObjIntConsumer;
@@ -342,6 +351,198 @@ class ForestTest {
 		return data;
 	}
 
+	/**
+	 * Frozen structures cannot be altered, copies can
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	void freezeAndCopy() {
+		Map<String, Object> data = data( "{'b':{'c':[1,{'d':2}]},'a':3}".replace( '\'', '"' ) );
+		data.put( "sorted", new TreeMap<>( data( "{'z':1,'y':2}".replace( '\'', '"' ) ) ) );
+
+		Map<String, Object> frozen = (Map<String, Object>) Forest.freeze( data );
+		assertEquals( "{b={c=[1, {d=2}]}, a=3, sorted={y=2, z=1}}", frozen.toString() );
+
+		assertThrows( UnsupportedOperationException.class, () -> frozen.put( "e", 4 ) );
+		AtomicReference<Object> got = new AtomicReference<>();
+		Forest.traverse( frozen, path( "b", "c[1]" ), false, mapGet( got ), listGet( got ) );
+		assertThrows( UnsupportedOperationException.class,
+				() -> ((Map<String, Object>) got.get()).put( "e", 4 ) );
+		Forest.traverse( frozen, path( "b", "c" ), false, mapGet( got ), listGet( got ) );
+		assertThrows( UnsupportedOperationException.class,
+				() -> ((List<Object>) got.get()).add( 4 ) );
+		Forest.traverse( frozen, path( "sorted" ), false, mapGet( got ), listGet( got ) );
+		assertTrue( got.get() instanceof SortedMap );
+
+		Map<String, Object> copy = (Map<String, Object>) Forest.copy( frozen );
+		assertEquals( frozen, copy );
+		Forest.traverse( copy, path( "b", "c[1]", "e" ), true, mapSet( 4 ), listSet( 4 ) );
+		Forest.traverse( copy, path( "sorted", "x" ), true, mapSet( 3 ), listSet( 3 ) );
+		assertEquals( "{b={c=[1, {d=2, e=4}]}, a=3, sorted={x=3, y=2, z=1}}", copy.toString() );
+		assertEquals( "{b={c=[1, {d=2}]}, a=3, sorted={y=2, z=1}}", frozen.toString(),
+				"The copy is independent" );
+	}
+
+	/**
+	 * Unmodifiable structures that were not produced by freezing might hold mutable
+	 * children, so they are frozen too
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	void freezeForeign() {
+		Map<String, Object> nested = new TreeMap<>();
+		nested.put( "n", 1 );
+		List<Object> list = new ArrayList<>( Arrays.asList( 2 ) );
+		Map<String, Object> inner = new LinkedHashMap<>();
+		inner.put( "nested", nested );
+		inner.put( "list", Collections.unmodifiableList( list ) );
+		inner.put( "sorted", Collections.unmodifiableSortedMap( new TreeMap<>( nested ) ) );
+		Map<String, Object> data = new TreeMap<>();
+		data.put( "inner", Collections.unmodifiableMap( inner ) );
+
+		Map<String, Object> frozen = (Map<String, Object>) Forest.freeze( data );
+		Map<String, Object> frozenInner = (Map<String, Object>) frozen.get( "inner" );
+		assertThrows( UnsupportedOperationException.class,
+				() -> ((Map<String, Object>) frozenInner.get( "nested" )).put( "m", 3 ) );
+		assertThrows( UnsupportedOperationException.class,
+				() -> ((List<Object>) frozenInner.get( "list" )).add( 3 ) );
+		assertTrue( frozenInner.get( "sorted" ) instanceof SortedMap );
+		assertEquals( "{inner={nested={n=1}, list=[2], sorted={n=1}}}", frozen.toString() );
+
+		// foreign unmodifiable structures are thawed like our own
+		Map<String, Object> thawed = (Map<String, Object>) Forest.thaw( frozen );
+		Forest.traverse( thawed, FieldPath.compile( "inner", "nested", "m" ), true, true,
+				mapSet( 3 ), listSet( 3 ) );
+		Forest.traverse( thawed, FieldPath.compile( "inner", "list[1]" ), true, true,
+				mapSet( 4 ), listSet( 4 ) );
+		assertEquals( "{inner={nested={m=3, n=1}, list=[2, 4], sorted={n=1}}}",
+				thawed.toString() );
+		assertEquals( "{inner={nested={n=1}, list=[2], sorted={n=1}}}", frozen.toString() );
+	}
+
+	/**
+	 * Frozen structures behave like their mutable counterparts, other than not
+	 * being mutable
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	void frozenViews() {
+		SortedMap<String, Object> sorted = new TreeMap<>( Comparator.reverseOrder() );
+		sorted.put( "a", 1 );
+		sorted.put( "b", 2 );
+		sorted.put( "c", 3 );
+		SortedMap<String, Object> fs = (SortedMap<String, Object>) Forest.freeze( sorted );
+		assertSame( fs, Forest.freeze( fs ) );
+		assertEquals( 3, fs.size() );
+		assertTrue( fs.containsKey( "a" ) );
+		assertEquals( 2, fs.get( "b" ) );
+		assertEquals( Comparator.reverseOrder(), fs.comparator() );
+		assertEquals( "c", fs.firstKey() );
+		assertEquals( "a", fs.lastKey() );
+		assertEquals( "{c=3}", fs.headMap( "b" ).toString() );
+		assertEquals( "{b=2, a=1}", fs.tailMap( "b" ).toString() );
+		assertEquals( "{c=3, b=2}", fs.subMap( "c", "a" ).toString() );
+		assertThrows( UnsupportedOperationException.class, () -> fs.headMap( "b" ).clear() );
+		assertThrows( UnsupportedOperationException.class,
+				() -> fs.entrySet().iterator().next().setValue( 4 ) );
+		assertThrows( UnsupportedOperationException.class, () -> fs.remove( "a" ) );
+		assertEquals( "{c=3, b=2, a=1}", new TreeMap<>( fs ).toString(), "ordering is retained" );
+
+		List<Object> linked = new LinkedList<>( Arrays.asList( 1, 2, 3 ) );
+		List<Object> fl = (List<Object>) Forest.freeze( linked );
+		assertEquals( 3, fl.size() );
+		assertEquals( 2, fl.get( 1 ) );
+		assertEquals( "[1, 2, 3]", fl.toString() );
+		assertEquals( 3, fl.listIterator( 2 ).next() );
+		ListIterator<Object> li = fl.listIterator();
+		li.next();
+		assertThrows( UnsupportedOperationException.class, () -> li.set( 4 ) );
+		Iterator<Object> it = fl.iterator();
+		it.next();
+		assertThrows( UnsupportedOperationException.class, it::remove );
+		assertThrows( UnsupportedOperationException.class, () -> fl.set( 0, 4 ) );
+		assertEquals( linked, fl );
+	}
+
+	/**
+	 * Thawing produces a mutable structure that shares unaltered structure with the
+	 * frozen original
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	void thaw() {
+		Map<String, Object> data = data(
+				"{'b':{'c':[1,{'d':2}]},'a':{'x':3},'l':[[4],[{'m':5}]]}".replace( '\'', '"' ) );
+		data.put( "sorted", new TreeMap<>( data( "{'z':1,'y':2}".replace( '\'', '"' ) ) ) );
+		data.put( "linked", new LinkedList<>( Arrays.asList( 6, 7 ) ) );
+		Map<String, Object> frozen = (Map<String, Object>) Forest.freeze( data );
+		String original = frozen.toString();
+
+		// non-frozen data is not thawed
+		assertSame( data, Forest.thaw( data ) );
+		assertEquals( null, Forest.thaw( null ) );
+		assertEquals( "leaf", Forest.thaw( "leaf" ) );
+
+		Map<String, Object> thawed = (Map<String, Object>) Forest.thaw( frozen );
+		assertEquals( frozen, thawed );
+		thawed.put( "e", 8 );
+		assertEquals( original, frozen.toString() );
+		assertSame( frozen.get( "b" ), thawed.get( "b" ), "children are shared" );
+
+		// thawing traversals copy the structure on the path
+		Forest.traverse( thawed, FieldPath.compile( "b", "c[1]", "e" ), true, true,
+				mapSet( 9 ), listSet( 9 ) );
+		Forest.traverse( thawed, FieldPath.compile( "b", "c[0]" ), true, true,
+				mapSet( 10 ), listSet( 10 ) );
+		Forest.traverse( thawed, FieldPath.compile( "l[0][0]" ), true, true,
+				mapSet( 11 ), listSet( 11 ) );
+		Forest.traverse( thawed, FieldPath.compile( "l[1][0]", "m" ), true, true,
+				mapSet( 12 ), listSet( 12 ) );
+		Forest.traverse( thawed, FieldPath.compile( "sorted", "x" ), true, true,
+				mapSet( 13 ), listSet( 13 ) );
+		Forest.traverse( thawed, FieldPath.compile( "linked[2]" ), true, true,
+				mapSet( 14 ), listSet( 14 ) );
+		// including non-vivifying traversals
+		Forest.traverse( thawed, FieldPath.compile( "a", "x" ), false, true,
+				Map::remove, List::remove );
+
+		assertEquals( "{a={}, b={c=[10, {d=2, e=9}]}, e=8, l=[[11], [{m=12}]], "
+				+ "linked=[6, 7, 14], sorted={x=13, y=2, z=1}}",
+				new TreeMap<>( thawed ).toString() );
+		assertEquals( original, frozen.toString(), "The original is unaltered" );
+		assertTrue( thawed.get( "sorted" ) instanceof SortedMap );
+
+		// mutable structure is not copied again
+		Object b = thawed.get( "b" );
+		Object c = ((Map<String, Object>) b).get( "c" );
+		Object l = thawed.get( "l" );
+		Forest.traverse( thawed, FieldPath.compile( "b", "c[1]", "e" ), true, true,
+				mapSet( 15 ), listSet( 15 ) );
+		Forest.traverse( thawed, FieldPath.compile( "l[1][0]", "m" ), true, true,
+				mapSet( 16 ), listSet( 16 ) );
+		assertSame( b, thawed.get( "b" ) );
+		assertSame( c, ((Map<String, Object>) b).get( "c" ) );
+		assertSame( l, thawed.get( "l" ) );
+		assertEquals( "{c=[10, {d=2, e=15}]}", b.toString() );
+		assertEquals( "[[11], [{m=16}]]", l.toString() );
+
+		// the result can be frozen again
+		Map<String, Object> refrozen = (Map<String, Object>) Forest.freeze( thawed );
+		assertThrows( UnsupportedOperationException.class, () -> refrozen.put( "f", 17 ) );
+		assertThrows( UnsupportedOperationException.class,
+				() -> ((Map<String, Object>) refrozen.get( "b" )).put( "f", 17 ) );
+		assertSame( frozen.get( "a" ).getClass(), refrozen.get( "a" ).getClass() );
+
+		// non-thawing traversals do not alter frozen structure
+		AtomicReference<Object> got = new AtomicReference<>();
+		Forest.traverse( refrozen, FieldPath.compile( "l[1][0]", "m" ), false, false,
+				mapGet( got ), listGet( got ) );
+		assertEquals( 16, got.get() );
+		Forest.traverse( refrozen, FieldPath.compile( "linked[1]" ), false, false,
+				mapGet( got ), listGet( got ) );
+		assertEquals( 7, got.get() );
+	}
+
 	private static void testGet( Map<String, Object> data, Deque<String> path, Object expected ) {
 		AtomicReference<Object> retrieved = new AtomicReference<>( "Not set" );
 		Forest.traverse( data, path, false, mapGet( retrieved ), listGet( retrieved ) );
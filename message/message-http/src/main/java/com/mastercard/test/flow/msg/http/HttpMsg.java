@@ -3,14 +3,18 @@ package com.mastercard.test.flow.msg.http;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -45,7 +49,10 @@ public abstract class HttpMsg<T extends HttpMsg<T>> extends AbstractMessage<T> {
 
 	/**
 	 * Matches header lines
+	 *
+	 * @deprecated Header lines are no longer parsed as strings, so this is unused
 	 */
+	@Deprecated
 	protected static final Pattern HEADER_LINE_PATTERN = Pattern
 			.compile( "(?<name>[^:]*?):(?<value>.*)" );
 
@@ -67,6 +74,28 @@ public abstract class HttpMsg<T extends HttpMsg<T>> extends AbstractMessage<T> {
 		body = parent.body().map( ExposedMasking::child );
 	}
 
+	/**
+	 * Populates this message from wire content
+	 *
+	 * @param content   The message bytes
+	 * @param start     Populates fields from the space-separated elements of the
+	 *                  start line
+	 * @param bodyParse How to parse body bytes as a message
+	 */
+	void parse( byte[] content, Consumer<Deque<String>> start,
+			Function<byte[], Message> bodyParse ) {
+		Wire wire = new Wire( content );
+
+		start.accept( new ArrayDeque<>( Arrays.asList( wire.start().split( " " ) ) ) );
+
+		// zero or more headers
+		wire.headers( ( name, value ) -> set( header( name ), value ) );
+
+		// body
+		set( BODY, bodyParse.apply( wire.body(
+				"chunked".equals( get( header( "transfer-encoding" ) ) ) ) ) );
+	}
+
 	@Override
 	public String assertable( Unpredictable... sources ) {
 		// see if there are any masks on the wrapped message
@@ -183,32 +212,25 @@ public abstract class HttpMsg<T extends HttpMsg<T>> extends AbstractMessage<T> {
 					+ "%s\r\n" // chunk
 					+ "0\r\n" // end chunk
 					+ "\r\n",
-					Integer.toHexString( content.length() ),
+					// chunk length is in bytes, not characters
+					Integer.toHexString( content.getBytes( UTF_8 ).length ),
 					content );
 		}
 		return content;
 	}
 
-	private static Pattern chunkLength = Pattern.compile( "\r\n([0-9a-fA-F]+)\r\n" );
-
 	/**
 	 * Extracts enchunked body content
 	 *
 	 * @param chunked A chunked body
 	 * @return The actual content
+	 * @deprecated Message bodies are now dechunked as they are parsed, before they
+	 *             are decoded as text
 	 */
+	@Deprecated
 	protected String dechunken( String chunked ) {
 		if( "chunked".equals( get( header( "transfer-encoding" ) ) ) ) {
-			StringBuilder unchunked = new StringBuilder();
-			String input = "\r\n" + chunked; // so we can catch the first chunk with our regex
-			Matcher m = chunkLength.matcher( input );
-			int searchIndex = 0;
-			while( m.find( searchIndex ) ) {
-				int l = Integer.parseInt( m.group( 1 ), 16 );
-				unchunked.append( input.substring( m.end(), m.end() + l ) );
-				searchIndex = m.end() + l;
-			}
-			return unchunked.toString();
+			return new String( new Wire( chunked.getBytes( UTF_8 ) ).body( true ), UTF_8 );
 		}
 		return chunked;
 	}
@@ -1,13 +1,9 @@
 package com.mastercard.test.flow.msg.http;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toMap;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayDeque;
-import java.util.Arrays;
-import java.util.Deque;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -52,36 +48,17 @@ public class HttpReq extends HttpMsg<HttpReq> {
 	 * @param bodyParse How to parse body bytes as a message
 	 */
 	public HttpReq( byte[] content, Function<byte[], Message> bodyParse ) {
-
-		Deque<String> lines = new ArrayDeque<>(
-				Arrays.asList( new String( content, UTF_8 ).split( "\r\n" ) ) );
-
-		// start line
-		Deque<String> startFields = new ArrayDeque<>(
-				Arrays.asList( lines.removeFirst().split( " " ) ) );
-
-		if( !startFields.isEmpty() ) {
-			set( METHOD, startFields.removeFirst() );
-		}
-		if( !startFields.isEmpty() ) {
-			set( PATH, startFields.removeFirst() );
-		}
-		if( !startFields.isEmpty() ) {
-			set( VERSION, startFields.stream().collect( joining( " " ) ) );
-		}
-
-		// zero or more headers
-		String headerLine;
-		while( !lines.isEmpty() && !(headerLine = lines.removeFirst()).isEmpty() ) {
-			Matcher h = HEADER_LINE_PATTERN.matcher( headerLine );
-			if( h.matches() ) {
-				set( header( h.group( "name" ).trim() ), h.group( "value" ).trim() );
+		parse( content, startFields -> {
+			if( !startFields.isEmpty() ) {
+				set( METHOD, startFields.removeFirst() );
 			}
-		}
-
-		// body
-		String body = lines.stream().collect( joining( "\r\n" ) );
-		set( BODY, bodyParse.apply( dechunken( body ).getBytes( UTF_8 ) ) );
+			if( !startFields.isEmpty() ) {
+				set( PATH, startFields.removeFirst() );
+			}
+			if( !startFields.isEmpty() ) {
+				set( VERSION, startFields.stream().collect( joining( " " ) ) );
+			}
+		}, bodyParse );
 	}
 
 	/**
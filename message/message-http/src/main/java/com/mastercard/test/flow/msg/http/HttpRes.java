@@ -1,16 +1,11 @@
 package com.mastercard.test.flow.msg.http;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.joining;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayDeque;
-import java.util.Arrays;
-import java.util.Deque;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Function;
-import java.util.regex.Matcher;
 import java.util.stream.Stream;
 
 import com.mastercard.test.flow.Message;
@@ -43,37 +38,17 @@ public class HttpRes extends HttpMsg<HttpRes> {
 	 */
 	public HttpRes( byte[] content, Function<byte[], Message> bodyParse ) {
 		this();
-
-		Deque<String> lines = new ArrayDeque<>(
-				Arrays.asList( new String( content, UTF_8 ).split( "\r\n" ) ) );
-
-		// status line
-		Deque<String> statusFields = new ArrayDeque<>(
-				Arrays.asList( lines.removeFirst().split( " " ) ) );
-
-		if( !statusFields.isEmpty() ) {
-			set( VERSION, statusFields.removeFirst() );
-		}
-		if( !statusFields.isEmpty() ) {
-			set( STATUS, statusFields.removeFirst() );
-		}
-		if( !statusFields.isEmpty() ) {
-			set( STATUS_TEXT, statusFields.stream().collect( joining( " " ) ) );
-		}
-
-		// zero or more headers
-		String headerLine;
-		while( !lines.isEmpty() && !(headerLine = lines.removeFirst()).isEmpty() ) {
-			Matcher h = HEADER_LINE_PATTERN.matcher( headerLine );
-			if( h.matches() ) {
-				set( header( h.group( "name" ).trim() ),
-						h.group( "value" ).trim() );
+		parse( content, statusFields -> {
+			if( !statusFields.isEmpty() ) {
+				set( VERSION, statusFields.removeFirst() );
 			}
-		}
-
-		// body
-		String body = lines.stream().collect( joining( "\r\n" ) );
-		set( BODY, bodyParse.apply( dechunken( body ).getBytes( UTF_8 ) ) );
+			if( !statusFields.isEmpty() ) {
+				set( STATUS, statusFields.removeFirst() );
+			}
+			if( !statusFields.isEmpty() ) {
+				set( STATUS_TEXT, statusFields.stream().collect( joining( " " ) ) );
+			}
+		}, bodyParse );
 	}
 
 	/**
@@ -0,0 +1,151 @@
+package com.mastercard.test.flow.msg.http;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads the wire format of HTTP messages. Content is scanned in the byte
+ * domain: only the start line and headers are decoded, and the body bytes are
+ * passed on untouched. This avoids copying the content around and means that
+ * binary bodies survive intact.
+ * <p>
+ * The parts of the message should be read in order: {@link #start()}, then
+ * {@link #headers(BiConsumer)}, then {@link #body(boolean)}.
+ * </p>
+ */
+class Wire {
+
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+	private static final byte COLON = ':';
+	private static final byte SEMICOLON = ';';
+
+	private final byte[] content;
+
+	/**
+	 * The index of the first unread byte
+	 */
+	private int position = 0;
+
+	/**
+	 * @param content The message bytes. This array is not copied, so must not be
+	 *                altered while we're reading it
+	 */
+	Wire( byte[] content ) {
+		this.content = content;
+	}
+
+	/**
+	 * Reads the start line
+	 *
+	 * @return The request or status line
+	 */
+	String start() {
+		int end = lineEnd( position );
+		String line = new String( content, position, end - position, UTF_8 );
+		position = next( end );
+		return line;
+	}
+
+	/**
+	 * Reads the header lines. Lines that do not contain a colon are ignored.
+	 *
+	 * @param header Supplied with the trimmed name and value of each header
+	 */
+	void headers( BiConsumer<String, String> header ) {
+		while( position < content.length ) {
+			int start = position;
+			int end = lineEnd( start );
+			position = next( end );
+			if( end == start ) {
+				// the empty line that separates the headers from the body
+				return;
+			}
+			int colon = indexOf( COLON, start, end );
+			if( colon != -1 ) {
+				header.accept(
+						new String( content, start, colon - start, UTF_8 ).trim(),
+						new String( content, colon + 1, end - colon - 1, UTF_8 ).trim() );
+			}
+		}
+	}
+
+	/**
+	 * Reads the body
+	 *
+	 * @param chunked <code>true</code> if the body is subject to chunked
+	 *                Transfer-Encoding
+	 * @return The body content
+	 */
+	byte[] body( boolean chunked ) {
+		if( !chunked ) {
+			return Arrays.copyOfRange( content, position, content.length );
+		}
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream( content.length - position );
+		int size = chunkSize();
+		while( size > 0 ) {
+			int length = Math.min( size, content.length - position );
+			body.write( content, position, length );
+			// skip the line ending that follows the chunk
+			position = next( lineEnd( position + length ) );
+			size = chunkSize();
+		}
+		return body.toByteArray();
+	}
+
+	/**
+	 * Reads a chunk size line
+	 *
+	 * @return The size of the following chunk, or zero if there is no valid size
+	 */
+	private int chunkSize() {
+		int start = position;
+		int end = lineEnd( start );
+		position = next( end );
+		int extension = indexOf( SEMICOLON, start, end );
+		if( extension != -1 ) {
+			end = extension;
+		}
+		try {
+			return Integer.parseInt( new String( content, start, end - start, UTF_8 ).trim(), 16 );
+		}
+		catch( @SuppressWarnings("unused") NumberFormatException nfe ) {
+			return 0;
+		}
+	}
+
+	/**
+	 * @param from The index to start searching from
+	 * @return The index of the next CRLF sequence, or the content length if there
+	 *         is none
+	 */
+	private int lineEnd( int from ) {
+		for( int i = from; i < content.length - 1; i++ ) {
+			if( content[i] == CR && content[i + 1] == LF ) {
+				return i;
+			}
+		}
+		return content.length;
+	}
+
+	/**
+	 * @param lineEnd The result of {@link #lineEnd(int)}
+	 * @return The index of the start of the next line
+	 */
+	private int next( int lineEnd ) {
+		return Math.min( lineEnd + 2, content.length );
+	}
+
+	private int indexOf( byte b, int from, int to ) {
+		for( int i = from; i < to; i++ ) {
+			if( content[i] == b ) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
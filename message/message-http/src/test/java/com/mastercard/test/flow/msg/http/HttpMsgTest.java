@@ -1,6 +1,9 @@
 package com.mastercard.test.flow.msg.http;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.regex.Matcher;
 
 import org.junit.jupiter.api.Test;
 
@@ -21,4 +24,32 @@ class HttpMsgTest {
 		assertEquals( "mixed-case", HttpMsg.unheader( HttpMsg.header( "MiXeD-cAsE" ) ),
 				"unheader cannot restore the input casing" );
 	}
+
+	/**
+	 * The deprecated header line pattern still matches header lines
+	 */
+	@Test
+	@SuppressWarnings("deprecation")
+	void headerLinePattern() {
+		Matcher m = HttpMsg.HEADER_LINE_PATTERN.matcher( "name: value:with:colons" );
+		assertTrue( m.matches() );
+		assertEquals( "name", m.group( "name" ) );
+		assertEquals( " value:with:colons", m.group( "value" ) );
+	}
+
+	/**
+	 * The deprecated dechunking method still extracts chunked content
+	 */
+	@Test
+	@SuppressWarnings("deprecation")
+	void dechunken() {
+		String chunked = "4\r\nWiki\r\n6\r\npedia \r\n0\r\n\r\n";
+
+		HttpReq plain = new HttpReq();
+		assertEquals( chunked, plain.dechunken( chunked ) );
+
+		HttpReq encoded = new HttpReq()
+				.set( HttpMsg.header( "Transfer-Encoding" ), "chunked" );
+		assertEquals( "Wikipedia ", encoded.dechunken( chunked ) );
+	}
 }
@@ -267,6 +267,34 @@ class HttpReqTest {
 				parsed.body().get().assertable() );
 	}
 
+	/**
+	 * Chunk lengths are counted in bytes, so non-ASCII content survives the
+	 * round-trip
+	 */
+	@Test
+	void chunkedMultibyte() {
+		HttpReq msg = new HttpReq()
+				.set( HttpReq.METHOD, "GET" )
+				.set( HttpReq.PATH, "/foo/bar" )
+				.set( HttpMsg.VERSION, "HTTP/1.1" )
+				.set( HttpMsg.header( "Transfer-Encoding" ), "chunked" )
+				.set( HttpMsg.BODY, new Json() )
+				.set( "body", "cöntent" );
+
+		assertEquals( ""
+				+ "GET /foo/bar HTTP/1.1\r\n"
+				+ "transfer-encoding: chunked\r\n"
+				+ "\r\n"
+				+ "13\r\n"
+				+ "{\"body\":\"cöntent\"}\r\n"
+				+ "0\r\n"
+				+ "\r\n"
+				+ "",
+				new String( msg.content(), UTF_8 ) );
+
+		assertEquals( msg.assertable(), msg.peer( msg.content() ).assertable() );
+	}
+
 	/**
 	 * Masking of fields in peered messages
 	 */
@@ -0,0 +1,231 @@
+package com.mastercard.test.flow.msg.http;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exercises {@link Wire}
+ */
+@SuppressWarnings("static-method")
+class WireTest {
+
+	/**
+	 * Empty content
+	 */
+	@Test
+	void empty() {
+		test( "",
+				"start[]",
+				"body[]" );
+	}
+
+	/**
+	 * Content without line endings
+	 */
+	@Test
+	void startOnly() {
+		test( "GET /path HTTP/1.1",
+				"start[GET /path HTTP/1.1]",
+				"body[]" );
+
+		test( "GET /path HTTP/1.1\r\n",
+				"start[GET /path HTTP/1.1]",
+				"body[]" );
+	}
+
+	/**
+	 * Header lines are split on the first colon, and lines without a colon are
+	 * ignored
+	 */
+	@Test
+	void headers() {
+		test( ""
+				+ "start\r\n"
+				+ "bad header\r\n"
+				+ "key : value\r\n"
+				+ "value_with_colon    : foo:bar\r\n"
+				+ ":\r\n"
+				+ "\r\n"
+				+ "body",
+				"start[start]",
+				"header[key][value]",
+				"header[value_with_colon][foo:bar]",
+				"header[][]",
+				"body[body]" );
+	}
+
+	/**
+	 * Headers do not have to be terminated by an empty line
+	 */
+	@Test
+	void unterminatedHeaders() {
+		test( ""
+				+ "start\r\n"
+				+ "key: value\r\n",
+				"start[start]",
+				"header[key][value]",
+				"body[]" );
+
+		test( ""
+				+ "start\r\n"
+				+ "key: value",
+				"start[start]",
+				"header[key][value]",
+				"body[]" );
+	}
+
+	/**
+	 * Body content is preserved exactly, including line endings
+	 */
+	@Test
+	void body() {
+		test( ""
+				+ "start\r\n"
+				+ "\r\n"
+				+ "\r\n"
+				+ "line\r\n"
+				+ "\r\n",
+				"start[start]",
+				"body[\r\nline\r\n\r\n]" );
+
+		test( ""
+				+ "start\r\n"
+				+ "\r\n"
+				+ "lone\rcarriage\nreturns\r",
+				"start[start]",
+				"body[lone\rcarriage\nreturns\r]" );
+	}
+
+	/**
+	 * Non-text bodies are not mangled
+	 */
+	@Test
+	void binary() {
+		byte[] body = new byte[256];
+		for( int i = 0; i < body.length; i++ ) {
+			body[i] = (byte) i;
+		}
+		byte[] head = "start\r\nkey: value\r\n\r\n".getBytes( UTF_8 );
+		byte[] content = new byte[head.length + body.length];
+		System.arraycopy( head, 0, content, 0, head.length );
+		System.arraycopy( body, 0, content, head.length, body.length );
+
+		Wire wire = new Wire( content );
+		assertEquals( "start", wire.start() );
+		wire.headers( ( n, v ) -> {
+			// don't care
+		} );
+		assertArrayEquals( body, wire.body( false ) );
+	}
+
+	/**
+	 * Start line and headers are decoded as UTF-8
+	 */
+	@Test
+	void encoding() {
+		test( ""
+				+ "GET /café\r\n"
+				+ "näme: välue\r\n"
+				+ "\r\n"
+				+ "bödy",
+				"start[GET /café]",
+				"header[näme][välue]",
+				"body[bödy]" );
+	}
+
+	/**
+	 * Chunked content is reassembled
+	 */
+	@Test
+	void chunked() {
+		testChunked( ""
+				+ "5\r\n"
+				+ "Hello\r\n"
+				+ "1\r\n"
+				+ " \r\n"
+				+ "A\r\n"
+				+ "chunked \r\n\r\n"
+				+ "0\r\n"
+				+ "\r\n",
+				"Hello chunked \r\n" );
+	}
+
+	/**
+	 * Chunk sizes are hexadecimal in either case, and chunk extensions are ignored
+	 */
+	@Test
+	void chunkSizes() {
+		testChunked( ""
+				+ "a;name=value\r\n"
+				+ "0123456789\r\n"
+				+ "B ; ext\r\n"
+				+ "abcdefghijk\r\n"
+				+ "0\r\n"
+				+ "\r\n",
+				"0123456789abcdefghijk" );
+	}
+
+	/**
+	 * Chunk sizes are counted in bytes
+	 */
+	@Test
+	void chunkBytes() {
+		testChunked( ""
+				+ "3\r\n"
+				+ "éa\r\n"
+				+ "0\r\n"
+				+ "\r\n",
+				"éa" );
+	}
+
+	/**
+	 * Malformed chunked content is tolerated
+	 */
+	@Test
+	void badChunks() {
+		// no terminating chunk
+		testChunked( "3\r\nabc\r\n", "abc" );
+		testChunked( "3\r\nabc", "abc" );
+
+		// truncated chunk
+		testChunked( "6\r\nabc", "abc" );
+
+		// missing chunk line ending
+		testChunked( "3\r\nabcdef\r\n3\r\nghi\r\n0\r\n\r\n", "abcghi" );
+
+		// invalid chunk size
+		testChunked( "3\r\nabc\r\nxyz\r\ndef\r\n", "abc" );
+		testChunked( "", "" );
+	}
+
+	private static void test( String content, String... expected ) {
+		byte[] bytes = content.getBytes( UTF_8 );
+		List<String> events = new ArrayList<>();
+		Wire wire = new Wire( bytes );
+		events.add( "start[" + wire.start() + "]" );
+		wire.headers( ( n, v ) -> events.add( "header[" + n + "][" + v + "]" ) );
+		events.add( "body[" + new String( wire.body( false ), UTF_8 ) + "]" );
+
+		assertEquals( String.join( "\n", expected ), String.join( "\n", events ) );
+	}
+
+	private static void testChunked( String body, String expected ) {
+		Wire wire = new Wire( ("start\r\n"
+				+ "transfer-encoding: chunked\r\n"
+				+ "\r\n"
+				+ body).getBytes( UTF_8 ) );
+		wire.start();
+		wire.headers( ( n, v ) -> {
+			// don't care
+		} );
+		assertEquals( new String( expected.getBytes( UTF_8 ), ISO_8859_1 ),
+				new String( wire.body( true ), ISO_8859_1 ) );
+	}
+}
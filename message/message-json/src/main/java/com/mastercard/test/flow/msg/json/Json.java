@@ -3,11 +3,8 @@ package com.mastercard.test.flow.msg.json;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.IOException;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +13,7 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.ObjIntConsumer;
 import java.util.function.Supplier;
 
@@ -27,6 +25,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.mastercard.test.flow.msg.AbstractMessage;
+import com.mastercard.test.flow.msg.FieldPath;
 import com.mastercard.test.flow.msg.Forest;
 
 /**
@@ -63,6 +62,18 @@ public class Json extends AbstractMessage<Json> {
 		}
 	};
 
+	/**
+	 * Compiles field addresses into {@link Forest} paths. Every path is rooted at
+	 * the unnamed element that holds the root json value.
+	 */
+	private static final Function<String, FieldPath> PATHS = FieldPath.interning( field -> {
+		List<String> path = new ArrayList<>( Arrays.asList( field.split( "\\." ) ) );
+		if( !path.get( 0 ).isEmpty() && !path.get( 0 ).startsWith( "[" ) ) {
+			path.add( 0, "" );
+		}
+		return FieldPath.compile( path );
+	} );
+
 	private final Supplier<Object> basis;
 
 	private Json( Supplier<Object> basis ) {
@@ -95,12 +106,13 @@ public class Json extends AbstractMessage<Json> {
 
 	@Override
 	public Json child() {
-		return copyMasksTo( new Json( this::data ) );
+		return copyMasksTo( inheritedBy( new Json(
+				() -> inheritable( this::build, Forest::freeze, Forest::thaw ) ) ) );
 	}
 
 	@Override
 	public Json peer( byte[] content ) {
-		return copyMasksTo( new Json( content ) );
+		return copyMasksTo( copySnapshottingTo( new Json( content ) ) );
 	}
 
 	@Override
@@ -112,6 +124,10 @@ public class Json extends AbstractMessage<Json> {
 	}
 
 	private Object data() {
+		return snapshot( this::build, Forest::freeze );
+	}
+
+	private Object build() {
 		Object o = basis.get();
 		for( Update update : updates ) {
 			Object value = value( update );
@@ -119,6 +135,8 @@ public class Json extends AbstractMessage<Json> {
 					// no sense in vivifying path elements if we're on our way to delete something
 					// that doesn't exist yet
 					value != DELETE,
+					// the basis might share structure with our parent's snapshot
+					true,
 					( map, key ) -> {
 						if( value == DELETE ) {
 							map.remove( key );
@@ -153,25 +171,33 @@ public class Json extends AbstractMessage<Json> {
 	@Override
 	protected Object access( String field ) {
 		AtomicReference<Object> result = new AtomicReference<>();
-		traverse( data(), field, false,
+		traverse( data(), field, false, false,
 				( map, key ) -> result.set( map.get( key ) ),
 				( list, idx ) -> result.set( list.get( idx ) ) );
+		if( isSnapshotting() ) {
+			// the data is a shared snapshot, so don't give out the structure
+			return Forest.copy( result.get() );
+		}
+		// the data was freshly built just for us, no need to copy it
 		return result.get();
 	}
 
+	@SuppressWarnings("unchecked")
 	private static Object traverse( Object data, String field,
-			boolean vivify,
+			boolean vivify, boolean thaw,
 			BiConsumer<Map<String, Object>, String> oa,
 			ObjIntConsumer<List<Object>> la ) {
-		Deque<String> path = new ArrayDeque<>();
-		Collections.addAll( path, field.split( "\\." ) );
-		if( !path.getFirst().isEmpty() && !path.getFirst().startsWith( "[" ) ) {
-			path.addFirst( "" );
+		FieldPath path = PATHS.apply( field );
+
+		if( data instanceof Map && path.size() > 1 && path.indices( 0 ) == 0 ) {
+			// the root value is an object and will remain so, we can start from there
+			Forest.traverse( (Map<String, Object>) data, path.tail(), vivify, thaw, oa, la );
+			return data;
 		}
 
 		Map<String, Object> root = new TreeMap<>();
 		root.put( "", data );
-		Forest.traverse( root, path, vivify, oa, la );
+		Forest.traverse( root, path, vivify, thaw, oa, la );
 		return root.get( "" );
 	}
 
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.math.BigDecimal;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
@@ -111,6 +112,70 @@ class JsonTest {
 		assertEquals( "[[0], [1][2][3]]", msg.fields().toString() );
 	}
 
+	/**
+	 * The type of the root value can be changed
+	 */
+	@Test
+	void rootType() {
+		Json msg = new Json()
+				.set( "key", "value" );
+		assertEquals( "{\"key\":\"value\"}", new String( msg.content(), UTF_8 ) );
+
+		msg.set( "[0].key", "value" );
+		assertEquals( "[{\"key\":\"value\"}]", new String( msg.content(), UTF_8 ) );
+
+		msg.set( "key", "value" );
+		assertEquals( "{\"key\":\"value\"}", new String( msg.content(), UTF_8 ) );
+	}
+
+	/**
+	 * Shows that content snapshots do not affect message behaviour
+	 */
+	@Test
+	void snapshots() {
+		Json parent = new Json( "{\"obj\":{\"foo\":\"a\"}}".getBytes( UTF_8 ) )
+				.snapshotting( true )
+				.set( "arr[1]", "b" );
+		Json child = parent.child()
+				.set( "obj.bar", "c" );
+		Json grandchild = child.child()
+				.set( "arr[0]", "d" );
+
+		assertEquals( "{\"arr\":[null,\"b\"],\"obj\":{\"foo\":\"a\"}}",
+				new String( parent.content(), UTF_8 ) );
+		assertEquals( "{\"arr\":[null,\"b\"],\"obj\":{\"bar\":\"c\",\"foo\":\"a\"}}",
+				new String( child.content(), UTF_8 ) );
+		assertEquals( "{\"arr\":[\"d\",\"b\"],\"obj\":{\"bar\":\"c\",\"foo\":\"a\"}}",
+				new String( grandchild.content(), UTF_8 ) );
+		assertEquals( "[arr[0], arr[1], obj.bar, obj.foo]", grandchild.fields().toString() );
+
+		// fetched structures are copies, so altering them has no effect on the message
+		@SuppressWarnings("unchecked")
+		Map<String, Object> obj = (Map<String, Object>) child.get( "obj" );
+		obj.put( "baz", "e" );
+		assertEquals( "{foo=a, bar=c}", child.get( "obj" ).toString() );
+
+		// updates to ancestors are still inherited
+		parent.set( "obj.foo", "f" );
+		assertEquals( "{\"arr\":[\"d\",\"b\"],\"obj\":{\"bar\":\"c\",\"foo\":\"f\"}}",
+				new String( grandchild.content(), UTF_8 ) );
+
+		// descendants can delete inherited content without affecting their ancestors
+		Json greatgrandchild = grandchild.child()
+				.set( "obj.bar", DELETE )
+				.set( "arr[1]", DELETE );
+		assertEquals( "{\"arr\":[\"d\"],\"obj\":{\"foo\":\"f\"}}",
+				new String( greatgrandchild.content(), UTF_8 ) );
+		assertEquals( "{\"arr\":[\"d\",\"b\"],\"obj\":{\"bar\":\"c\",\"foo\":\"f\"}}",
+				new String( grandchild.content(), UTF_8 ) );
+
+		// peers inherit the snapshot setting
+		Json peer = grandchild.peer( "{\"g\":[\"h\"]}".getBytes( UTF_8 ) )
+				.set( "g[1]", "i" );
+		assertEquals( "{\"g\":[\"h\",\"i\"]}", new String( peer.content(), UTF_8 ) );
+		assertEquals( "[h, i]", peer.get( "g" ).toString() );
+	}
+
 	/**
 	 * Shows that fields can be deleted
 	 */
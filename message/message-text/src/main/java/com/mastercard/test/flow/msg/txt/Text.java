@@ -3,8 +3,11 @@ package com.mastercard.test.flow.msg.txt;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -18,9 +21,31 @@ import com.mastercard.test.flow.msg.AbstractMessage;
  * regex contains capture groups then the first one is returned, otherwise the
  * whole match is returned.</li>
  * </ul>
+ * Field addresses that contain no regular expression syntax, or that are
+ * produced by {@link #literal(String)}, are matched as plain text without any
+ * regex processing.
+ * <p>
+ * Text content is immutable, so {@link #snapshotting(boolean) snapshots} are
+ * enabled by default: the content is only rebuilt after it has been updated.
+ * </p>
  */
 public class Text extends AbstractMessage<Text> {
 
+	/**
+	 * Regular expression syntax characters
+	 */
+	private static final Pattern METACHARACTERS = Pattern.compile( "[\\\\^$.|?*+()\\[\\]{}]" );
+
+	/**
+	 * The maximum size of the compiled field cache
+	 */
+	static final int CACHE_LIMIT = 4096;
+
+	/**
+	 * Compiled field addresses
+	 */
+	private static final Map<String, Field> FIELDS = new ConcurrentHashMap<>();
+
 	private final Supplier<String> base;
 
 	/**
@@ -28,6 +53,7 @@ public class Text extends AbstractMessage<Text> {
 	 */
 	public Text( String content ) {
 		base = () -> content;
+		snapshotting( true );
 	}
 
 	/**
@@ -38,22 +64,40 @@ public class Text extends AbstractMessage<Text> {
 	}
 
 	private Text( Text parent ) {
-		base = parent::build;
+		base = parent::data;
+	}
+
+	/**
+	 * Builds a field address that matches text exactly
+	 *
+	 * @param text The text to match
+	 * @return A field address that matches the supplied text, with no characters
+	 *         being interpreted as regular expression syntax
+	 */
+	public static String literal( String text ) {
+		return Pattern.quote( text );
 	}
 
 	@Override
 	public Text child() {
-		return copyMasksTo( new Text( this ) );
+		return copyMasksTo( inheritedBy( new Text( this ) ) );
 	}
 
 	@Override
 	public Text peer( byte[] content ) {
-		return copyMasksTo( new Text( content ) );
+		return copyMasksTo( copySnapshottingTo( new Text( content ) ) );
+	}
+
+	@Override
+	public Text set( String field, Object value ) {
+		// compile now so we don't have to do it on every build
+		compile( field );
+		return super.set( field, value );
 	}
 
 	@Override
 	public byte[] content() {
-		return build().getBytes( UTF_8 );
+		return data().getBytes( UTF_8 );
 	}
 
 	@Override
@@ -62,6 +106,10 @@ public class Text extends AbstractMessage<Text> {
 		return Collections.emptySet();
 	}
 
+	private String data() {
+		return snapshot( this::build, UnaryOperator.identity() );
+	}
+
 	/**
 	 * Applies the updates to build the final value
 	 *
@@ -70,7 +118,7 @@ public class Text extends AbstractMessage<Text> {
 	protected String build() {
 		String text = base.get();
 		for( Update update : updates ) {
-			text = text.replaceAll( update.field(),
+			text = compile( update.field() ).replace( text,
 					update.value() == DELETE ? "" : String.valueOf( update.value() ) );
 		}
 		return text;
@@ -78,16 +126,90 @@ public class Text extends AbstractMessage<Text> {
 
 	@Override
 	protected String asHuman() {
-		return build();
+		return data();
 	}
 
 	@Override
 	protected Object access( String field ) {
-		Matcher m = Pattern.compile( field ).matcher( build() );
-		if( m.find() ) {
-			return m.groupCount() == 0 ? m.group( 0 ) : m.group( 1 );
+		return compile( field ).find( data() );
+	}
+
+	private static Field compile( String field ) {
+		Field compiled = FIELDS.get( field );
+		if( compiled == null ) {
+			compiled = new Field( field );
+			if( FIELDS.size() >= CACHE_LIMIT ) {
+				FIELDS.clear();
+			}
+			FIELDS.put( field, compiled );
 		}
-		return null;
+		return compiled;
+	}
+
+	/**
+	 * @return The number of compiled field addresses in the cache
+	 */
+	static int cached() {
+		return FIELDS.size();
 	}
 
+	/**
+	 * A compiled field address
+	 */
+	private static class Field {
+
+		private final Pattern pattern;
+
+		/**
+		 * The text that the field matches, or <code>null</code> if the field has to be
+		 * matched as a regular expression
+		 */
+		private final String literal;
+
+		Field( String field ) {
+			pattern = Pattern.compile( field );
+			if( !METACHARACTERS.matcher( field ).find() ) {
+				literal = field;
+			}
+			else if( field.startsWith( "\\Q" ) && field.indexOf( "\\E" ) == field.length() - 2 ) {
+				// the output of Pattern.quote()
+				literal = field.substring( 2, field.length() - 2 );
+			}
+			else {
+				literal = null;
+			}
+		}
+
+		/**
+		 * @param text        The text to update
+		 * @param replacement The replacement, in {@link Matcher#replaceAll(String)}
+		 *                    format
+		 * @return The updated text
+		 */
+		String replace( String text, String replacement ) {
+			if( literal != null
+					// group references and escapes need the regex machinery
+					&& replacement.indexOf( '$' ) == -1
+					&& replacement.indexOf( '\\' ) == -1 ) {
+				return text.replace( literal, replacement );
+			}
+			return pattern.matcher( text ).replaceAll( replacement );
+		}
+
+		/**
+		 * @param text The text to search
+		 * @return The first capture group of the first match, or the whole match if
+		 *         there are no groups, or <code>null</code> if there is no match
+		 */
+		String find( String text ) {
+			if( literal != null ) {
+				return text.contains( literal ) ? literal : null;
+			}
+			Matcher m = pattern.matcher( text );
+			if( m.find() ) {
+				return m.groupCount() == 0 ? m.group( 0 ) : m.group( 1 );
+			}
+			return null;
+		}
+	}
 }
@@ -2,8 +2,10 @@ package com.mastercard.test.flow.msg.txt;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.Random;
+import java.util.regex.PatternSyntaxException;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -56,6 +58,101 @@ class TextTest {
 		Assertions.assertEquals( "oe", msg.assertable() );
 	}
 
+	/**
+	 * Fields that contain no regex syntax are matched as plain text
+	 */
+	@Test
+	void literal() {
+		Text msg = new Text( "a.b.c $1 \\ d(e)" );
+
+		assertEquals( "\\Q.b\\E", Text.literal( ".b" ) );
+		assertEquals( ".b", msg.get( Text.literal( ".b" ) ) );
+		assertEquals( null, msg.get( Text.literal( "a.c" ) ) );
+		assertEquals( "b", msg.get( "b" ) );
+		assertEquals( null, msg.get( "x" ) );
+		assertEquals( "(e)", msg.get( Text.literal( "(e)" ) ) );
+		assertEquals( "e", msg.get( "d\\((.)\\)" ) );
+		assertEquals( "a.b", msg.get( "a\\Q.b\\E" ) );
+
+		msg.set( Text.literal( "." ), "_" );
+		assertEquals( "a_b_c $1 \\ d(e)", msg.assertable() );
+
+		msg.set( "b", "B" );
+		assertEquals( "a_B_c $1 \\ d(e)", msg.assertable() );
+
+		// regex syntax in the replacement is honoured
+		msg.set( "c", "\\$" );
+		assertEquals( "a_B_$ $1 \\ d(e)", msg.assertable() );
+		msg.set( Text.literal( "d(e)" ), "$0$0" );
+		assertEquals( "a_B_$ $1 \\ d(e)d(e)", msg.assertable() );
+
+		// quoting is only recognised when it spans the whole field
+		msg.set( "\\Q$1\\E \\Q\\\\E", "x" );
+		assertEquals( "a_B_$ x d(e)d(e)", msg.assertable() );
+		msg.set( "\\Qd(e)", "y" );
+		assertEquals( "a_B_$ x yy", msg.assertable() );
+	}
+
+	/**
+	 * Invalid regexes are rejected when the update is made
+	 */
+	@Test
+	void invalid() {
+		Text msg = new Text( "foobar" );
+		assertThrows( PatternSyntaxException.class, () -> msg.set( "(", "x" ) );
+		assertEquals( "foobar", msg.assertable() );
+	}
+
+	/**
+	 * Content is only rebuilt when it changes
+	 */
+	@Test
+	void snapshots() {
+		Counting parent = new Counting( "foobar" );
+		assertEquals( "foobar", parent.assertable() );
+		assertEquals( "foobar", parent.assertable() );
+		assertEquals( 1, parent.builds );
+
+		parent.set( "foo", "FOO" );
+		assertEquals( "FOObar", parent.assertable() );
+		assertEquals( "FOObar", new String( parent.content(), UTF_8 ) );
+		assertEquals( "bar", parent.get( "b.." ) );
+		assertEquals( 2, parent.builds );
+
+		// children don't rebuild their parent's content
+		Text child = parent.child().set( "bar", "BAR" );
+		Text grandchild = child.child().set( "O", "o" );
+		assertEquals( "FOOBAR", child.assertable() );
+		assertEquals( "FooBAR", grandchild.assertable() );
+		assertEquals( 2, parent.builds );
+
+		// unless it has changed
+		parent.set( "FOO", "f" );
+		assertEquals( "fBAR", child.assertable() );
+		assertEquals( 3, parent.builds );
+
+		// snapshots can be disabled, and peers inherit that setting
+		parent.snapshotting( false );
+		Counting peer = (Counting) parent.peer( "abc".getBytes( UTF_8 ) );
+		peer.assertable();
+		peer.assertable();
+		assertEquals( 2, peer.builds );
+	}
+
+	/**
+	 * The compiled field cache does not grow without limit
+	 */
+	@Test
+	void cacheLimit() {
+		Text msg = new Text( "0" );
+		for( int i = 0; i <= Text.CACHE_LIMIT; i++ ) {
+			int before = Text.cached();
+			msg.set( String.valueOf( i ), String.valueOf( i + 1 ) );
+			assertEquals( before == Text.CACHE_LIMIT ? 1 : before + 1, Text.cached() );
+		}
+		assertEquals( String.valueOf( Text.CACHE_LIMIT + 1 ), msg.assertable() );
+	}
+
 	/**
 	 * It's not possible to list all the regular expressions that might be used to
 	 * address content, so we don't even try
@@ -126,4 +223,23 @@ class TextTest {
 		Assertions.assertEquals( "blahhalb", peer.assertable( u ),
 				"masks are gifted to peers" );
 	}
+
+	private static class Counting extends Text {
+		int builds = 0;
+
+		Counting( String content ) {
+			super( content );
+		}
+
+		@Override
+		public Text peer( byte[] content ) {
+			return copySnapshottingTo( new Counting( new String( content, UTF_8 ) ) );
+		}
+
+		@Override
+		protected String build() {
+			builds++;
+			return super.build();
+		}
+	}
 }
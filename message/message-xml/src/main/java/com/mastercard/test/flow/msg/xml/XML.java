@@ -4,16 +4,16 @@ package com.mastercard.test.flow.msg.xml;
 import static java.util.stream.Collectors.toCollection;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,21 +22,21 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.ObjIntConsumer;
 import java.util.function.Supplier;
 
 import javax.xml.XMLConstants;
 import javax.xml.stream.FactoryConfigurationError;
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.StartDocument;
-import javax.xml.stream.events.StartElement;
 
 import com.mastercard.test.flow.msg.AbstractMessage;
+import com.mastercard.test.flow.msg.FieldPath;
 import com.mastercard.test.flow.msg.Forest;
 
 /**
@@ -72,6 +72,29 @@ public class XML extends AbstractMessage<XML> {
 	 */
 	public static final String HEADER_ENCODING = "xml header encoding";
 
+	/**
+	 * Compiles field addresses into the {@link Forest} paths of element values,
+	 * attributes and header fields
+	 */
+	private static final Function<String, FieldPath> VALUE_PATHS = FieldPath
+			.interning( field -> path( field, false ) );
+
+	/**
+	 * Compiles field addresses into the {@link Forest} paths of elements,
+	 * attributes and header fields
+	 */
+	private static final Function<String, FieldPath> DELETION_PATHS = FieldPath
+			.interning( field -> path( field, true ) );
+
+	/**
+	 * StAX factories are expensive to create, but are not guaranteed to be
+	 * thread-safe
+	 */
+	private static final ThreadLocal<XMLInputFactory> INPUT = ThreadLocal
+			.withInitial( XML::inputFactory );
+	private static final ThreadLocal<XMLOutputFactory> OUTPUT = ThreadLocal
+			.withInitial( XMLOutputFactory::newInstance );
+
 	private final Supplier<Map<String, Object>> basis;
 
 	private XML( Supplier<Map<String, Object>> basis ) {
@@ -86,73 +109,81 @@ public class XML extends AbstractMessage<XML> {
 	}
 
 	/**
-	 * Parses XML content
+	 * Parses XML content. The content is parsed once, when first required, and the
+	 * parsed structure is then shared by every subsequent build of the message
+	 * content.
 	 *
 	 * @param bytes XML content bytes
 	 */
 	public XML( byte[] bytes ) {
-		this( () -> {
-			if( bytes.length == 0 ) {
-				return new TreeMap<>();
-			}
-			XMLInputFactory xif = XMLInputFactory.newFactory();
-			// avoid XXE attacks per
-			// https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html#xmlinputfactory-a-stax-parser
-			// This disables DTDs entirely for that factory
-			xif.setProperty( XMLInputFactory.SUPPORT_DTD, false );
-			// This causes XMLStreamException to be thrown if external DTDs are accessed.
-			xif.setProperty( XMLConstants.ACCESS_EXTERNAL_DTD, "" );
-			// disable external entities
-			xif.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
-			// these latter two calls are suggested by owasp but are difficult to exercise
-			// for the purposes of mutation testing. We're prioritising safety over a
-			// perfect pitest score by leaving them in.
-
-			try( ByteArrayInputStream bais = new ByteArrayInputStream( bytes ) ) {
-				XMLEventReader xer = xif.createXMLEventReader( bais );
-				Map<String, Object> roots = new TreeMap<>();
-
-				while( xer.hasNext() ) {
-					if( xer.peek().isStartDocument() ) {
-
-						StartDocument sd = (StartDocument) xer.nextEvent();
-
-						Optional.ofNullable( sd.getVersion() )
-								.ifPresent( v -> roots.put( HEADER_VERSION, v ) );
-						Optional.ofNullable( sd.getCharacterEncodingScheme() )
-								.ifPresent( e -> roots.put( HEADER_ENCODING, e ) );
-					}
-					else if( xer.peek().isStartElement() ) {
-						readElement( xer, roots );
-					}
-					else {
-						// XML has a bunch of complicated features that aren't typically used for data
-						// exchange, so we're just ignoring that stuff
-						xer.nextEvent();
-					}
-				}
+		this( parsed( bytes ) );
+	}
 
-				return roots;
-			}
-			catch( XMLStreamException | IOException e ) {
-				throw new IllegalStateException( "Failed to parse\n"
-						+ new String( bytes, StandardCharsets.UTF_8 ) + "\n"
-						+ Arrays.toString( bytes ), e );
+	private static Supplier<Map<String, Object>> parsed( byte[] bytes ) {
+		AtomicReference<Map<String, Object>> parsed = new AtomicReference<>();
+		return () -> thaw( parsed.updateAndGet(
+				p -> p != null ? p : freeze( parse( bytes ) ) ) );
+	}
+
+	private static XMLInputFactory inputFactory() {
+		XMLInputFactory xif = XMLInputFactory.newFactory();
+		// avoid XXE attacks per
+		// https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html#xmlinputfactory-a-stax-parser
+		// This disables DTDs entirely for that factory
+		xif.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+		// This causes XMLStreamException to be thrown if external DTDs are accessed.
+		xif.setProperty( XMLConstants.ACCESS_EXTERNAL_DTD, "" );
+		// disable external entities
+		xif.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+		// these latter two calls are suggested by owasp but are difficult to exercise
+		// for the purposes of mutation testing. We're prioritising safety over a
+		// perfect pitest score by leaving them in.
+		return xif;
+	}
+
+	private static Map<String, Object> parse( byte[] bytes ) {
+		Map<String, Object> roots = new TreeMap<>();
+		if( bytes.length == 0 ) {
+			return roots;
+		}
+
+		try( ByteArrayInputStream bais = new ByteArrayInputStream( bytes ) ) {
+			XMLStreamReader xsr = INPUT.get().createXMLStreamReader( bais );
+
+			Optional.ofNullable( xsr.getVersion() )
+					.ifPresent( v -> roots.put( HEADER_VERSION, v ) );
+			Optional.ofNullable( xsr.getEncoding() )
+					.ifPresent( e -> roots.put( HEADER_ENCODING, e ) );
+
+			while( xsr.hasNext() ) {
+				if( xsr.next() == XMLStreamConstants.START_ELEMENT ) {
+					readElement( xsr, roots );
+				}
+				// XML has a bunch of complicated features that aren't typically used for data
+				// exchange, so we're just ignoring that stuff
 			}
-		} );
+			xsr.close();
+
+			return roots;
+		}
+		catch( XMLStreamException | IOException e ) {
+			throw new IllegalStateException( "Failed to parse\n"
+					+ new String( bytes, StandardCharsets.UTF_8 ) + "\n"
+					+ Arrays.toString( bytes ), e );
+		}
 	}
 
 	@SuppressWarnings("unchecked")
-	private static void readElement( XMLEventReader xer, Map<String, Object> parent )
+	private static void readElement( XMLStreamReader xsr, Map<String, Object> parent )
 			throws XMLStreamException {
 		Map<String, Object> elementData = new TreeMap<>();
 
-		StartElement start = xer.nextEvent().asStartElement();
-		readAttributes( start, elementData );
-		readContents( xer, elementData );
+		String name = xsr.getLocalName();
+		readAttributes( xsr, elementData );
+		readContents( xsr, elementData );
 
 		// insert into parent
-		parent.compute( start.getName().getLocalPart(), ( n, v ) -> {
+		parent.compute( name, ( n, v ) -> {
 			if( v instanceof Map ) {
 				// a peer already exists
 				return new ArrayList<>( Arrays.asList( v, elementData ) );
@@ -165,49 +196,55 @@ public class XML extends AbstractMessage<XML> {
 		} );
 	}
 
-	private static void readAttributes( StartElement start, Map<String, Object> elementData ) {
-		Iterator<Attribute> attrs = start.getAttributes();
-		while( attrs.hasNext() ) {
-			Attribute attr = attrs.next();
-			elementData.put( "@" + attr.getName().getLocalPart(), attr.getValue() );
+	private static void readAttributes( XMLStreamReader xsr, Map<String, Object> elementData ) {
+		for( int i = 0; i < xsr.getAttributeCount(); i++ ) {
+			elementData.put( "@" + xsr.getAttributeLocalName( i ), xsr.getAttributeValue( i ) );
 		}
 	}
 
-	private static void readContents( XMLEventReader xer, Map<String, Object> elementData )
+	private static void readContents( XMLStreamReader xsr, Map<String, Object> elementData )
 			throws XMLStreamException {
 		StringBuilder value = new StringBuilder();
-		boolean ended = false;
-		while( !ended && xer.hasNext() ) {
-			if( xer.peek().isStartElement() ) {
-				readElement( xer, elementData );
-			}
-			else if( xer.peek().isCharacters() ) {
-				value.append( xer.nextEvent().asCharacters().getData() );
+		for( int event = xsr.next(); event != XMLStreamConstants.END_ELEMENT; event = xsr.next() ) {
+			if( event == XMLStreamConstants.START_ELEMENT ) {
+				readElement( xsr, elementData );
 			}
-			else if( xer.peek().isEndElement() ) {
-				// consume it
-				xer.nextEvent();
-				ended = true;
-			}
-			else {
-				// skip over anything else
-				xer.nextEvent();
+			else if( event == XMLStreamConstants.CHARACTERS
+					|| event == XMLStreamConstants.CDATA
+					|| event == XMLStreamConstants.SPACE ) {
+				value.append( xsr.getTextCharacters(), xsr.getTextStart(), xsr.getTextLength() );
 			}
+			// skip over anything else
 		}
 		elementData.put( VALUE_PATH_ELEMENT, value.toString().trim() );
 	}
 
 	@Override
 	public XML child() {
-		return copyMasksTo( new XML( this::data ) );
+		return copyMasksTo( inheritedBy( new XML(
+				() -> inheritable( this::build, XML::freeze, XML::thaw ) ) ) );
 	}
 
 	@Override
 	public XML peer( byte[] content ) {
-		return copyMasksTo( new XML( content ) );
+		return copyMasksTo( copySnapshottingTo( new XML( content ) ) );
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> freeze( Map<String, Object> data ) {
+		return (Map<String, Object>) Forest.freeze( data );
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> thaw( Map<String, Object> data ) {
+		return (Map<String, Object>) Forest.thaw( data );
 	}
 
 	private Map<String, Object> data() {
+		return snapshot( this::build, XML::freeze );
+	}
+
+	private Map<String, Object> build() {
 
 		Map<String, Object> data = basis.get();
 		for( Update update : updates ) {
@@ -278,6 +315,15 @@ public class XML extends AbstractMessage<XML> {
 			boolean vivify, boolean deletion,
 			BiConsumer<Map<String, Object>, String> oa,
 			ObjIntConsumer<List<Object>> la ) {
+		Forest.traverse( data,
+				(deletion ? DELETION_PATHS : VALUE_PATHS).apply( field ),
+				// the basis might share structure with our parent's snapshot, so we have to
+				// thaw if we're updating
+				vivify, vivify || deletion,
+				oa, la );
+	}
+
+	private static FieldPath path( String field, boolean deletion ) {
 		Deque<String> path = new ArrayDeque<>();
 		Collections.addAll( path, field.split( "/" ) );
 
@@ -294,7 +340,7 @@ public class XML extends AbstractMessage<XML> {
 			path.add( VALUE_PATH_ELEMENT );
 		}
 
-		Forest.traverse( data, path, vivify, oa, la );
+		return FieldPath.compile( path );
 	}
 
 	@Override
@@ -310,23 +356,42 @@ public class XML extends AbstractMessage<XML> {
 	public byte[] content() {
 		Map<String, Object> data = data();
 		Object enc = data.get( HEADER_ENCODING );
-		String encoding = enc == null ? null : enc.toString();
+		Charset charset;
 		try {
-			String doc = writeDocuments( data, false );
-
-			return encoding != null ? doc.getBytes( encoding ) : doc.getBytes();
+			charset = enc == null ? Charset.defaultCharset() : Charset.forName( enc.toString() );
 		}
-		catch( UnsupportedEncodingException e ) {
-			throw new IllegalArgumentException( "Failed to serialise in '" + encoding + "'", e );
+		catch( IllegalArgumentException e ) {
+			throw new IllegalArgumentException( "Failed to serialise in '" + enc + "'", e );
 		}
+
+		// stream straight to bytes rather than building an intermediate string
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		writeDocuments( data, false, xof -> xof.createXMLStreamWriter( baos, charset.name() ) );
+		return baos.toByteArray();
 	}
 
 	@Override
 	protected String asHuman() {
-		return writeDocuments( data(), true );
+		StringWriter sw = new StringWriter();
+		writeDocuments( data(), true, xof -> xof.createXMLStreamWriter( sw ) );
+		return sw.toString().trim();
 	}
 
-	private static String writeDocuments( Map<String, Object> roots, boolean indent ) {
+	/**
+	 * Creates the destination of serialised content
+	 */
+	@FunctionalInterface
+	private interface Output {
+		/**
+		 * @param xof The factory to use
+		 * @return The destination of XML content
+		 * @throws XMLStreamException on failure
+		 */
+		XMLStreamWriter open( XMLOutputFactory xof ) throws XMLStreamException;
+	}
+
+	private static void writeDocuments( Map<String, Object> roots, boolean indent,
+			Output output ) {
 
 		Set<String> treeRoots = roots.keySet().stream()
 				.filter( k -> !HEADER_VERSION.equals( k ) )
@@ -337,9 +402,8 @@ public class XML extends AbstractMessage<XML> {
 			throw new IllegalStateException( "Multiple root elements found " + treeRoots );
 		}
 
-		StringWriter sw = new StringWriter();
 		try {
-			XMLStreamWriter w = XMLOutputFactory.newInstance().createXMLStreamWriter( sw );
+			XMLStreamWriter w = output.open( OUTPUT.get() );
 
 			Object version = roots.get( HEADER_VERSION );
 			Object encoding = roots.get( HEADER_ENCODING );
@@ -350,11 +414,11 @@ public class XML extends AbstractMessage<XML> {
 					writeDocument( indent, w, version, encoding, root );
 				}
 			}
+			w.close();
 		}
 		catch( XMLStreamException | FactoryConfigurationError e ) {
 			throw new IllegalStateException( "Failed to serialise " + roots, e );
 		}
-		return sw.toString().trim();
 	}
 
 	private static void writeDocument( boolean indent, XMLStreamWriter w, Object version,
@@ -1,6 +1,7 @@
 
 package com.mastercard.test.flow.msg.xml;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toMap;
@@ -225,6 +226,62 @@ class XMLTest {
 				copypasta( xml.fields().stream() ) );
 	}
 
+	/**
+	 * Shows that content snapshots do not affect message behaviour
+	 */
+	@Test
+	void snapshots() {
+		XML parent = new XML( "<root><abc>def</abc></root>".getBytes( UTF_8 ) )
+				.snapshotting( true )
+				.set( "/root/ghi", "jkl" );
+		XML child = parent.child()
+				.set( "/root/abc", "mno" );
+		XML grandchild = child.child()
+				.set( "/root/pqr/@attr", "stu" );
+
+		test( parent,
+				"<root>",
+				"  <abc>def</abc>",
+				"  <ghi>jkl</ghi>",
+				"</root>" );
+		test( grandchild,
+				"<root>",
+				"  <abc>mno</abc>",
+				"  <ghi>jkl</ghi>",
+				"  <pqr attr='stu'></pqr>",
+				"</root>" );
+		assertEquals( "stu", grandchild.get( "/root/pqr/@attr" ) );
+
+		// updates to ancestors are still inherited
+		parent.set( "/root/ghi", "vwx" );
+		test( grandchild,
+				"<root>",
+				"  <abc>mno</abc>",
+				"  <ghi>vwx</ghi>",
+				"  <pqr attr='stu'></pqr>",
+				"</root>" );
+
+		// descendants can delete inherited content without affecting their ancestors
+		XML greatgrandchild = grandchild.child()
+				.set( "/root/abc", AbstractMessage.DELETE );
+		test( greatgrandchild,
+				"<root>",
+				"  <ghi>vwx</ghi>",
+				"  <pqr attr='stu'></pqr>",
+				"</root>" );
+		test( grandchild,
+				"<root>",
+				"  <abc>mno</abc>",
+				"  <ghi>vwx</ghi>",
+				"  <pqr attr='stu'></pqr>",
+				"</root>" );
+
+		// peers inherit the snapshot setting
+		XML peer = grandchild.peer( "<a>b</a>".getBytes( UTF_8 ) )
+				.set( "/a", "c" );
+		test( peer, "<a>c</a>" );
+	}
+
 	/**
 	 * Demonstrating data inheritance
 	 */
@@ -346,6 +403,33 @@ class XMLTest {
 				+ "-61, -104, "
 				+ "60, 47, 97, 62]", // </a>
 				Arrays.toString( xml.content() ) );
+
+		// characters that cannot be encoded are escaped
+		xml.set( XML.HEADER_ENCODING, "ISO-8859-1" )
+				.set( "a", "Ø☺" );
+		assertEquals( "<a>\u00d8&#x263a;</a>",
+				new String( xml.content(), ISO_8859_1 ) );
+	}
+
+	/**
+	 * Content is only parsed once
+	 */
+	@Test
+	void parseOnce() {
+		byte[] bytes = "<a>b</a>".getBytes( UTF_8 );
+		XML xml = new XML( bytes );
+		assertEquals( "b", xml.get( "/a" ) );
+
+		// a re-parse would pick up this change
+		bytes[3] = 'c';
+		assertEquals( "b", xml.get( "/a" ) );
+		assertEquals( "<a>b</a>", new String( xml.content(), UTF_8 ) );
+
+		// the parsed content is shared, but updates are not
+		XML updated = xml.set( "/a", "d" );
+		XML child = updated.child().set( "/a", "e" );
+		assertEquals( "<a>d</a>", new String( updated.content(), UTF_8 ) );
+		assertEquals( "<a>e</a>", new String( child.content(), UTF_8 ) );
 	}
 
 	/**
@@ -7,10 +7,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.Model;
+import com.mastercard.test.flow.util.TagFilter;
 import com.mastercard.test.flow.util.TaggedGroup;
 import com.mastercard.test.flow.util.Tags;
 
@@ -26,6 +28,14 @@ public abstract class EagerModel extends TitledModel {
 
 	private final TaggedGroup tags;
 	private Set<Flow> members;
+	/**
+	 * The {@link #members}, in order
+	 */
+	private Flow[] indexed;
+	/**
+	 * The tag bitsets of the {@link #indexed} members
+	 */
+	private long[][] indexedTags;
 
 	/**
 	 * @param title A human-readable title for this group of {@link Flow}s
@@ -87,8 +97,13 @@ public abstract class EagerModel extends TitledModel {
 					"No flows registered in %s. Have you called members() in the constructor?",
 					getClass() ) );
 		}
-		return members.stream()
-				.filter( f -> Tags.filter( f.meta().tags(), include, exclude ) );
+		TagFilter filter = Tags.filter( include, exclude );
+		if( filter.isEmpty() ) {
+			return members.stream();
+		}
+		return IntStream.range( 0, indexed.length )
+				.filter( i -> filter.test( indexedTags[i] ) )
+				.mapToObj( i -> indexed[i] );
 	}
 
 	/**
@@ -104,6 +119,11 @@ public abstract class EagerModel extends TitledModel {
 		}
 
 		members = new LinkedHashSet<>( flows );
+		indexed = members.toArray( new Flow[members.size()] );
+		indexedTags = new long[indexed.length][];
+		for( int i = 0; i < indexed.length; i++ ) {
+			indexedTags[i] = indexed[i].meta().tagBits();
+		}
 	}
 
 	/**
@@ -4,19 +4,30 @@ package com.mastercard.test.flow.model;
 import static java.util.stream.Collectors.toList;
 
 import java.lang.reflect.Constructor;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.Model;
+import com.mastercard.test.flow.util.TagFilter;
 import com.mastercard.test.flow.util.TaggedGroup;
+import com.mastercard.test.flow.util.Tags;
 
 /**
  * <p>
@@ -36,6 +47,16 @@ import com.mastercard.test.flow.util.TaggedGroup;
  * <li>That field is expected to accurately reflect the flow tags in that
  * model.</li>
  * </ul>
+ * <p>
+ * Constituent models can be built concurrently, see
+ * {@link #parallel(ForkJoinPool)}.
+ * </p>
+ * <p>
+ * The <code>MODEL_TAGS</code> summary is coarse, so a model may be built even
+ * though none of its {@link Flow}s match the requested tags. A {@link Snapshot}
+ * of the exact {@link Flow} tags can be supplied to {@link #snapshot(Path)} to
+ * avoid that.
+ * </p>
  */
 public class LazyModel extends TitledModel {
 
@@ -50,6 +71,8 @@ public class LazyModel extends TitledModel {
 	private final Map<Class<? extends EagerModel>, Model> instances = new TreeMap<>( cc );
 	private TaggedGroup tags = new TaggedGroup();
 	private Optional<Listener> listener = Optional.empty();
+	private ForkJoinPool pool;
+	private Snapshot snapshot;
 
 	/**
 	 */
@@ -122,6 +145,42 @@ public class LazyModel extends TitledModel {
 		}
 	}
 
+	/**
+	 * Enables concurrent construction of constituent models. When
+	 * {@link #subModels()} or {@link #flows(Set, Set)} require several models to be
+	 * built, those that do not depend on each other (i.e.: that do not appear in
+	 * each other's constructor parameters) will be built at the same time.
+	 * {@link Listener} callbacks are still made on the calling thread once
+	 * construction is complete, in the same order as they would be for sequential
+	 * construction.
+	 *
+	 * @param p The pool on which to build models, or <code>null</code> to build
+	 *          them one at a time on the calling thread
+	 * @return <code>this</code>
+	 */
+	public LazyModel parallel( ForkJoinPool p ) {
+		pool = p;
+		return this;
+	}
+
+	/**
+	 * Loads a {@link Snapshot} of the {@link Flow}s in the constituent models. When
+	 * {@link Flow}s are requested, only those models that the snapshot shows to
+	 * hold matching {@link Flow}s will be built. The snapshot is ignored if it does
+	 * not exist or if it was taken from different or since-changed model types, so
+	 * this should be called after all constituent models have been registered with
+	 * {@link #with(Class...)}.
+	 *
+	 * @param path The snapshot file, as written by {@link Snapshot#main(String...)}
+	 * @return <code>this</code>
+	 */
+	public LazyModel snapshot( Path path ) {
+		snapshot = Optional.ofNullable( Snapshot.read( path ) )
+				.filter( s -> s.isCurrent( types.keySet() ) )
+				.orElse( null );
+		return this;
+	}
+
 	@Override
 	public TaggedGroup tags() {
 		return tags;
@@ -129,41 +188,124 @@ public class LazyModel extends TitledModel {
 
 	@Override
 	public Stream<Flow> flows( Set<String> include, Set<String> exclude ) {
-		return types.entrySet().stream()
+		TagFilter filter = Tags.filter( include, exclude );
+		Stream<Class<? extends EagerModel>> matching = types.entrySet().stream()
 				.filter( e -> e.getValue() != null )
-				.filter( e -> e.getValue().matches( include, exclude ) )
-				.flatMap( e -> instantiate( e.getKey() )
-						.flows( include, exclude ) );
+				.filter( e -> e.getValue().matches( filter ) )
+				.map( Map.Entry::getKey )
+				.filter( type -> snapshot == null || snapshot.contains( type, filter ) );
+		if( pool != null ) {
+			// we have to know all the models we need before we can build them together,
+			// but we still don't want to build anything until the flows are requested
+			Stream<Class<? extends EagerModel>> lazy = matching;
+			matching = Stream.of( lazy ).flatMap( m -> {
+				List<Class<? extends EagerModel>> required = m.collect( toList() );
+				instantiate( required );
+				return required.stream();
+			} );
+		}
+		return matching.flatMap( type -> instantiate( type ).flows( include, exclude ) );
 	}
 
+	private Model instantiate( Class<? extends EagerModel> type ) {
+		return instantiate( type, Collections.emptyMap() );
+	}
+
+	/**
+	 * Instantiates a group of models
+	 *
+	 * @param required The types of model to instantiate
+	 */
+	private void instantiate( Collection<Class<? extends EagerModel>> required ) {
+		Map<Class<?>, Model> built = new HashMap<>();
+		if( pool != null ) {
+			Map<Class<?>, CompletableFuture<Model>> builds = new HashMap<>();
+			required.forEach( type -> build( type, builds ) );
+			try {
+				for( Map.Entry<Class<?>, CompletableFuture<Model>> e : builds.entrySet() ) {
+					built.put( e.getKey(), e.getValue().join() );
+				}
+			}
+			catch( CompletionException ce ) {
+				// rethrow construction failures as if they had happened on this thread
+				throw ce.getCause() instanceof IllegalStateException
+						? (IllegalStateException) ce.getCause()
+						: ce;
+			}
+		}
+		// now walk the dependency structure to register the instances and call the
+		// listener, just as if we'd built them here
+		required.forEach( type -> instantiate( type, built ) );
+	}
+
+	/**
+	 * Schedules the concurrent construction of a model
+	 *
+	 * @param type   The type of model to build
+	 * @param builds The models that have already been scheduled for construction
+	 * @return The model under construction
+	 */
+	@SuppressWarnings("unchecked")
+	private CompletableFuture<Model> build( Class<? extends EagerModel> type,
+			Map<Class<?>, CompletableFuture<Model>> builds ) {
+		if( instances.containsKey( type ) ) {
+			return CompletableFuture.completedFuture( instances.get( type ) );
+		}
+		CompletableFuture<Model> build = builds.get( type );
+		if( build == null ) {
+			Constructor<?> constructor = type.getConstructors()[0];
+			List<CompletableFuture<Model>> parameters = new ArrayList<>();
+			for( Class<?> param : constructor.getParameterTypes() ) {
+				parameters.add( build( (Class<? extends EagerModel>) param, builds ) );
+			}
+			build = CompletableFuture
+					.allOf( parameters.toArray( new CompletableFuture[0] ) )
+					.thenApplyAsync( v -> construct( constructor, parameters.stream()
+							.map( CompletableFuture::join )
+							.toArray() ), pool );
+			builds.put( type, build );
+		}
+		return build;
+	}
+
+	/**
+	 * @param type  The type of model to instantiate
+	 * @param built Models that have already been constructed
+	 * @return The model instance
+	 */
 	@SuppressWarnings("unchecked")
-	private <T extends EagerModel> Model instantiate( Class<T> type ) {
+	private Model instantiate( Class<? extends EagerModel> type, Map<Class<?>, Model> built ) {
 		if( !instances.containsKey( type ) ) {
 			listener.ifPresent( l -> l.start( type ) );
 			Constructor<?> constructor = type.getConstructors()[0];
 			Object[] parameters = new Object[constructor.getParameterCount()];
 			for( int i = 0; i < parameters.length; i++ ) {
 				parameters[i] = instantiate(
-						(Class<? extends EagerModel>) constructor.getParameterTypes()[i] );
-			}
-			try {
-				T instance = (T) constructor.newInstance( parameters );
-				instance.listener( listener.orElse( null ) );
-				instances.put( type, instance );
-			}
-			catch( Exception e ) {
-				throw new IllegalStateException( "Failed to instantiate with " + constructor, e );
+						(Class<? extends EagerModel>) constructor.getParameterTypes()[i], built );
 			}
-			listener.ifPresent( l -> l.end( instances.get( type ) ) );
+			Model instance = built.containsKey( type )
+					? built.get( type )
+					: construct( constructor, parameters );
+			instance.listener( listener.orElse( null ) );
+			instances.put( type, instance );
+			listener.ifPresent( l -> l.end( instance ) );
 		}
 		return instances.get( type );
 	}
 
+	private static Model construct( Constructor<?> constructor, Object[] parameters ) {
+		try {
+			return (Model) constructor.newInstance( parameters );
+		}
+		catch( Exception e ) {
+			throw new IllegalStateException( "Failed to instantiate with " + constructor, e );
+		}
+	}
+
 	@Override
 	public Stream<Model> subModels() {
 		// first: build everything that isn't already built
-		types.keySet().stream()
-				.forEach( this::instantiate );
+		instantiate( types.keySet() );
 		return instances.values().stream();
 	}
 
@@ -0,0 +1,182 @@
+package com.mastercard.test.flow.model;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.Model;
+import com.mastercard.test.flow.util.Classpath;
+import com.mastercard.test.flow.util.TagDictionary;
+import com.mastercard.test.flow.util.TagFilter;
+
+/**
+ * <p>
+ * A persistent record of the {@link Flow}s in the constituent models of a
+ * {@link LazyModel}. The <code>MODEL_TAGS</code> field of a constituent model
+ * summarises the tags of its {@link Flow}s, but that summary is coarse: a model
+ * can match a tag filter even though none of its {@link Flow}s do, and so be
+ * built for nothing. A snapshot records the exact tags of each {@link Flow},
+ * allowing {@link LazyModel} to only build those models that will actually
+ * contribute {@link Flow}s.
+ * </p>
+ * <p>
+ * Snapshots are written by {@link #main(String...)} (e.g.: in the build of the
+ * module that holds your model) and are loaded with
+ * {@link LazyModel#snapshot(Path)}. Each snapshot carries a
+ * {@link Classpath#checksum(Collection) checksum} of the model classpath, and
+ * will be ignored if anything on it has changed.
+ * </p>
+ * <p>
+ * Note that a snapshot is an index of {@link Flow} tags, not a serialised
+ * model: it lets {@link LazyModel} avoid building models, but the models that
+ * are needed are still built from code.
+ * </p>
+ */
+public class Snapshot {
+
+	private static final String HEADER = "# flow model snapshot";
+	private static final String CHECKSUM = "checksum";
+	private static final String MODEL = "model";
+	private static final String FLOW = "flow";
+
+	private final String checksum;
+	private final Map<String, List<long[]>> flowTags;
+
+	private Snapshot( String checksum, Map<String, List<long[]>> flowTags ) {
+		this.checksum = checksum;
+		this.flowTags = flowTags;
+	}
+
+	/**
+	 * Writes a snapshot of a model. This causes all of the constituent models to be
+	 * built.
+	 *
+	 * @param model The model to capture
+	 * @param path  Where to write the snapshot
+	 * @throws IOException If writing fails
+	 */
+	public static void write( LazyModel model, Path path ) throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add( HEADER );
+		// submodels are presented in class name order
+		List<Model> subModels = model.subModels().collect( Collectors.toList() );
+		lines.add( CHECKSUM + "\t" + Classpath.checksum( subModels.stream()
+				.map( Model::getClass )
+				.collect( Collectors.toList() ) ) );
+		for( Model sub : subModels ) {
+			lines.add( MODEL + "\t" + sub.getClass().getName() );
+			sub.flows().forEach( flow -> lines.add( Stream.concat(
+					Stream.of( FLOW ),
+					flow.meta().tags().stream()
+							.map( Snapshot::checkTag ) )
+					.collect( Collectors.joining( "\t" ) ) ) );
+		}
+		Files.createDirectories( path.toAbsolutePath().getParent() );
+		Files.write( path, lines, UTF_8 );
+	}
+
+	private static String checkTag( String tag ) {
+		if( tag.contains( "\t" ) || tag.contains( "\n" ) || tag.contains( "\r" ) ) {
+			throw new IllegalArgumentException( "Tag '" + tag + "' cannot be captured in a snapshot" );
+		}
+		return tag;
+	}
+
+	/**
+	 * Reads a snapshot
+	 *
+	 * @param path The snapshot file
+	 * @return The snapshot, or <code>null</code> if there is no such file or if it
+	 *         is not a snapshot
+	 */
+	static Snapshot read( Path path ) {
+		if( !Files.isRegularFile( path ) ) {
+			return null;
+		}
+		List<String> lines;
+		try {
+			lines = Files.readAllLines( path, UTF_8 );
+		}
+		catch( IOException ioe ) {
+			throw new UncheckedIOException( "Failed to read snapshot " + path, ioe );
+		}
+
+		if( lines.isEmpty() || !HEADER.equals( lines.get( 0 ) ) ) {
+			return null;
+		}
+		String checksum = null;
+		TagDictionary dictionary = TagDictionary.shared();
+		Map<String, List<long[]>> flowTags = new HashMap<>();
+		List<long[]> current = null;
+		for( String line : lines ) {
+			String[] fields = line.split( "\t" );
+			if( CHECKSUM.equals( fields[0] ) ) {
+				checksum = fields[1];
+			}
+			else if( MODEL.equals( fields[0] ) ) {
+				current = new ArrayList<>();
+				flowTags.put( fields[1], current );
+			}
+			else if( FLOW.equals( fields[0] ) && current != null ) {
+				current.add( dictionary.encode( Arrays.asList( fields ).subList( 1, fields.length ) ) );
+			}
+		}
+		return new Snapshot( checksum, flowTags );
+	}
+
+	/**
+	 * @param types The constituent model types
+	 * @return <code>true</code> if this snapshot was taken from models of those
+	 *         types, and the types have not changed since
+	 */
+	boolean isCurrent( Collection<? extends Class<?>> types ) {
+		return checksum != null && checksum.equals( Classpath.checksum( types ) );
+	}
+
+	/**
+	 * @param type   A constituent model type
+	 * @param filter The tag filter
+	 * @return <code>true</code> if that model contains a {@link Flow} that matches
+	 *         the tag filter
+	 */
+	boolean contains( Class<?> type, TagFilter filter ) {
+		return flowTags.getOrDefault( type.getName(), new ArrayList<>() ).stream()
+				.anyMatch( filter::test );
+	}
+
+	/**
+	 * Writes a snapshot of a model that is held in a static field
+	 *
+	 * @param args
+	 *             <ol>
+	 *             <li>The fully-qualified name of the class that holds the
+	 *             model</li>
+	 *             <li>The name of the static {@link LazyModel} field</li>
+	 *             <li>The path to write the snapshot to</li>
+	 *             </ol>
+	 * @throws Exception If the model cannot be found or the snapshot cannot be
+	 *                   written
+	 */
+	public static void main( String... args ) throws Exception {
+		if( args.length != 3 ) {
+			throw new IllegalArgumentException(
+					"Expected arguments: <model class> <model field> <snapshot path>" );
+		}
+		Field field = Class.forName( args[0] ).getField( args[1] );
+		write( (LazyModel) field.get( null ), Paths.get( args[2] ) );
+	}
+}
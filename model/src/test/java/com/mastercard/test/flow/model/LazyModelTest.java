@@ -10,6 +10,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -160,6 +163,57 @@ class LazyModelTest {
 		}
 	}
 
+	/**
+	 * Constructor of {@link Left} and {@link Right} will not complete unless they
+	 * are called concurrently
+	 */
+	static final CyclicBarrier RENDEZVOUS = new CyclicBarrier( 2 );
+
+	private static void rendezvous() {
+		try {
+			RENDEZVOUS.await( 10, TimeUnit.SECONDS );
+		}
+		catch( Exception e ) {
+			throw new IllegalStateException( e );
+		}
+	}
+
+	/**
+	 * A model that must be built at the same time as {@link Right}
+	 */
+	public static class Left extends EagerModel {
+
+		/**
+		 * The tags for {@link Flow}s in this model
+		 */
+		public static final TaggedGroup MODEL_TAGS = new TaggedGroup( "left" );
+
+		/***/
+		public Left() {
+			super( MODEL_TAGS );
+			rendezvous();
+			members( flatten( new Flw( "flow_l", "left" ) ) );
+		}
+	}
+
+	/**
+	 * A model that must be built at the same time as {@link Left}
+	 */
+	public static class Right extends EagerModel {
+
+		/**
+		 * The tags for {@link Flow}s in this model
+		 */
+		public static final TaggedGroup MODEL_TAGS = new TaggedGroup( "right" );
+
+		/***/
+		public Right() {
+			super( MODEL_TAGS );
+			rendezvous();
+			members( flatten( new Flw( "flow_r", "right" ) ) );
+		}
+	}
+
 	/**
 	 * Default and custom titles
 	 */
@@ -350,6 +404,119 @@ class LazyModelTest {
 		assertEquals( 0, m.flows().count() );
 	}
 
+	/**
+	 * Independent submodels are built concurrently, but the listener is still
+	 * notified in the order of sequential construction
+	 */
+	@Test
+	void parallelSubModels() {
+		ForkJoinPool pool = new ForkJoinPool( 4 );
+		try {
+			LazyModel lm = new LazyModel()
+					.with( NoDeps.class, Deps.class, Transitive.class, Left.class, Right.class );
+			assertSame( lm, lm.parallel( pool ) );
+			BuildListener bl = new BuildListener();
+			lm.listener( bl );
+
+			assertEquals( "Deps, Left, NoDeps, Right, Transitive",
+					lm.subModels()
+							.map( Model::title )
+							.collect( joining( ", " ) ) );
+			assertEquals( ""
+					+ "start Deps\n"
+					+ "start NoDeps\n"
+					+ "count NoDeps 0 2\n"
+					+ "end NoDeps\n"
+					+ "count Deps 0 2\n"
+					+ "end Deps\n"
+					+ "start Left\n"
+					+ "count Left 0 1\n"
+					+ "end Left\n"
+					+ "start Right\n"
+					+ "count Right 0 1\n"
+					+ "end Right\n"
+					+ "start Transitive\n"
+					+ "count Transitive 0 2\n"
+					+ "end Transitive", bl.toString() );
+
+			// already built
+			bl.clear();
+			assertEquals( 5, lm.subModels().count() );
+			assertEquals( "", bl.toString() );
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * The submodels required for {@link Flow}s are built concurrently, but not
+	 * until the {@link Flow}s are requested
+	 */
+	@Test
+	void parallelFlows() {
+		ForkJoinPool pool = new ForkJoinPool( 4 );
+		try {
+			LazyModel lm = new LazyModel()
+					.with( NoDeps.class, Deps.class, Left.class, Right.class )
+					.parallel( pool );
+			BuildListener bl = new BuildListener();
+			lm.listener( bl );
+
+			Stream<Flow> flows = lm.flows( Collections.emptySet(), Tags.tags( "deps" ) );
+			assertEquals( "", bl.toString(), "nothing built yet" );
+
+			assertEquals( "flow_a [no_deps], flow_b [a, no_deps], flow_l [left], flow_r [right]",
+					flows.map( String::valueOf )
+							.sorted()
+							.collect( joining( ", " ) ) );
+			assertEquals( ""
+					+ "start Left\n"
+					+ "count Left 0 1\n"
+					+ "end Left\n"
+					+ "start NoDeps\n"
+					+ "count NoDeps 0 2\n"
+					+ "end NoDeps\n"
+					+ "start Right\n"
+					+ "count Right 0 1\n"
+					+ "end Right", bl.toString() );
+
+			// previously-built models are reused
+			bl.clear();
+			assertEquals( 2, lm.flows( Tags.tags( "deps" ), Collections.emptySet() ).count() );
+			assertEquals( ""
+					+ "start Deps\n"
+					+ "count Deps 0 2\n"
+					+ "end Deps", bl.toString() );
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Construction failures on the pool are rethrown
+	 */
+	@Test
+	void parallelFailure() {
+		ForkJoinPool pool = new ForkJoinPool( 2 );
+		try {
+			Stream<Flow> explodingFlow = new LazyModel()
+					.with( Failure.class )
+					.parallel( pool )
+					.flows();
+
+			IllegalStateException ise = assertThrows( IllegalStateException.class,
+					() -> explodingFlow.count() );
+			assertEquals( "Failed to instantiate with "
+					+ "public com.mastercard.test.flow.model.LazyModelTest$Failure()",
+					ise.getMessage() );
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
 	private static void assertModel( Model m,
 			Set<String> include, Set<String> exclude,
 			String tags, String flows, String builds ) {
@@ -0,0 +1,197 @@
+package com.mastercard.test.flow.model;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.model.LazyModelTest.BuildListener;
+import com.mastercard.test.flow.model.LazyModelTest.NoDeps;
+import com.mastercard.test.flow.model.mock.Flw;
+import com.mastercard.test.flow.util.Classpath;
+import com.mastercard.test.flow.util.TaggedGroup;
+import com.mastercard.test.flow.util.Tags;
+
+/**
+ * Exercising {@link Snapshot}
+ */
+@SuppressWarnings("static-method")
+class SnapshotTest {
+
+	private static final Path DIR = Paths.get( "target", "SnapshotTest" );
+
+	/**
+	 * A model whose tag summary admits tag combinations that none of its
+	 * {@link Flow}s have
+	 */
+	public static class Loose extends EagerModel {
+
+		/**
+		 * The tags for {@link Flow}s in this model
+		 */
+		public static final TaggedGroup MODEL_TAGS = new TaggedGroup( "loose" ).union( "x", "y" );
+
+		/***/
+		public Loose() {
+			super( MODEL_TAGS );
+			members( flatten(
+					new Flw( "flow_x", "loose", "x" ),
+					new Flw( "flow_y", "loose", "y" ) ) );
+		}
+	}
+
+	/**
+	 * A model with a tag that cannot be captured
+	 */
+	public static class BadTag extends EagerModel {
+
+		/**
+		 * The tags for {@link Flow}s in this model
+		 */
+		public static final TaggedGroup MODEL_TAGS = new TaggedGroup( "tab\ttag" );
+
+		/***/
+		public BadTag() {
+			super( MODEL_TAGS );
+			members( flatten(
+					new Flw( "flow", "tab\ttag" ) ) );
+		}
+	}
+
+	/**
+	 * Used by {@link #main()}
+	 */
+	public static final LazyModel MODEL = new LazyModel()
+			.with( NoDeps.class, Loose.class );
+
+	/**
+	 * Shows the snapshot file format
+	 *
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	@Test
+	void write() throws IOException {
+		Path path = DIR.resolve( "write.txt" );
+		Snapshot.write( new LazyModel().with( NoDeps.class, Loose.class ), path );
+
+		assertEquals( ""
+				+ "# flow model snapshot\n"
+				+ "checksum\t" + Classpath.checksum( Arrays.asList( NoDeps.class, Loose.class ) ) + "\n"
+				+ "model\tcom.mastercard.test.flow.model.LazyModelTest$NoDeps\n"
+				+ "flow\tno_deps\n"
+				+ "flow\ta\tno_deps\n"
+				+ "model\tcom.mastercard.test.flow.model.SnapshotTest$Loose\n"
+				+ "flow\tloose\tx\n"
+				+ "flow\tloose\ty\n",
+				new String( Files.readAllBytes( path ), UTF_8 ) );
+	}
+
+	/**
+	 * Models are not built if the snapshot shows that they do not hold any matching
+	 * {@link Flow}s
+	 *
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	@Test
+	void filtering() throws IOException {
+		Path path = DIR.resolve( "filtering.txt" );
+		Snapshot.write( new LazyModel().with( NoDeps.class, Loose.class ), path );
+
+		// without the snapshot we have to build the model to find out that it has
+		// nothing for us
+		assertEquals( "start Loose\nend Loose", build(
+				new LazyModel().with( NoDeps.class, Loose.class ),
+				Tags.tags( "x", "y" ), Collections.emptySet() ) );
+
+		assertEquals( "", build(
+				new LazyModel().with( NoDeps.class, Loose.class ).snapshot( path ),
+				Tags.tags( "x", "y" ), Collections.emptySet() ) );
+		assertEquals( "", build(
+				new LazyModel().with( NoDeps.class, Loose.class ).snapshot( path ),
+				Tags.tags( "loose" ), Tags.tags( "x", "y" ) ) );
+
+		// models with matching flows are still built
+		assertEquals( "start Loose\nend Loose", build(
+				new LazyModel().with( NoDeps.class, Loose.class ).snapshot( path ),
+				Tags.tags( "x" ), Collections.emptySet() ) );
+	}
+
+	/**
+	 * Snapshots are ignored when they are not applicable
+	 *
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	@Test
+	void ignored() throws IOException {
+		// taken from a different set of models
+		Path stale = DIR.resolve( "stale.txt" );
+		Snapshot.write( new LazyModel().with( NoDeps.class ), stale );
+		assertEquals( "start Loose\nend Loose", build(
+				new LazyModel().with( NoDeps.class, Loose.class ).snapshot( stale ),
+				Tags.tags( "x", "y" ), Collections.emptySet() ) );
+
+		// not a snapshot
+		Path other = DIR.resolve( "other.txt" );
+		Files.write( other, "something else".getBytes( UTF_8 ) );
+		assertEquals( "start Loose\nend Loose", build(
+				new LazyModel().with( NoDeps.class, Loose.class ).snapshot( other ),
+				Tags.tags( "x", "y" ), Collections.emptySet() ) );
+
+		// absent
+		assertEquals( "start Loose\nend Loose", build(
+				new LazyModel().with( NoDeps.class, Loose.class )
+						.snapshot( DIR.resolve( "absent.txt" ) ),
+				Tags.tags( "x", "y" ), Collections.emptySet() ) );
+	}
+
+	/**
+	 * Tags that would corrupt the file format are rejected
+	 */
+	@Test
+	void badTag() {
+		LazyModel lm = new LazyModel().with( BadTag.class );
+		Path path = DIR.resolve( "badTag.txt" );
+		IllegalArgumentException iae = assertThrows( IllegalArgumentException.class,
+				() -> Snapshot.write( lm, path ) );
+		assertEquals( "Tag 'tab\ttag' cannot be captured in a snapshot", iae.getMessage() );
+	}
+
+	/**
+	 * Snapshots can be written from the command line
+	 *
+	 * @throws Exception if the snapshot cannot be written
+	 */
+	@Test
+	void main() throws Exception {
+		IllegalArgumentException iae = assertThrows( IllegalArgumentException.class,
+				() -> Snapshot.main( "too", "few" ) );
+		assertEquals( "Expected arguments: <model class> <model field> <snapshot path>",
+				iae.getMessage() );
+
+		Path path = DIR.resolve( "main.txt" );
+		Files.deleteIfExists( path );
+		Snapshot.main( SnapshotTest.class.getName(), "MODEL", path.toString() );
+		assertEquals( "model\tcom.mastercard.test.flow.model.SnapshotTest$Loose",
+				Files.readAllLines( path, UTF_8 ).stream()
+						.filter( l -> l.contains( "Loose" ) )
+						.collect( joining( "\n" ) ) );
+	}
+
+	private static String build( LazyModel model, Set<String> include, Set<String> exclude ) {
+		BuildListener bl = new BuildListener();
+		model.listener( bl );
+		model.flows( include, exclude ).count();
+		return bl.buildEvents();
+	}
+}
@@ -3,6 +3,7 @@ package com.mastercard.test.flow.report;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -101,7 +102,8 @@ class JsApp {
 	 * </p>
 	 * <ul>
 	 * <li>Updating index.html to add <code>/res</code> to resource reference paths.
-	 * That's what is happening in {@link Template#insert(Object, Path)}</li>
+	 * That's what is happening in
+	 * {@link Template#write(Object, Path, boolean, java.io.Writer)}</li>
 	 * <li>This method, which is dealing with lazy-loaded javascript chunks by
 	 * updating <code>runtime.js</code> to add <code>/res</code>.</li>
 	 * </ul>
@@ -136,17 +138,24 @@ class JsApp {
 	}
 
 	/**
-	 * Writes an instance of this application to disk
+	 * Writes an instance of this application to disk. The payload data will be
+	 * indented if the {@link Writer#INDENT} option is set.
 	 *
 	 * @param payload     The data to insert into the index {@link Template}
 	 * @param destination Where to write the populated index file to
 	 */
 	public void write( Object payload, Path destination ) {
 		QuietFiles.createDirectories( destination.getParent() );
-		QuietFiles.write( destination, indexTemplate.insert(
-				payload,
-				destination.getParent().relativize( originalIndexPath.getParent() ) )
-				.getBytes( UTF_8 ) );
+		try( BufferedWriter out = Files.newBufferedWriter( destination, UTF_8 ) ) {
+			indexTemplate.write(
+					payload,
+					destination.getParent().relativize( originalIndexPath.getParent() ),
+					Writer.INDENT.isTrue(),
+					out );
+		}
+		catch( IOException ioe ) {
+			throw new UncheckedIOException( "Failed to write " + destination, ioe );
+		}
 	}
 
 	private static void copy( InputStream in, FileOutputStream out ) throws IOException {
@@ -1,5 +1,6 @@
 package com.mastercard.test.flow.report;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toSet;
 
@@ -13,22 +14,30 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.report.data.Entry;
 import com.mastercard.test.flow.report.data.FlowData;
 import com.mastercard.test.flow.report.data.Index;
+import com.mastercard.test.flow.report.data.IndexUpdate;
 
 /**
  * For reading an existing report
  */
 public class Reader {
 
+	private static final ObjectMapper JSON = new ObjectMapper();
+
 	private final URI uri;
 
 	/**
@@ -51,7 +60,52 @@ public class Reader {
 	 * @return the report index, or <code>null</code> if there is no data
 	 */
 	public Index read() {
-		return extract( uri.resolve( Writer.INDEX_FILE_NAME ), Index.class );
+		Index index = extract( uri.resolve( Writer.INDEX_FILE_NAME ), Index.class );
+		if( index != null ) {
+			List<IndexUpdate> updates = updates( uri.resolve( Writer.INDEX_LOG_FILE_NAME ) );
+			if( !updates.isEmpty() ) {
+				List<Entry> entries = new ArrayList<>( index.entries );
+				for( IndexUpdate update : updates ) {
+					while( entries.size() <= update.position ) {
+						entries.add( null );
+					}
+					entries.set( update.position, update.entry );
+				}
+				entries.removeIf( Objects::isNull );
+				index = new Index( index.meta, entries );
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Reads the incremental index log
+	 *
+	 * @param uri The location of the log
+	 * @return The logged index updates, in the order that they were made
+	 */
+	private static List<IndexUpdate> updates( URI uri ) {
+		List<IndexUpdate> updates = new ArrayList<>();
+		try( BufferedReader br = new BufferedReader(
+				new InputStreamReader( uri.toURL().openStream(), UTF_8 ) ) ) {
+			String line;
+			while( (line = br.readLine()) != null ) {
+				if( !line.isEmpty() ) {
+					updates.add( JSON.readValue( line, IndexUpdate.class ) );
+				}
+			}
+		}
+		catch( @SuppressWarnings("unused") FileNotFoundException fnfe ) {
+			// no log, so no updates
+		}
+		catch( @SuppressWarnings("unused") JsonProcessingException jpe ) {
+			// The final line might be incomplete if the writing process has died, but
+			// everything before it is still good
+		}
+		catch( IOException ioe ) {
+			throw new IllegalStateException( "Failed to read " + uri, ioe );
+		}
+		return updates;
 	}
 
 	/**
@@ -1,14 +1,23 @@
 package com.mastercard.test.flow.report;
 
 import java.io.BufferedReader;
+import java.io.FilterWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.StringWriter;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
 /**
@@ -16,13 +25,32 @@ import com.fasterxml.jackson.databind.SerializationFeature;
  */
 class Template {
 
-	private static final ObjectMapper JSON = new ObjectMapper()
-			.enable( SerializationFeature.INDENT_OUTPUT );
+	private static final ObjectMapper JSON = new ObjectMapper();
+	private static final ObjectWriter COMPACT = JSON.writer();
+	private static final ObjectWriter INDENTED = JSON.writer()
+			.with( SerializationFeature.INDENT_OUTPUT );
+
+	/**
+	 * Matches the points in the template at which resource paths need to be
+	 * corrected: local <code>href</code> values and all <code>src</code> values
+	 */
+	private static final Pattern RESOURCE_PATH = Pattern.compile( "href=\"(?!http)|src=\"" );
 
 	private static final String START_LINE = "// START_JSON_DATA";
 	private static final String END_LINE = "// END_JSON_DATA";
-	private final String prefix;
-	private final String suffix;
+
+	/**
+	 * The template content before the data, split at the resource paths
+	 */
+	private final List<String> prefix;
+	/**
+	 * The template content after the data, split at the resource paths
+	 */
+	private final List<String> suffix;
+	/**
+	 * Path-corrected prefix and suffix content, keyed by path correction
+	 */
+	private final Map<String, String[]> corrected = new ConcurrentHashMap<>();
 
 	/**
 	 * @param file The path to the template file
@@ -41,37 +69,77 @@ class Template {
 
 			// pitest says that it can negate the addition in the next line and have tests
 			// still pass, but I can't replicate that manually
-			prefix = template.substring( 0, template.indexOf( '\n', s ) + 1 );
-			suffix = template.substring( template.lastIndexOf( '\n', e ) );
+			prefix = split( template.substring( 0, template.indexOf( '\n', s ) + 1 ) );
+			suffix = split( template.substring( template.lastIndexOf( '\n', e ) ) );
 		}
 		catch( IOException ioe ) {
 			throw new UncheckedIOException( "Failed to read file " + file, ioe );
 		}
 	}
 
+	/**
+	 * Splits template content at the points where resource paths need to be
+	 * corrected
+	 *
+	 * @param content The template content
+	 * @return The content segments. Path corrections should be inserted between
+	 *         each of these.
+	 */
+	private static List<String> split( String content ) {
+		List<String> segments = new ArrayList<>();
+		Matcher m = RESOURCE_PATH.matcher( content );
+		int start = 0;
+		while( m.find() ) {
+			segments.add( content.substring( start, m.end() ) );
+			start = m.end();
+		}
+		segments.add( content.substring( start ) );
+		return segments;
+	}
+
 	/**
 	 * @param data           The data to insert into the template
 	 * @param pathCorrection The relative path between where the index file think it
 	 *                       is and where it's actually being written to. This is
 	 *                       used to correct relative paths of referenced resources
+	 * @param indent         <code>true</code> to indent the json data
 	 * @return the populated template content
 	 */
-	public String insert( Object data, Path pathCorrection ) {
-		String pc = pathCorrection.toString().replace( '\\', '/' ) + '/';
+	public String insert( Object data, Path pathCorrection, boolean indent ) {
+		StringWriter sw = new StringWriter();
 		try {
-			return ""
-					+ prefix
-							.replaceAll( "(href=\")(?!http)", "$1" + pc )
-							.replaceAll( "(src=\")", "$1" + pc )
-					+ escapeScriptContents( JSON.writeValueAsString( data ) )
-							.replace( "\r", "" )
-					+ suffix
-							.replaceAll( "(href=\")(?!http)", "$1" + pc )
-							.replaceAll( "(src=\")", "$1" + pc );
+			write( data, pathCorrection, indent, sw );
 		}
 		catch( IOException ioe ) {
 			throw new UncheckedIOException( ioe );
 		}
+		return sw.toString();
+	}
+
+	/**
+	 * Streams the populated template content. The json data is not held in memory
+	 * in its entirety.
+	 *
+	 * @param data           The data to insert into the template
+	 * @param pathCorrection The relative path between where the index file think it
+	 *                       is and where it's actually being written to. This is
+	 *                       used to correct relative paths of referenced resources
+	 * @param indent         <code>true</code> to indent the json data
+	 * @param out            The destination of the populated template content. This
+	 *                       will not be closed.
+	 * @throws IOException If writing fails
+	 */
+	public void write( Object data, Path pathCorrection, boolean indent, java.io.Writer out )
+			throws IOException {
+		String[] content = corrected.computeIfAbsent(
+				pathCorrection.toString().replace( '\\', '/' ) + '/',
+				pc -> new String[] {
+						String.join( pc, prefix ),
+						String.join( pc, suffix ) } );
+
+		out.write( content[0] );
+		(indent ? INDENTED : COMPACT).writeValue( new ScriptEscape( out ), data );
+		out.write( content[1] );
 	}
 
 	/**
@@ -101,26 +169,114 @@ class Template {
 	 * Per <a href=
 	 * "https://www.w3.org/TR/html52/semantics-scripting.html#restrictions-for-contents-of-script-elements">this
 	 * guidance</a>, contents of <code>&lt;script&gt;</code> elements need to be
-	 * escaped to be interpreted correctly by the browser.
-	 *
-	 * @param raw The desired contents of the <code>&lt;script&gt;</code>. This is
-	 *            what you would expect to find in an standalone javascript file.
-	 * @return Equivalent content that is suitable for inclusion in a
-	 *         <code>&lt;script&gt;</code> element
+	 * escaped to be interpreted correctly by the browser. This filter adds one
+	 * level of escaping to <code>&lt;!--</code>, <code>&lt;script</code> and
+	 * <code>&lt;/script</code> sequences (and to those sequences that have already
+	 * been escaped) as the content passes through, and strips carriage returns.
+	 * Potential sequences are held back until they are resolved, so
+	 * {@link #close()} must be called to flush them - this will not close the
+	 * underlying writer.
 	 */
-	private static String escapeScriptContents( String raw ) {
-		return raw
-				// add one level of escaping
-				.replaceAll( "<(\\\\*)!--", "<\\\\$1!--" )
-				.replaceAll( "<(\\\\*)script", "<\\\\$1script" )
-				.replaceAll( "<(\\\\*)/script", "<\\\\$1/script" );
+	private static class ScriptEscape extends FilterWriter {
+
+		private static final String[] SEQUENCES = { "!--", "script", "/script" };
+
+		/**
+		 * Content that might be part of a sequence that needs escaping
+		 */
+		private final StringBuilder held = new StringBuilder();
+		/**
+		 * The sequence that the held content is matching, or <code>null</code> if we
+		 * haven't seen enough of it yet
+		 */
+		private String sequence = null;
+		/**
+		 * How many characters of {@link #sequence} have been matched
+		 */
+		private int matched = 0;
+
+		ScriptEscape( java.io.Writer out ) {
+			super( out );
+		}
+
+		@Override
+		public void write( int c ) throws IOException {
+			if( held.length() == 0 ) {
+				if( c == '<' ) {
+					held.append( (char) c );
+				}
+				else if( c != '\r' ) {
+					out.write( c );
+				}
+			}
+			else if( sequence == null ) {
+				if( c == '\\' ) {
+					held.append( (char) c );
+				}
+				else {
+					for( String seq : SEQUENCES ) {
+						if( seq.charAt( 0 ) == c ) {
+							sequence = seq;
+						}
+					}
+					if( sequence != null ) {
+						held.append( (char) c );
+						matched = 1;
+					}
+					else {
+						release();
+						write( c );
+					}
+				}
+			}
+			else if( sequence.charAt( matched ) == c ) {
+				held.append( (char) c );
+				matched++;
+				if( matched == sequence.length() ) {
+					// add one level of escaping
+					held.insert( 1, '\\' );
+					release();
+				}
+			}
+			else {
+				release();
+				write( c );
+			}
+		}
+
+		@Override
+		public void write( char[] cbuf, int off, int len ) throws IOException {
+			for( int i = off; i < off + len; i++ ) {
+				write( cbuf[i] );
+			}
+		}
+
+		@Override
+		public void write( String str, int off, int len ) throws IOException {
+			for( int i = off; i < off + len; i++ ) {
+				write( str.charAt( i ) );
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			release();
+			out.flush();
+		}
+
+		private void release() throws IOException {
+			out.write( held.toString() );
+			held.setLength( 0 );
+			sequence = null;
+			matched = 0;
+		}
 	}
 
 	/**
-	 * The inverse of {@link #escapeScriptContents(String)}
+	 * Strips the escaping added by {@link ScriptEscape}
 	 *
 	 * @param raw The text from the written report that has previously been
-	 *            processed via {@link #escapeScriptContents(String)}
+	 *            processed via {@link ScriptEscape}
 	 * @return The original text
 	 */
 	private static String unEscapeScriptContents( String raw ) {
@@ -6,9 +6,12 @@ import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
 
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -21,6 +24,8 @@ import java.util.TreeSet;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mastercard.test.flow.Context;
 import com.mastercard.test.flow.Flow;
 import com.mastercard.test.flow.Interaction;
@@ -29,10 +34,12 @@ import com.mastercard.test.flow.report.data.DependencyData;
 import com.mastercard.test.flow.report.data.Entry;
 import com.mastercard.test.flow.report.data.FlowData;
 import com.mastercard.test.flow.report.data.Index;
+import com.mastercard.test.flow.report.data.IndexUpdate;
 import com.mastercard.test.flow.report.data.InteractionData;
 import com.mastercard.test.flow.report.data.Meta;
 import com.mastercard.test.flow.report.data.ResidueData;
 import com.mastercard.test.flow.util.Bytes;
+import com.mastercard.test.flow.util.Option;
 
 /**
  * For writing a new report
@@ -43,6 +50,17 @@ public class Writer {
 	 * The file name under which the report index is saved
 	 */
 	public static final String INDEX_FILE_NAME = "index.html";
+	/**
+	 * The file name under which index changes are logged when the report is being
+	 * written {@link #incrementalIndex(Duration) incrementally}
+	 */
+	public static final String INDEX_LOG_FILE_NAME = "index.ndjson";
+	/**
+	 * Controls whether the json data in report files is indented
+	 */
+	public static final Option INDENT = new Option.Builder()
+			.property( "mctf.report.indent" )
+			.description( "Set to `true` to indent the json data in report files" );
 	/**
 	 * The directory in which {@link Flow} detail data is stored
 	 */
@@ -82,6 +100,22 @@ public class Writer {
 
 	private final Map<Flow, List<Flow>> missingBases = new HashMap<>();
 
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	/**
+	 * The minimum time between rewrites of the index file, or <code>null</code> if
+	 * the index file should be rewritten on every update
+	 */
+	private Duration indexInterval = null;
+	/**
+	 * When the index file was last written
+	 */
+	private long indexWritten = 0;
+	/**
+	 * <code>true</code> if the index file is out of date
+	 */
+	private boolean indexStale = false;
+
 	/**
 	 * @param modelTitle A human-readable title for the model that supplied the test
 	 *                   data
@@ -110,6 +144,38 @@ public class Writer {
 						dir.resolve( INDEX_FILE_NAME ) );
 	}
 
+	/**
+	 * Switches to incremental index writing. By default the entire index file is
+	 * rewritten after every update, so the cost of writing a report grows with the
+	 * square of the number of {@link Flow}s. In incremental mode each update
+	 * appends the changed index entry to the {@value #INDEX_LOG_FILE_NAME} file,
+	 * and the index file itself is only rewritten when the supplied interval has
+	 * elapsed since the last rewrite, or when {@link #flush()} is called.
+	 * {@link Reader#read()} will apply logged updates that have not yet made it
+	 * into the index file.
+	 *
+	 * @param interval The minimum time between rewrites of the index file
+	 * @return <code>this</code>
+	 */
+	public Writer incrementalIndex( Duration interval ) {
+		indexInterval = interval;
+		return this;
+	}
+
+	/**
+	 * Brings the index file up to date with all updates made so far. This should be
+	 * called when {@link #incrementalIndex(Duration) incremental index} writing is
+	 * active and no more updates are forthcoming.
+	 *
+	 * @return <code>this</code>
+	 */
+	public Writer flush() {
+		if( indexStale ) {
+			writeIndex();
+		}
+		return this;
+	}
+
 	/**
 	 * Adds or updates a {@link Flow} in the report
 	 *
@@ -120,7 +186,7 @@ public class Writer {
 	@SafeVarargs
 	public final Writer with( Flow flow, Consumer<FlowData>... extra ) {
 		IndexedFlowData idf = data.computeIfAbsent( flow,
-				f -> new IndexedFlowData( flow, data.keySet(), missingBases ) );
+				f -> new IndexedFlowData( flow, data.size(), data.keySet(), missingBases ) );
 		String oldname = idf.indexEntry().detail;
 		idf.update( extra );
 
@@ -132,13 +198,16 @@ public class Writer {
 		idf.writeTo( root, app );
 
 		// refresh the index
-		app.write( new Index(
-				new Meta( modelTitle, testTitle,
-						System.currentTimeMillis() ),
-				data.values().stream()
-						.map( IndexedFlowData::indexEntry )
-						.collect( toList() ) ),
-				root.resolve( INDEX_FILE_NAME ) );
+		if( indexInterval == null
+				|| System.currentTimeMillis() - indexWritten >= indexInterval.toMillis() ) {
+			writeIndex();
+		}
+		else {
+			QuietFiles.write( root.resolve( INDEX_LOG_FILE_NAME ),
+					indexLogLine( idf ),
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND );
+			indexStale = true;
+		}
 
 		// refresh the details of those who were waiting for that flow as a better basis
 		// candidate
@@ -169,6 +238,33 @@ public class Writer {
 		return this;
 	}
 
+	private void writeIndex() {
+		app.write( new Index(
+				new Meta( modelTitle, testTitle,
+						System.currentTimeMillis() ),
+				data.values().stream()
+						.map( IndexedFlowData::indexEntry )
+						.collect( toList() ) ),
+				root.resolve( INDEX_FILE_NAME ) );
+		indexWritten = System.currentTimeMillis();
+		indexStale = false;
+		// the index file now holds everything that was logged
+		QuietFiles.recursiveDelete( root.resolve( INDEX_LOG_FILE_NAME ) );
+	}
+
+	private static byte[] indexLogLine( IndexedFlowData idf ) {
+		try {
+			byte[] json = JSON.writeValueAsBytes(
+					new IndexUpdate( idf.position, idf.indexEntry() ) );
+			byte[] line = Arrays.copyOf( json, json.length + 1 );
+			line[json.length] = '\n';
+			return line;
+		}
+		catch( JsonProcessingException jpe ) {
+			throw new IllegalStateException( "Failed to serialise index entry", jpe );
+		}
+	}
+
 	/**
 	 * Gets the directory where the report is being written
 	 *
@@ -194,12 +290,14 @@ public class Writer {
 	}
 
 	private static class IndexedFlowData {
+		final int position;
 		private Entry indexEntry;
 		FlowData detail;
 
-		public IndexedFlowData( Flow flow,
+		public IndexedFlowData( Flow flow, int position,
 				Set<Flow> flowsInReport,
 				Map<Flow, List<Flow>> missingBases ) {
+			this.position = position;
 
 			// walk up the basis chain until we find one that exists in the report
 			Flow closesBasis = flow.basis();
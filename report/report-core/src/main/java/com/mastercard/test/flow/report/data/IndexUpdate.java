@@ -0,0 +1,33 @@
+package com.mastercard.test.flow.report.data;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A change to the report {@link Index}, as recorded in the incremental index
+ * log
+ */
+public class IndexUpdate {
+
+	/**
+	 * The position of the updated {@link Entry} in {@link Index#entries}
+	 */
+	@JsonProperty("position")
+	public final int position;
+
+	/**
+	 * The new {@link Entry} value
+	 */
+	@JsonProperty("entry")
+	public final Entry entry;
+
+	/**
+	 * @param position The position of the updated entry in the index
+	 * @param entry    The new entry value
+	 */
+	public IndexUpdate(
+			@JsonProperty("position") int position,
+			@JsonProperty("entry") Entry entry ) {
+		this.position = position;
+		this.entry = entry;
+	}
+}
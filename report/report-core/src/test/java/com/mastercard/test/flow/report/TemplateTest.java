@@ -4,6 +4,7 @@ import static java.util.stream.Collectors.joining;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.StringWriter;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
@@ -90,7 +91,7 @@ class TemplateTest {
 	 */
 	@Test
 	void insert() {
-		String populated = TEMPLATE.insert( DATA, Paths.get( "a", "b" ) );
+		String populated = TEMPLATE.insert( DATA, Paths.get( "a", "b" ), true );
 		Patch<String> p = DiffUtils.diff( TEMPLATE_CONTENT, populated, null );
 
 		String diff = p.getDeltas().stream()
@@ -131,12 +132,42 @@ class TemplateTest {
 				diff );
 	}
 
+	/**
+	 * Shows that json data is not indented unless requested, and that escaping is
+	 * applied to sequences that are already escaped but not to partial sequences
+	 *
+	 * @throws Exception on failure
+	 */
+	@Test
+	void compact() throws Exception {
+		Map<String, Object> data = new TreeMap<>();
+		data.put( "escaped", "<\\script> <\\\\/script>" );
+		data.put( "partial", "<scrip <!- </scrip <<!-- <\\" );
+		data.put( "returns", "a\r\nb" );
+
+		String populated = TEMPLATE.insert( data, Paths.get( "" ), false );
+		String json = populated.substring(
+				populated.indexOf( "// START_JSON_DATA\n" ) + 19,
+				populated.indexOf( "\n    // END_JSON_DATA" ) );
+		assertEquals( "{"
+				+ "\"escaped\":\"<\\\\\\script> <\\\\\\\\\\/script>\","
+				+ "\"partial\":\"<scrip <!- </scrip <<\\!-- <\\\\\","
+				+ "\"returns\":\"a\\r\\nb\"}",
+				json );
+		assertEquals( data, Template.extract( populated, Map.class ) );
+
+		// streaming produces the same content
+		StringWriter sw = new StringWriter();
+		TEMPLATE.write( data, Paths.get( "" ), false, sw );
+		assertEquals( populated, sw.toString() );
+	}
+
 	/**
 	 * Shows that data is extracted properly from a populated template
 	 */
 	@Test
 	void extract() {
-		String populated = TEMPLATE.insert( DATA, Paths.get( "a", "b" ) );
+		String populated = TEMPLATE.insert( DATA, Paths.get( "a", "b" ), true );
 		Map<String, Object> extracted = Template.extract( populated, Map.class );
 		Assertions.assertEquals( DATA, extracted );
 	}
@@ -182,7 +213,7 @@ class TemplateTest {
 		Object o = new Object();
 		Path p = Paths.get( "" );
 		UncheckedIOException uioe = assertThrows( UncheckedIOException.class,
-				() -> TEMPLATE.insert( o, p ) );
+				() -> TEMPLATE.insert( o, p, false ) );
 		assertEquals( InvalidDefinitionException.class, uioe.getCause().getClass() );
 	}
 }
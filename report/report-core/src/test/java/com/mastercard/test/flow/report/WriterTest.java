@@ -5,6 +5,7 @@ import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.joining;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -12,6 +13,8 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
@@ -29,6 +32,8 @@ import com.mastercard.test.flow.builder.Creator;
 import com.mastercard.test.flow.builder.Deriver;
 import com.mastercard.test.flow.msg.txt.Text;
 import com.mastercard.test.flow.report.Mdl.Actrs;
+import com.mastercard.test.flow.report.data.Index;
+import com.mastercard.test.flow.util.Option.Temporary;
 
 /**
  * Exercises {@link Writer}
@@ -67,7 +72,7 @@ class WriterTest {
 		QuietFiles.write( dir.resolve( "pre-existing-file.txt" ),
 				"This will be deleted".getBytes( UTF_8 ) );
 
-		try {
+		try( Temporary t = Writer.INDENT.temporarily( "true" ) ) {
 			Writer w = writeReport( dir );
 			assertEquals( "target/WriterTest/write", w.path().toString().replace( '\\', '/' ) );
 		}
@@ -344,6 +349,67 @@ class WriterTest {
 		assertWriterMissingBases( writer, "" );
 	}
 
+	/**
+	 * Demonstrates incremental index writing, where the index file is only
+	 * rewritten periodically and intermediate changes are appended to a log
+	 *
+	 * @throws Exception IO failure
+	 */
+	@Test
+	void incrementalIndex() throws Exception {
+		Path dir = Paths.get( "target", "WriterTest", "incrementalIndex" );
+		Writer writer = new Writer( "model title", "test title", dir )
+				.incrementalIndex( Duration.ofDays( 1 ) );
+		Reader reader = new Reader( dir );
+		Path log = dir.resolve( Writer.INDEX_LOG_FILE_NAME );
+
+		writer.with( Mdl.BASIS, f -> f.tags.add( "PASS" ) );
+		assertFalse( Files.exists( log ), "The first update writes the index file" );
+		assertEquals( "basis [PASS, abc, def]", entries( reader.read() ) );
+
+		writer.with( Mdl.CHILD, f -> f.tags.add( "FAIL" ) )
+				.with( Mdl.DEPENDENCY, f -> f.tags.add( "SKIP" ) )
+				.with( Mdl.CHILD, f -> f.tags.add( "extra!" ) );
+
+		assertEquals( 3, Files.readAllLines( log ).size(),
+				"Subsequent updates are logged" );
+		assertEquals( "basis [PASS, abc, def]",
+				entries( Template.extract(
+						new String( Files.readAllBytes( dir.resolve( Writer.INDEX_FILE_NAME ) ), UTF_8 ),
+						Index.class ) ),
+				"The index file has not been rewritten" );
+		assertEquals( ""
+				+ "basis [PASS, abc, def]\n"
+				+ "child [FAIL, abc, def, extra!, ghi]\n"
+				+ "dependency [SKIP, abc, ghi, jkl, mno]",
+				entries( reader.read() ),
+				"The reader applies the logged updates" );
+
+		// a partially-written line is ignored
+		Files.write( log, "{\"position\":3,\"ent".getBytes( UTF_8 ), StandardOpenOption.APPEND );
+		assertEquals( ""
+				+ "basis [PASS, abc, def]\n"
+				+ "child [FAIL, abc, def, extra!, ghi]\n"
+				+ "dependency [SKIP, abc, ghi, jkl, mno]",
+				entries( reader.read() ) );
+
+		writer.flush();
+		assertFalse( Files.exists( log ), "Logged updates are written into the index" );
+		assertEquals( ""
+				+ "basis [PASS, abc, def]\n"
+				+ "child [FAIL, abc, def, extra!, ghi]\n"
+				+ "dependency [SKIP, abc, ghi, jkl, mno]",
+				entries( Template.extract(
+						new String( Files.readAllBytes( dir.resolve( Writer.INDEX_FILE_NAME ) ), UTF_8 ),
+						Index.class ) ) );
+	}
+
+	private static String entries( Index index ) {
+		return index.entries.stream()
+				.map( e -> e.description + " " + e.tags )
+				.collect( joining( "\n" ) );
+	}
+
 	private void assertHierarchy( Reader reader, String expected, String comment ) {
 		Map<String, String> idx = reader.read().entries.stream()
 				.collect( Collectors.toMap( e -> e.detail, e -> e.description ) );
@@ -34,6 +34,7 @@ import com.mastercard.test.flow.util.Flows;
 import com.mastercard.test.flow.validation.graph.CachingDiffDistance;
 import com.mastercard.test.flow.validation.graph.DAG;
 import com.mastercard.test.flow.validation.graph.DiffGraph;
+import com.mastercard.test.flow.validation.graph.MinHash;
 
 /**
  * <p>
@@ -75,6 +76,22 @@ public class InheritanceHealth {
 	private static final ObjectMapper JSON = new ObjectMapper()
 			.enable( SerializationFeature.INDENT_OUTPUT );
 
+	/**
+	 * The number of neighbours that each flow will be compared against when
+	 * optimising, or zero to compare every pair of flows
+	 */
+	private int approximation = 0;
+
+	/**
+	 * The number of locality-sensitive hashing bands used in approximate mode
+	 */
+	private int bands = 16;
+
+	/**
+	 * The number of signature values in each locality-sensitive hashing band
+	 */
+	private int rows = 4;
+
 	private final int min;
 	private final int max;
 	private final int heightLimit;
@@ -156,6 +173,51 @@ public class InheritanceHealth {
 		return this;
 	}
 
+	/**
+	 * Controls the accuracy of the optimal inheritance structure. Finding the
+	 * optimal structure exactly requires the derivation cost between every pair of
+	 * {@link Flow}s, which is prohibitively expensive for large models. In
+	 * approximate mode, locality-sensitive hashing of the {@link #flatten(Flow)
+	 * flattened} {@link Flow}s is used to find the likely-similar {@link Flow}s,
+	 * and derivation cost is only calculated for those pairs. The resulting
+	 * structure may be slightly less than optimal.
+	 * <p>
+	 * This uses 16 bands of 4 rows, which will tend to find {@link Flow}s that have
+	 * at least half of their lines in common. Use
+	 * {@link #approximate(int, int, int)} to tune that.
+	 * </p>
+	 *
+	 * @param neighbours The number of similar {@link Flow}s to consider as the
+	 *                   basis for each {@link Flow}, or zero to find the exact
+	 *                   optimum
+	 * @return <code>this</code>
+	 */
+	public InheritanceHealth approximate( int neighbours ) {
+		return approximate( neighbours, 16, 4 );
+	}
+
+	/**
+	 * Controls the accuracy of the optimal inheritance structure, as with
+	 * {@link #approximate(int)}, and the sensitivity of the locality-sensitive
+	 * hashing. {@link Flow}s with a line similarity of about
+	 * <code>(1/bands)^(1/rows)</code> have an even chance of being considered as
+	 * neighbours: more bands and fewer rows will find less-similar {@link Flow}s,
+	 * at greater cost.
+	 *
+	 * @param neighbours The number of similar {@link Flow}s to consider as the
+	 *                   basis for each {@link Flow}, or zero to find the exact
+	 *                   optimum
+	 * @param bands      The number of hashing bands
+	 * @param rows       The number of signature values in each band
+	 * @return <code>this</code>
+	 */
+	public InheritanceHealth approximate( int neighbours, int bands, int rows ) {
+		approximation = neighbours;
+		this.bands = bands;
+		this.rows = rows;
+		return this;
+	}
+
 	/**
 	 * Computes inheritance health and compares against expected value
 	 *
@@ -232,6 +294,12 @@ public class InheritanceHealth {
 	private StructureCost optimalCost( Model model, Set<Flow> allFlows, int total ) {
 		DiffGraph<Flow> dg = new DiffGraph<>( derivationCost );
 		allFlows.forEach( dg::add );
+		if( approximation > 0 ) {
+			MinHash<Flow> similarity = new MinHash<>(
+					f -> Arrays.asList( flatten( f ).split( "\n" ) ),
+					bands, rows, approximation );
+			dg.withCandidates( flows -> similarity.neighbours( flows, approximation ) );
+		}
 
 		// The root of the MST only affects the final root weight - edge cost will be
 		// the same regardless of the root flow. Let's assume we've made a reasonable
@@ -5,8 +5,10 @@ import java.security.NoSuchAlgorithmException;
 import java.text.CharacterIterator;
 import java.text.StringCharacterIterator;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.IntSummaryStatistics;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -89,6 +91,13 @@ public class MessageHash {
 		}
 	}
 
+	/**
+	 * The default content extraction. This is shared between hashes so that the
+	 * content of a {@link Message} that is included in several of them only has to
+	 * be computed once.
+	 */
+	private static final Function<Message, byte[]> CONTENT = Message::content;
+
 	private final BiConsumer<String, String> assertion;
 	private final List<Hash> hashes = new ArrayList<>();
 	private String digestName = "MD5";
@@ -162,7 +171,7 @@ public class MessageHash {
 	 * @return <code>this</code>
 	 */
 	public MessageHash hashingEverything() {
-		return hashing( "ALL MESSAGES", f -> true, i -> true, Include.ALL, Message::content );
+		return hashing( "ALL MESSAGES", f -> true, i -> true, Include.ALL, CONTENT );
 	}
 
 	/**
@@ -178,7 +187,7 @@ public class MessageHash {
 				f -> true,
 				i -> i.responder() == responder,
 				messages,
-				Message::content );
+				CONTENT );
 	}
 
 	/**
@@ -212,18 +221,20 @@ public class MessageHash {
 	 * @param expected The expected hash names and values
 	 */
 	public void expect( Model model, String... expected ) {
-		MessageDigest digest;
-		try {
-			digest = MessageDigest.getInstance( digestName );
-		}
-		catch( NoSuchAlgorithmException e ) {
-			throw new IllegalArgumentException( "Failed to build digest " + digestName, e );
-		}
+		// fail fast on a bad algorithm name
+		digest();
 
-		List<String> lines = new ArrayList<>();
+		// a single traversal of the model feeds all of the hashes. Flows are processed
+		// in parallel, each thread with its own digest and accumulators, and the
+		// results are combined with XOR so the order of processing is irrelevant
+		Tally tally = model.flows()
+				.parallel()
+				.collect( () -> new Tally( hashes, digest() ), Tally::add, Tally::combine );
 
-		for( Hash hash : hashes ) {
-			hash.compute( model, digest, format, lines::add );
+		List<String> lines = new ArrayList<>();
+		for( int i = 0; i < hashes.size(); i++ ) {
+			lines.add( hashes.get( i ).name );
+			lines.add( format.apply( Bytes.toHex( tally.accumulators[i] ), tally.stats[i] ) );
 		}
 
 		assertion.accept(
@@ -259,31 +270,80 @@ public class MessageHash {
 			this.messages = messages;
 			this.content = content;
 		}
+	}
+
+	private MessageDigest digest() {
+		try {
+			return MessageDigest.getInstance( digestName );
+		}
+		catch( NoSuchAlgorithmException e ) {
+			throw new IllegalArgumentException( "Failed to build digest " + digestName, e );
+		}
+	}
+
+	/**
+	 * Accumulates the hash values and message statistics for a subset of the
+	 * model's flows
+	 */
+	private static class Tally {
+
+		private final List<Hash> hashes;
+		private final MessageDigest digest;
+		final byte[][] accumulators;
+		final IntSummaryStatistics[] stats;
+
+		Tally( List<Hash> hashes, MessageDigest digest ) {
+			this.hashes = hashes;
+			this.digest = digest;
+			accumulators = new byte[hashes.size()][digest.getDigestLength()];
+			stats = new IntSummaryStatistics[hashes.size()];
+			for( int i = 0; i < stats.length; i++ ) {
+				stats[i] = new IntSummaryStatistics();
+			}
+		}
+
+		void add( Flow flow ) {
+			List<Interaction> interactions = null;
+			// message content and digests, keyed by content extraction function, so we
+			// don't repeat work for messages that are included in several hashes
+			Map<Function<Message, byte[]>, Map<Message, byte[][]>> digests = new IdentityHashMap<>();
+
+			for( int i = 0; i < accumulators.length; i++ ) {
+				Hash hash = hashes.get( i );
+				if( hash.flows.test( flow ) ) {
+					if( interactions == null ) {
+						interactions = Flows.interactions( flow ).collect( Collectors.toList() );
+					}
+					Map<Message, byte[][]> memo = digests
+							.computeIfAbsent( hash.content, c -> new IdentityHashMap<>() );
+					byte[] accumulator = accumulators[i];
+					IntSummaryStatistics stat = stats[i];
+					interactions.stream()
+							.filter( hash.interaction )
+							.flatMap( hash.messages )
+							.map( msg -> memo.computeIfAbsent( msg, m -> {
+								byte[] b = hash.content.apply( m );
+								return new byte[][] { b, digest.digest( b ) };
+							} ) )
+							.forEach( d -> {
+								xor( accumulator, d[1] );
+								stat.accept( d[0].length );
+							} );
+				}
+			}
+		}
+
+		void combine( Tally other ) {
+			for( int i = 0; i < accumulators.length; i++ ) {
+				xor( accumulators[i], other.accumulators[i] );
+				stats[i].combine( other.stats[i] );
+			}
+		}
 
-		public void compute( Model model,
-				MessageDigest digest,
-				BiFunction<String, IntSummaryStatistics, String> format,
-				Consumer<String> lines ) {
-			lines.accept( name );
-
-			byte[] accumulator = new byte[digest.getDigestLength()];
-
-			IntSummaryStatistics stats = model.flows()
-					.filter( flows )
-					.flatMap( Flows::interactions )
-					.filter( interaction )
-					.flatMap( messages )
-					.map( content )
-					.mapToInt( b -> {
-						byte[] h = digest.digest( b );
-						for( int i = 0; i < h.length; i++ ) {
-							accumulator[i] ^= h[i];
-						}
-						return b.length;
-					} )
-					.summaryStatistics();
-
-			lines.accept( format.apply( Bytes.toHex( accumulator ), stats ) );
+		private static void xor( byte[] accumulator, byte[] value ) {
+			for( int i = 0; i < accumulator.length; i++ ) {
+				accumulator[i] ^= value[i];
+			}
 		}
 	}
 
@@ -12,7 +12,8 @@ public class FlowIdentityCheck extends FlowPairCheck {
 
 	/***/
 	public FlowIdentityCheck() {
-		super( "Flow Identity", "All flows in a model have a unique identity" );
+		super( "Flow Identity", "All flows in a model have a unique identity",
+				flow -> flow.meta().id() );
 	}
 
 	@Override
@@ -1,8 +1,15 @@
 package com.mastercard.test.flow.validation.check;
 
-import java.util.ArrayList;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import com.mastercard.test.flow.Flow;
@@ -12,20 +19,41 @@ import com.mastercard.test.flow.validation.Validation;
 import com.mastercard.test.flow.validation.Violation;
 
 /**
- * Convenience superclass for validation checks that compare pairs of flows
+ * Convenience superclass for validation checks that compare pairs of flows.
+ * Comparing every pair of flows gets expensive in large models, so subclasses
+ * can supply a grouping key to limit comparisons to those flows that could
+ * possibly be in violation.
  */
 public abstract class FlowPairCheck implements Validation {
 
 	private final String name;
 	private final String explanation;
+	private final Function<Flow, ?> grouping;
 
 	/**
+	 * Every pair of flows will be compared
+	 *
 	 * @param name        to be returned from {@link #name()}
 	 * @param explanation to be returned from {@link #explanation()}
 	 */
 	protected FlowPairCheck( String name, String explanation ) {
+		this( name, explanation, null );
+	}
+
+	/**
+	 * Only pairs of flows that share a grouping key will be compared
+	 *
+	 * @param name        to be returned from {@link #name()}
+	 * @param explanation to be returned from {@link #explanation()}
+	 * @param grouping    Extracts a non-<code>null</code> grouping key from a flow.
+	 *                    Flows with different keys are assumed to not be in
+	 *                    violation. Supply <code>null</code> to compare every pair
+	 *                    of flows.
+	 */
+	protected FlowPairCheck( String name, String explanation, Function<Flow, ?> grouping ) {
 		this.name = name;
 		this.explanation = explanation;
+		this.grouping = grouping;
 	}
 
 	@Override
@@ -40,25 +68,28 @@ public abstract class FlowPairCheck implements Validation {
 
 	@Override
 	public Stream<Check> checks( Model model ) {
-		List<Check> checks = new ArrayList<>();
-		Flow[] flows = model.flows().toArray( Flow[]::new );
+		Collection<List<Flow>> groups = grouping == null
+				? Collections.singleton( model.flows().collect( toList() ) )
+				: model.flows()
+						.collect( groupingBy( grouping, LinkedHashMap::new, toList() ) )
+						.values();
 
-		for( int i = 0; i < flows.length; i++ ) {
-			Flow left = flows[i];
-			for( int j = i + 1; j < flows.length; j++ ) {
-				Flow right = flows[j];
-
-				checks.add( new Check( this,
-						left.meta().id() + " x " + right.meta().id(),
-						() -> violation( left, right )
-								.map( v -> new Violation( this, v )
-										.offender( left )
-										.offender( right ) )
-								.orElse( null ) ) );
-			}
-		}
-		return checks.stream();
+		// the checks are created as they are consumed rather than all up front
+		return groups.stream()
+				.flatMap( group -> IntStream.range( 0, group.size() )
+						.boxed()
+						.flatMap( i -> group.subList( i + 1, group.size() ).stream()
+								.map( right -> check( group.get( i ), right ) ) ) );
+	}
 
+	private Check check( Flow left, Flow right ) {
+		return new Check( this,
+				left.meta().id() + " x " + right.meta().id(),
+				() -> violation( left, right )
+						.map( v -> new Violation( this, v )
+								.offender( left )
+								.offender( right ) )
+						.orElse( null ) );
 	}
 
 	/**
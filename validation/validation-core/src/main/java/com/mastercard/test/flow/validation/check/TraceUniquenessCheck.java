@@ -12,7 +12,8 @@ public class TraceUniquenessCheck extends FlowPairCheck {
 
 	/***/
 	public TraceUniquenessCheck() {
-		super( "Trace uniqueness", "All flows in a model have a unique trace" );
+		super( "Trace uniqueness", "All flows in a model have a unique trace",
+				flow -> flow.meta().trace() );
 	}
 
 	@Override
@@ -6,6 +6,7 @@ package com.mastercard.test.flow.validation.graph;
 
 import java.lang.ref.Reference;
 import java.lang.ref.SoftReference;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiFunction;
@@ -14,7 +15,8 @@ import java.util.function.ToIntBiFunction;
 
 /**
  * A function that computes the distance between two item, caching intermediate
- * results for performance
+ * results for performance. The cache of distances is of fixed size, so memory
+ * use does not grow with the square of the item count.
  *
  * @param <S> item type
  */
@@ -36,31 +38,82 @@ public class CachingDiffDistance<S> implements ToIntBiFunction<S, S> {
 	private final Map<S, Reference<String>> stringCache = new HashMap<>();
 
 	/**
-	 * Cache of inter-item distances
+	 * Compact identifiers for items, used to build distance cache keys
 	 */
-	private final Map<S, Map<S, Integer>> diffCache = new HashMap<>();
+	private final Map<S, Integer> ids = new HashMap<>();
 
 	/**
+	 * Distance cache keys: the identifiers of the two items packed into a long, or
+	 * <code>-1</code> for an empty slot
+	 */
+	private final long[] diffKeys;
+
+	/**
+	 * Cached distances, indexed as per {@link #diffKeys}
+	 */
+	private final int[] diffValues;
+
+	/**
+	 * Creates a distance function with capacity to cache 2<sup>18</sup> distances
+	 *
 	 * @param stringify How to turn items into strings that can be diffed
 	 * @param diff      How to compare two strings and calculate the diff distance
 	 *                  between them
 	 */
 	public CachingDiffDistance( Function<S, String> stringify,
 			BiFunction<String, String, Integer> diff ) {
+		this( stringify, diff, 1 << 18 );
+	}
+
+	/**
+	 * @param stringify How to turn items into strings that can be diffed
+	 * @param diff      How to compare two strings and calculate the diff distance
+	 *                  between them
+	 * @param capacity  The number of distances that can be cached. This will be
+	 *                  rounded up to a power of two
+	 */
+	public CachingDiffDistance( Function<S, String> stringify,
+			BiFunction<String, String, Integer> diff, int capacity ) {
+		if( capacity < 1 ) {
+			throw new IllegalArgumentException( "Capacity must be positive, not " + capacity );
+		}
 		this.stringify = stringify;
 		this.diff = diff;
+		int size = Integer.highestOneBit( capacity );
+		if( size < capacity ) {
+			size <<= 1;
+		}
+		diffKeys = new long[size];
+		Arrays.fill( diffKeys, -1 );
+		diffValues = new int[size];
 	}
 
 	@Override
 	public int applyAsInt( S a, S b ) {
-		if( !diffCache.containsKey( a ) || !diffCache.get( a ).containsKey( b ) ) {
-			String as = stringify( a );
-			String bs = stringify( b );
-			int distance = diff.apply( as, bs );
-			diffCache.computeIfAbsent( a, s -> new HashMap<>() ).put( b, distance );
+		long key = (long) id( a ) << 32 | id( b );
+		// direct-mapped: each key has one slot, and colliding keys simply evict
+		// each other
+		int slot = (int) mix( key ) & (diffKeys.length - 1);
+		if( diffKeys[slot] != key ) {
+			diffValues[slot] = diff.apply( stringify( a ), stringify( b ) );
+			diffKeys[slot] = key;
 		}
+		return diffValues[slot];
+	}
+
+	private int id( S item ) {
+		return ids.computeIfAbsent( item, i -> ids.size() );
+	}
 
-		return diffCache.get( a ).get( b );
+	private static long mix( long key ) {
+		// murmur3 64-bit finaliser
+		long h = key;
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
 	}
 
 	/**
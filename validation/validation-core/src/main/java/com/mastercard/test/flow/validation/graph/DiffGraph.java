@@ -4,11 +4,15 @@
 
 package com.mastercard.test.flow.validation.graph;
 
-import static java.util.stream.Collectors.toCollection;
-
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.ToIntBiFunction;
 
 /**
@@ -19,9 +23,15 @@ import java.util.function.ToIntBiFunction;
  */
 public class DiffGraph<S> {
 
-	private final Set<S> nodes = new HashSet<>();
+	private final Set<S> nodes = new LinkedHashSet<>();
 	private final ToIntBiFunction<S, S> diff;
 
+	/**
+	 * Finds the nodes that are worth comparing against each node, or
+	 * <code>null</code> to compare every pair of nodes
+	 */
+	private Function<Collection<S>, Map<S, Set<S>>> candidates;
+
 	private BiConsumer<S, S> mstListener = ( parent, child ) -> {
 		// default no-op
 	};
@@ -48,6 +58,25 @@ public class DiffGraph<S> {
 		return this;
 	}
 
+	/**
+	 * Limits the comparisons that are made while building the minimum spanning
+	 * tree. Every node is still compared against the root, so all nodes will be in
+	 * the tree, but subsequent comparisons are only made against the candidates
+	 * that are supplied here. This results in an approximation of the minimum
+	 * spanning tree, in exchange for avoiding the quadratic cost of comparing every
+	 * pair of nodes.
+	 *
+	 * @param c When supplied with the graph nodes, returns the candidates for
+	 *          comparison with each node, e.g.:
+	 *          {@link MinHash#neighbours(Collection, int)}. Supply
+	 *          <code>null</code> to compare every pair of nodes.
+	 * @return <code>this</code>
+	 */
+	public DiffGraph<S> withCandidates( Function<Collection<S>, Map<S, Set<S>>> c ) {
+		candidates = c;
+		return this;
+	}
+
 	/**
 	 * Finds the minimum spanning tree (MST) of the items
 	 *
@@ -57,23 +86,42 @@ public class DiffGraph<S> {
 	public DAG<S> minimumSpanningTree( S root ) {
 
 		DAG<S> mst = new DAG<>( root );
+		Map<S, Set<S>> neighbours = candidates == null ? null : candidates.apply( nodes );
+
+		// The nodes that are not yet in the MST
+		Map<S, PrimNode<S>> available = new HashMap<>();
+		// Candidate edges into the MST, closest first. Entries are not removed when a
+		// node finds a closer route to the tree, so stale entries are skipped instead
+		PriorityQueue<Edge<S>> edges = new PriorityQueue<>( Edge.CLOSEST );
+		for( S value : nodes ) {
+			if( !value.equals( root ) ) {
+				PrimNode<S> node = new PrimNode<>( mst, value, diff );
+				available.put( value, node );
+				edges.add( new Edge<>( node, edges.size() ) );
+			}
+		}
 
-		// The set of nodes that are not yet in the MST
-		Set<PrimNode<S>> available = nodes.stream()
-				.filter( v -> !v.equals( root ) )
-				.map( v -> new PrimNode<>( mst, v, diff ) )
-				.collect( toCollection( HashSet::new ) );
-
-		// Repeatedly find the node that is not yet in the MST but that is closest to it
-		PrimNode<S> closest = null;
-		while( null != (closest = available.stream()
-				.min( PrimNode.CLOSEST )
-				.orElse( null )) ) {
+		long sequence = edges.size();
+		while( !edges.isEmpty() ) {
+			Edge<S> closest = edges.poll();
+			if( !closest.isCurrent( available ) ) {
+				continue;
+			}
 			// add it to the MST
-			available.remove( closest );
-			DAG<S> added = closest.joinTree();
+			available.remove( closest.node.value() );
+			DAG<S> added = closest.node.joinTree();
 			mstListener.accept( added.parent().value(), added.value() );
-			available.forEach( a -> a.update( added ) );
+
+			// and see if any of the remaining nodes are closer to the new MST node
+			Collection<S> updates = neighbours == null
+					? available.keySet()
+					: neighbours.get( added.value() );
+			for( S value : updates ) {
+				PrimNode<S> node = available.get( value );
+				if( node != null && node.update( added ) ) {
+					edges.add( new Edge<>( node, sequence++ ) );
+				}
+			}
 		}
 
 		return mst;
@@ -89,4 +137,39 @@ public class DiffGraph<S> {
 		return this;
 	}
 
+	/**
+	 * A candidate edge into the MST
+	 *
+	 * @param <S> The node value type
+	 */
+	private static class Edge<S> {
+
+		/**
+		 * Sorts edges into ascending order of distance, with ties broken in favour of
+		 * the earliest edge
+		 */
+		static final Comparator<Edge<?>> CLOSEST = Comparator
+				.<Edge<?>>comparingInt( e -> e.distance )
+				.thenComparingLong( e -> e.sequence );
+
+		final PrimNode<S> node;
+		final int distance;
+		final long sequence;
+
+		Edge( PrimNode<S> node, long sequence ) {
+			this.node = node;
+			distance = node.distance();
+			this.sequence = sequence;
+		}
+
+		/**
+		 * @param available The nodes that are not yet in the MST
+		 * @return <code>true</code> if this edge is the node's current route into the
+		 *         MST
+		 */
+		boolean isCurrent( Map<S, PrimNode<S>> available ) {
+			return available.get( node.value() ) == node && node.distance() == distance;
+		}
+	}
+
 }
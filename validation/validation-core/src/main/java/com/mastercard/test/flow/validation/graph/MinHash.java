@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2021 Mastercard. All rights reserved.
+ */
+
+package com.mastercard.test.flow.validation.graph;
+
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A cheap, approximate measure of item similarity. Items are reduced to a set
+ * of features (e.g.: lines of text), and the sets are summarised with a
+ * fixed-size MinHash signature. Items with many features in common will have
+ * similar signatures. Locality-sensitive hashing of the signatures lets us find
+ * likely-similar pairs of items without comparing every pair.
+ * <p>
+ * Families of near-identical items will share most of their buckets, so the
+ * number of candidates drawn from each bucket is bounded by a window around the
+ * item's position in that bucket. This keeps the cost of finding neighbours
+ * linear in the number of items, at the cost of missing some similar pairs in
+ * very crowded buckets.
+ * </p>
+ *
+ * @param <S> item type
+ */
+public class MinHash<S> {
+
+	/**
+	 * How to extract the features of an item
+	 */
+	private final Function<S, Collection<String>> features;
+
+	/**
+	 * The number of signature bands
+	 */
+	private final int bands;
+
+	/**
+	 * The number of signature values in each band
+	 */
+	private final int rows;
+
+	/**
+	 * The number of items on either side of an item in a bucket that will be
+	 * considered as candidates
+	 */
+	private final int window;
+
+	/**
+	 * Cache of item signatures
+	 */
+	private final Map<S, int[]> signatures = new HashMap<>();
+
+	/**
+	 * @param features How to extract the features of an item
+	 * @param bands    The number of signature bands. Items that share any band will
+	 *                 be considered as candidates for similarity, so more bands
+	 *                 will find more candidates.
+	 * @param rows     The number of signature values in each band. Items must share
+	 *                 all values in a band to be candidates, so more rows will find
+	 *                 fewer candidates.
+	 * @param window   The number of items on either side of an item in a bucket
+	 *                 that will be considered as candidates, so each item will have
+	 *                 at most <code>2 * bands * window</code> candidates
+	 */
+	public MinHash( Function<S, Collection<String>> features, int bands, int rows, int window ) {
+		if( bands < 1 || rows < 1 || window < 1 ) {
+			throw new IllegalArgumentException( String.format(
+					"Bands, rows and window must be positive, not %s, %s and %s",
+					bands, rows, window ) );
+		}
+		this.features = features;
+		this.bands = bands;
+		this.rows = rows;
+		this.window = window;
+	}
+
+	/**
+	 * @param item An item
+	 * @return The MinHash signature of that item
+	 */
+	int[] signature( S item ) {
+		return signatures.computeIfAbsent( item, i -> {
+			int[] sig = new int[bands * rows];
+			Arrays.fill( sig, Integer.MAX_VALUE );
+			for( String feature : features.apply( i ) ) {
+				int h = feature.hashCode();
+				for( int j = 0; j < sig.length; j++ ) {
+					sig[j] = Math.min( sig[j], mix( h, j ) );
+				}
+			}
+			return sig;
+		} );
+	}
+
+	/**
+	 * Estimates the similarity of two items
+	 *
+	 * @param a An item
+	 * @param b Another item
+	 * @return An estimate of the Jaccard similarity of the items' feature sets, in
+	 *         the range 0 (nothing in common) to 1 (identical)
+	 */
+	public double similarity( S a, S b ) {
+		return agreement( signature( a ), signature( b ) ) / (double) (bands * rows);
+	}
+
+	/**
+	 * Finds the likely neighbours of each item
+	 *
+	 * @param items The items to search
+	 * @param limit The maximum number of neighbours to find for each item
+	 * @return A symmetric mapping from each item to its likely-similar neighbours
+	 */
+	public Map<S, Set<S>> neighbours( Collection<S> items, int limit ) {
+		// bucket the items by each band of their signature, noting where each item
+		// lies in each of its buckets
+		Map<List<Integer>, List<S>> buckets = new HashMap<>();
+		Map<S, int[]> positions = new HashMap<>();
+		for( S item : items ) {
+			int[] sig = signature( item );
+			int[] pos = new int[bands];
+			for( int b = 0; b < bands; b++ ) {
+				List<S> bucket = buckets.computeIfAbsent( band( sig, b ), k -> new ArrayList<>() );
+				pos[b] = bucket.size();
+				bucket.add( item );
+			}
+			positions.put( item, pos );
+		}
+
+		Map<S, Set<S>> neighbours = new LinkedHashMap<>();
+		items.forEach( item -> neighbours.put( item, new LinkedHashSet<>() ) );
+		for( S item : items ) {
+			// insertion-ordered so that ties are resolved consistently
+			Set<S> candidates = new LinkedHashSet<>();
+			int[] sig = signature( item );
+			int[] pos = positions.get( item );
+			for( int b = 0; b < bands; b++ ) {
+				List<S> bucket = buckets.get( band( sig, b ) );
+				candidates.addAll( bucket.subList(
+						Math.max( 0, pos[b] - window ),
+						Math.min( bucket.size(), pos[b] + window + 1 ) ) );
+			}
+			candidates.remove( item );
+
+			// keep only the most similar candidates
+			for( S nearest : candidates.stream()
+					.sorted( comparingInt( c -> -agreement( sig, signature( c ) ) ) )
+					.limit( limit )
+					.collect( toList() ) ) {
+				neighbours.get( item ).add( nearest );
+				neighbours.get( nearest ).add( item );
+			}
+		}
+		return neighbours;
+	}
+
+	private List<Integer> band( int[] sig, int b ) {
+		List<Integer> key = new ArrayList<>( rows + 1 );
+		key.add( b );
+		for( int r = 0; r < rows; r++ ) {
+			key.add( sig[b * rows + r] );
+		}
+		return key;
+	}
+
+	private static int agreement( int[] a, int[] b ) {
+		int count = 0;
+		for( int i = 0; i < a.length; i++ ) {
+			if( a[i] == b[i] ) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Derives one of a family of hash functions
+	 *
+	 * @param value The value to hash
+	 * @param index The index of the hash function
+	 * @return The hash of the value
+	 */
+	private static int mix( int value, int index ) {
+		// murmur3 finaliser, seeded with the golden ratio
+		int h = value ^ (index * 0x9E3779B9);
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+}
@@ -4,9 +4,6 @@
 
 package com.mastercard.test.flow.validation.graph;
 
-import static java.util.Comparator.comparing;
-
-import java.util.Comparator;
 import java.util.function.ToIntBiFunction;
 
 /**
@@ -38,12 +35,6 @@ class PrimNode<S> {
 	 */
 	private int distance;
 
-	/**
-	 * A comparator that will sort into ascending order of distance from the Minimum
-	 * Spanning Tree
-	 */
-	public static final Comparator<PrimNode<?>> CLOSEST = comparing( PrimNode::distance );
-
 	/**
 	 * @param closest The closest node minimum spanning tree
 	 * @param value   Node value
@@ -69,13 +60,23 @@ class PrimNode<S> {
 	 * Updates this node's distance to the MST
 	 *
 	 * @param dag The newest node in the MST
+	 * @return <code>true</code> if this node is now closer to the MST
 	 */
-	public void update( DAG<S> dag ) {
+	public boolean update( DAG<S> dag ) {
 		int d = diff.applyAsInt( dag.value(), value );
 		if( d < distance ) {
 			distance = d;
 			closest = dag;
+			return true;
 		}
+		return false;
+	}
+
+	/**
+	 * @return The value of this node
+	 */
+	public S value() {
+		return value;
 	}
 
 	/**
@@ -196,6 +196,48 @@ class InheritanceHealthTest {
 						"└─────────────────┴─────────────────┘" );
 	}
 
+	/**
+	 * Shows that the approximate optimisation finds the same structure as
+	 * {@link #optimise()} for a simple model
+	 */
+	@Test
+	void approximate() {
+		InheritanceHealth ih = new InheritanceHealth( 0, 4, 5, Assertions::assertEquals );
+		assertSame( ih, ih.approximate( 2 ) );
+		String[] expected = {
+				"┌───────────────────────────────────┐",
+				"│Total Debt :                      8│",
+				"├─────Actual──────┬─────Optimal─────┤",
+				"|roots          12│roots          12|",
+				"|edges          13│edges           5|",
+				"|total          25│total          17|",
+				"|        0   0.00%│        1  20.00%|",
+				"|        1  20.00%│        3  60.00%|",
+				"|        1  20.00%│        1  20.00%|",
+				"|        2  40.00%│        0   0.00%|",
+				"|        1  20.00%│        0   0.00%|",
+				"└─────────────────┴─────────────────┘" };
+		ih.expect( mdl( "root", "root>slap", "slap>soot", "soot>slat", "slat>slot", "slot>root" ),
+				expected );
+
+		// the hashing sensitivity can be tuned. These settings will only consider
+		// near-identical flows as neighbours, so the optimum is missed
+		assertSame( ih, ih.approximate( 2, 1, 64 ) );
+		ih.expect( mdl( "root", "root>slap", "slap>soot", "soot>slat", "slat>slot", "slot>root" ),
+				"┌───────────────────────────────────┐",
+				"│Total Debt :                      2│",
+				"├─────Actual──────┬─────Optimal─────┤",
+				"|roots          12│roots          12|",
+				"|edges          13│edges          11|",
+				"|total          25│total          23|",
+				"|        0   0.00%│        1  20.00%|",
+				"|        1  20.00%│        1  20.00%|",
+				"|        1  20.00%│        0   0.00%|",
+				"|        2  40.00%│        2  40.00%|",
+				"|        1  20.00%│        1  20.00%|",
+				"└─────────────────┴─────────────────┘" );
+	}
+
 	/**
 	 * Shows that flows that are not presented in the model, but that do exist in
 	 * the inheritance hierarchy, are considered
@@ -8,6 +8,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.security.MessageDigest;
@@ -182,6 +184,27 @@ class MessageHashTest {
 				"00000000000000000000000000000000 0002 40 B" );
 	}
 
+	/**
+	 * Shows that message content is only extracted once, even when the message is
+	 * included in several hashes
+	 */
+	@Test
+	void sharedContent() {
+		Interaction ntr = ntr( AVA, "request", BEN, "response" );
+		mh.expect( model( flow( ntr ) ),
+				"ALL MESSAGES",
+				"C1ABB5280BBCDE43A66FD45A541E95B9 0002 15 B",
+				"ALL <-> AVA",
+				"00000000000000000000000000000000 0000 0 B",
+				"REQUESTS --> BEN",
+				"10573B873D2FA5A365D558A45E328E47 0001 7 B",
+				"RESPONSES <-- CHE",
+				"00000000000000000000000000000000 0000 0 B" );
+
+		verify( ntr.request(), times( 1 ) ).content();
+		verify( ntr.response(), times( 1 ) ).content();
+	}
+
 	/**
 	 * Demonstrates failure behaviour
 	 */
@@ -40,23 +40,12 @@ class FlowIdentityCheckTest extends AbstractValidationTest {
 	}
 
 	/**
-	 * A pair of flows means 1 check
+	 * Flows are only compared when they share a identity, so no checks for distinct
+	 * flows
 	 */
 	@Test
-	void pair() {
-		test( mdl( "left", "right" ),
-				"left x right : pass" );
-	}
-
-	/**
-	 * A triple of flows means 3 checks
-	 */
-	@Test
-	void triple() {
-		test( mdl( "left", "middle", "right" ),
-				"left x middle : pass",
-				"left x right : pass",
-				"middle x right : pass" );
+	void distinct() {
+		test( mdl( "left", "middle", "right" ) );
 	}
 
 	/**
@@ -73,21 +62,31 @@ class FlowIdentityCheckTest extends AbstractValidationTest {
 	}
 
 	/**
-	 * A quad of flows means 6 checks
+	 * Only the colliding flows are compared
 	 */
 	@Test
-	void quad() {
-		test( mdl( "left", "middle", "right", "middle" ),
-				"left x middle : pass",
-				"left x right : pass",
-				"left x middle : pass",
-				"middle x right : pass",
+	void collisions() {
+		test( mdl( "left", "middle", "right", "middle", "left", "left" ),
+				"  details: Shared ID\n"
+						+ " expected: null\n"
+						+ "   actual: null\n"
+						+ "offenders: left\n"
+						+ "trace for left",
+				"  details: Shared ID\n"
+						+ " expected: null\n"
+						+ "   actual: null\n"
+						+ "offenders: left\n"
+						+ "trace for left",
+				"  details: Shared ID\n"
+						+ " expected: null\n"
+						+ "   actual: null\n"
+						+ "offenders: left\n"
+						+ "trace for left",
 				"  details: Shared ID\n"
 						+ " expected: null\n"
 						+ "   actual: null\n"
 						+ "offenders: middle\n"
-						+ "trace for middle",
-				"right x middle : pass" );
+						+ "trace for middle" );
 	}
 
 	private static Model mdl( String... ids ) {
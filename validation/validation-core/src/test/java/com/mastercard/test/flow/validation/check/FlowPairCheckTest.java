@@ -0,0 +1,94 @@
+package com.mastercard.test.flow.validation.check;
+
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.mastercard.test.flow.Flow;
+import com.mastercard.test.flow.Metadata;
+import com.mastercard.test.flow.Model;
+
+/**
+ * Exercises {@link FlowPairCheck} without a grouping key
+ */
+class FlowPairCheckTest extends AbstractValidationTest {
+
+	/***/
+	FlowPairCheckTest() {
+		super( new FlowPairCheck( "Ungrouped", "Compares every pair of flows" ) {
+
+			@Override
+			protected Optional<String> violation( Flow left, Flow right ) {
+				if( left.meta().id().equals( right.meta().id() ) ) {
+					return Optional.of( "Shared ID" );
+				}
+				return Optional.empty();
+			}
+		},
+				"Ungrouped",
+				"Compares every pair of flows" );
+	}
+
+	/**
+	 * No checks are performed on the empty model
+	 */
+	@Test
+	void empty() {
+		test( mdl() );
+	}
+
+	/**
+	 * The validation compares flows, so no checks when there is only a single flow
+	 */
+	@Test
+	void single() {
+		test( mdl( "single" ) );
+	}
+
+	/**
+	 * A pair of flows means 1 check
+	 */
+	@Test
+	void pair() {
+		test( mdl( "left", "right" ),
+				"left x right : pass" );
+	}
+
+	/**
+	 * A quad of flows means 6 checks
+	 */
+	@Test
+	void quad() {
+		test( mdl( "left", "middle", "right", "middle" ),
+				"left x middle : pass",
+				"left x right : pass",
+				"left x middle : pass",
+				"middle x right : pass",
+				"  details: Shared ID\n"
+						+ " expected: null\n"
+						+ "   actual: null\n"
+						+ "offenders: middle\n"
+						+ "trace for middle",
+				"right x middle : pass" );
+	}
+
+	private static Model mdl( String... ids ) {
+		Model mdl = Mockito.mock( Model.class );
+		Mockito.when( mdl.flows() )
+				.thenReturn( Stream.of( ids )
+						.map( id -> {
+							Metadata meta = Mockito.mock( Metadata.class );
+							when( meta.id() ).thenReturn( id );
+							when( meta.trace() ).thenReturn( "trace for " + id );
+							Flow flw = Mockito.mock( Flow.class );
+							when( flw.meta() ).thenReturn( meta );
+							return flw;
+						} ) );
+
+		return mdl;
+	}
+}
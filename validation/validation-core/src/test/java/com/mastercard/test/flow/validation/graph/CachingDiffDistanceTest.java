@@ -2,6 +2,7 @@
 package com.mastercard.test.flow.validation.graph;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -61,4 +62,36 @@ class CachingDiffDistanceTest {
 		assertEquals( 2, toStringCount.get(), "still only stringifed each item once" );
 		assertEquals( 1, distanceCount.get(), "distance computed still only once" );
 	}
+
+	/**
+	 * Shows that the distance cache is of limited size
+	 */
+	@Test
+	void bounded() {
+		AtomicInteger distanceCount = new AtomicInteger( 0 );
+		CachingDiffDistance<Item> cdd = new CachingDiffDistance<>(
+				Item::toString,
+				( a, b ) -> {
+					distanceCount.incrementAndGet();
+					return Item.distance( a, b );
+				},
+				1 );
+
+		Item i = new Item( 3 );
+		Item j = new Item( 5 );
+
+		assertEquals( 2, cdd.applyAsInt( i, j ) );
+		assertEquals( 2, cdd.applyAsInt( i, j ) );
+		assertEquals( 1, distanceCount.get(), "cached" );
+
+		assertEquals( 2, cdd.applyAsInt( j, i ) );
+		assertEquals( 2, distanceCount.get(), "distance is not assumed to be symmetric" );
+
+		assertEquals( 2, cdd.applyAsInt( i, j ) );
+		assertEquals( 3, distanceCount.get(), "evicted by the previous distance" );
+
+		IllegalArgumentException iae = assertThrows( IllegalArgumentException.class,
+				() -> new CachingDiffDistance<>( Item::toString, Item::distance, 0 ) );
+		assertEquals( "Capacity must be positive, not 0", iae.getMessage() );
+	}
 }
@@ -1,9 +1,13 @@
 package com.mastercard.test.flow.validation.graph;
 
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.stream.IntStream;
@@ -94,4 +98,51 @@ class DiffGraphTest {
 				+ "linking 5 to 8\n"
 				+ "linking 8 to 13", sb.toString().trim() );
 	}
+
+	/**
+	 * Shows that comparisons can be limited to candidate nodes
+	 */
+	@Test
+	void candidates() {
+		List<Item> items = IntStream.rangeClosed( 1, 5 )
+				.mapToObj( Item::new )
+				.collect( toList() );
+		List<String> comparisons = new ArrayList<>();
+		DiffGraph<Item> dg = new DiffGraph<>( ( a, b ) -> {
+			comparisons.add( a + ">" + b );
+			return Item.distance( a, b );
+		} );
+		items.forEach( dg::add );
+
+		// only adjacent items are worth comparing
+		assertSame( dg, dg.withCandidates( nodes -> nodes.stream()
+				.collect( toMap( n -> n, n -> nodes.stream()
+						.filter( o -> Item.distance( n, o ) == 1 )
+						.collect( toSet() ) ) ) ) );
+
+		assertEquals( ""
+				+ "1\n"
+				+ "└2\n"
+				+ " └3\n"
+				+ "  └4\n"
+				+ "   └5", dg.minimumSpanningTree( items.get( 0 ) ).toString() );
+		assertEquals( "[1>2, 1>3, 1>4, 1>5, 2>3, 3>4, 4>5]", comparisons.toString() );
+
+		// with no candidates, everything is derived from the root
+		comparisons.clear();
+		dg.withCandidates( nodes -> nodes.stream()
+				.collect( toMap( n -> n, n -> Collections.emptySet() ) ) );
+		assertEquals( ""
+				+ "1\n"
+				+ "├2\n"
+				+ "├3\n"
+				+ "├4\n"
+				+ "└5", dg.minimumSpanningTree( items.get( 0 ) ).toString() );
+		assertEquals( "[1>2, 1>3, 1>4, 1>5]", comparisons.toString() );
+
+		// and we can go back to exhaustive comparison
+		comparisons.clear();
+		dg.withCandidates( null ).minimumSpanningTree( items.get( 0 ) );
+		assertEquals( 10, comparisons.size() );
+	}
 }
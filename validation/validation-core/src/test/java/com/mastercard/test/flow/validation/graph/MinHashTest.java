@@ -0,0 +1,98 @@
+package com.mastercard.test.flow.validation.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exercises {@link MinHash}
+ */
+@SuppressWarnings("static-method")
+class MinHashTest {
+
+	private static final MinHash<String> CHARS = new MinHash<>(
+			s -> Arrays.asList( s.split( "" ) ), 8, 2, 4 );
+
+	/**
+	 * Bad configurations are rejected
+	 */
+	@Test
+	void construction() {
+		IllegalArgumentException iae = assertThrows( IllegalArgumentException.class,
+				() -> new MinHash<String>( s -> Arrays.asList( s ), 0, 1, 1 ) );
+		assertEquals( "Bands, rows and window must be positive, not 0, 1 and 1",
+				iae.getMessage() );
+
+		iae = assertThrows( IllegalArgumentException.class,
+				() -> new MinHash<String>( s -> Arrays.asList( s ), 1, 0, 1 ) );
+		assertEquals( "Bands, rows and window must be positive, not 1, 0 and 1",
+				iae.getMessage() );
+
+		iae = assertThrows( IllegalArgumentException.class,
+				() -> new MinHash<String>( s -> Arrays.asList( s ), 1, 1, 0 ) );
+		assertEquals( "Bands, rows and window must be positive, not 1, 1 and 0",
+				iae.getMessage() );
+	}
+
+	/**
+	 * Similarity estimates
+	 */
+	@Test
+	void similarity() {
+		assertEquals( 1, CHARS.similarity( "abcdef", "fedcba" ), "same features" );
+		assertEquals( 0, CHARS.similarity( "abcdef", "uvwxyz" ), "nothing in common" );
+		double partial = CHARS.similarity( "abcdef", "abcxyz" );
+		assertTrue( partial > 0 && partial < 1, "partial similarity " + partial );
+	}
+
+	/**
+	 * Finding likely-similar neighbours
+	 */
+	@Test
+	void neighbours() {
+		List<String> items = Arrays.asList( "abcdef", "abcdeg", "uvwxyz", "uvwxyy", "fedcba" );
+
+		Map<String, Set<String>> neighbours = new TreeMap<>();
+		CHARS.neighbours( items, 1 )
+				.forEach( ( k, v ) -> neighbours.put( k, new TreeSet<>( v ) ) );
+		assertEquals( "{"
+				+ "abcdef=[abcdeg, fedcba], "
+				+ "abcdeg=[abcdef], "
+				+ "fedcba=[abcdef], "
+				+ "uvwxyy=[uvwxyz], "
+				+ "uvwxyz=[uvwxyy]}",
+				neighbours.toString() );
+	}
+
+	/**
+	 * Items with identical signatures share every bucket, but the number of
+	 * candidates that are drawn from each bucket is bounded
+	 */
+	@Test
+	void crowdedBuckets() {
+		MinHash<String> prefix = new MinHash<>(
+				s -> Arrays.asList( s.substring( 0, 1 ) ), 2, 1, 1 );
+		List<String> items = Arrays.asList( "a0", "a1", "a2", "a3", "a4", "a5" );
+
+		Map<String, Set<String>> neighbours = new TreeMap<>();
+		prefix.neighbours( items, items.size() )
+				.forEach( ( k, v ) -> neighbours.put( k, new TreeSet<>( v ) ) );
+		assertEquals( "{"
+				+ "a0=[a1], "
+				+ "a1=[a0, a2], "
+				+ "a2=[a1, a3], "
+				+ "a3=[a2, a4], "
+				+ "a4=[a3, a5], "
+				+ "a5=[a4]}",
+				neighbours.toString() );
+	}
+}